@@ -60,15 +60,18 @@ public class AnimalType01 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
+    protected void updateAnimation() {
         // Actualizar controller de animaciones
-        animController.update(0.016); // ~60 FPS
+        animController.update(TICK);
         animController.setBlinkFrequency(3.0); // Parpadeo más frecuente
         animController.setTailWagFrequency(3.5); // Cola más activa
         animController.setHeadTurnFrequency(1.5);
         animController.setEarTwitchFrequency(5.0); // Orejas más activas
-        
         walkPhase += 0.25 * getPhaseSpeedMultiplier(); // Animación más rápida y visible
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color bodyColor = applyGlowToColor(color);
@@ -91,57 +94,9 @@ public class AnimalType01 extends BaseAnimal {
             }
         }
 
-        // Dibujar cuerpo base con rotación
+        // Cuerpo, crin, rayas y armadura: malla horneada de la fase (bakeStaticParts)
         double bodyBob = evolved ? Math.sin(walkPhase * 0.6) * voxelSize * (apex ? 0.6 : 0.4) : 0.0;
-        for (Vector3 voxel : voxels) {
-            Vector3 relativePos = new Vector3(
-                voxel.x * voxelSize,
-                voxel.y * voxelSize + bodyBob,
-                voxel.z * voxelSize
-            );
-            Vector3 wp = applyTransform(relativePos);
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            double rot = 0;
-            Vector3[] verts = renderer.getCubeVertices(wp, s, rot);
-            renderer.drawCubeShaded(verts, cam, bodyColor);
-        }
-
-        // Crin dorsal y rayas lumbares solo en fase 2/3
-        if (evolved) {
-            int maneSize = applyScaleToSize((int)(voxelSize * 0.8));
-            Color maneColor = bodyColor.darker();
-            for (int i = 0; i < 3; i++) {
-                Vector3 mp = applyTransform(new Vector3(0, voxelSize * (1.5 + i * 0.5) + bodyBob, voxelSize * (0.2 - i * 0.6)));
-                mp = applyScaleToPosition(mp);
-                renderer.drawCubeShaded(renderer.getCubeVertices(mp, maneSize, 0), cam, maneColor);
-            }
-            int stripeSize = applyScaleToSize((int)(voxelSize * 0.9));
-            Color stripe = new Color(Math.max(0, bodyColor.getRed() - 60), Math.max(0, bodyColor.getGreen() - 60), Math.max(0, bodyColor.getBlue() - 20));
-            for (int i = 0; i < 2; i++) {
-                Vector3 sp = applyTransform(new Vector3(voxelSize * (i == 0 ? -0.9 : 0.9), voxelSize * 0.6 + bodyBob, voxelSize * (0.2 - i * 0.2)));
-                sp = applyScaleToPosition(sp);
-                renderer.drawCubeShaded(renderer.getCubeVertices(sp, stripeSize, 0), cam, stripe);
-            }
-        }
-
-        // Armadura luminosa y hombreras visibles solo en fase 3
-        if (apex) {
-            int shoulder = applyScaleToSize((int)(voxelSize * 1.1));
-            Color glow = bodyColor.brighter();
-            Vector3 shL = applyTransform(new Vector3(-voxelSize * 1.2, voxelSize * 1.4 + bodyBob, voxelSize * 0.4));
-            Vector3 shR = applyTransform(new Vector3(voxelSize * 1.2, voxelSize * 1.4 + bodyBob, voxelSize * 0.4));
-            shL = applyScaleToPosition(shL); shR = applyScaleToPosition(shR);
-            renderer.drawCubeShaded(renderer.getCubeVertices(shL, shoulder, 0), cam, glow);
-            renderer.drawCubeShaded(renderer.getCubeVertices(shR, shoulder, 0), cam, glow);
-
-            int spineSize = applyScaleToSize((int)(voxelSize * 0.9));
-            for (int i = 0; i < 3; i++) {
-                Vector3 spine = applyTransform(new Vector3(0, voxelSize * (1.0 + i * 0.7) + bodyBob, -voxelSize * (0.6 + i * 0.4)));
-                spine = applyScaleToPosition(spine);
-                renderer.drawCubeShaded(renderer.getCubeVertices(spine, spineSize, 0), cam, glow);
-            }
-        }
+        drawBakedParts(renderer, cam, bodyColor, 0, bodyBob, 0);
 
         // Orejas con movimiento reactivo
         int earSize = applyScaleToSize((int)(voxelSize * 0.6));
@@ -302,6 +257,40 @@ public class AnimalType01 extends BaseAnimal {
         }
     }
     
+    @Override
+    protected void bakeStaticParts(VoxelMesh.Builder mesh, Color bodyColor) {
+        super.bakeStaticParts(mesh, bodyColor);
+        boolean evolved = growthPhase >= 2;
+        boolean apex = growthPhase == 3;
+
+        // Crin dorsal y rayas lumbares solo en fase 2/3
+        if (evolved) {
+            int maneSize = (int)(voxelSize * 0.8);
+            Color maneColor = bodyColor.darker();
+            for (int i = 0; i < 3; i++) {
+                mesh.cube(0, voxelSize * (1.5 + i * 0.5), voxelSize * (0.2 - i * 0.6), maneSize, maneColor, VoxelMesh.BODY);
+            }
+            int stripeSize = (int)(voxelSize * 0.9);
+            Color stripe = new Color(Math.max(0, bodyColor.getRed() - 60), Math.max(0, bodyColor.getGreen() - 60), Math.max(0, bodyColor.getBlue() - 20));
+            for (int i = 0; i < 2; i++) {
+                mesh.cube(voxelSize * (i == 0 ? -0.9 : 0.9), voxelSize * 0.6, voxelSize * (0.2 - i * 0.2), stripeSize, stripe, VoxelMesh.BODY);
+            }
+        }
+
+        // Armadura luminosa y hombreras visibles solo en fase 3
+        if (apex) {
+            int shoulder = (int)(voxelSize * 1.1);
+            Color glow = bodyColor.brighter();
+            mesh.cube(-voxelSize * 1.2, voxelSize * 1.4, voxelSize * 0.4, shoulder, glow, VoxelMesh.BODY);
+            mesh.cube(voxelSize * 1.2, voxelSize * 1.4, voxelSize * 0.4, shoulder, glow, VoxelMesh.BODY);
+
+            int spineSize = (int)(voxelSize * 0.9);
+            for (int i = 0; i < 3; i++) {
+                mesh.cube(0, voxelSize * (1.0 + i * 0.7), -voxelSize * (0.6 + i * 0.4), spineSize, glow, VoxelMesh.BODY);
+            }
+        }
+    }
+    
     @Override
     protected double getPhaseDuration(int phase) {
         // Total: 180 segundos (3 minutos)
@@ -55,13 +55,16 @@ public class AnimalType02 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(4.0); // Parpadeo muy frecuente
         animController.setJawFrequency(3.5); // Boca muy activa
         animController.setBodySwayFrequency(2.0); // Balanceo pronunciado
-        
         animPhase += 0.3 * getPhaseSpeedMultiplier(); // Animación más rápida
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -84,16 +87,7 @@ public class AnimalType02 extends BaseAnimal {
 
     // Cuerpo base con balanceo corporal EXAGERADO
     double bodySway = animController.getBodySway() * (apex ? 3.8 : (evolved ? 3.0 : 2.0)); // más sway en fase 3
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(
-                v.x * voxelSize + bodySway * voxelSize * 0.4, // Balanceo muy visible
-                v.y * voxelSize,
-                v.z * voxelSize
-            ));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
+        drawBakedParts(renderer, cam, body, bodySway * voxelSize * 0.4, 0, 0); // Balanceo muy visible
 
         // Cresta defensiva (más alta en fase 2)
         int crestSize = Math.max(1, applyScaleToSize((int)(voxelSize * (apex ? 1.0 : (evolved ? 0.8 : 0.6)))));
@@ -52,11 +52,15 @@ public class AnimalType03 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(2.8);
         animController.setTailWagFrequency(1.2);
         walkPhase += 0.14 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -81,41 +85,8 @@ public class AnimalType03 extends BaseAnimal {
 
         // Cuerpo base
         double stomp = evolved ? Math.sin(walkPhase * 0.8) * voxelSize * (apex ? 0.55 : 0.4) : 0.0;
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize + stomp, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
-
-        // Placas dorsales solo fase 2/3
-        if (evolved) {
-            int plate = applyScaleToSize((int)(voxelSize * 0.9));
-            Color plateC = body.brighter();
-            for (int i = -1; i <= 1; i++) {
-                Vector3 pp = applyTransform(new Vector3(0, voxelSize * 1.3 + stomp, voxelSize * i));
-                pp = applyScaleToPosition(pp);
-                renderer.drawCubeShaded(renderer.getCubeVertices(pp, plate, 0), cam, plateC);
-            }
-        }
-
-        // Placas masivas y hombreras en fase 3
-        if (apex) {
-            int megaPlate = applyScaleToSize((int)(voxelSize * 1.2));
-            Color plateC = body.brighter().brighter();
-            Vector3 shoulderL = applyTransform(new Vector3(-voxelSize * 1.4, voxelSize * 1.0 + stomp, voxelSize * 0.3));
-            Vector3 shoulderR = applyTransform(new Vector3(voxelSize * 1.4, voxelSize * 1.0 + stomp, voxelSize * 0.3));
-            shoulderL = applyScaleToPosition(shoulderL); shoulderR = applyScaleToPosition(shoulderR);
-            renderer.drawCubeShaded(renderer.getCubeVertices(shoulderL, megaPlate, 0), cam, plateC);
-            renderer.drawCubeShaded(renderer.getCubeVertices(shoulderR, megaPlate, 0), cam, plateC);
-
-            int backSpine = applyScaleToSize((int)(voxelSize * 1.0));
-            for (int i = 0; i < 3; i++) {
-                Vector3 spine = applyTransform(new Vector3(0, voxelSize * (1.6 + i * 0.6) + stomp, -voxelSize * (0.2 + i * 0.8)));
-                spine = applyScaleToPosition(spine);
-                renderer.drawCubeShaded(renderer.getCubeVertices(spine, backSpine, 0), cam, plateC);
-            }
-        }
+        // Cuerpo, placas dorsales y hombreras: malla horneada de la fase (bakeStaticParts)
+        drawBakedParts(renderer, cam, body, 0, stomp, 0);
 
         // Cuernos (crecen con la fase)
         int hornLen = evolved ? (apex ? growthPhase + 2 : growthPhase + 1) : growthPhase;
@@ -215,6 +186,35 @@ public class AnimalType03 extends BaseAnimal {
         }
     }
 
+    @Override
+    protected void bakeStaticParts(VoxelMesh.Builder mesh, Color body) {
+        super.bakeStaticParts(mesh, body);
+        boolean evolved = growthPhase >= 2;
+        boolean apex = growthPhase == 3;
+
+        // Placas dorsales solo fase 2/3
+        if (evolved) {
+            int plate = (int)(voxelSize * 0.9);
+            Color plateC = body.brighter();
+            for (int i = -1; i <= 1; i++) {
+                mesh.cube(0, voxelSize * 1.3, voxelSize * i, plate, plateC, VoxelMesh.BODY);
+            }
+        }
+
+        // Placas masivas y hombreras en fase 3
+        if (apex) {
+            int megaPlate = (int)(voxelSize * 1.2);
+            Color plateC = body.brighter().brighter();
+            mesh.cube(-voxelSize * 1.4, voxelSize * 1.0, voxelSize * 0.3, megaPlate, plateC, VoxelMesh.BODY);
+            mesh.cube(voxelSize * 1.4, voxelSize * 1.0, voxelSize * 0.3, megaPlate, plateC, VoxelMesh.BODY);
+
+            int backSpine = (int)(voxelSize * 1.0);
+            for (int i = 0; i < 3; i++) {
+                mesh.cube(0, voxelSize * (1.6 + i * 0.6), -voxelSize * (0.2 + i * 0.8), backSpine, plateC, VoxelMesh.BODY);
+            }
+        }
+    }
+    
     @Override
     protected double getPhaseDuration(int phase) {
         // Total: 180 segundos (3 minutos)
@@ -46,12 +46,16 @@ public class AnimalType04 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(2.8);
         animController.setJawFrequency(2.0);
         animController.setTailWagFrequency(2.2);
         undulatePhase += 0.22 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -86,16 +90,8 @@ public class AnimalType04 extends BaseAnimal {
             renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
         }
 
-        // Cresta dorsal en fase 2/3
-        if (evolved) {
-            int crestSize = applyScaleToSize((int)(voxelSize * 0.7));
-            Color crestColor = body.brighter();
-            for (int i = 0; i < (apex ? 5 : 3); i++) {
-                Vector3 cp = applyTransform(new Vector3(0, voxelSize * 0.8, -voxelSize * (0.5 + i * 0.9)));
-                cp = applyScaleToPosition(cp);
-                renderer.drawCubeShaded(renderer.getCubeVertices(cp, crestSize, 0), cam, crestColor);
-            }
-        }
+        // Cresta dorsal en fase 2/3: malla horneada de la fase (bakeStaticParts)
+        drawBakedParts(renderer, cam, body, 0, 0, 0);
 
         // Cabeza (primer segmento)
         Vector3 headPos = applyTransform(new Vector3(0, 0, voxelSize * 2));
@@ -158,6 +154,18 @@ public class AnimalType04 extends BaseAnimal {
         }
     }
 
+    // Los segmentos del cuerpo ondulan en cada frame: solo la cresta es fija
+    @Override
+    protected void bakeStaticParts(VoxelMesh.Builder mesh, Color body) {
+        if (growthPhase >= 2) {
+            int crestSize = (int)(voxelSize * 0.7);
+            Color crestColor = body.brighter();
+            for (int i = 0; i < (growthPhase == 3 ? 5 : 3); i++) {
+                mesh.cube(0, voxelSize * 0.8, -voxelSize * (0.5 + i * 0.9), crestSize, crestColor, VoxelMesh.FIXED);
+            }
+        }
+    }
+    
     @Override
     protected double getPhaseDuration(int phase) {
         // Total: 180 segundos (3 minutos)
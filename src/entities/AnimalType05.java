@@ -51,11 +51,15 @@ public class AnimalType05 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(3.2);
         animController.setTailWagFrequency(1.8);
         walkPhase += 0.18 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -79,12 +83,7 @@ public class AnimalType05 extends BaseAnimal {
         }
 
         // Cuerpo base
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
+        drawBakedParts(renderer, cam, body, 0, 0, 0);
 
         // Espinas (más numerosas en fases avanzadas)
         int spikeCount = (apex ? 18 : (evolved ? 8 : 4)) + growthPhase * 3;
@@ -46,12 +46,16 @@ public class AnimalType06 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(3.2);
         animController.setJawFrequency(2.8);
         animController.setBodySwayFrequency(1.8);
         pulsePhase += 0.24 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -75,18 +79,13 @@ public class AnimalType06 extends BaseAnimal {
         // Efecto de pulso luminoso
         double pulse = Math.sin(pulsePhase * 2) * (apex ? 0.5 : (evolved ? 0.35 : 0.2)) + 0.8;
         Color glowBody = new Color(
-            (int)(body.getRed() * pulse),
-            (int)(body.getGreen() * pulse),
-            (int)(body.getBlue() * pulse)
+            Math.min(255, (int)(body.getRed() * pulse)),
+            Math.min(255, (int)(body.getGreen() * pulse)),
+            Math.min(255, (int)(body.getBlue() * pulse))
         );
 
-        // Cuerpo base
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, glowBody);
-        }
+        // Cuerpo base (malla horneada con el color del pulso)
+        drawBakedParts(renderer, cam, glowBody, 0, 0, 0);
 
         // Antenas (más largas en fases avanzadas)
         int antennaLen = apex ? 7 : (evolved ? 4 + growthPhase : 2 + growthPhase);
@@ -50,24 +50,23 @@ public class AnimalType07 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(2.6);
         animController.setJawFrequency(3.2);
         animController.setEarTwitchFrequency(2.5);
         walkPhase += 0.18 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
 
         // Cuerpo base con leve bombeo en fase 2
         double abdomenPulse = evolved ? Math.sin(walkPhase * 0.7) * voxelSize * (apex ? 0.45 : 0.3) : 0.0;
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize + abdomenPulse, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
+        drawBakedParts(renderer, cam, body, 0, abdomenPulse, 0);
 
         // Transición de fase: pulso abdominal brillante
         double tp = transitionPulse;
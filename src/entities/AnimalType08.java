@@ -52,12 +52,16 @@ public class AnimalType08 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(2.4);
         animController.setJawFrequency(1.8);
         animController.setTailWagFrequency(1.5);
         walkPhase += 0.16 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -80,35 +84,9 @@ public class AnimalType08 extends BaseAnimal {
 
         // Cuerpo base
         double bodyBob = Math.sin(walkPhase * 0.8) * voxelSize * 0.15;
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize + bodyBob, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
-
-        // Placas dorsales (más numerosas en fases avanzadas)
-        int plateCount = (apex ? 10 : (evolved ? 5 : 2)) + growthPhase * 2;
-        int plateSize = applyScaleToSize((int)(voxelSize * (apex ? 1.0 : (evolved ? 0.9 : 0.7))));
-        Color plateColor = body.brighter().brighter();
-        for (int i = 0; i < plateCount; i++) {
-            Vector3 plate = applyTransform(new Vector3(
-                0,
-                voxelSize * (1.5 + i * 0.2),
-                voxelSize * (1.0 - i * 0.6)
-            ));
-            plate = applyScaleToPosition(plate);
-            renderer.drawCubeShaded(renderer.getCubeVertices(plate, plateSize, 0), cam, plateColor);
-        }
-
-        if (apex) {
-            int shoulder = applyScaleToSize((int)(voxelSize * 1.2));
-            Vector3 shL = applyTransform(new Vector3(-voxelSize * 1.4, voxelSize * 0.8, 0));
-            Vector3 shR = applyTransform(new Vector3(voxelSize * 1.4, voxelSize * 0.8, 0));
-            shL = applyScaleToPosition(shL); shR = applyScaleToPosition(shR);
-            renderer.drawCubeShaded(renderer.getCubeVertices(shL, shoulder, 0), cam, plateColor);
-            renderer.drawCubeShaded(renderer.getCubeVertices(shR, shoulder, 0), cam, plateColor);
-        }
+        // Cuerpo (con bob), placas dorsales y hombreras: malla horneada de la fase
+        drawBakedParts(renderer, cam, body, 0, bodyBob, 0);
+        Color plateColor = body.brighter().brighter(); // punta de la cola y ventanas (fase 3)
 
         // Ojos pequeños
         int eyeSize = Math.max(1, applyScaleToSize((int)(voxelSize * 0.35)));
@@ -190,6 +168,27 @@ public class AnimalType08 extends BaseAnimal {
         }
     }
 
+    @Override
+    protected void bakeStaticParts(VoxelMesh.Builder mesh, Color body) {
+        super.bakeStaticParts(mesh, body);
+        boolean evolved = growthPhase >= 2;
+        boolean apex = growthPhase == 3;
+
+        // Placas dorsales (más numerosas en fases avanzadas); no siguen el bob del cuerpo
+        int plateCount = (apex ? 10 : (evolved ? 5 : 2)) + growthPhase * 2;
+        int plateSize = (int)(voxelSize * (apex ? 1.0 : (evolved ? 0.9 : 0.7)));
+        Color plateColor = body.brighter().brighter();
+        for (int i = 0; i < plateCount; i++) {
+            mesh.cube(0, voxelSize * (1.5 + i * 0.2), voxelSize * (1.0 - i * 0.6), plateSize, plateColor, VoxelMesh.FIXED);
+        }
+
+        if (apex) {
+            int shoulder = (int)(voxelSize * 1.2);
+            mesh.cube(-voxelSize * 1.4, voxelSize * 0.8, 0, shoulder, plateColor, VoxelMesh.FIXED);
+            mesh.cube(voxelSize * 1.4, voxelSize * 0.8, 0, shoulder, plateColor, VoxelMesh.FIXED);
+        }
+    }
+    
     @Override
     protected double getPhaseDuration(int phase) {
         // Total: 180 segundos (3 minutos)
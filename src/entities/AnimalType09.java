@@ -49,16 +49,20 @@ public class AnimalType09 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(2.8);
         animController.setJawFrequency(1.6);
         animController.setTailWagFrequency(1.9);
-            hopPhase += 0.18 * getPhaseSpeedMultiplier();
-            earPhase += 0.25;
-            boolean evolved = growthPhase >= 2;
-            boolean apex = growthPhase == 3;
-            Color body = applyGlowToColor(color);
+        hopPhase += 0.18 * getPhaseSpeedMultiplier();
+        earPhase += 0.25;
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
+        boolean evolved = growthPhase >= 2;
+        boolean apex = growthPhase == 3;
+        Color body = applyGlowToColor(color);
 
         // Transición de fase: brillo en orejas/pecho
         double tp = transitionPulse;
@@ -80,12 +84,7 @@ public class AnimalType09 extends BaseAnimal {
             double hop = Math.abs(Math.sin(hopPhase)) * voxelSize * (apex ? 1.2 : (evolved ? 0.8 : 0.5));
         
         // Cuerpo base (con salto)
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize + hop, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
+        drawBakedParts(renderer, cam, body, 0, hop, 0);
 
         // Orejas grandes (crecen con la fase) con oscilación visible
         int earLen = apex ? 6 : 2 + growthPhase;
@@ -48,11 +48,15 @@ public class AnimalType10 extends BaseAnimal {
     }
 
     @Override
-    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
-        animController.update(0.016);
+    protected void updateAnimation() {
+        animController.update(TICK);
         animController.setBlinkFrequency(2.2);
         animController.setJawFrequency(1.4);
         flapPhase += 0.3 * getPhaseSpeedMultiplier();
+    }
+
+    @Override
+    protected void renderNormal(SoftwareRenderer renderer, Camera cam) {
         boolean evolved = growthPhase >= 2;
         boolean apex = growthPhase == 3;
         Color body = applyGlowToColor(color);
@@ -75,12 +79,7 @@ public class AnimalType10 extends BaseAnimal {
 
         // Cuerpo base
         double bob = Math.sin(flapPhase * 1.2) * voxelSize * 0.35;
-        for (Vector3 v : voxels) {
-            Vector3 wp = applyTransform(new Vector3(v.x * voxelSize, v.y * voxelSize + bob, v.z * voxelSize));
-            wp = applyScaleToPosition(wp);
-            int s = applyScaleToSize(voxelSize);
-            renderer.drawCubeShaded(renderer.getCubeVertices(wp, s, 0), cam, body);
-        }
+        drawBakedParts(renderer, cam, body, 0, bob, 0);
 
         // Alas membranosas (más grandes en fases avanzadas)
         int wingSpan = (apex ? 5 : (evolved ? 3 : 2) + growthPhase);
@@ -5,21 +5,37 @@ import render.SoftwareRenderer;
 import math.Vector3;
 import math.Camera;
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
  * Árbol: Entidad ambiental con tronco y copa.
  * Variación de tamaño realista.
+ *
+ * CRECIMIENTO POR ETAPAS:
+ * El árbol crece del 50% al 100% en GROWTH_DURATION, cuantizado en GROWTH_STAGES etapas
+ * (-Decosistema.treeGrowthStages, por defecto 8). Cada etapa es una forma (Shape) de
+ * voxels en arreglos primitivos con su AABB local ya calculada; update() solo hace
+ * aritmética entera para saber la etapa y cambia de forma al pasar de una a otra.
+ * La forma depende solo de las dimensiones en voxels (no de la seed), así que se
+ * comparte entre árboles iguales: un bosque creciendo cuesta lo mismo que uno adulto.
+ * En la última etapa pasa a la geometría estática horneada del mundo (StaticVoxels).
  */
-public class Arbol implements Renderable, Collidable {
+public class Arbol implements Renderable, Collidable, StaticVoxels {
+    static final int GROWTH_STAGES = Math.max(1, Integer.getInteger("ecosistema.treeGrowthStages", 8));
+    
+    // Formas compartidas por (radio tronco, alto tronco, radio copa) en voxels
+    private static final java.util.concurrent.ConcurrentHashMap<Long, Shape> SHAPES =
+        new java.util.concurrent.ConcurrentHashMap<>();
+
     private Vector3 posicion;
-    private List<Vector3> trunkVoxels;
-    private List<Vector3> canopyVoxels;
+    private volatile Shape shape;
+    private final Shape[] stageShapes = new Shape[GROWTH_STAGES + 1];
+    private volatile int stage = -1;
     private int voxelSize;
     private Color trunkColor;
     private Color canopyColor;
+    private int trunkRgb;
+    private int canopyRgb;
     private double sway = 0.0;
     private long seed;
     
@@ -31,6 +47,32 @@ public class Arbol implements Renderable, Collidable {
     private static final long GROWTH_DURATION = 180000L; // 3 minutes to full growth in milliseconds
     private double growthProgress = 0.0; // 0.0 to 1.0
 
+    /** Voxels de una etapa (coordenadas x,y,z intercaladas) y su AABB en unidades de voxel. */
+    private static final class Shape {
+        final int[] trunk;
+        final int[] canopy;
+        final int minX, minY, minZ, maxX, maxY, maxZ;
+
+        Shape(int[] trunk, int[] canopy){
+            this.trunk = trunk;
+            this.canopy = canopy;
+            int[] b = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                       Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+            bounds(trunk, b);
+            bounds(canopy, b);
+            minX = b[0]; minY = b[1]; minZ = b[2];
+            maxX = b[3]; maxY = b[4]; maxZ = b[5];
+        }
+
+        private static void bounds(int[] v, int[] b){
+            for (int i = 0; i < v.length; i += 3) {
+                b[0] = Math.min(b[0], v[i]);     b[3] = Math.max(b[3], v[i]);
+                b[1] = Math.min(b[1], v[i + 1]); b[4] = Math.max(b[4], v[i + 1]);
+                b[2] = Math.min(b[2], v[i + 2]); b[5] = Math.max(b[5], v[i + 2]);
+            }
+        }
+    }
+
     public Arbol(Vector3 posicion, int trunkRadius, int trunkHeight, int canopyRadius) {
         this(posicion, trunkRadius, trunkHeight, canopyRadius, System.currentTimeMillis());
     }
@@ -39,9 +81,7 @@ public class Arbol implements Renderable, Collidable {
         this.posicion = posicion;
         this.seed = seed;
         this.voxelSize = 6; // más pequeño para más detalle
-        this.trunkVoxels = new ArrayList<>();
-        this.canopyVoxels = new ArrayList<>();
-        this.creationTime = System.currentTimeMillis();
+        this.creationTime = simulation.SimClock.now();
         this.maxTrunkRadius = trunkRadius;
         this.maxTrunkHeight = trunkHeight;
         this.maxCanopyRadius = canopyRadius;
@@ -57,9 +97,11 @@ public class Arbol implements Renderable, Collidable {
         int canopyRed = 40 + r.nextInt(30);
         int canopyBlue = 30 + r.nextInt(30);
         this.canopyColor = new Color(canopyRed, canopyGreen, canopyBlue);
+        this.trunkRgb = trunkColor.getRGB();
+        this.canopyRgb = canopyColor.getRGB();
         
-        // Generar con tamaño inicial de 50% (mitad del tamaño)
-        generateStructure((int)(trunkRadius * 0.5), (int)(trunkHeight * 0.5), (int)(canopyRadius * 0.5));
+        // Empezar en la primera etapa: tamaño inicial de 50% (mitad del tamaño)
+        setStage(0);
     }
 
     // Ajustar el tiempo de creación para conservar el progreso de crecimiento al recargar
@@ -67,24 +109,53 @@ public class Arbol implements Renderable, Collidable {
         this.creationTime = creationTime;
     }
 
-    private void generateStructure(int trunkRadius, int trunkHeight, int canopyRadius) {
-        Random r = new Random(seed);
+    // Parámetros de construcción (Persistencia recrea el árbol con ellos)
+    public Vector3 getPosicion() { return posicion; }
+    public long getSeed() { return seed; }
+    public long getCreationTime() { return creationTime; }
+    public int getMaxTrunkRadius() { return maxTrunkRadius; }
+    public int getMaxTrunkHeight() { return maxTrunkHeight; }
+    public int getMaxCanopyRadius() { return maxCanopyRadius; }
+
+    /** Etapa 0..GROWTH_STAGES: progreso de 0.5 (50%) a 1.0 (100%). */
+    private void setStage(int newStage) {
+        Shape st = stageShapes[newStage];
+        if (st == null) {
+            double progress = 0.5 + 0.5 * newStage / GROWTH_STAGES;
+            // Asegurar que los valores sean al menos 1
+            st = shapeFor(Math.max(1, (int)(maxTrunkRadius * progress)),
+                          Math.max(1, (int)(maxTrunkHeight * progress)),
+                          Math.max(1, (int)(maxCanopyRadius * progress)));
+            stageShapes[newStage] = st;
+        }
+        stage = newStage;
+        shape = st;
+    }
+
+    private Shape shapeFor(int trunkRadius, int trunkHeight, int canopyRadius) {
         int trunkVoxelRadius = Math.max(1, trunkRadius / voxelSize);
         int trunkVoxelHeight = Math.max(2, trunkHeight / voxelSize);
+        int canopyVoxelRadius = Math.max(2, canopyRadius / voxelSize);
+        long key = ((long) trunkVoxelRadius << 42) | ((long) trunkVoxelHeight << 21) | canopyVoxelRadius;
+        return SHAPES.computeIfAbsent(key, k -> generateStructure(trunkVoxelRadius, trunkVoxelHeight, canopyVoxelRadius));
+    }
+
+    private static Shape generateStructure(int trunkVoxelRadius, int trunkVoxelHeight, int canopyVoxelRadius) {
+        java.util.ArrayList<Integer> trunk = new java.util.ArrayList<>();
+        java.util.ArrayList<Integer> canopy = new java.util.ArrayList<>();
         
         // Tronco cilíndrico
         for (int y = 0; y < trunkVoxelHeight; y++) {
             for (int x = -trunkVoxelRadius; x <= trunkVoxelRadius; x++) {
                 for (int z = -trunkVoxelRadius; z <= trunkVoxelRadius; z++) {
                     if (x*x + z*z <= trunkVoxelRadius * trunkVoxelRadius) {
-                        trunkVoxels.add(new Vector3(x, y, z));
+                        trunk.add(x); trunk.add(y); trunk.add(z);
                     }
                 }
             }
         }
         
         // Copa esférica
-        int canopyVoxelRadius = Math.max(2, canopyRadius / voxelSize);
         int canopyStartY = trunkVoxelHeight;
         
         for (int x = -canopyVoxelRadius; x <= canopyVoxelRadius; x++) {
@@ -92,104 +163,78 @@ public class Arbol implements Renderable, Collidable {
                 for (int z = -canopyVoxelRadius; z <= canopyVoxelRadius; z++) {
                     double dist = Math.sqrt(x*x + y*y + z*z);
                     if (dist <= canopyVoxelRadius && dist > canopyVoxelRadius - 1.8) {
-                        canopyVoxels.add(new Vector3(x, canopyStartY + y, z));
+                        canopy.add(x); canopy.add(canopyStartY + y); canopy.add(z);
                     }
                 }
             }
         }
+        return new Shape(trunk.stream().mapToInt(Integer::intValue).toArray(),
+                         canopy.stream().mapToInt(Integer::intValue).toArray());
     }
 
     @Override
     public void update() {
         // Actualizar progreso de crecimiento (de 50% a 100%)
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.SimClock.now();
         long elapsedTime = currentTime - creationTime;
         double rawProgress = Math.min(1.0, (double) elapsedTime / GROWTH_DURATION);
         
         // El progreso va de 0.5 (50%) a 1.0 (100%)
         growthProgress = 0.5 + (rawProgress * 0.5);
         
-        // Regenerar la estructura si el árbol aún está creciendo
-        if (growthProgress < 1.0) {
-            int currentTrunkRadius = (int)(maxTrunkRadius * growthProgress);
-            int currentTrunkHeight = (int)(maxTrunkHeight * growthProgress);
-            int currentCanopyRadius = (int)(maxCanopyRadius * growthProgress);
-            
-            // Asegurar que los valores sean al menos 1
-            currentTrunkRadius = Math.max(1, currentTrunkRadius);
-            currentTrunkHeight = Math.max(1, currentTrunkHeight);
-            currentCanopyRadius = Math.max(1, currentCanopyRadius);
-            
-            trunkVoxels.clear();
-            canopyVoxels.clear();
-            generateStructure(currentTrunkRadius, currentTrunkHeight, currentCanopyRadius);
-        }
+        // Cambiar de forma solo al pasar a otra etapa (sin regenerar voxels)
+        int newStage = Math.max(0, (int)(rawProgress * GROWTH_STAGES));
+        if (newStage != stage) setStage(newStage);
     }
 
     @Override
     public void render(SoftwareRenderer renderer, Camera cam) {
-        // Tronco sin movimiento
-        for (Vector3 voxel : trunkVoxels) {
-            Vector3 worldPos = new Vector3(
-                posicion.x + voxel.x * voxelSize,
-                posicion.y + voxel.y * voxelSize,
-                posicion.z + voxel.z * voxelSize
-            );
-            Vector3[] vertices = renderer.getCubeVertices(worldPos, voxelSize, 0);
-            renderer.drawCubeShaded(vertices, cam, trunkColor);
-        }
+        Shape st = shape;
+        // Tronco y copa sin movimiento
+        drawVoxels(renderer, cam, st.trunk, trunkRgb);
+        drawVoxels(renderer, cam, st.canopy, canopyRgb);
+    }
 
-        // Copa sin movimiento
-        for (Vector3 voxel : canopyVoxels) {
-            Vector3 worldPos = new Vector3(
-                posicion.x + voxel.x * voxelSize,
-                posicion.y + voxel.y * voxelSize,
-                posicion.z + voxel.z * voxelSize
-            );
-            Vector3[] vertices = renderer.getCubeVertices(worldPos, voxelSize, 0);
-            renderer.drawCubeShaded(vertices, cam, canopyColor);
+    private void drawVoxels(SoftwareRenderer renderer, Camera cam, int[] voxels, int rgb) {
+        for (int i = 0; i < voxels.length; i += 3) {
+            renderer.drawCubeShadedAt(
+                posicion.x + voxels[i] * voxelSize,
+                posicion.y + voxels[i + 1] * voxelSize,
+                posicion.z + voxels[i + 2] * voxelSize,
+                voxelSize, cam, rgb);
         }
     }
 
+    @Override
+    public boolean isStaticGeometry() {
+        return stage == GROWTH_STAGES;
+    }
+
+    @Override
+    public void bakeVoxels(render.StaticMesh.Builder out) {
+        Shape st = shape;
+        out.beginGroup(posicion.x, posicion.y, posicion.z, voxelSize);
+        for (int i = 0; i < st.trunk.length; i += 3) out.voxel(st.trunk[i], st.trunk[i + 1], st.trunk[i + 2], trunkRgb);
+        for (int i = 0; i < st.canopy.length; i += 3) out.voxel(st.canopy[i], st.canopy[i + 1], st.canopy[i + 2], canopyRgb);
+        out.endGroup();
+    }
+
     @Override
     public Vector3 getAABBMin() {
-        // Calculate min based on trunk and canopy voxels
-        double minX = Double.POSITIVE_INFINITY;
-        double minY = Double.POSITIVE_INFINITY;
-        double minZ = Double.POSITIVE_INFINITY;
-        
-        for (Vector3 v : trunkVoxels) {
-            minX = Math.min(minX, posicion.x + v.x * voxelSize - voxelSize/2.0);
-            minY = Math.min(minY, posicion.y + v.y * voxelSize - voxelSize/2.0);
-            minZ = Math.min(minZ, posicion.z + v.z * voxelSize - voxelSize/2.0);
-        }
-        for (Vector3 v : canopyVoxels) {
-            minX = Math.min(minX, posicion.x + v.x * voxelSize - voxelSize/2.0);
-            minY = Math.min(minY, posicion.y + v.y * voxelSize - voxelSize/2.0);
-            minZ = Math.min(minZ, posicion.z + v.z * voxelSize - voxelSize/2.0);
-        }
-        
-        return new Vector3(minX, minY, minZ);
+        // AABB local precalculada por etapa
+        Shape st = shape;
+        double half = voxelSize / 2.0;
+        return new Vector3(posicion.x + st.minX * voxelSize - half,
+                           posicion.y + st.minY * voxelSize - half,
+                           posicion.z + st.minZ * voxelSize - half);
     }
 
     @Override
     public Vector3 getAABBMax() {
-        // Calculate max based on trunk and canopy voxels
-        double maxX = Double.NEGATIVE_INFINITY;
-        double maxY = Double.NEGATIVE_INFINITY;
-        double maxZ = Double.NEGATIVE_INFINITY;
-        
-        for (Vector3 v : trunkVoxels) {
-            maxX = Math.max(maxX, posicion.x + v.x * voxelSize + voxelSize/2.0);
-            maxY = Math.max(maxY, posicion.y + v.y * voxelSize + voxelSize/2.0);
-            maxZ = Math.max(maxZ, posicion.z + v.z * voxelSize + voxelSize/2.0);
-        }
-        for (Vector3 v : canopyVoxels) {
-            maxX = Math.max(maxX, posicion.x + v.x * voxelSize + voxelSize/2.0);
-            maxY = Math.max(maxY, posicion.y + v.y * voxelSize + voxelSize/2.0);
-            maxZ = Math.max(maxZ, posicion.z + v.z * voxelSize + voxelSize/2.0);
-        }
-        
-        return new Vector3(maxX, maxY, maxZ);
+        Shape st = shape;
+        double half = voxelSize / 2.0;
+        return new Vector3(posicion.x + st.maxX * voxelSize + half,
+                           posicion.y + st.maxY * voxelSize + half,
+                           posicion.z + st.maxZ * voxelSize + half);
     }
 }
@@ -12,7 +12,7 @@ import java.util.List;
  * Arbusto: Entidad ambiental pequeña y compacta.
  * Mucho más pequeño que un árbol, aspecto de arbusto bajo.
  */
-public class Arbusto implements Renderable, Collidable {
+public class Arbusto implements Renderable, Collidable, StaticVoxels {
     private Vector3 posicion;
     private List<Vector3> foliageVoxels;
     private int voxelSize;
@@ -38,6 +38,8 @@ public class Arbusto implements Renderable, Collidable {
         foliageVoxels.add(new Vector3(0, 1, 0));   // Arriba
     }
 
+    public Vector3 getPosicion() { return posicion; }
+
     @Override
     public void update() {
         // Animación deshabilitada
@@ -56,6 +58,19 @@ public class Arbusto implements Renderable, Collidable {
         }
     }
 
+    @Override
+    public boolean isStaticGeometry() {
+        return true;
+    }
+
+    @Override
+    public void bakeVoxels(render.StaticMesh.Builder out) {
+        out.beginGroup(posicion.x, posicion.y, posicion.z, voxelSize);
+        int rgb = color.getRGB();
+        for (Vector3 v : foliageVoxels) out.voxel((int) v.x, (int) v.y, (int) v.z, rgb);
+        out.endGroup();
+    }
+
     @Override
     public Vector3 getAABBMin() {
         double minX = Double.POSITIVE_INFINITY;
@@ -14,7 +14,7 @@ import entities.Collidable;
 /**
  * Clase base para todos los animales con animación de spawn compartida.
  */
-public abstract class BaseAnimal implements Renderable, Collidable {
+public abstract class BaseAnimal implements Renderable, Collidable, Bounded {
     protected Vector3 posicion;
     protected List<Vector3> voxels;
     protected int voxelSize;
@@ -42,8 +42,27 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     protected double baseSpeed = 1.2;
     protected double wanderTimer = 0.0;
     protected static final double WANDER_CHANGE_INTERVAL = 3.5;
-    protected static final double WORLD_BOUND = 320.0;
+    protected static final double WORLD_BOUND = simulation.Mundo.WORLD_BOUND;
     protected static simulation.Mundo worldRef = null; // shared reference set from app
+    // Segundos de simulación que avanza cada update() (un tick de FixedStepScheduler)
+    protected static final double TICK = simulation.FixedStepScheduler.TICK_SECONDS;
+    // Posición al inicio del tick actual, para interpolar el render entre ticks
+    private double prevX, prevY, prevZ;
+    private boolean hasPrevPosition = false;
+    // Origen del frame que se está dibujando (posición interpolada). Solo lo escribe render()
+    // y solo lo leen los helpers de dibujo: posicion (getPosicion) nunca cambia al dibujar
+    private double drawX, drawY, drawZ;
+    // Buffer reutilizable para las queries de vecinos (evita copiar el mundo en cada frame)
+    private final java.util.List<entities.Collidable> nearbyScratch = new java.util.ArrayList<>();
+    // Stream aleatorio propio (rumbo, seed de las crías, partículas de muerte): se deriva
+    // de la seed del mundo y la del animal, no del reloj ni de qué hilo lo actualiza
+    private simulation.EntityRandom random;
+    // Backend struct-of-arrays opcional: con store != null la posición, el rumbo, la fase y
+    // el cooldown los simula AnimalStore y este objeto solo los copia (vista)
+    private simulation.AnimalStore store;
+    private int storeRow = -1;
+    // Malla horneada de la fase actual (VoxelMeshCache); la usa solo el hilo de render
+    private VoxelMesh bakedMesh;
     protected double yaw = 0.0; // rotación del animal hacia donde mira
     protected boolean movementInitialized = false; // flag para inicializar el movimiento una sola vez
     
@@ -56,8 +75,8 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     private int animalId;
     
     // Tracking for UI display
-    private long spawnTime = 0L; // System.currentTimeMillis() when animal spawned
-    private long phaseStartTime = 0L; // System.currentTimeMillis() when current phase started
+    private long spawnTime = 0L; // SimClock.now() when animal spawned
+    private long phaseStartTime = 0L; // SimClock.now() when current phase started
     
     // Reproduction system
     private double reproductionCooldown = 0.0; // Cooldown timer to prevent multiple spawns
@@ -93,38 +112,13 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     private boolean isSpawning = true;
     private double spawnProgress = 0.0;
     private static final double SPAWN_DURATION = 0.8;
-    private List<SpawnParticle> spawnParticles = new ArrayList<>();
-    
-    private static class SpawnParticle {
-        double angle;
-        double height;
-        double radius;
-        double speed;
-        int voxelIndex;
-        
-        SpawnParticle(double angle, double height, double radius, double speed, int voxelIndex) {
-            this.angle = angle;
-            this.height = height;
-            this.radius = radius;
-            this.speed = speed;
-            this.voxelIndex = voxelIndex;
-        }
-    }
+    private static final int SPAWN_PARTICLES_PER_VOXEL = 3;
     
+    // Las partículas de aparición salen de Random(seed + 999) y se recalculan al dibujar
+    // (solo durante SPAWN_DURATION): crear o cargar un animal no reserva objetos por voxel
     protected void initializeSpawnAnimation() {
         this.animalId = nextAnimalId++;
-        this.spawnTime = System.currentTimeMillis();
-        Random r = new Random(seed + 999);
-        for (int i = 0; i < voxels.size(); i++) {
-            int particlesPerVoxel = 3;
-            for (int p = 0; p < particlesPerVoxel; p++) {
-                double angle = r.nextDouble() * Math.PI * 2;
-                double height = -15 - r.nextDouble() * 10;
-                double radius = 8 + r.nextDouble() * 12;
-                double speed = 1.2 + r.nextDouble() * 0.6;
-                spawnParticles.add(new SpawnParticle(angle, height, radius, speed, i));
-            }
-        }
+        this.spawnTime = simulation.SimClock.now();
     }
     
     /** Set a shared world reference so animals can consult collisions/terrain. */
@@ -134,18 +128,29 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     
     @Override
     public void update() {
+        prevX = posicion.x;
+        prevY = posicion.y;
+        prevZ = posicion.z;
+        hasPrevPosition = true;
+        
         if (isSpawning) {
-            spawnProgress += 0.016 / SPAWN_DURATION;
+            spawnProgress += TICK / SPAWN_DURATION;
             if (spawnProgress >= 1.0) {
                 spawnProgress = 1.0;
                 isSpawning = false;
-                spawnParticles.clear();
                 System.out.println("Animal " + animalId + " terminó spawn animation");
+                if (store != null) store.setFrozen(this, false);
             }
         }
 
         updateGrowthPhase();
-        updateMovement();
+        if (store == null) updateMovement();
+        if (worldRef != null) worldRef.updateSpatial(this);
+        
+        // Fases de animación de la especie (antes avanzaban en cada render)
+        if (!isDying && !isSpawning) {
+            updateAnimation();
+        }
         
         // Animate hover glow
         if (isHovered) {
@@ -165,6 +170,22 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     
     @Override
     public void render(SoftwareRenderer renderer, Camera cam) {
+        // Dibujar en la posición interpolada entre el tick anterior y el actual
+        Vector3 current = posicion;
+        double alpha = renderer.getInterpolationAlpha();
+        if (hasPrevPosition && alpha < 1.0) {
+            renderAt(renderer, cam, prevX + (current.x - prevX) * alpha,
+                                    prevY + (current.y - prevY) * alpha,
+                                    prevZ + (current.z - prevZ) * alpha);
+        } else {
+            renderAt(renderer, cam, current.x, current.y, current.z);
+        }
+    }
+    
+    private void renderAt(SoftwareRenderer renderer, Camera cam, double x, double y, double z) {
+        drawX = x;
+        drawY = y;
+        drawZ = z;
         if (isDying) {
             renderDeathAnimation(renderer, cam);
             return;
@@ -189,20 +210,27 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         // Fase 1 (0.0 - 0.35): Partículas en espiral
         if (spawnProgress < 0.35) {
             double particlePhase = spawnProgress / 0.35;
-            for (SpawnParticle p : spawnParticles) {
-                double targetY = voxels.get(p.voxelIndex).y * voxelSize + posicion.y;
-                double currentRadius = p.radius * (1.0 - particlePhase);
-                double currentHeight = p.height + (targetY - p.height) * particlePhase;
-                double spiralAngle = p.angle + particlePhase * Math.PI * 4 * p.speed;
-                
-                double px = posicion.x + Math.cos(spiralAngle) * currentRadius;
-                double py = currentHeight;
-                double pz = posicion.z + Math.sin(spiralAngle) * currentRadius;
-                
-                int particleSize = 5 + (int)(3 * particlePhase);
-                Vector3[] particleVerts = renderer.getCubeVertices(new Vector3(px, py, pz), particleSize, 0);
-                Color particleColor = new Color(255, 255, 150);
-                renderer.drawCube(particleVerts, cam, particleColor);
+            Random r = new Random(seed + 999);
+            for (int i = 0; i < voxels.size(); i++) {
+                double targetY = voxels.get(i).y * voxelSize + drawY;
+                for (int k = 0; k < SPAWN_PARTICLES_PER_VOXEL; k++) {
+                    double angle = r.nextDouble() * Math.PI * 2;
+                    double height = -15 - r.nextDouble() * 10;
+                    double radius = 8 + r.nextDouble() * 12;
+                    double speed = 1.2 + r.nextDouble() * 0.6;
+                    double currentRadius = radius * (1.0 - particlePhase);
+                    double currentHeight = height + (targetY - height) * particlePhase;
+                    double spiralAngle = angle + particlePhase * Math.PI * 4 * speed;
+                    
+                    double px = drawX + Math.cos(spiralAngle) * currentRadius;
+                    double py = currentHeight;
+                    double pz = drawZ + Math.sin(spiralAngle) * currentRadius;
+                    
+                    int particleSize = 5 + (int)(3 * particlePhase);
+                    Vector3[] particleVerts = renderer.getCubeVertices(new Vector3(px, py, pz), particleSize, 0);
+                    Color particleColor = new Color(255, 255, 150);
+                    renderer.drawCube(particleVerts, cam, particleColor);
+                }
             }
         }
         
@@ -223,9 +251,9 @@ public abstract class BaseAnimal implements Renderable, Collidable {
                     double spinRotation = (1.0 - individualProgress) * Math.PI * 3;
                     
                     Vector3 world = new Vector3(
-                        posicion.x + off.x * voxelSize,
-                        posicion.y + off.y * voxelSize + (1.0 - individualProgress) * 10,
-                        posicion.z + off.z * voxelSize
+                        drawX + off.x * voxelSize,
+                        drawY + off.y * voxelSize + (1.0 - individualProgress) * 10,
+                        drawZ + off.z * voxelSize
                     );
                     
                     int scaledSize = Math.max(1, (int)(voxelSize * scale));
@@ -249,11 +277,11 @@ public abstract class BaseAnimal implements Renderable, Collidable {
                 for (int i = 0; i < burstParticles; i++) {
                     double angle = (i / (double)burstParticles) * Math.PI * 2;
                     double burstRadius = burstPhase * 25;
-                    double burstHeight = posicion.y + voxelSize * 1.5 + burstPhase * 12;
+                    double burstHeight = drawY + voxelSize * 1.5 + burstPhase * 12;
                     
-                    double bx = posicion.x + Math.cos(angle) * burstRadius;
+                    double bx = drawX + Math.cos(angle) * burstRadius;
                     double by = burstHeight;
-                    double bz = posicion.z + Math.sin(angle) * burstRadius;
+                    double bz = drawZ + Math.sin(angle) * burstRadius;
                     
                     int burstSize = Math.max(1, (int)(5 * (1.0 - burstPhase)));
                     Vector3[] burstVerts = renderer.getCubeVertices(new Vector3(bx, by, bz), burstSize, 0);
@@ -276,9 +304,9 @@ public abstract class BaseAnimal implements Renderable, Collidable {
             for (Vector3 v : voxels) {
                 Vector3 rotatedVoxel = rotateVoxel(v, yaw);
                 Vector3 worldPos = new Vector3(
-                    posicion.x + rotatedVoxel.x * voxelSize,
-                    posicion.y + rotatedVoxel.y * voxelSize,
-                    posicion.z + rotatedVoxel.z * voxelSize
+                    drawX + rotatedVoxel.x * voxelSize,
+                    drawY + rotatedVoxel.y * voxelSize,
+                    drawZ + rotatedVoxel.z * voxelSize
                 );
                 
                 // Color que se oscurece
@@ -315,6 +343,10 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     // Método abstracto que cada tipo de animal debe implementar
     protected abstract void renderNormal(SoftwareRenderer renderer, Camera cam);
     
+    // Avanza las fases de animación propias de la especie (caminar, aletear, parpadeo...).
+    // Se llama una vez por tick desde update(); renderNormal solo las lee.
+    protected void updateAnimation() { }
+    
     /**
      * Renderiza la animación de apareamiento: corazones flotantes entre los dos animales.
      */
@@ -322,9 +354,9 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         if (matingPartner == null || matingProgress >= 1.0) return;
         
         // Posición entre los dos animales
-        double midX = (posicion.x + matingPartner.posicion.x) / 2.0;
-        double midY = (posicion.y + matingPartner.posicion.y) / 2.0;
-        double midZ = (posicion.z + matingPartner.posicion.z) / 2.0;
+        double midX = (drawX + matingPartner.posicion.x) / 2.0;
+        double midY = (drawY + matingPartner.posicion.y) / 2.0;
+        double midZ = (drawZ + matingPartner.posicion.z) / 2.0;
         
         // Color rosa/rojo para los corazones
         Color heartColor = new Color(255, 100, 150);
@@ -396,10 +428,10 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         // Radio base de la esfera ajustado al tamaño del animal (el más grande de las dimensiones)
         double baseRadius = Math.max(Math.max(animalWidth, animalHeight), animalDepth) * 0.6;
         
-        // Centro del animal (punto medio del AABB)
-        double centerX = (minBounds.x + maxBounds.x) / 2.0;
-        double centerY = (minBounds.y + maxBounds.y) / 2.0;
-        double centerZ = (minBounds.z + maxBounds.z) / 2.0;
+        // Centro del animal (punto medio del AABB), corrido al origen interpolado del frame
+        double centerX = (minBounds.x + maxBounds.x) / 2.0 + (drawX - posicion.x);
+        double centerY = (minBounds.y + maxBounds.y) / 2.0 + (drawY - posicion.y);
+        double centerZ = (minBounds.z + maxBounds.z) / 2.0 + (drawZ - posicion.z);
         
         // Fase 1 (1.0 - 0.7): Esfera expandiéndose desde el centro
         // Fase 2 (0.7 - 0.3): Esfera brillante estable con ondulaciones
@@ -593,11 +625,46 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         }
     }
     
+    /**
+     * Cubos fijos de la fase actual en espacio de modelo (sin rotar ni escalar) con colores
+     * derivados de 'body'. Por defecto el cuerpo ('voxels'); cada especie agrega sus adornos
+     * que solo cambian con la fase. Se hornea una vez por (especie, seed, fase): VoxelMesh.
+     */
+    protected void bakeStaticParts(VoxelMesh.Builder mesh, Color body) {
+        for (Vector3 v : voxels) {
+            mesh.bodyCube(v.x * voxelSize, v.y * voxelSize, v.z * voxelSize, voxelSize, VoxelMesh.BODY);
+        }
+    }
+    
+    /**
+     * Dibuja la malla horneada con una sola transformación de modelo; (offX, offY, offZ) es
+     * el desplazamiento animado del cuerpo (bob, sway) en espacio de modelo. La malla se
+     * hornea con el color base ('color'); los cubos color de cuerpo se dibujan con
+     * 'bodyTint' (brillo de hover/selección, pulsos) y los adornos con su color horneado
+     * más el mismo brillo de hover/selección, todo por frame sin rehornear.
+     */
+    protected void drawBakedParts(SoftwareRenderer renderer, Camera cam, Color bodyTint,
+                                  double offX, double offY, double offZ) {
+        VoxelMesh mesh = bakedMesh;
+        int rgb = color.getRGB();
+        if (mesh == null || mesh.phase != growthPhase || mesh.bodyRgb != rgb) {
+            mesh = VoxelMeshCache.get(getSpeciesType(), seed, growthPhase, rgb);
+            if (mesh == null) {
+                VoxelMesh.Builder builder = new VoxelMesh.Builder(getSpeciesType(), seed, growthPhase, color);
+                bakeStaticParts(builder, color);
+                mesh = builder.build();
+                VoxelMeshCache.put(mesh);
+            }
+            bakedMesh = mesh;
+        }
+        mesh.draw(renderer, cam, drawX, drawY, drawZ, yaw, selectionScale, bodyTint.getRGB(), glowAmount(), offX, offY, offZ);
+    }
+    
     // Helper methods for rendering with glow/scale effects
     protected Color applyGlowToColor(Color baseColor) {
         if (hoverGlow <= 0 && !isSelected) return baseColor;
         
-        float glowAmount = (float)(hoverGlow * 0.3 + (isSelected ? 0.3 : 0));
+        float glowAmount = glowAmount();
         return new Color(
             Math.min(1.0f, baseColor.getRed() / 255f + glowAmount),
             Math.min(1.0f, baseColor.getGreen() / 255f + glowAmount),
@@ -605,6 +672,12 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         );
     }
     
+    // Cuánto aclara el hover/selección cada canal (0..1); 0 sin hover ni selección
+    private float glowAmount() {
+        if (hoverGlow <= 0 && !isSelected) return 0f;
+        return (float)(hoverGlow * 0.3 + (isSelected ? 0.3 : 0));
+    }
+    
     protected int applyScaleToSize(int baseSize) {
         return (int)(baseSize * selectionScale);
     }
@@ -612,13 +685,13 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     protected Vector3 applyScaleToPosition(Vector3 basePos) {
         if (selectionScale == 1.0) return basePos;
         // Scale around center position
-        double dx = basePos.x - posicion.x;
-        double dy = basePos.y - posicion.y;
-        double dz = basePos.z - posicion.z;
+        double dx = basePos.x - drawX;
+        double dy = basePos.y - drawY;
+        double dz = basePos.z - drawZ;
         return new Vector3(
-            posicion.x + dx * selectionScale,
-            posicion.y + dy * selectionScale,
-            posicion.z + dz * selectionScale
+            drawX + dx * selectionScale,
+            drawY + dy * selectionScale,
+            drawZ + dz * selectionScale
         );
     }
     
@@ -638,9 +711,9 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         // Ajustar yaw con -π/2 porque los modelos miran hacia +Z, pero velocity apunta en ángulo desde +X
         Vector3 rotated = rotateY(relativePos, yaw - Math.PI / 2);
         return new Vector3(
-            posicion.x + rotated.x,
-            posicion.y + rotated.y,
-            posicion.z + rotated.z
+            drawX + rotated.x,
+            drawY + rotated.y,
+            drawZ + rotated.z
         );
     }
 
@@ -664,20 +737,23 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     protected void updateGrowthPhase() {
         if (isSpawning) return; // don't change during spawn
         
+        // Con store la fase avanza en AnimalStore: aquí solo se copia
+        if (store != null) pullFromStore();
+        
         // Inicializar el timer si no está inicializado
         if (phaseStartTime == 0) {
-            phaseStartTime = System.currentTimeMillis();
+            phaseStartTime = simulation.SimClock.now();
         }
         
         // Calcular el tiempo transcurrido en esta fase en segundos
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.SimClock.now();
         double elapsedSeconds = (currentTime - phaseStartTime) / 1000.0;
         
         // Verificar si ha pasado el tiempo necesario para la siguiente fase
-        if (elapsedSeconds >= getPhaseDuration(growthPhase) && growthPhase < 3) {
+        if (store == null && elapsedSeconds >= getPhaseDuration(growthPhase) && growthPhase < 3) {
             System.out.println("¡EVOLUCIÓN! Animal " + animalId + " cambió de fase " + growthPhase + " a " + (growthPhase + 1));
             growthPhase++;
-            phaseStartTime = System.currentTimeMillis(); // Reiniciar el contador para la nueva fase
+            phaseStartTime = simulation.SimClock.now(); // Reiniciar el contador para la nueva fase
             transitionPulse = 1.0; // trigger animation pulse
             applyPhaseVisuals(); // Aplicar cambios visuales específicos de la especie
             
@@ -697,14 +773,14 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         }
         selectionScale = selectionScale * 0.98 + getPhaseScaleMultiplier() * 0.02;
         
-        // Update reproduction cooldown
-        if (reproductionCooldown > 0) {
-            reproductionCooldown -= 0.016; // ~60 FPS
+        // Update reproduction cooldown (con store lo descuenta AnimalStore)
+        if (store == null && reproductionCooldown > 0) {
+            reproductionCooldown -= TICK;
         }
         
         // Update death animation
         if (isDying) {
-            deathProgress += 0.016 / DEATH_DURATION;
+            deathProgress += TICK / DEATH_DURATION;
             
             // Update death particles
             for (DeathParticle p : deathParticles) {
@@ -712,7 +788,7 @@ public abstract class BaseAnimal implements Renderable, Collidable {
                 p.position.y += p.velocity.y;
                 p.position.z += p.velocity.z;
                 p.velocity.y -= 0.2; // Gravity
-                p.life -= 0.016 / DEATH_DURATION;
+                p.life -= TICK / DEATH_DURATION;
             }
             
             if (deathProgress >= 1.0) {
@@ -723,14 +799,20 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         
         // Update mating animation
         if (isMating) {
-            matingProgress += 0.016 / MATING_DURATION;
+            matingProgress += TICK / MATING_DURATION;
             if (matingProgress >= 1.0) {
                 // Animación completada, crear la cría (solo si este animal tiene ID menor para evitar duplicado)
                 if (matingPartner != null && !offspringSpawned && this.animalId < matingPartner.animalId) {
-                    spawnOffspring(matingPartner);
+                    BaseAnimal partner = matingPartner;
                     offspringSpawned = true;
-                    // Marcar el partner para que no lo intente también
-                    matingPartner.offspringSpawned = true;
+                    // La cría se agrega al mundo y el partner se marca al final del tick
+                    // (para que no lo intente también)
+                    if (worldRef != null) {
+                        worldRef.defer(() -> {
+                            spawnOffspring(partner);
+                            partner.offspringSpawned = true;
+                        });
+                    }
                 }
                 isMating = false;
                 matingProgress = 0.0;
@@ -747,7 +829,7 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         
         // Inicializar movimiento una sola vez después de spawn
         if (!movementInitialized && !isSpawning) {
-            Random r = new Random(seed + System.nanoTime());
+            simulation.EntityRandom r = random();
             double angle = r.nextDouble() * Math.PI * 2;
             double speed = baseSpeed * getPhaseSpeedMultiplier();
             velocity = new Vector3(Math.cos(angle) * speed, 0, Math.sin(angle) * speed);
@@ -757,10 +839,10 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         
         if (!movementInitialized) return; // No mover durante spawn
         
-        wanderTimer += 0.016;
+        wanderTimer += TICK;
         if (wanderTimer > WANDER_CHANGE_INTERVAL) {
             wanderTimer = 0.0;
-            Random r = new Random(seed + System.nanoTime());
+            simulation.EntityRandom r = random();
             double angle = r.nextDouble() * Math.PI * 2;
             double speed = baseSpeed * getPhaseSpeedMultiplier();
             velocity = new Vector3(Math.cos(angle) * speed, 0, Math.sin(angle) * speed);
@@ -794,41 +876,115 @@ public abstract class BaseAnimal implements Renderable, Collidable {
             return;
         }
 
-        // Collisions
-        java.util.List<entities.Collidable> collidables = worldRef.getCollidables();
-        for (entities.Collidable c : collidables) {
+        // Collisions: solo los vecinos que devuelve el spatial hash del mundo. La query ya
+        // compara contra el AABB cacheado de cada vecino (su estado al inicio del tick), así
+        // que todo lo que devuelve colisiona; no se lee el estado vivo de otro animal
+        Vector3 myMin = getAABBMin();
+        Vector3 myMax = getAABBMax();
+        nearbyScratch.clear();
+        worldRef.queryAABB(myMin.x, myMin.y, myMin.z, myMax.x, myMax.y, myMax.z, nearbyScratch);
+        for (entities.Collidable c : nearbyScratch) {
             if (c == this) continue;
             if (c instanceof entities.Pasto) continue; // ignore grass
-            if (intersects(c)) {
-                // Check for reproduction if both are animals of the same species
-                if (c instanceof BaseAnimal) {
-                    BaseAnimal other = (BaseAnimal) c;
-                    // Only reproduce if:
-                    // 1. Both are the same species
-                    // 2. Both are adults (phase 3)
-                    // 3. This animal's cooldown has expired
-                    // 4. Neither is currently mating
-                    boolean sameSpecies = this.getSpeciesType() == other.getSpeciesType();
-                    boolean cooldownOk = this.reproductionCooldown <= 0 && other.reproductionCooldown <= 0;
-                    boolean notMating = !this.isMating && !other.isMating;
-                    
-                    if (sameSpecies && cooldownOk && notMating) {
-                        // Iniciar animación de apareamiento
-                        startMatingAnimation(other);
-                    }
-                }
+            // Check for reproduction if both are animals of the same species
+            if (c instanceof BaseAnimal) {
+                BaseAnimal other = (BaseAnimal) c;
+                boolean sameSpecies = this.getSpeciesType() == other.getSpeciesType();
                 
-                posicion = oldPos;
-                // Girar 90 grados
-                double angle = Math.atan2(velocity.z, velocity.x) - Math.PI / 2;
-                double speed = Math.sqrt(velocity.x * velocity.x + velocity.z * velocity.z);
-                velocity = new Vector3(Math.cos(angle) * speed, 0, Math.sin(angle) * speed);
-                yaw = Math.atan2(velocity.z, velocity.x);
-                break;
+                if (sameSpecies && this.reproductionCooldown <= 0 && !this.isMating) {
+                    // Iniciar animación de apareamiento al final del tick (modifica al
+                    // compañero); ahí se verifican las condiciones de ambos
+                    worldRef.defer(() -> tryStartMating(other));
+                }
             }
+            
+            posicion = oldPos;
+            // Girar 90 grados
+            double angle = Math.atan2(velocity.z, velocity.x) - Math.PI / 2;
+            double speed = Math.sqrt(velocity.x * velocity.x + velocity.z * velocity.z);
+            velocity = new Vector3(Math.cos(angle) * speed, 0, Math.sin(angle) * speed);
+            yaw = Math.atan2(velocity.z, velocity.x);
+            break;
+        }
+    }
+    
+    /**
+     * Inicia el apareamiento si AMBOS siguen disponibles. Se ejecuta en la fase serial del
+     * tick: si dos animales se eligieron mutuamente, el primero en orden del snapshot gana.
+     * Only reproduce if:
+     * 1. Both are the same species (verificado al detectar la colisión)
+     * 2. Both cooldowns have expired
+     * 3. Neither is currently mating
+     */
+    private void tryStartMating(BaseAnimal other) {
+        boolean cooldownOk = this.reproductionCooldown <= 0 && other.reproductionCooldown <= 0;
+        boolean notMating = !this.isMating && !other.isMating;
+        if (!cooldownOk || !notMating) return;
+        startMatingAnimation(other);
+        pushToStore();
+        other.pushToStore();
+        // La separación movió a ambos: reflejarlo en el spatial hash
+        if (worldRef != null) {
+            worldRef.updateSpatial(this);
+            worldRef.updateSpatial(other);
+        }
+    }
+    
+    /**
+     * Contacto de la misma especie detectado por AnimalStore (ahí se resuelven las
+     * colisiones de las filas): mismas condiciones que tryStartMating, con la posición y el
+     * cooldown vigentes de las filas.
+     */
+    public void requestMating(BaseAnimal other) {
+        syncMotionFromStore();
+        other.syncMotionFromStore();
+        tryStartMating(other);
+    }
+    
+    // --- Vista de AnimalStore ---
+    
+    /** Lo llama AnimalStore al ligar, mover o liberar la fila (store null = camino de objetos). */
+    public void bindToStore(simulation.AnimalStore store, int row) {
+        this.store = store;
+        this.storeRow = row;
+    }
+    
+    public simulation.AnimalStore getAnimalStore() { return store; }
+    public int getStoreRow() { return storeRow; }
+    
+    // Copia la fila: posición, rumbo y cooldown; y la fase, con el mismo efecto que al
+    // evolucionar por tiempo en updateGrowthPhase
+    private void pullFromStore() {
+        syncMotionFromStore();
+        int phase = store.getPhase(storeRow);
+        if (phase != growthPhase) {
+            System.out.println("¡EVOLUCIÓN! Animal " + animalId + " cambió de fase " + growthPhase + " a " + phase);
+            growthPhase = phase;
+            phaseStartTime = simulation.SimClock.now();
+            transitionPulse = 1.0;
+            applyPhaseVisuals();
         }
     }
     
+    private void syncMotionFromStore() {
+        if (store == null) return;
+        int row = storeRow;
+        double x = store.getX(row), y = store.getY(row), z = store.getZ(row);
+        if (x != posicion.x || y != posicion.y || z != posicion.z) posicion = new Vector3(x, y, z);
+        double vx = store.getVelX(row), vz = store.getVelZ(row);
+        if (vx != velocity.x || vz != velocity.z) velocity = new Vector3(vx, 0, vz);
+        yaw = store.getYaw(row);
+        wanderTimer = store.getWanderTimer(row);
+        reproductionCooldown = store.getCooldown(row);
+    }
+    
+    // Lo que cambió en el objeto (apareamiento, UI) vuelve a la fila
+    private void pushToStore() {
+        if (store == null) return;
+        store.setPosition(this, posicion.x, posicion.y, posicion.z);
+        store.setCooldown(this, reproductionCooldown);
+    }
+    
     /**
      * Inicia la animación de apareamiento entre dos animales.
      */
@@ -893,7 +1049,7 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         double childY = terrainHeight + baseOffset; // Phase 1 uses scale 1.0
         
         Vector3 childPos = new Vector3(childX, childY, childZ);
-        long childSeed = System.currentTimeMillis() + this.seed + partner.seed;
+        long childSeed = random().nextLong() + this.seed + partner.seed;
         
         // Create the new offspring using the static factory method
         try {
@@ -921,6 +1077,12 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         }
     }
 
+    // Se crea al primer uso (no en cada tick): para entonces ya está en el mundo
+    private simulation.EntityRandom random() {
+        if (random == null) random = simulation.Mundo.entityRandom(worldRef, seed);
+        return random;
+    }
+
     protected boolean intersects(entities.Collidable other) {
         Vector3 minA = getAABBMin();
         Vector3 maxA = getAABBMax();
@@ -932,12 +1094,18 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     }
     
     public Vector3 getPosicion() { return posicion; }
-    public void setPosicion(Vector3 pos) { this.posicion = pos; }
+    public void setPosicion(Vector3 pos) {
+        this.posicion = pos;
+        if (store != null) store.setPosition(this, pos.x, pos.y, pos.z);
+    }
     
     public void setHovered(boolean hovered) { this.isHovered = hovered; }
     public boolean isHovered() { return isHovered; }
     
-    public void setSelected(boolean selected) { this.isSelected = selected; }
+    public void setSelected(boolean selected) {
+        this.isSelected = selected;
+        if (store != null) store.setSelected(this, selected);
+    }
     public boolean isSelected() { return isSelected; }
     
     public double getHoverGlow() { return hoverGlow; }
@@ -948,8 +1116,9 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     public int getGrowthPhase() { return growthPhase; }
     public void setGrowthPhase(int phase) {
         this.growthPhase = Math.max(1, Math.min(3, phase));
-        this.phaseStartTime = System.currentTimeMillis();
+        this.phaseStartTime = simulation.SimClock.now();
         applyPhaseVisuals();
+        if (store != null) store.setPhase(this, growthPhase);
     }
 
     // Simple serialization for save/load of BaseAnimal-derived species
@@ -977,16 +1146,179 @@ public abstract class BaseAnimal implements Renderable, Collidable {
             return null;
         }
     }
-    public double getPhaseTimer() { 
+
+    // --- Registro binario de Persistencia (ancho fijo, little-endian) ---
+
+    // Contador de ids: se guarda con la partida para que las crías de después de cargar
+    // reciban los mismos ids (el menor id decide quién crea la cría)
+    public static int getNextAnimalId() { return nextAnimalId; }
+    public static void setNextAnimalId(int next) { nextAnimalId = next; }
+
+    /** Bytes de un registro de writeState; Persistencia lo guarda en la tabla de secciones. */
+    public static final int STATE_BYTES = 168;
+    /** Offset de la posición (x, y, z double) en el registro: StreamingLoader ordena por cercanía. */
+    public static final int STATE_POS_OFFSET = 56;
+
+    private static final int S_SPAWNING = 1, S_MOVING = 2, S_MATING = 4, S_OFFSPRING = 8,
+                             S_DYING = 16, S_DEAD = 32, S_RANDOM = 64, S_PHASE_STARTED = 128;
+
+    /**
+     * Escribe el estado simulado completo en STATE_BYTES bytes: posición, rumbo, fase y
+     * timers (las marcas de tiempo como edad relativa a now), cooldown, apareamiento (el
+     * compañero por id), spawn/muerte y el estado del stream aleatorio. slot es el orden
+     * de la entidad en el mundo, para restaurarlo al cargar.
+     */
+    public void writeState(java.nio.ByteBuffer out, int slot, long now) {
+        double x = posicion.x, y = posicion.y, z = posicion.z;
+        double vx = velocity.x, vz = velocity.z, yw = yaw, wander = wanderTimer, cooldown = reproductionCooldown;
+        int phase = growthPhase;
+        simulation.AnimalStore st = store;
+        int row = storeRow;
+        if (st != null && row >= 0) {
+            // Con store los valores vigentes son los de la fila
+            x = st.getX(row); y = st.getY(row); z = st.getZ(row);
+            vx = st.getVelX(row); vz = st.getVelZ(row);
+            yw = st.getYaw(row);
+            wander = st.getWanderTimer(row);
+            cooldown = st.getCooldown(row);
+            phase = st.getPhase(row);
+        }
+        int flags = 0;
+        if (isSpawning) flags |= S_SPAWNING;
+        if (movementInitialized) flags |= S_MOVING;
+        if (isMating) flags |= S_MATING;
+        if (offspringSpawned) flags |= S_OFFSPRING;
+        if (isDying) flags |= S_DYING;
+        if (markedForDeath) flags |= S_DEAD;
+        if (random != null) flags |= S_RANDOM;
+        if (phaseStartTime != 0) flags |= S_PHASE_STARTED;
+        BaseAnimal partner = matingPartner;
+        out.putInt(slot);
+        out.putInt(getSpeciesType());
+        out.putInt(animalId);
+        out.putInt(partner != null ? partner.animalId : -1);
+        out.putLong(seed);
+        out.putInt(phase);
+        out.putInt(flags);
+        out.putLong(random != null ? random.getState() : 0L);
+        out.putLong(phaseStartTime != 0 ? now - phaseStartTime : 0L);
+        out.putLong(now - spawnTime);
+        out.putDouble(x).putDouble(y).putDouble(z);
+        out.putDouble(vx).putDouble(vz).putDouble(yw);
+        out.putDouble(wander);
+        out.putDouble(cooldown);
+        out.putDouble(spawnProgress);
+        out.putDouble(matingProgress);
+        out.putDouble(deathProgress);
+        out.putDouble(transitionPulse);
+        out.putDouble(selectionScale);
+        out.putDouble(phaseTimer);
+    }
+
+    /**
+     * Lee un registro de writeState y recrea el animal (mismo tipo y seed, luego el estado
+     * guardado encima). Los compañeros de apareamiento se enlazan por id a través de byId,
+     * que acumula los animales ya leídos. Devuelve null si el tipo no existe.
+     */
+    public static BaseAnimal readState(java.nio.ByteBuffer in, long now, java.util.Map<Integer, BaseAnimal> byId) {
+        in.getInt(); // slot: lo usa Persistencia para ordenar
+        int type = in.getInt();
+        int id = in.getInt();
+        int partnerId = in.getInt();
+        long seed = in.getLong();
+        int phase = in.getInt();
+        int flags = in.getInt();
+        long randomState = in.getLong();
+        long phaseAge = in.getLong();
+        long spawnAge = in.getLong();
+        double x = in.getDouble(), y = in.getDouble(), z = in.getDouble();
+        double vx = in.getDouble(), vz = in.getDouble(), yw = in.getDouble();
+        double wander = in.getDouble();
+        double cooldown = in.getDouble();
+        double spawnProgress = in.getDouble();
+        double matingProgress = in.getDouble();
+        double deathProgress = in.getDouble();
+        double transitionPulse = in.getDouble();
+        double selectionScale = in.getDouble();
+        double phaseTimer = in.getDouble();
+
+        Renderable created = EcosistemaApp.createAnimalOfType(type, new Vector3(x, y, z), seed);
+        if (!(created instanceof BaseAnimal)) return null;
+        BaseAnimal a = (BaseAnimal) created;
+        a.animalId = id;
+        if (id >= nextAnimalId) nextAnimalId = id + 1;
+        a.growthPhase = Math.max(1, Math.min(3, phase));
+        a.applyPhaseVisuals();
+        a.velocity = new Vector3(vx, 0, vz);
+        a.yaw = yw;
+        a.wanderTimer = wander;
+        a.reproductionCooldown = cooldown;
+        a.isSpawning = (flags & S_SPAWNING) != 0;
+        a.spawnProgress = spawnProgress;
+        a.movementInitialized = (flags & S_MOVING) != 0;
+        a.offspringSpawned = (flags & S_OFFSPRING) != 0;
+        a.isDying = (flags & S_DYING) != 0;
+        a.markedForDeath = (flags & S_DEAD) != 0;
+        a.deathProgress = deathProgress;
+        a.transitionPulse = transitionPulse;
+        a.selectionScale = selectionScale;
+        a.phaseTimer = phaseTimer;
+        a.phaseStartTime = (flags & S_PHASE_STARTED) != 0 ? now - phaseAge : 0L;
+        a.spawnTime = now - spawnAge;
+        if ((flags & S_RANDOM) != 0) a.random = new simulation.EntityRandom(randomState);
+        if ((flags & S_MATING) != 0) {
+            a.isMating = true;
+            a.matingProgress = matingProgress;
+            // El compañero se enlaza con el que se lea segundo
+            BaseAnimal partner = byId.get(partnerId);
+            if (partner != null) {
+                a.matingPartner = partner;
+                partner.matingPartner = a;
+            }
+        }
+        byId.put(id, a);
+        return a;
+    }
+
+    // --- Registro de movimiento del journal de Autosave (compacto) ---
+
+    /** Bytes de writeMotion: id, posición y rumbo en float. */
+    public static final int MOTION_BYTES = 20;
+
+    /** Escribe id, posición y rumbo (float) en MOTION_BYTES bytes. */
+    public void writeMotion(java.nio.ByteBuffer out) {
+        double x = posicion.x, y = posicion.y, z = posicion.z, yw = yaw;
+        simulation.AnimalStore st = store;
+        int row = storeRow;
+        if (st != null && row >= 0) {
+            x = st.getX(row); y = st.getY(row); z = st.getZ(row);
+            yw = st.getYaw(row);
+        }
+        out.putInt(animalId);
+        out.putFloat((float) x).putFloat((float) y).putFloat((float) z).putFloat((float) yw);
+    }
+
+    /** Aplica la posición y el rumbo de un registro de writeMotion (el id ya leído). */
+    public void readMotion(java.nio.ByteBuffer in) {
+        setPosicion(new Vector3(in.getFloat(), in.getFloat(), in.getFloat()));
+        yaw = in.getFloat();
+    }
+
+    public double getPhaseTimer() {
         if (phaseStartTime == 0) return 0.0;
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.SimClock.now();
         return (currentTime - phaseStartTime) / 1000.0;
     }
     public String getSpeciesName() { return getClass().getSimpleName().replace("AnimalType", "Especie "); }
     public double getBaseSpeed() { return baseSpeed; }
+    public int getVoxelSize() { return voxelSize; }
+    public long getSeed() { return seed; }
+    public double getReproductionCooldown() { return reproductionCooldown; }
+    public boolean isSpawning() { return isSpawning; }
+    public double getPhaseDurationSeconds(int phase) { return getPhaseDuration(phase); }
     public long getSpawnTime() { return spawnTime; }
     public double getTimeSinceSpawn() {
-        return (System.currentTimeMillis() - spawnTime) / 1000.0; // Convert to seconds
+        return (simulation.SimClock.now() - spawnTime) / 1000.0; // Convert to seconds
     }
     public Color getOriginalColor() { return originalColor; }
     
@@ -1000,7 +1332,7 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         if (growthPhase >= 3) return 0.0;
         if (phaseStartTime == 0) return getPhaseDuration(growthPhase);
         
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.SimClock.now();
         double elapsedSeconds = (currentTime - phaseStartTime) / 1000.0;
         double remainingSeconds = getPhaseDuration(growthPhase) - elapsedSeconds;
         return Math.max(0.0, remainingSeconds);
@@ -1010,7 +1342,7 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     public void advanceToNextPhase() {
         if (growthPhase < 3) {
             growthPhase++;
-            phaseStartTime = System.currentTimeMillis();
+            phaseStartTime = simulation.SimClock.now();
             transitionPulse = 1.0;
             applyPhaseVisuals();
             // Reajustar altura al terreno con el nuevo tamaño
@@ -1023,6 +1355,10 @@ public abstract class BaseAnimal implements Renderable, Collidable {
                     posicion = new Vector3(posicion.x, terrainHeight + groundOffset, posicion.z);
                 }
             }
+            if (store != null) {
+                store.setPhase(this, growthPhase);
+                store.setPosition(this, posicion.x, posicion.y, posicion.z);
+            }
         }
     }
     
@@ -1030,7 +1366,7 @@ public abstract class BaseAnimal implements Renderable, Collidable {
     public void revertToPreviousPhase() {
         if (growthPhase > 1) {
             growthPhase--;
-            phaseStartTime = System.currentTimeMillis();
+            phaseStartTime = simulation.SimClock.now();
             transitionPulse = 1.0;
             applyPhaseVisuals();
             // Reajustar altura al terreno con el nuevo tamaño
@@ -1043,6 +1379,10 @@ public abstract class BaseAnimal implements Renderable, Collidable {
                     posicion = new Vector3(posicion.x, terrainHeight + groundOffset, posicion.z);
                 }
             }
+            if (store != null) {
+                store.setPhase(this, growthPhase);
+                store.setPosition(this, posicion.x, posicion.y, posicion.z);
+            }
         }
     }
     
@@ -1067,17 +1407,39 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         return new Vector3(maxX, maxY, maxZ);
     }
     
+    // Esfera para frustum culling: cubre el modelo rotado y escalado por selectionScale,
+    // más margen para patas, cola y orejas que las subclases dibujan fuera de 'voxels'
+    @Override
+    public boolean getBoundingSphere(double[] out) {
+        if (isDying || isSpawning || isMating || transitionPulse > 0) return false;
+        double maxDist2 = 0;
+        for (Vector3 v : voxels) {
+            double d2 = v.x * v.x + v.y * v.y + v.z * v.z;
+            if (d2 > maxDist2) maxDist2 = d2;
+        }
+        double scale = Math.max(1.0, selectionScale);
+        out[0] = posicion.x;
+        out[1] = posicion.y;
+        out[2] = posicion.z;
+        out[3] = (Math.sqrt(maxDist2) + 6.0) * voxelSize * scale;
+        return true;
+    }
+    
     // Death system methods
     public void markForDeath() {
         if (!isDying) {
             isDying = true;
             deathProgress = 0.0;
             initializeDeathAnimation();
+            if (store != null) store.setFrozen(this, true);
+            // La malla ya no se dibuja (la muerte tiene su propia animación)
+            VoxelMeshCache.evict(getSpeciesType(), seed);
+            bakedMesh = null;
         }
     }
     
     private void initializeDeathAnimation() {
-        Random r = new Random(seed + System.currentTimeMillis());
+        simulation.EntityRandom r = random();
         deathParticles.clear();
         
         // Create particles from voxels
@@ -1120,6 +1482,10 @@ public abstract class BaseAnimal implements Renderable, Collidable {
         return isDying;
     }
     
+    public boolean isMating() {
+        return isMating;
+    }
+    
     protected Vector3 rotateVoxel(Vector3 v, double angle) {
         double cos = Math.cos(angle);
         double sin = Math.sin(angle);
@@ -0,0 +1,14 @@
+package entities;
+
+/**
+ * Esfera envolvente en world space que cubre TODO lo que dibuja render() en el frame actual
+ * (modelo escalado, patas, cola, animación de ataque...). La usa el frustum culling de
+ * RenderPanel antes que el AABB de Collidable, que solo cubre el cuerpo para colisiones.
+ */
+public interface Bounded {
+    /**
+     * Escribe {centroX, centroY, centroZ, radio} en out. Devuelve false si este frame no se
+     * puede acotar (p.ej. partículas de spawn o muerte) y la entidad debe dibujarse siempre.
+     */
+    boolean getBoundingSphere(double[] out);
+}
@@ -13,7 +13,7 @@ import java.util.List;
  * Depredador: Animal especial que puede cazar a otros animales.
  * No evoluciona, tamaño fijo, diseño de monstruo terrorífico.
  */
-public class Depredador implements Renderable, Collidable {
+public class Depredador implements Renderable, Collidable, Bounded {
     protected Vector3 posicion;
     protected List<Vector3> voxels;
     protected int voxelSize;
@@ -25,8 +25,23 @@ public class Depredador implements Renderable, Collidable {
     protected double baseSpeed = 1.5; // Un poco más rápido que animales normales
     protected double wanderTimer = 0.0;
     protected static final double WANDER_CHANGE_INTERVAL = 3.0;
-    protected static final double WORLD_BOUND = 320.0;
+    protected static final double WORLD_BOUND = simulation.Mundo.WORLD_BOUND;
     protected static simulation.Mundo worldRef = null;
+    // Segundos de simulación que avanza cada update() (un tick de FixedStepScheduler)
+    private static final double TICK = simulation.FixedStepScheduler.TICK_SECONDS;
+    // Posición al inicio del tick actual, para interpolar el render entre ticks
+    private double prevX, prevY, prevZ;
+    private boolean hasPrevPosition = false;
+    // Origen del frame que se está dibujando (posición interpolada). Solo lo escribe render()
+    // y solo lo leen los métodos de dibujo: posicion (getPosicion) nunca cambia al dibujar
+    private double drawX, drawY, drawZ;
+    // Buffer reutilizable para las queries de vecinos al spatial hash del mundo
+    private final java.util.List<Collidable> nearbyScratch = new java.util.ArrayList<>();
+    // Estado cacheado de un vecino en el spatial hash (AABB + posición al inicio del tick)
+    private final double[] neighborState = new double[9];
+    // Stream aleatorio propio (rumbo, parpadeo, partículas de muerte): se deriva de la
+    // seed del mundo y la del depredador, no del reloj
+    private simulation.EntityRandom random;
     protected double yaw = 0.0;
     protected boolean movementInitialized = false;
     
@@ -45,7 +60,7 @@ public class Depredador implements Renderable, Collidable {
     private boolean isSpawning = true;
     private double spawnProgress = 0.0;
     private static final double SPAWN_DURATION = 0.8;
-    private List<SpawnParticle> spawnParticles = new ArrayList<>();
+    private static final int SPAWN_PARTICLES_PER_VOXEL = 3;
     
     // Animation - MEJORADO
     private double animationTime = 0.0;
@@ -85,27 +100,14 @@ public class Depredador implements Renderable, Collidable {
         }
     }
     
-    private static class SpawnParticle {
-        double angle;
-        double height;
-        double radius;
-        double speed;
-        int voxelIndex;
-        
-        SpawnParticle(double angle, double height, double radius, double speed, int voxelIndex) {
-            this.angle = angle;
-            this.height = height;
-            this.radius = radius;
-            this.speed = speed;
-            this.voxelIndex = voxelIndex;
-        }
-    }
-    
+    // Forma de voxels: no depende de la seed, la comparten todos (solo lectura)
+    private static final List<Vector3> SHAPE = java.util.Collections.unmodifiableList(generarFormaDepredador());
+
     public Depredador(Vector3 pos, long seed) {
         this.posicion = pos.copy();
         this.seed = seed;
         this.voxelSize = 3; // Reducido para ser más pequeño
-        this.voxels = new ArrayList<>();
+        this.voxels = SHAPE;
         
         // Colores de monstruo variados
         Random r = new Random(seed);
@@ -121,14 +123,12 @@ public class Depredador implements Renderable, Collidable {
             this.color = new Color(200 + r.nextInt(56), 30 + r.nextInt(40), 30 + r.nextInt(40));
         }
         
-        generarFormaDepredador();
         initializeSpawnAnimation();
         initializeMovement();
     }
     
-    private void generarFormaDepredador() {
-        Random r = new Random(seed);
-        voxels.clear();
+    private static List<Vector3> generarFormaDepredador() {
+        List<Vector3> voxels = new ArrayList<>();
         
         // CUERPO PRINCIPAL - más musculoso y proporcional
         // Torso bajo (segmento 0-2)
@@ -297,27 +297,18 @@ public class Depredador implements Renderable, Collidable {
                 voxels.add(new Vector3(0, tailY + 3, tailZ));
             }
         }
+        return voxels;
     }
     
+    // Las partículas de aparición se recalculan al dibujar (ver renderSpawnAnimation)
     protected void initializeSpawnAnimation() {
         this.depredadorId = nextDepredadorId++;
-        this.spawnTime = System.currentTimeMillis();
-        Random r = new Random(seed + 999);
-        for (int i = 0; i < voxels.size(); i++) {
-            int particlesPerVoxel = 3;
-            for (int p = 0; p < particlesPerVoxel; p++) {
-                double angle = r.nextDouble() * Math.PI * 2;
-                double height = -15 - r.nextDouble() * 10;
-                double radius = 5 + r.nextDouble() * 8;
-                double speed = 0.8 + r.nextDouble() * 0.4;
-                spawnParticles.add(new SpawnParticle(angle, height, radius, speed, i));
-            }
-        }
+        this.spawnTime = simulation.SimClock.now();
     }
     
     private void initializeMovement() {
         if (movementInitialized) return;
-        Random r = new Random(seed + System.currentTimeMillis());
+        simulation.EntityRandom r = random();
         yaw = r.nextDouble() * Math.PI * 2;
         // Inicializar velocidad correctamente hacia adelante
         velocity.x = Math.sin(yaw) * baseSpeed;
@@ -327,7 +318,12 @@ public class Depredador implements Renderable, Collidable {
     
     @Override
     public void update() {
-        animationTime += 0.016;
+        prevX = posicion.x;
+        prevY = posicion.y;
+        prevZ = posicion.z;
+        hasPrevPosition = true;
+        
+        animationTime += TICK;
         breathePulse = Math.sin(animationTime * 3.0) * 0.2; // Respiración visible
         
         // Animación de caminar EXAGERADA Y DRAMÁTICA
@@ -351,8 +347,8 @@ public class Depredador implements Renderable, Collidable {
         }
         
         // Sistema de parpadeo más frecuente
-        blinkTimer += 0.016;
-        if (eyesOpen && blinkTimer > 2.0 + Math.random() * 1.5) {
+        blinkTimer += TICK;
+        if (eyesOpen && blinkTimer > 2.0 + random().nextDouble() * 1.5) {
             eyesOpen = false;
             blinkTimer = 0.0;
         } else if (!eyesOpen && blinkTimer > 0.15) {
@@ -362,7 +358,7 @@ public class Depredador implements Renderable, Collidable {
         
         // Animación de ataque MUY DRAMÁTICA Y VISIBLE
         if (isAttacking) {
-            attackAnimation += 0.016 / 1.2; // Duración de 1.2 segundos (MUCHO más largo)
+            attackAnimation += TICK / 1.2; // Duración de 1.2 segundos (MUCHO más largo)
             if (attackAnimation >= 1.0) {
                 attackAnimation = 0.0;
                 isAttacking = false;
@@ -378,7 +374,7 @@ public class Depredador implements Renderable, Collidable {
         
         // Death animation
         if (isDying) {
-            deathProgress += 0.016 / DEATH_DURATION;
+            deathProgress += TICK / DEATH_DURATION;
             if (deathProgress >= 1.0) {
                 deathProgress = 1.0;
             }
@@ -389,17 +385,16 @@ public class Depredador implements Renderable, Collidable {
                 p.position.y += p.velocity.y;
                 p.position.z += p.velocity.z;
                 p.velocity.y -= 0.3; // Gravity
-                p.life -= 0.016 / DEATH_DURATION;
+                p.life -= TICK / DEATH_DURATION;
             }
             return;
         }
         
         if (isSpawning) {
-            spawnProgress += 0.016 / SPAWN_DURATION;
+            spawnProgress += TICK / SPAWN_DURATION;
             if (spawnProgress >= 1.0) {
                 spawnProgress = 1.0;
                 isSpawning = false;
-                spawnParticles.clear();
             }
             return;
         }
@@ -424,16 +419,17 @@ public class Depredador implements Renderable, Collidable {
         
         // Check for collisions with prey animals
         if (worldRef != null && !isPaused) {
+            worldRef.updateSpatial(this);
             checkPreyCollisions();
         }
     }
     
     private void updateMovement() {
-        wanderTimer += 0.016;
+        wanderTimer += TICK;
         
         if (wanderTimer >= WANDER_CHANGE_INTERVAL) {
             wanderTimer = 0.0;
-            Random r = new Random(seed + System.currentTimeMillis());
+            simulation.EntityRandom r = random();
             double targetYaw = yaw + (r.nextDouble() - 0.5) * Math.PI * 0.8;
             yaw = targetYaw;
             // Mover hacia adelante: Z negativo es adelante
@@ -461,27 +457,23 @@ public class Depredador implements Renderable, Collidable {
         boolean collisionDetected = false;
         if (worldRef != null) {
             double checkRadius = voxelSize * 4.0; // Radio de colisión
-            java.util.List<Renderable> entities = worldRef.getEntities();
-            for (Renderable entity : entities) {
+            // Candidatos: todo lo que queda dentro del mayor radio de obstáculo (15) o de otro depredador
+            nearbyScratch.clear();
+            worldRef.queryRadius(nextX, nextZ, checkRadius + Math.max(15.0, getCollisionRadius()), nearbyScratch);
+            for (Collidable entity : nearbyScratch) {
                 // Colisionar con rocas, árboles, flores, arbustos (NO con pasto)
                 if (entity instanceof entities.Piedra || 
                     entity instanceof entities.Arbol || 
                     entity instanceof entities.Flor ||
                     entity instanceof entities.Arbusto) {
                     
-                    entities.Collidable collidable = (entities.Collidable) entity;
-                    // Usar AABB para obtener centro aproximado
-                    Vector3 minBB = collidable.getAABBMin();
-                    Vector3 maxBB = collidable.getAABBMax();
-                    Vector3 entityPos = new Vector3(
-                        (minBB.x + maxBB.x) * 0.5,
-                        (minBB.y + maxBB.y) * 0.5,
-                        (minBB.z + maxBB.z) * 0.5
-                    );
+                    // Usar el AABB cacheado para obtener centro aproximado (la planta
+                    // puede estar creciendo en otro hilo durante el tick)
+                    if (!worldRef.getSpatialState(entity, neighborState)) continue;
                     
                     // Calcular distancia a la siguiente posición
-                    double dx = nextX - entityPos.x;
-                    double dz = nextZ - entityPos.z;
+                    double dx = nextX - neighborState[6];
+                    double dz = nextZ - neighborState[8];
                     double distance = Math.sqrt(dx * dx + dz * dz);
                     
                     // Obtener radio de la entidad
@@ -504,10 +496,11 @@ public class Depredador implements Renderable, Collidable {
                 // Colisión con otros depredadores - NUEVO
                 else if (entity instanceof entities.Depredador && entity != this) {
                     entities.Depredador otherDep = (entities.Depredador) entity;
-                    Vector3 otherPos = otherDep.getPosition();
+                    // Posición del otro al inicio del tick (no la que está moviendo ahora)
+                    if (!worldRef.getSpatialState(otherDep, neighborState)) continue;
                     
-                    double dx = nextX - otherPos.x;
-                    double dz = nextZ - otherPos.z;
+                    double dx = nextX - neighborState[6];
+                    double dz = nextZ - neighborState[8];
                     double distance = Math.sqrt(dx * dx + dz * dz);
                     
                     double combinedRadius = checkRadius + otherDep.getCollisionRadius();
@@ -521,7 +514,7 @@ public class Depredador implements Renderable, Collidable {
         
         // Si hay colisión, cambiar dirección
         if (collisionDetected) {
-            Random r = new Random(seed + System.currentTimeMillis());
+            simulation.EntityRandom r = random();
             yaw += Math.PI * 0.5 + r.nextDouble() * Math.PI;
             velocity.x = Math.sin(yaw) * baseSpeed;
             velocity.z = -Math.cos(yaw) * baseSpeed;
@@ -541,15 +534,16 @@ public class Depredador implements Renderable, Collidable {
     }
     
     private void checkPreyCollisions() {
-        List<Renderable> entities = worldRef.getEntities();
-        for (Renderable entity : entities) {
+        nearbyScratch.clear();
+        worldRef.queryRadius(posicion.x, posicion.z, voxelSize * 5.0 + 30.0, nearbyScratch);
+        for (Collidable entity : nearbyScratch) {
             if (entity instanceof BaseAnimal) {
                 BaseAnimal animal = (BaseAnimal) entity;
-                // Check distance-based collision using AABB
-                Vector3 animalPos = animal.getPosicion();
-                double dx = posicion.x - animalPos.x;
-                double dy = posicion.y - animalPos.y;
-                double dz = posicion.z - animalPos.z;
+                // Check distance-based collision con la posición cacheada del animal
+                if (!worldRef.getSpatialState(animal, neighborState)) continue;
+                double dx = posicion.x - neighborState[6];
+                double dy = posicion.y - neighborState[7];
+                double dz = posicion.z - neighborState[8];
                 double distSq = dx*dx + dy*dy + dz*dz;
                 
                 // Use voxelSize as collision radius estimate
@@ -558,8 +552,8 @@ public class Depredador implements Renderable, Collidable {
                 double combinedRadius = depRadius + animalRadius;
                 
                 if (distSq < combinedRadius * combinedRadius) {
-                    // Marcar animal para muerte
-                    animal.markForDeath();
+                    // Marcar animal para muerte (al final del tick: es estado de la presa)
+                    worldRef.defer(animal::markForDeath);
                     // Activar animación de ataque - NUEVO
                     isAttacking = true;
                     attackAnimation = 0.0;
@@ -572,6 +566,22 @@ public class Depredador implements Renderable, Collidable {
     
     @Override
     public void render(SoftwareRenderer renderer, Camera camera) {
+        // Dibujar en la posición interpolada entre el tick anterior y el actual
+        Vector3 current = posicion;
+        double alpha = renderer.getInterpolationAlpha();
+        if (hasPrevPosition && alpha < 1.0) {
+            renderAt(renderer, camera, prevX + (current.x - prevX) * alpha,
+                                       prevY + (current.y - prevY) * alpha,
+                                       prevZ + (current.z - prevZ) * alpha);
+        } else {
+            renderAt(renderer, camera, current.x, current.y, current.z);
+        }
+    }
+    
+    private void renderAt(SoftwareRenderer renderer, Camera camera, double x, double y, double z) {
+        drawX = x;
+        drawY = y;
+        drawZ = z;
         if (isDying) {
             renderDeathAnimation(renderer, camera);
             return;
@@ -728,9 +738,9 @@ public class Depredador implements Renderable, Collidable {
             }
             
             Vector3 worldPos = new Vector3(
-                posicion.x + rotatedVoxel.x * voxelSize * scale + attackOffsetX,
-                posicion.y + rotatedVoxel.y * voxelSize * scale,
-                posicion.z + rotatedVoxel.z * voxelSize * scale + attackOffsetZ
+                drawX + rotatedVoxel.x * voxelSize * scale + attackOffsetX,
+                drawY + rotatedVoxel.y * voxelSize * scale,
+                drawZ + rotatedVoxel.z * voxelSize * scale + attackOffsetZ
             );
             
             Color voxelColor = color;
@@ -798,7 +808,7 @@ public class Depredador implements Renderable, Collidable {
     }
     
     private void renderSpawnAnimation(SoftwareRenderer renderer, Camera camera) {
-        double centerY = posicion.y;
+        double centerY = drawY;
         
         // Esfera de energía (roja oscura)
         double sphereRadius = 15.0 * (1.0 - spawnProgress);
@@ -807,25 +817,32 @@ public class Depredador implements Renderable, Collidable {
             double angle = (i / (double) numSphereParticles) * Math.PI * 2;
             double heightOffset = Math.sin(angle * 3 + animationTime * 5) * 5;
             Vector3 particlePos = new Vector3(
-                posicion.x + Math.cos(angle) * sphereRadius,
+                drawX + Math.cos(angle) * sphereRadius,
                 centerY + heightOffset,
-                posicion.z + Math.sin(angle) * sphereRadius
+                drawZ + Math.sin(angle) * sphereRadius
             );
             Color energyColor = new Color(180, 30, 30, (int)(200 * (1.0 - spawnProgress)));
             Vector3[] particleVerts = renderer.getCubeVertices(particlePos, 6, 0);
             renderer.drawCube(particleVerts, camera, energyColor);
         }
         
-        // Partículas ascendentes
-        for (SpawnParticle p : spawnParticles) {
-            double progress = spawnProgress * p.speed;
+        // Partículas ascendentes: salen de Random(seed + 999) en cada frame del spawn, en
+        // vez de guardar 3 objetos por voxel en cada depredador
+        Random r = new Random(seed + 999);
+        int particles = voxels.size() * SPAWN_PARTICLES_PER_VOXEL;
+        for (int i = 0; i < particles; i++) {
+            double angle = r.nextDouble() * Math.PI * 2;
+            double height = -15 - r.nextDouble() * 10;
+            double radius = 5 + r.nextDouble() * 8;
+            double speed = 0.8 + r.nextDouble() * 0.4;
+            double progress = spawnProgress * speed;
             if (progress < 1.0) {
-                double currentHeight = p.height + progress * (centerY - p.height);
-                double currentRadius = p.radius * (1.0 - progress);
+                double currentHeight = height + progress * (centerY - height);
+                double currentRadius = radius * (1.0 - progress);
                 Vector3 particlePos = new Vector3(
-                    posicion.x + Math.cos(p.angle) * currentRadius,
+                    drawX + Math.cos(angle) * currentRadius,
                     currentHeight,
-                    posicion.z + Math.sin(p.angle) * currentRadius
+                    drawZ + Math.sin(angle) * currentRadius
                 );
                 Color particleColor = new Color(200, 50, 50, (int)(255 * (1.0 - progress)));
                 Vector3[] particleVerts = renderer.getCubeVertices(particlePos, 5, 0);
@@ -840,9 +857,9 @@ public class Depredador implements Renderable, Collidable {
                 if ((i / (double) voxels.size()) <= appearProgress) {
                     Vector3 v = voxels.get(i);
                     Vector3 worldPos = new Vector3(
-                        posicion.x + v.x * voxelSize,
-                        posicion.y + v.y * voxelSize,
-                        posicion.z + v.z * voxelSize
+                        drawX + v.x * voxelSize,
+                        drawY + v.y * voxelSize,
+                        drawZ + v.z * voxelSize
                     );
                     Vector3[] verts = renderer.getCubeVertices(worldPos, voxelSize, 0);
                     renderer.drawCube(verts, camera, color);
@@ -872,9 +889,9 @@ public class Depredador implements Renderable, Collidable {
             );
             
             Vector3 worldPos = new Vector3(
-                posicion.x + collapsedVoxel.x * voxelSize,
-                posicion.y + collapsedVoxel.y * voxelSize,
-                posicion.z + collapsedVoxel.z * voxelSize
+                drawX + collapsedVoxel.x * voxelSize,
+                drawY + collapsedVoxel.y * voxelSize,
+                drawZ + collapsedVoxel.z * voxelSize
             );
             
             // Cambiar color según fase
@@ -940,9 +957,9 @@ public class Depredador implements Renderable, Collidable {
             
             for (int i = 0; i < numWaveParticles; i++) {
                 double angle = (i / (double)numWaveParticles) * Math.PI * 2;
-                double waveX = posicion.x + Math.cos(angle) * waveRadius;
-                double waveZ = posicion.z + Math.sin(angle) * waveRadius;
-                double waveY = posicion.y + 10 - explosionWave * 20; // Baja mientras se expande
+                double waveX = drawX + Math.cos(angle) * waveRadius;
+                double waveZ = drawZ + Math.sin(angle) * waveRadius;
+                double waveY = drawY + 10 - explosionWave * 20; // Baja mientras se expande
                 
                 // Partículas de onda
                 Vector3 wavePos = new Vector3(waveX, waveY, waveZ);
@@ -984,6 +1001,30 @@ public class Depredador implements Renderable, Collidable {
         return new Vector3(maxX, maxY, maxZ);
     }
     
+    // Esfera para frustum culling: el lunge del ataque (hasta 35 unidades) y la cola
+    // se salen del AABB de colisión, así que se suman al radio del modelo
+    @Override
+    public boolean getBoundingSphere(double[] out) {
+        if (isDying || isSpawning) return false;
+        double maxDist2 = 0;
+        for (Vector3 v : voxels) {
+            double d2 = v.x * v.x + v.y * v.y + v.z * v.z;
+            if (d2 > maxDist2) maxDist2 = d2;
+        }
+        double scale = selectionScale * 1.2; // breathePulse llega a +0.2
+        out[0] = posicion.x;
+        out[1] = posicion.y;
+        out[2] = posicion.z;
+        out[3] = (Math.sqrt(maxDist2) + 8.0) * voxelSize * scale + 40.0;
+        return true;
+    }
+    
+    // Se crea al primer uso (no en cada tick): para entonces ya está en el mundo
+    private simulation.EntityRandom random() {
+        if (random == null) random = simulation.Mundo.entityRandom(worldRef, seed);
+        return random;
+    }
+    
     // Utility methods (not from interface)
     public Vector3 getPosition() {
         return posicion;
@@ -1036,7 +1077,7 @@ public class Depredador implements Renderable, Collidable {
     }
     
     private void initializeDeathAnimation() {
-        Random r = new Random(seed + System.currentTimeMillis());
+        simulation.EntityRandom r = random();
         for (int i = 0; i < voxels.size(); i++) {
             Vector3 v = voxels.get(i);
             Vector3 rotatedVoxel = rotateVoxel(v, yaw);
@@ -1078,4 +1119,94 @@ public class Depredador implements Renderable, Collidable {
     public static void setWorldReference(simulation.Mundo world) {
         worldRef = world;
     }
+
+    // --- Registro binario de Persistencia (ancho fijo, little-endian) ---
+
+    public static int getNextDepredadorId() { return nextDepredadorId; }
+    public static void setNextDepredadorId(int next) { nextDepredadorId = next; }
+
+    /** Bytes de un registro de writeState. */
+    public static final int STATE_BYTES = 144;
+    /** Offset de la posición (x, y, z double) en el registro. */
+    public static final int STATE_POS_OFFSET = 40;
+
+    private static final int S_SPAWNING = 1, S_MOVING = 2, S_DYING = 4, S_DEAD = 8,
+                             S_ATTACKING = 16, S_EYES_OPEN = 32, S_PAUSED = 64, S_RANDOM = 128;
+
+    /** Estado simulado completo (ver BaseAnimal.writeState); slot es el orden en el mundo. */
+    public void writeState(java.nio.ByteBuffer out, int slot, long now) {
+        int flags = 0;
+        if (isSpawning) flags |= S_SPAWNING;
+        if (movementInitialized) flags |= S_MOVING;
+        if (isDying) flags |= S_DYING;
+        if (markedForDeath) flags |= S_DEAD;
+        if (isAttacking) flags |= S_ATTACKING;
+        if (eyesOpen) flags |= S_EYES_OPEN;
+        if (isPaused) flags |= S_PAUSED;
+        if (random != null) flags |= S_RANDOM;
+        out.putInt(slot);
+        out.putInt(depredadorId);
+        out.putLong(seed);
+        out.putInt(flags);
+        out.putInt(0); // reservado (alineación)
+        out.putLong(random != null ? random.getState() : 0L);
+        out.putLong(now - spawnTime);
+        out.putDouble(posicion.x).putDouble(posicion.y).putDouble(posicion.z);
+        out.putDouble(velocity.x).putDouble(velocity.z).putDouble(yaw);
+        out.putDouble(wanderTimer);
+        out.putDouble(spawnProgress);
+        out.putDouble(deathProgress);
+        out.putDouble(animationTime);
+        out.putDouble(blinkTimer);
+        out.putDouble(attackAnimation);
+        out.putDouble(attackFlash);
+    }
+
+    /** Lee un registro de writeState y recrea el depredador con el mismo seed y estado. */
+    public static Depredador readState(java.nio.ByteBuffer in, long now) {
+        in.getInt(); // slot
+        int id = in.getInt();
+        long seed = in.getLong();
+        int flags = in.getInt();
+        in.getInt();
+        long randomState = in.getLong();
+        long spawnAge = in.getLong();
+        Vector3 pos = new Vector3(in.getDouble(), in.getDouble(), in.getDouble());
+        Depredador d = new Depredador(pos, seed);
+        d.velocity = new Vector3(in.getDouble(), 0, in.getDouble());
+        d.yaw = in.getDouble();
+        d.wanderTimer = in.getDouble();
+        d.spawnProgress = in.getDouble();
+        d.deathProgress = in.getDouble();
+        d.animationTime = in.getDouble();
+        d.blinkTimer = in.getDouble();
+        d.attackAnimation = in.getDouble();
+        d.attackFlash = in.getDouble();
+        d.depredadorId = id;
+        if (id >= nextDepredadorId) nextDepredadorId = id + 1;
+        d.spawnTime = now - spawnAge;
+        d.isSpawning = (flags & S_SPAWNING) != 0;
+        d.movementInitialized = (flags & S_MOVING) != 0;
+        d.isDying = (flags & S_DYING) != 0;
+        d.markedForDeath = (flags & S_DEAD) != 0;
+        d.isAttacking = (flags & S_ATTACKING) != 0;
+        d.eyesOpen = (flags & S_EYES_OPEN) != 0;
+        d.isPaused = (flags & S_PAUSED) != 0;
+        if ((flags & S_RANDOM) != 0) d.random = new simulation.EntityRandom(randomState);
+        return d;
+    }
+
+    // --- Registro de movimiento del journal de Autosave (ver BaseAnimal.writeMotion) ---
+
+    public static final int MOTION_BYTES = 20;
+
+    public void writeMotion(java.nio.ByteBuffer out) {
+        out.putInt(depredadorId);
+        out.putFloat((float) posicion.x).putFloat((float) posicion.y).putFloat((float) posicion.z).putFloat((float) yaw);
+    }
+
+    public void readMotion(java.nio.ByteBuffer in) {
+        posicion = new Vector3(in.getFloat(), in.getFloat(), in.getFloat());
+        yaw = in.getFloat();
+    }
 }
@@ -12,7 +12,7 @@ import java.util.Random;
 /**
  * Flor: Entidad decorativa pequeña con variación de tamaño y color.
  */
-public class Flor implements Renderable, Collidable {
+public class Flor implements Renderable, Collidable, StaticVoxels {
     private Vector3 posicion;
     private List<Vector3> petalos;
     private Vector3 centro;
@@ -26,7 +26,7 @@ public class Flor implements Renderable, Collidable {
     private long creationTime;
     private int maxVoxelSize;
     private static final long GROWTH_DURATION = 120000L; // 2 minutes to full growth
-    private double growthProgress = 0.0;
+    private volatile double growthProgress = 0.0;
 
     public Flor(Vector3 posicion, Color colorPetalo) {
         this(posicion, colorPetalo, System.currentTimeMillis());
@@ -39,7 +39,7 @@ public class Flor implements Renderable, Collidable {
         this.colorCentro = new Color(255, 220, 80); // amarillo cálido
         this.centro = new Vector3(0, 1, 0);
         this.petalos = new ArrayList<>();
-        this.creationTime = System.currentTimeMillis();
+        this.creationTime = simulation.SimClock.now();
         
         Random r = new Random(seed);
         // Tamaño variable: 1-3 píxeles (flores MÁS PEQUEÑAS - reducido a la mitad)
@@ -54,6 +54,11 @@ public class Flor implements Renderable, Collidable {
         this.creationTime = creationTime;
     }
 
+    public Vector3 getPosicion() { return posicion; }
+    public long getSeed() { return seed; }
+    public long getCreationTime() { return creationTime; }
+    public Color getColorPetalo() { return colorPetalo; }
+
     private void generateFlower() {
         Random r = new Random(seed);
         // 4 pétalos en cruz
@@ -72,7 +77,7 @@ public class Flor implements Renderable, Collidable {
     @Override
     public void update() {
         // Actualizar progreso de crecimiento
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.SimClock.now();
         long elapsedTime = currentTime - creationTime;
         growthProgress = Math.min(1.0, (double) elapsedTime / GROWTH_DURATION);
         
@@ -99,6 +104,23 @@ public class Flor implements Renderable, Collidable {
         }
     }
 
+    @Override
+    public boolean isStaticGeometry() {
+        return growthProgress >= 1.0;
+    }
+
+    @Override
+    public void bakeVoxels(render.StaticMesh.Builder out) {
+        // Pétalos en medias posiciones de la grilla: cubos sueltos, como en render()
+        out.cube(posicion.x, posicion.y + centro.y * maxVoxelSize, posicion.z, maxVoxelSize + 1, colorCentro.getRGB());
+        for (Vector3 petalo : petalos) {
+            out.cube(posicion.x + petalo.x * maxVoxelSize,
+                     posicion.y + petalo.y * maxVoxelSize,
+                     posicion.z + petalo.z * maxVoxelSize,
+                     maxVoxelSize, colorPetalo.getRGB());
+        }
+    }
+
     @Override
     public Vector3 getAABBMin() {
         double minX = posicion.x - 2 * voxelSize;
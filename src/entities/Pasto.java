@@ -30,7 +30,7 @@ public class Pasto implements Renderable, Collidable {
     public Pasto(Vector3 posicion, long seed) {
         this.posicion = posicion;
         this.seed = seed;
-        this.creationTime = System.currentTimeMillis();
+        this.creationTime = simulation.SimClock.now();
         this.voxelSize = 2; // muy delgado
         this.voxels = new ArrayList<>();
         
@@ -50,6 +50,10 @@ public class Pasto implements Renderable, Collidable {
         this.creationTime = creationTime;
     }
 
+    public Vector3 getPosicion() { return posicion; }
+    public long getSeed() { return seed; }
+    public long getCreationTime() { return creationTime; }
+
     private void generateGrass() {
         Random r = new Random(seed);
         // Crear 3-5 tallos delgados
@@ -71,7 +75,7 @@ public class Pasto implements Renderable, Collidable {
         if (wave > 2 * Math.PI) wave -= 2 * Math.PI;
         
         // Actualizar crecimiento: después de 20 segundos alcanza tamaño completo (pasto más rápido)
-        long elapsedTime = System.currentTimeMillis() - creationTime;
+        long elapsedTime = simulation.SimClock.now() - creationTime;
         double growthTime = 20.0; // 20 segundos para crecer completamente
         double elapsedSeconds = elapsedTime / 1000.0;
         growthScale = Math.min(1.0, 0.1 + (elapsedSeconds / growthTime) * 0.9);
@@ -12,7 +12,7 @@ import java.util.Random;
 /**
  * Piedra: Roca ambiental con variación de tamaño y color.
  */
-public class Piedra implements Renderable, Collidable {
+public class Piedra implements Renderable, Collidable, StaticVoxels {
     private Vector3 posicion;
     private List<Vector3> voxels;
     private int voxelSize;
@@ -74,6 +74,9 @@ public class Piedra implements Renderable, Collidable {
         }
     }
 
+    public Vector3 getPosicion() { return posicion; }
+    public long getSeed() { return seed; }
+
     @Override
     public void update() {
         // Animación deshabilitada
@@ -92,6 +95,19 @@ public class Piedra implements Renderable, Collidable {
         }
     }
 
+    @Override
+    public boolean isStaticGeometry() {
+        return true;
+    }
+
+    @Override
+    public void bakeVoxels(render.StaticMesh.Builder out) {
+        out.beginGroup(posicion.x, posicion.y, posicion.z, voxelSize);
+        int rgb = color.getRGB();
+        for (Vector3 v : voxels) out.voxel((int) v.x, (int) v.y, (int) v.z, rgb);
+        out.endGroup();
+    }
+
     @Override
     public Vector3 getAABBMin() {
         double minX = Double.POSITIVE_INFINITY;
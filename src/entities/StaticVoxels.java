@@ -0,0 +1,14 @@
+package entities;
+
+/**
+ * Entidad ambiental cuya geometría, una vez fija, se puede hornear junto con la del resto
+ * del mundo (simulation.Mundo.getStaticBake). Mientras isStaticGeometry() sea false (una
+ * planta que todavía crece) se sigue dibujando con su propio render().
+ */
+public interface StaticVoxels {
+    /** true cuando los voxels ya no cambian: desde ese momento se dibuja horneada. */
+    boolean isStaticGeometry();
+
+    /** Agrega sus voxels al horneado (grillas con beginGroup/voxel o cubos sueltos). */
+    void bakeVoxels(render.StaticMesh.Builder out);
+}
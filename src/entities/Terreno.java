@@ -2,30 +2,22 @@ package entities;
 
 import main.Renderable;
 import render.SoftwareRenderer;
-import math.Vector3;
 import math.Camera;
 import java.awt.Color;
-import java.util.Random;
 
 /**
  * ============================================================================================
  * TERRENO - PRIMITIVA 3D: MALLA (GRID/MESH) CON HEIGHTMAP
  * ============================================================================================
- * 
+ *
  * Esta clase implementa el requisito de "TERRENO" como primitiva geométrica basada en MALLA.
- * 
+ *
  * DEFINICIÓN GEOMÉTRICA:
  * Un terreno es una SUPERFICIE 3D representada por una MALLA (grid) de vértices:
- * - Grid 2D: width × depth puntos de muestreo
- * - Heightmap: heights[x][z] = elevación Y en cada punto
+ * - Grid 2D: vértices cada CELL_SIZE unidades en X y Z
+ * - Heightmap: altura Y de cada vértice, generada por una función de ruido con seed
  * - Triangulación: Cada celda se divide en 2 triángulos
- * 
- * ESTRUCTURA TOPOLÓGICA:
- * Para un grid de (width × depth) vértices:
- * - Número de vértices: width * depth
- * - Número de celdas: (width-1) * (depth-1)
- * - Número de triángulos: 2 * (width-1) * (depth-1)
- * 
+ *
  * Cada celda forma un quad dividido en 2 triángulos:
  *   (x,z) -------- (x+1,z)
  *     |    \          |
@@ -33,75 +25,241 @@ import java.util.Random;
  *     |        \      |
  *     |          \    |
  *   (x,z+1) ---- (x+1,z+1)
- * 
- * Triángulo 1: (x,z), (x+1,z+1), (x,z+1)
- * Triángulo 2: (x,z), (x+1,z), (x+1,z+1)
- * 
+ *
+ * Triángulo 1: (x,z), (x+1,z), (x+1,z+1)
+ * Triángulo 2: (x,z), (x+1,z+1), (x,z+1)
+ *
  * GENERACIÓN DE ALTURAS:
- * En este proyecto el terreno es PLANO (requisito específico):
- * - heights[x][z] = 0.0 para todo (x,z)
- * - No hay montes ni valles
- * - Esto simplifica colisiones (todos los animales caminan en Y=0)
- * 
- * RENDERIZADO:
- * - Grid ultra-denso: 50x50 celdas = 2500 quads = 5000 triángulos
- * - Área: 800x800 unidades
- * - Tamaño de celda: 16 unidades
- * - Se usa caché de proyección para optimizar (cada vértice se proyecta 1 sola vez)
- * 
+ * - Value noise fractal (fBm, OCTAVES octavas) sembrado con la seed: mismo seed, mismo terreno
+ * - La amplitud se fija con -Decosistema.terrainAmplitude; por defecto es 0 y el terreno es
+ *   PLANO en Y=0 (requisito del proyecto: todos los animales caminan en Y=0)
+ * - Las alturas se calculan en los vértices del grid; no se guarda ninguna matriz
+ *
+ * CONSISTENCIA CON EL RENDER:
+ * getHeightAt interpola sobre la misma triangulación que se dibuja con el nivel de detalle
+ * más fino (mismos vértices, misma diagonal), así lo que pisan los animales es lo que se ve.
+ * Los niveles gruesos usan un subconjunto de esos vértices (solo se ven lejos).
+ *
+ * CHUNKS Y NIVELES DE DETALLE (LOD):
+ * - El terreno se parte en chunks de CHUNK_CELLS × CHUNK_CELLS celdas (128×128 unidades)
+ * - Cada chunk existe en LOD_LEVELS niveles: el nivel l usa un vértice cada 2^l celdas
+ *   (8×8, 4×4, 2×2 y 1 quad por chunk)
+ * - El nivel se elige por distancia a la cámara: LOD 0 hasta -Decosistema.terrainLodDistance
+ *   (256), y cada nivel siguiente cubre el doble de distancia
+ * - Solo se consideran chunks dentro de -Decosistema.terrainViewDistance (2400) y del
+ *   frustum, así el costo por frame no crece con el tamaño del mundo
+ * - Con relieve, cada chunk lleva "faldas" (quads verticales en sus bordes) que tapan las
+ *   grietas entre chunks vecinos de distinto nivel
+ *
+ * GENERACIÓN PEREZOSA EN SEGUNDO PLANO:
+ * - Un chunk se genera la primera vez que se necesita, en un hilo daemon ("terrain-gen")
+ * - Mientras tanto se dibuja cualquier otro nivel ya generado del mismo chunk; si no hay
+ *   ninguno, el nivel más grueso (un solo quad) se genera en el momento
+ * - Los chunks que no se dibujan en EVICT_FRAMES frames se descartan
+ * - setAsyncGeneration(false) genera todo en el hilo de render (frames reproducibles para
+ *   RenderBenchmark)
+ *
  * CONCEPTOS IMPLEMENTADOS:
  * - PRIMITIVA 3D: Malla triangular (grid topology)
- * - HEIGHTMAP: Matriz 2D de elevaciones
+ * - HEIGHTMAP: Alturas procedurales por vértice
  * - TRIANGULACIÓN: Conversión de quads a triángulos
  * - PROYECCIÓN: Transformación 3D → 2D
- * - CULLING: No se renderizan triángulos fuera de cámara
- * 
+ * - CULLING: Chunks fuera de cámara o de la distancia de visión no se dibujan
+ * - LOD: Menos triángulos cuanto más lejos
+ *
  * @author Sistema de Ecosistema 3D
  * @version 1.0
  */
-public class Terreno implements Renderable, HeightProvider {
+public class Terreno implements Renderable, HeightProvider, Bounded {
     private int width, depth;
     private double scale;
-    private double[][] heights;
+    private final long seed;
     private Color baseColor;
     private double terrainOffset = -0.01; // shared offset applied to rendered vertices and height queries
 
+    // Grid de render: celdas de 16 unidades agrupadas en chunks de 8×8 celdas
+    static final double CELL_SIZE = 16;
+    static final int CHUNK_CELLS = 8;
+    static final double CHUNK_SIZE = CELL_SIZE * CHUNK_CELLS;
+    static final int LOD_LEVELS = 4; // 8×8, 4×4, 2×2, 1×1 quads por chunk
+    private static final int OCTAVES = 4;
+    private static final double FEATURE_SIZE = 320.0; // longitud de onda de la primera octava
+    private static final double AMPLITUDE = Double.parseDouble(System.getProperty("ecosistema.terrainAmplitude", "0"));
+    private static final double LOD_DISTANCE = Double.parseDouble(System.getProperty("ecosistema.terrainLodDistance", "256"));
+    private static final double VIEW_DISTANCE = Double.parseDouble(System.getProperty("ecosistema.terrainViewDistance", "2400"));
+    private static final int EVICT_FRAMES = 240;
+
+    private final double amplitude;
+    private final double halfExtent;   // el terreno cubre [-halfExtent, halfExtent] en X y Z
+    private final int minChunk, maxChunk;
+
+    // Chunks generados por clave (cx, cz, lod); los escribe también el hilo de generación
+    private final java.util.concurrent.ConcurrentHashMap<Long, Chunk> chunks = new java.util.concurrent.ConcurrentHashMap<>();
+    private final java.util.Set<Long> pending = java.util.concurrent.ConcurrentHashMap.newKeySet();
+    private final java.util.concurrent.atomic.AtomicInteger generated = new java.util.concurrent.atomic.AtomicInteger();
+    private volatile boolean asyncGeneration = true;
+
+    // Estado del hilo de render: chunks elegidos para la vista actual
+    private final java.util.ArrayList<Chunk> visibleChunks = new java.util.ArrayList<>();
+    private math.CameraFrame selectedFrame = null;
+    private int selectedGeneration = -1;
+    private long frameCounter = 0;
+    private final double[][] quad = new double[4][3]; // drawQuadScreen hace snap in-place
+    private Color gridColor;
+
+    // Hilo de generación compartido (se crea solo si algún terreno genera en segundo plano)
+    private static final class Generator {
+        static final java.util.concurrent.ExecutorService POOL =
+            java.util.concurrent.Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "terrain-gen");
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    /**
+     * Un nivel de detalle de un chunk: vértices en world space y quads (4 índices cada uno,
+     * p00, p10, p11, p01 como drawQuadScreen). Los vértices no cambian; la proyección se
+     * guarda aparte y se reutiliza mientras la cámara no cambie (CameraFrame.sameView).
+     */
+    private static final class Chunk {
+        final double[] vx, vy, vz;
+        final int[] quads;
+        final double minY, maxY;
+        // Caché de proyección (solo la usa el hilo de render)
+        final double[] px, py, pz;
+        final byte[] state;
+        math.CameraFrame projFrame = null;
+        long lastUsed = 0;
+
+        Chunk(double[] vx, double[] vy, double[] vz, int[] quads){
+            this.vx = vx;
+            this.vy = vy;
+            this.vz = vz;
+            this.quads = quads;
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            for (double y : vy) {
+                lo = Math.min(lo, y);
+                hi = Math.max(hi, y);
+            }
+            minY = lo;
+            maxY = hi;
+            px = new double[vx.length];
+            py = new double[vx.length];
+            pz = new double[vx.length];
+            state = new byte[vx.length];
+        }
+
+        static final byte PROJ_PENDING = 0, PROJ_OK = 1, PROJ_FAILED = 2;
+        private final double[] projOut = new double[3];
+
+        void draw(SoftwareRenderer renderer, math.CameraFrame frame, Color color, double[][] quad){
+            if (!frame.sameView(projFrame)) {
+                java.util.Arrays.fill(state, PROJ_PENDING);
+                projFrame = frame;
+            }
+            for (int q = 0; q < quads.length; q += 4) {
+                int a = quads[q], b = quads[q + 1], c = quads[q + 2], d = quads[q + 3];
+                // Las 4 esquinas deben ser proyectables (near plane)
+                if (project(frame, a) && project(frame, b) && project(frame, c) && project(frame, d)) {
+                    load(a, quad[0]);
+                    load(b, quad[1]);
+                    load(c, quad[2]);
+                    load(d, quad[3]);
+                    renderer.drawQuadScreen(quad[0], quad[1], quad[2], quad[3], color);
+                }
+            }
+        }
+
+        private boolean project(math.CameraFrame frame, int v){
+            byte s = state[v];
+            if (s == PROJ_PENDING) {
+                if (frame.project(vx[v], vy[v], vz[v], projOut)) {
+                    px[v] = projOut[0];
+                    py[v] = projOut[1];
+                    pz[v] = projOut[2];
+                    s = PROJ_OK;
+                } else {
+                    s = PROJ_FAILED;
+                }
+                state[v] = s;
+            }
+            return s == PROJ_OK;
+        }
+
+        private void load(int v, double[] out){
+            out[0] = px[v];
+            out[1] = py[v];
+            out[2] = pz[v];
+        }
+    }
+
     public Terreno(int width, int depth, double scale, long seed, Color baseColor){
         this.width = Math.max(2, width);
         this.depth = Math.max(2, depth);
         this.scale = scale;
+        this.seed = seed;
         this.baseColor = baseColor;
-        this.heights = new double[this.width][this.depth];
-        generateHeights(seed);
+        this.amplitude = AMPLITUDE;
+        // Al menos el tamaño pedido, y siempre un chunk más allá del límite del mundo
+        double requested = Math.max(this.width, this.depth) * scale / 2.0;
+        this.halfExtent = Math.max(requested, simulation.Mundo.WORLD_BOUND + CHUNK_SIZE);
+        this.minChunk = (int) Math.floor(-halfExtent / CHUNK_SIZE);
+        this.maxChunk = (int) Math.ceil(halfExtent / CHUNK_SIZE) - 1;
+    }
+
+    /** false: los chunks se generan en el hilo que dibuja (frames reproducibles). */
+    public void setAsyncGeneration(boolean async){
+        this.asyncGeneration = async;
+    }
+
+    /** Chunks (de cualquier nivel) generados y en memoria. */
+    public int getChunkCount(){
+        return chunks.size();
     }
 
     /**
      * ========================================================================================
-     * generateHeights - Genera el heightmap del terreno
+     * vertexHeight - Altura del vértice (ix, iz) del grid
      * ========================================================================================
-     * 
-     * ALGORITMO: Terreno plano (requisito del proyecto)
-     * - Todas las alturas son 0.0 (plano horizontal en Y=0)
-     * - No hay variación topográfica (montes/valles)
-     * 
-     * ALTERNATIVAS COMUNES (no usadas aquí):
-     * - Perlin Noise: Genera terreno orgánico con colinas suaves
-     * - Diamond-Square: Algoritmo fractal para terreno procedural
-     * - Heightmap texture: Cargar alturas desde imagen en escala de grises
-     * 
-     * @param seed Semilla para generación determinista (no usada en terreno plano)
+     *
+     * ALGORITMO: fBm de value noise
+     * - OCTAVES capas de ruido, cada una al doble de frecuencia y la mitad de amplitud
+     * - Cada capa interpola (smoothstep) valores pseudoaleatorios en una grilla entera,
+     *   obtenidos con un hash de (x, z, octava, seed): no hay tablas ni estado
+     * - Con amplitud 0 el terreno es plano (Y=0) y no se evalúa el ruido
      */
-    private void generateHeights(long seed){
-        // For this project requirement the terrain must be completely flat
-        // (no montes ni valles). Set every sample to a constant elevation.
-        double flatHeight = 0.0; // world Y coordinate for the flat plane
-        
-        // Inicializar heightmap: todos los puntos en Y=0
-        for(int x=0;x<width;x++){
-            for(int z=0;z<depth;z++){
-                heights[x][z] = flatHeight; // TERRENO PLANO
-            }
+    private double vertexHeight(long ix, long iz){
+        if (amplitude == 0.0) return 0.0;
+        double x = ix * CELL_SIZE, z = iz * CELL_SIZE;
+        double sum = 0.0, norm = 0.0, amp = 1.0, freq = 1.0 / FEATURE_SIZE;
+        for (int o = 0; o < OCTAVES; o++) {
+            sum += amp * valueNoise(x * freq, z * freq, o);
+            norm += amp;
+            amp *= 0.5;
+            freq *= 2.0;
         }
+        return amplitude * sum / norm;
+    }
+
+    private double valueNoise(double x, double z, int octave){
+        long x0 = (long) Math.floor(x), z0 = (long) Math.floor(z);
+        double tx = x - x0, tz = z - z0;
+        double ux = tx * tx * (3 - 2 * tx), uz = tz * tz * (3 - 2 * tz);
+        double a = lattice(x0, z0, octave), b = lattice(x0 + 1, z0, octave);
+        double c = lattice(x0, z0 + 1, octave), d = lattice(x0 + 1, z0 + 1, octave);
+        double top = a + (b - a) * ux;
+        double bottom = c + (d - c) * ux;
+        return top + (bottom - top) * uz;
+    }
+
+    // Valor en [-1, 1] para un punto entero de la grilla de ruido (hash SplitMix64)
+    private double lattice(long x, long z, int octave){
+        long h = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (z * 0xC2B2AE3D27D4EB4FL) ^ (octave * 0x165667B19E3779F9L);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= (h >>> 31);
+        return (h >>> 11) * 0x1.0p-53 * 2.0 - 1.0;
     }
 
     /**
@@ -114,102 +272,210 @@ public class Terreno implements Renderable, HeightProvider {
      * ========================================================================================
      * render - Renderiza la MALLA del terreno
      * ========================================================================================
-     * 
+     *
      * ALGORITMO DE RENDERIZADO:
-     * 1. Genera grid de 50×50 = 2500 celdas (5000 triángulos)
-     * 2. OPTIMIZACIÓN: Pre-proyecta todos los vértices y los cachea
-     * 3. Para cada celda: renderiza 2 triángulos
-     * 
-     * ESTRUCTURA DEL GRID:
-     * - Área total: 800×800 unidades
-     * - Tamaño de celda: 16 unidades
-     * - Número de celdas: 50×50
-     * - Vértices totales: 51×51 = 2601
-     * - Triángulos totales: 2 × 50 × 50 = 5000
-     * 
-     * TOPOLOGÍA:
-     * Cada celda (ix, iz) tiene 4 esquinas:
-     *   (ix, iz) ----------- (ix+1, iz)
-     *      |                     |
-     *      |                     |
-     *   (ix, iz+1) --------- (ix+1, iz+1)
-     * 
-     * Se divide en 2 triángulos compartiendo diagonal.
-     * 
-     * CACHÉ DE PROYECCIÓN:
-     * - Evita proyectar el mismo vértice múltiples veces
-     * - Key: "ix,iz" → Value: [sx, sy, cz] (screen x, screen y, camera z)
-     * - Mejora rendimiento ~4x (cada vértice compartido por 2-6 triángulos)
-     * 
+     * 1. Si la vista cambió (o terminó de generarse algún chunk), elegir los chunks a dibujar:
+     *    dentro de la distancia de visión, dentro del frustum, con su LOD por distancia
+     * 2. Cada chunk dibuja sus quads (2 triángulos cada uno) con vértices proyectados una
+     *    sola vez y reutilizados mientras la cámara no se mueva
+     * 3. Cada EVICT_FRAMES frames se descartan los chunks que no se usaron
+     *
      * @param renderer Motor de renderizado por software
      * @param cam Cámara para transformación de vista y proyección
      */
     @Override
     public void render(SoftwareRenderer renderer, Camera cam){
-        double gridSize = 800;    // Dimensión total del grid
-        double cellSize = 16;     // Tamaño de cada celda (16×16 unidades)
-        int cells = 50;           // Número de celdas por dimensión (50×50)
-        
-        // Color oscurecido para líneas del grid
-        Color col = new Color(
-            Math.max(0, baseColor.getRed() - 20),
-            Math.max(0, baseColor.getGreen() - 20),
-            Math.max(0, baseColor.getBlue() - 20)
-        );
-        
-        double y = 0.0; // Y constante (terreno plano)
-        
-        // OPTIMIZACIÓN: Caché de proyección (evita re-proyectar vértices compartidos)
-        java.util.HashMap<String, double[]> projCache = new java.util.HashMap<>();
-        
-        // FASE 1: Pre-proyectar TODOS los vértices del grid
-        for(int ix = 0; ix <= cells; ix++) {
-            for(int iz = 0; iz <= cells; iz++) {
-                double x = -gridSize/2 + ix*cellSize; // Centrar grid en origen
-                double z = -gridSize/2 + iz*cellSize;
-                String key = ix + "," + iz;
-                Vector3 v = new Vector3(x, y, z);
-                double[] proj = renderer.project(v, cam);
-                projCache.put(key, proj);
+        if (gridColor == null) {
+            // Color oscurecido para líneas del grid
+            gridColor = new Color(
+                Math.max(0, baseColor.getRed() - 20),
+                Math.max(0, baseColor.getGreen() - 20),
+                Math.max(0, baseColor.getBlue() - 20)
+            );
+        }
+        frameCounter++;
+
+        math.CameraFrame frame = renderer.getCameraFrame(cam);
+        int gen = generated.get();
+        if (!frame.sameView(selectedFrame) || gen != selectedGeneration) {
+            selectChunks(frame);
+            selectedFrame = frame;
+            selectedGeneration = gen;
+        }
+
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            Chunk c = visibleChunks.get(i);
+            c.lastUsed = frameCounter;
+            c.draw(renderer, frame, gridColor, quad);
+        }
+
+        if (frameCounter % EVICT_FRAMES == 0) evictUnused();
+    }
+
+    // Chunks dentro de la distancia de visión y del frustum, con el LOD según distancia
+    private void selectChunks(math.CameraFrame frame){
+        visibleChunks.clear();
+        int cx0 = Math.max(minChunk, (int) Math.floor((frame.px - VIEW_DISTANCE) / CHUNK_SIZE));
+        int cx1 = Math.min(maxChunk, (int) Math.floor((frame.px + VIEW_DISTANCE) / CHUNK_SIZE));
+        int cz0 = Math.max(minChunk, (int) Math.floor((frame.pz - VIEW_DISTANCE) / CHUNK_SIZE));
+        int cz1 = Math.min(maxChunk, (int) Math.floor((frame.pz + VIEW_DISTANCE) / CHUNK_SIZE));
+        double halfDiagonal = CHUNK_SIZE * Math.sqrt(0.5);
+        // Alturas posibles antes de generar el chunk (faldas incluidas)
+        double loY = -amplitude - skirtDepth(), hiY = amplitude;
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cz = cz0; cz <= cz1; cz++) {
+                double x0 = cx * CHUNK_SIZE, z0 = cz * CHUNK_SIZE;
+                double dx = x0 + CHUNK_SIZE / 2 - frame.px, dz = z0 + CHUNK_SIZE / 2 - frame.pz;
+                double dist = Math.sqrt(dx * dx + dz * dz + frame.py * frame.py);
+                if (dist - halfDiagonal > VIEW_DISTANCE) continue;
+                if (!frame.isAabbVisible(x0, loY, z0, x0 + CHUNK_SIZE, hiY, z0 + CHUNK_SIZE)) continue;
+
+                int lod = 0;
+                for (double limit = LOD_DISTANCE; lod < LOD_LEVELS - 1 && dist - halfDiagonal > limit; limit *= 2) lod++;
+                Chunk c = chunkFor(cx, cz, lod);
+                if (c != null) visibleChunks.add(c);
             }
         }
-        
-        for(int ix = 0; ix < cells; ix++) {
-            for(int iz = 0; iz < cells; iz++) {
-                String k00 = ix + "," + iz;
-                String k10 = (ix+1) + "," + iz;
-                String k01 = ix + "," + (iz+1);
-                String k11 = (ix+1) + "," + (iz+1);
-                
-                double[] p00 = projCache.get(k00);
-                double[] p10 = projCache.get(k10);
-                double[] p01 = projCache.get(k01);
-                double[] p11 = projCache.get(k11);
-                
-                if (p00 != null && p10 != null && p01 != null && p11 != null) {
-                    renderer.drawQuadScreen(p00, p10, p11, p01, col);
+    }
+
+    private static long chunkKey(int cx, int cz, int lod){
+        return ((long) cx << 36) ^ (((long) cz & 0xFFFFFFFFL) << 4) ^ lod;
+    }
+
+    // El chunk en el nivel pedido o, mientras se genera, el nivel más cercano disponible
+    private Chunk chunkFor(int cx, int cz, int lod){
+        long key = chunkKey(cx, cz, lod);
+        Chunk c = chunks.get(key);
+        if (c != null) return c;
+        if (!asyncGeneration) {
+            c = generateChunk(cx, cz, lod);
+            chunks.put(key, c);
+            return c;
+        }
+        if (pending.add(key)) {
+            Generator.POOL.execute(() -> {
+                chunks.put(key, generateChunk(cx, cz, lod));
+                pending.remove(key);
+                generated.incrementAndGet();
+            });
+        }
+        for (int d = 1; d < LOD_LEVELS; d++) {
+            if (lod + d < LOD_LEVELS && (c = chunks.get(chunkKey(cx, cz, lod + d))) != null) return c;
+            if (lod - d >= 0 && (c = chunks.get(chunkKey(cx, cz, lod - d))) != null) return c;
+        }
+        // Nada generado todavía: el nivel más grueso es un solo quad, se genera ya
+        int coarsest = LOD_LEVELS - 1;
+        c = generateChunk(cx, cz, coarsest);
+        chunks.putIfAbsent(chunkKey(cx, cz, coarsest), c);
+        return c;
+    }
+
+    private void evictUnused(){
+        long cutoff = frameCounter - EVICT_FRAMES;
+        chunks.values().removeIf(c -> c.lastUsed < cutoff);
+    }
+
+    private double skirtDepth(){
+        return amplitude == 0.0 ? 0.0 : amplitude * 0.5 + CELL_SIZE;
+    }
+
+    // Vértices y quads de un chunk en el nivel lod (un vértice cada 2^lod celdas)
+    private Chunk generateChunk(int cx, int cz, int lod){
+        int step = 1 << lod;
+        int n = CHUNK_CELLS / step;
+        int side = n + 1;
+        boolean skirts = amplitude != 0.0;
+        int surface = side * side;
+        int verts = surface + (skirts ? 4 * side : 0);
+        double[] vx = new double[verts], vy = new double[verts], vz = new double[verts];
+        long baseX = (long) cx * CHUNK_CELLS, baseZ = (long) cz * CHUNK_CELLS;
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                long ix = baseX + (long) i * step, iz = baseZ + (long) j * step;
+                int v = i * side + j;
+                vx[v] = ix * CELL_SIZE;
+                vy[v] = vertexHeight(ix, iz);
+                vz[v] = iz * CELL_SIZE;
+            }
+        }
+
+        int quadCount = n * n + (skirts ? 4 * n : 0);
+        int[] quads = new int[quadCount * 4];
+        int q = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int v00 = i * side + j, v10 = v00 + side;
+                quads[q++] = v00;
+                quads[q++] = v10;
+                quads[q++] = v10 + 1;
+                quads[q++] = v00 + 1;
+            }
+        }
+
+        if (skirts) {
+            // Faldas: cada borde baja skirtDepth() bajo sus vértices
+            double drop = skirtDepth();
+            for (int e = 0; e < 4; e++) {
+                for (int k = 0; k < side; k++) {
+                    int top = edgeVertex(e, k, side);
+                    int bottom = surface + e * side + k;
+                    vx[bottom] = vx[top];
+                    vy[bottom] = vy[top] - drop;
+                    vz[bottom] = vz[top];
+                }
+                for (int k = 0; k < n; k++) {
+                    quads[q++] = edgeVertex(e, k, side);
+                    quads[q++] = edgeVertex(e, k + 1, side);
+                    quads[q++] = surface + e * side + k + 1;
+                    quads[q++] = surface + e * side + k;
                 }
             }
         }
+        return new Chunk(vx, vy, vz, quads);
+    }
+
+    // Vértice k del borde e: 0 = z mínimo, 1 = z máximo, 2 = x mínimo, 3 = x máximo
+    private static int edgeVertex(int e, int k, int side){
+        switch (e) {
+            case 0: return k * side;
+            case 1: return k * side + side - 1;
+            case 2: return k;
+            default: return (side - 1) * side + k;
+        }
+    }
+
+    /**
+     * Esfera que cubre todo el terreno generado (frustum culling).
+     */
+    @Override
+    public boolean getBoundingSphere(double[] out){
+        out[0] = 0.0;
+        out[1] = 0.0;
+        out[2] = 0.0;
+        out[3] = Math.sqrt(2.0) * (halfExtent + CHUNK_SIZE) + amplitude + skirtDepth() + 1.0;
+        return true;
+    }
+
+    /**
+     * Altura de la superficie en (x, z), sin el terrainOffset: donde se apoyan las plantas.
+     */
+    public double getSurfaceHeight(double worldX, double worldZ){
+        if (amplitude == 0.0) return 0.0;
+        double fx = worldX / CELL_SIZE, fz = worldZ / CELL_SIZE;
+        long ix = (long) Math.floor(fx), iz = (long) Math.floor(fz);
+        double sx = fx - ix, sz = fz - iz;
+        double h00 = vertexHeight(ix, iz);
+        double h10 = vertexHeight(ix + 1, iz);
+        double h01 = vertexHeight(ix, iz + 1);
+        double h11 = vertexHeight(ix + 1, iz + 1);
+        // Mismo triángulo que se dibuja: diagonal (x,z) → (x+1,z+1)
+        if (sx >= sz) return h00 + (h10 - h00) * sx + (h11 - h10) * sz;
+        return h00 + (h11 - h01) * sx + (h01 - h00) * sz;
     }
 
     @Override
     public double getHeightAt(double worldX, double worldZ){
         // Return height including the terrainOffset so physics/collisions match rendered surface.
-        double fx = worldX / scale + width/2.0;
-        double fz = worldZ / scale + depth/2.0;
-        int x0 = (int)Math.floor(fx);
-        int z0 = (int)Math.floor(fz);
-        if(x0 < 0) x0 = 0; if(z0 < 0) z0 = 0;
-        if(x0 >= width-1) x0 = width-2; if(z0 >= depth-1) z0 = depth-2;
-        double sx = fx - x0;
-        double sz = fz - z0;
-        double h00 = heights[x0][z0];
-        double h10 = heights[x0+1][z0];
-        double h01 = heights[x0][z0+1];
-        double h11 = heights[x0+1][z0+1];
-        double hx0 = h00*(1-sx) + h10*sx;
-        double hx1 = h01*(1-sx) + h11*sx;
-        return hx0*(1-sz) + hx1*sz + terrainOffset;
+        return getSurfaceHeight(worldX, worldZ) + terrainOffset;
     }
 }
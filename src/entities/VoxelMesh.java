@@ -0,0 +1,164 @@
+package entities;
+
+import java.awt.Color;
+import math.Camera;
+import render.SoftwareRenderer;
+
+/**
+ * ============================================================================================
+ * VoxelMesh - Geometría estática horneada de un animal (cubos en espacio de modelo)
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * El cuerpo de un animal ('voxels') y los adornos fijos de cada fase (crines, placas,
+ * armaduras) solo cambian al cambiar de fase, pero renderNormal los recalculaba en cada
+ * frame: applyTransform + applyScaleToPosition (varios Vector3), getCubeVertices (8 más) y
+ * brighter()/darker() (un Color nuevo por parte). Aquí se guardan una sola vez, en
+ * arreglos primitivos, los centros relativos al animal (sin rotar), el tamaño y el color
+ * ya derivado de cada cubo.
+ *
+ * POR FRAME (draw):
+ * Una sola transformación de modelo para todos los cubos: rotación por yaw, escala de
+ * selección alrededor de la posición y traslación. Los cubos del grupo BODY además se
+ * desplazan por el offset animado del cuerpo (bob, sway) que pasa la especie, y los cubos
+ * "color de cuerpo" (bodyCube) toman el color del frame (p.ej. un pulso luminoso) sin
+ * volver a hornear.
+ *
+ * Las instancias son inmutables y se comparten entre animales iguales (VoxelMeshCache).
+ *
+ * ============================================================================================
+ */
+public final class VoxelMesh {
+    /** Grupo de los cubos que se mueven con el cuerpo (bob/sway); FIXED no se desplaza. */
+    public static final byte BODY = 0;
+    public static final byte FIXED = 1;
+
+    final int species;
+    final long seed;
+    final int phase;
+    final int bodyRgb;   // color de cuerpo con el que se derivaron los colores
+    private final double[] cx, cy, cz;
+    private final int[] size;
+    private final int[] rgb;
+    private final byte[] group;
+    private final boolean[] bodyColored;
+    private final int count;
+
+    private VoxelMesh(Builder b){
+        this.species = b.species;
+        this.seed = b.seed;
+        this.phase = b.phase;
+        this.bodyRgb = b.bodyRgb;
+        this.count = b.count;
+        this.cx = java.util.Arrays.copyOf(b.cx, count);
+        this.cy = java.util.Arrays.copyOf(b.cy, count);
+        this.cz = java.util.Arrays.copyOf(b.cz, count);
+        this.size = java.util.Arrays.copyOf(b.size, count);
+        this.rgb = java.util.Arrays.copyOf(b.rgb, count);
+        this.group = java.util.Arrays.copyOf(b.group, count);
+        this.bodyColored = java.util.Arrays.copyOf(b.bodyColored, count);
+    }
+
+    public int getCubeCount(){ return count; }
+
+    /**
+     * Dibuja todos los cubos con la misma transformación que applyTransform +
+     * applyScaleToPosition + applyScaleToSize de BaseAnimal. Los cubos color de cuerpo toman
+     * bodyTint; el resto, su color horneado aclarado en 'glow' (brillo de hover/selección,
+     * la misma suma por canal que BaseAnimal.applyGlowToColor; 0 = sin cambio).
+     */
+    void draw(SoftwareRenderer renderer, Camera cam, double px, double py, double pz, double yaw,
+              double scale, int bodyTint, float glow, double offX, double offY, double offZ){
+        // Los modelos miran hacia +Z y el yaw se mide desde +X (ver BaseAnimal.applyTransform)
+        double angle = yaw - Math.PI / 2;
+        double cos = Math.cos(angle), sin = Math.sin(angle);
+        boolean scaled = scale != 1.0;
+        for (int i = 0; i < count; i++) {
+            double lx = cx[i], ly = cy[i], lz = cz[i];
+            if (group[i] == BODY) {
+                lx += offX;
+                ly += offY;
+                lz += offZ;
+            }
+            double wx = px + (lx * cos - lz * sin);
+            double wy = py + ly;
+            double wz = pz + (lx * sin + lz * cos);
+            if (scaled) {
+                wx = px + (wx - px) * scale;
+                wy = py + (wy - py) * scale;
+                wz = pz + (wz - pz) * scale;
+            }
+            int c = bodyColored[i] ? bodyTint : (glow > 0f ? glow(rgb[i], glow) : rgb[i]);
+            renderer.drawCubeShadedAt(wx, wy, wz, (int) (size[i] * scale), cam, c);
+        }
+    }
+
+    // Igual que new Color(min(1, r/255 + glow), ...) de applyGlowToColor, sin crear el Color
+    private static int glow(int argb, float glow){
+        int r = channelGlow((argb >> 16) & 0xFF, glow);
+        int g = channelGlow((argb >> 8) & 0xFF, glow);
+        int b = channelGlow(argb & 0xFF, glow);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private static int channelGlow(int channel, float glow){
+        return (int) (Math.min(1.0f, channel / 255f + glow) * 255 + 0.5f);
+    }
+
+    /** Acumula cubos en espacio de modelo; lo usan BaseAnimal.bakeStaticParts de cada especie. */
+    public static final class Builder {
+        private final int species;
+        private final long seed;
+        private final int phase;
+        private final int bodyRgb;
+        private double[] cx = new double[32], cy = new double[32], cz = new double[32];
+        private int[] size = new int[32];
+        private int[] rgb = new int[32];
+        private byte[] group = new byte[32];
+        private boolean[] bodyColored = new boolean[32];
+        private int count = 0;
+
+        Builder(int species, long seed, int phase, Color body){
+            this.species = species;
+            this.seed = seed;
+            this.phase = phase;
+            this.bodyRgb = body.getRGB();
+        }
+
+        /** Cubo con centro (x, y, z) relativo al animal, sin rotar, y tamaño sin escalar. */
+        public Builder cube(double x, double y, double z, int tam, Color color, byte cubeGroup){
+            return add(x, y, z, tam, color.getRGB(), false, cubeGroup);
+        }
+
+        /** Cubo que se dibuja con el color de cuerpo de cada frame. */
+        public Builder bodyCube(double x, double y, double z, int tam, byte cubeGroup){
+            return add(x, y, z, tam, bodyRgb, true, cubeGroup);
+        }
+
+        private Builder add(double x, double y, double z, int tam, int argb, boolean tinted, byte cubeGroup){
+            if (count == cx.length) {
+                int cap = count * 2;
+                cx = java.util.Arrays.copyOf(cx, cap);
+                cy = java.util.Arrays.copyOf(cy, cap);
+                cz = java.util.Arrays.copyOf(cz, cap);
+                size = java.util.Arrays.copyOf(size, cap);
+                rgb = java.util.Arrays.copyOf(rgb, cap);
+                group = java.util.Arrays.copyOf(group, cap);
+                bodyColored = java.util.Arrays.copyOf(bodyColored, cap);
+            }
+            cx[count] = x;
+            cy[count] = y;
+            cz[count] = z;
+            size[count] = tam;
+            rgb[count] = argb;
+            group[count] = cubeGroup;
+            bodyColored[count] = tinted;
+            count++;
+            return this;
+        }
+
+        VoxelMesh build(){
+            return new VoxelMesh(this);
+        }
+    }
+}
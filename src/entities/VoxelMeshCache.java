@@ -0,0 +1,82 @@
+package entities;
+
+/**
+ * ============================================================================================
+ * VoxelMeshCache - Mallas horneadas por (especie, seed, fase), con tamaño acotado
+ * ============================================================================================
+ *
+ * - LRU sobre LinkedHashMap en orden de acceso: como máximo -Decosistema.meshCacheSize
+ *   mallas (por defecto 1024); al pasarse se descarta la usada hace más tiempo
+ * - evict(especie, seed) quita las tres fases de un animal al morir (BaseAnimal.markForDeath)
+ * - Los animales guardan además su malla actual, así que en el caso normal el render no
+ *   consulta el mapa; solo al cambiar de fase o de color (hover/selección)
+ *
+ * THREAD-SAFETY: synchronized (consulta el render, desaloja la simulación).
+ *
+ * ============================================================================================
+ */
+public final class VoxelMeshCache {
+    static final int MAX_ENTRIES = Integer.getInteger("ecosistema.meshCacheSize", 1024);
+
+    private static final java.util.LinkedHashMap<Key, VoxelMesh> MESHES =
+        new java.util.LinkedHashMap<Key, VoxelMesh>(256, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Key, VoxelMesh> eldest){
+                return size() > MAX_ENTRIES;
+            }
+        };
+    private static long hits = 0L, misses = 0L;
+
+    private VoxelMeshCache(){ }
+
+    private static final class Key {
+        final int species, phase;
+        final long seed;
+
+        Key(int species, long seed, int phase){
+            this.species = species;
+            this.seed = seed;
+            this.phase = phase;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return k.species == species && k.phase == phase && k.seed == seed;
+        }
+
+        @Override
+        public int hashCode(){
+            return Long.hashCode(seed * 31 + species * 7 + phase);
+        }
+    }
+
+    /** La malla cacheada de (especie, seed, fase) si se horneó con ese color de cuerpo. */
+    static synchronized VoxelMesh get(int species, long seed, int phase, int bodyRgb){
+        VoxelMesh mesh = MESHES.get(new Key(species, seed, phase));
+        if (mesh != null && mesh.bodyRgb == bodyRgb) {
+            hits++;
+            return mesh;
+        }
+        misses++;
+        return null;
+    }
+
+    static synchronized void put(VoxelMesh mesh){
+        MESHES.put(new Key(mesh.species, mesh.seed, mesh.phase), mesh);
+    }
+
+    /** Quita las mallas de todas las fases de un animal (al morir). */
+    public static synchronized void evict(int species, long seed){
+        for (int phase = 1; phase <= 3; phase++) MESHES.remove(new Key(species, seed, phase));
+    }
+
+    public static synchronized int size(){ return MESHES.size(); }
+    public static synchronized long getHits(){ return hits; }
+    public static synchronized long getMisses(){ return misses; }
+
+    public static synchronized void clear(){
+        MESHES.clear();
+    }
+}
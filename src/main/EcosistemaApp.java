@@ -26,7 +26,8 @@ import ui.Controles;
  * CONCEPTOS IMPLEMENTADOS:
  * 1. ARQUITECTURA MULTI-HILO:
  *    - Hilo principal (UI/AWT Event Dispatch Thread)
- *    - RenderThread: Actualiza y dibuja escena ~143 FPS
+ *    - RenderThread: Dibuja la escena (hasta 144 FPS) y avanza la simulación con
+ *      FixedStepScheduler en ticks fijos de 0.016 s, independientes del framerate
  *    - Simulador: Evoluciona animales cada 1 segundo (determinista)
  * 
  * 2. INICIALIZACIÓN DE ESCENA 3D:
@@ -81,7 +82,14 @@ public class EcosistemaApp {
         
         // CREAR VENTANA (JFrame)
         JFrame frame = new JFrame("3D EVOLUTIVE ECOSYSTEM");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // Cerrar la ventana es una salida explícita: RenderPanel.exitApplication borra el autosave
+        frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        frame.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                panel.exitApplication();
+            }
+        });
         frame.add(displayPanel);
         frame.pack(); // Ajusta tamaño al panel
         frame.setLocationRelativeTo(null); // Centra en pantalla
@@ -97,22 +105,26 @@ public class EcosistemaApp {
         // Usar la misma seed genera exactamente el mismo mundo
         long envSeed = System.currentTimeMillis() + 12345;
         mundo.setEnvironmentSeed(envSeed);
-        mundo.setEnvironmentCreatedAt(System.currentTimeMillis());
+        mundo.setEnvironmentCreatedAt(simulation.SimClock.now());
         
-        // CREAR TERRENO PROCEDIMENTAL
-        // Parámetros: 160x160 grid, escala 8.0 (cada celda = 8 unidades), seed 12345
-        // El terreno es una SUPERFICIE 3D generada con ruido Perlin (alturas aleatorias suaves)
-        // Total: 1280x1280 unidades de mundo
-        // Color: Verde (60, 140, 60)
-        mundo.addEntity(new Terreno(160, 160, 8.0, 12345L, new Color(60, 140, 60)));
-
-        // SPAWN DE ANIMALES ALEATORIOS
-        // Genera 5-7 animales de 10 tipos posibles, distribuidos sin solaparse
-        spawnRandomAnimals(mundo);
-
-        // SPAWN DE ENTIDADES AMBIENTALES
-        // Árboles (cilindros), rocas (cubos), pasto, arbustos, flores
-        spawnEnvironmentalEntities(mundo);
+        // RECUPERAR AUTOSAVE
+        // Si la sesión anterior no cerró limpio (el autosave se borra al salir), se sigue
+        // desde su último checkpoint + journal en vez de generar un mundo nuevo
+        java.io.File autosaveDir = simulation.Autosave.directoryFromSystemProperties();
+        simulation.Persistencia.GameState recovered = simulation.Autosave.hasRecoverableState(autosaveDir)
+                ? simulation.Autosave.recover(autosaveDir) : null;
+        if (recovered != null) {
+            mundo.setEnvironmentSeed(recovered.environmentSeed);
+            mundo.setEnvironmentCreatedAt(recovered.environmentCreatedAt);
+            mundo.restoreEnvironment(recovered.plants);
+            mundo.addAll(recovered.creatures);
+            cam.setPosicion(recovered.cameraPos);
+            cam.setOrientation(recovered.cameraYaw, recovered.cameraPitch);
+            panel.setTransientMessage("Partida recuperada del autosave", new Color(100, 200, 150), 4000);
+        } else {
+            // MUNDO NUEVO: terreno fijo (Mundo.TERRAIN_SEED); animales y vegetación derivados de envSeed
+            populateDefaultWorld(mundo, envSeed);
+        }
         
         // CREAR SISTEMA DE CONTROLES (input handling estilo FPS)
         // Usar displayPanel como componente de referencia para que las coordenadas
@@ -163,9 +175,9 @@ public class EcosistemaApp {
         // Actualiza y dibuja la escena ~143 veces por segundo (7ms sleep)
         // Aplica transformaciones 3D, proyección, z-buffer, rasterización
         RenderThread hilo = new RenderThread(panel, mundo, cam, controles, displayPanel);
-        hilo.start();
+        panel.setScheduler(hilo.getScheduler()); // Tecla T: time-warp
 
-        // INICIAR HILO DE SIMULACIÓN
+        // CREAR HILO DE SIMULACIÓN
         // Actualiza lógica del mundo cada 1 segundo:
         // - Evolución de animales (mutaciones, crecimiento)
         // - Muerte por hambre/edad
@@ -173,8 +185,75 @@ public class EcosistemaApp {
         // IMPORTANTE: Usa seed fija (5555L) para que la evolución sea DETERMINISTA
         simulation.Simulador sim = new simulation.Simulador(mundo, 5555L);
         sim.setControles(controles); // Pasar controles para respetar la PAUSA ABSOLUTA
+        sim.setScheduler(hilo.getScheduler()); // Cada evolución entre dos ticks
         panel.setSimulador(sim);
+
+        // GRABAR LA SESIÓN (-Decosistema.record=ARCHIVO o DIR)
+        // Seed, acciones del usuario, evoluciones y cámara con su tick: main.ReplayPlayer la
+        // repite. Tiene que empezar antes del primer tick y desde un mundo generado por seed
+        java.io.File recordFile = simulation.Replay.fileFromSystemProperties();
+        if (recordFile != null && recovered != null) {
+            System.err.println("[Replay] Partida recuperada del autosave: la sesión no se graba");
+        } else if (recordFile != null) {
+            simulation.Replay.Recorder recorder = simulation.Replay.Recorder.fromSystemProperties(
+                    mundo, hilo.getScheduler(), sim.getSeed(), cam);
+            if (recorder != null) {
+                panel.setRecorder(recorder);
+                hilo.setRecorder(recorder);
+                sim.setRecorder(recorder);
+                Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "replay-close"));
+            }
+        }
+
+        // INICIAR HILOS DE RENDER Y SIMULACIÓN
+        hilo.start();
         sim.start();
+
+        // INICIAR AUTOSAVE
+        // Cada -Decosistema.autosaveSeconds (30 s) agrega los cambios al journal; cada tanto,
+        // un checkpoint completo. Al salir desde el menú o la ventana se borra; un Ctrl-C,
+        // SIGTERM o caída lo deja para la próxima sesión (-Decosistema.autosave=off lo desactiva)
+        simulation.Autosave autosave = simulation.Autosave.fromSystemProperties(mundo, hilo.getScheduler(), state -> {
+            state.cameraPos = cam.getPosicion();
+            state.cameraYaw = cam.getYaw();
+            state.cameraPitch = cam.getPitch();
+            state.simulatorSeed = sim.getSeed();
+        });
+        if (autosave != null) {
+            panel.setAutosave(autosave); // Cargar una partida empieza un checkpoint nuevo; salir lo borra
+            autosave.start();
+        }
+    }
+
+    /**
+     * ========================================================================================
+     * populateDefaultWorld - Mundo nuevo generado desde una seed
+     * ========================================================================================
+     * 
+     * Terreno, 5-7 animales y la vegetación. El terreno usa siempre Mundo.TERRAIN_SEED (no
+     * depende de seed: todas las sesiones y repeticiones comparten el mismo relieve); los
+     * animales, la vegetación y las seeds de entidad se derivan de seed, así que la misma
+     * seed da exactamente el mismo mundo. Es lo que regenera main.ReplayPlayer a partir de
+     * la seed de una sesión grabada.
+     * 
+     * @param mundo Mundo vacío (con setEnvironmentSeed y setEnvironmentCreatedAt ya fijados)
+     * @param seed Seed del entorno
+     */
+    static void populateDefaultWorld(simulation.Mundo mundo, long seed) {
+        // CREAR TERRENO PROCEDIMENTAL
+        // Parámetros: 160x160 grid, escala 8.0 (cada celda = 8 unidades), seed fija Mundo.TERRAIN_SEED
+        // El terreno es una SUPERFICIE 3D generada con value noise fractal (alturas suaves)
+        // Total: 1280x1280 unidades de mundo
+        // Color: Verde (60, 140, 60)
+        mundo.addEntity(new Terreno(160, 160, 8.0, simulation.Mundo.TERRAIN_SEED, new Color(60, 140, 60)));
+
+        // SPAWN DE ANIMALES ALEATORIOS
+        // Genera 5-7 animales de 10 tipos posibles, distribuidos sin solaparse
+        spawnRandomAnimals(mundo, new Random(seed), seed);
+
+        // SPAWN DE ENTIDADES AMBIENTALES
+        // Árboles (cilindros), rocas (cubos), pasto, arbustos, flores
+        spawnEnvironmentalEntities(mundo, new Random(seed + 12345), seed);
     }
 
     /**
@@ -197,11 +276,10 @@ public class EcosistemaApp {
      * - Seed generation: Cada animal tiene seed única para evolución determinista
      * 
      * @param mundo El mundo donde se agregarán los animales
+     * @param r Generador de posiciones y tipos
+     * @param seedBase Base de las seeds de cada animal
      */
-    private static void spawnRandomAnimals(simulation.Mundo mundo) {
-        // Generador de números aleatorios con seed basada en tiempo actual
-        Random r = new Random(System.currentTimeMillis());
-        
+    static void spawnRandomAnimals(simulation.Mundo mundo, Random r, long seedBase) {
         // Cantidad de animales a generar (5-7)
         int numAnimals = 5 + r.nextInt(3);
         
@@ -221,7 +299,7 @@ public class EcosistemaApp {
             int animalType = r.nextInt(10);
             
             // Generar seed única para este animal (determina su evolución)
-            long seed = System.currentTimeMillis() + spawned * 1000 + r.nextLong();
+            long seed = seedBase + spawned * 1000 + r.nextLong();
 
             // GENERAR POSICIÓN ALEATORIA
             // Área: Rectángulo frente a la cámara inicial (0, 80, -150)
@@ -297,9 +375,12 @@ public class EcosistemaApp {
      */
     public static Renderable createAnimalOfType(int type, Vector3 pos, long seed) {
         // Configurar referencia al mundo para que animales puedan acceder a él
-        // (necesario para colisiones, detección de terreno, etc.)
-        entities.BaseAnimal.setWorld(mundoRef);
-        entities.Depredador.setWorldReference(mundoRef);
+        // (necesario para colisiones, detección de terreno, etc.). Sin ventana (benchmarks,
+        // crías en un mundo headless) se conserva la referencia que ya tengan
+        if (mundoRef != null) {
+            entities.BaseAnimal.setWorld(mundoRef);
+            entities.Depredador.setWorldReference(mundoRef);
+        }
         
         // Switch statement para instanciar el tipo correcto de animal
         // Cada tipo tiene diferentes características (color, tamaño, velocidad, comportamiento)
@@ -340,39 +421,38 @@ public class EcosistemaApp {
      * - Heightmap placement: Coloca entidades sobre el terreno
      * 
      * @param mundo El mundo donde se agregarán las entidades
+     * @param r Generador de cantidades, posiciones y parámetros
+     * @param seedBase Base de las seeds de cada entidad (crecimiento, forma)
      */
-    private static void spawnEnvironmentalEntities(simulation.Mundo mundo) {
-        // Generador aleatorio con seed fija (reproducible)
-        Random r = new Random(System.currentTimeMillis() + 12345);
-        
+    private static void spawnEnvironmentalEntities(simulation.Mundo mundo, Random r, long seedBase) {
         // Lista compartida de posiciones usadas (para evitar solapamiento entre tipos)
         java.util.List<Vector3> usedPositions = new ArrayList<>();
 
         // Generar ÁRBOLES (7-9)
         // Distancia mínima: 180 unidades (árboles grandes necesitan más espacio)
         int numTrees = 7 + r.nextInt(3);
-        spawnWithMinDistance(mundo, r, numTrees, 180, usedPositions, "tree");
+        spawnWithMinDistance(mundo, r, numTrees, 180, usedPositions, seedBase, "tree");
 
         // Generar ROCAS (5-8)
         // Distancia mínima: 90 unidades
         int numRocks = 5 + r.nextInt(4);
-        spawnWithMinDistance(mundo, r, numRocks, 90, usedPositions, "rock");
+        spawnWithMinDistance(mundo, r, numRocks, 90, usedPositions, seedBase, "rock");
 
         // Generar PASTO (80-120)
         // Muchísimo pasto con separación mínima de 15 unidades
         // Esto crea un ecosistema denso y natural
         int numGrass = 80 + r.nextInt(41);
-        spawnWithMinDistance(mundo, r, numGrass, 15, usedPositions, "grass");
+        spawnWithMinDistance(mundo, r, numGrass, 15, usedPositions, seedBase, "grass");
 
         // Generar ARBUSTOS (4-6)
         // Distancia mínima: 85 unidades
         int numBushes = 4 + r.nextInt(3);
-        spawnWithMinDistance(mundo, r, numBushes, 85, usedPositions, "bush");
+        spawnWithMinDistance(mundo, r, numBushes, 85, usedPositions, seedBase, "bush");
 
         // Generar FLORES (40-60)
         // Flores pequeñas y coloridas con separación mínima de 20 unidades
         int numFlowers = 40 + r.nextInt(21);
-        spawnWithMinDistance(mundo, r, numFlowers, 20, usedPositions, "flower");
+        spawnWithMinDistance(mundo, r, numFlowers, 20, usedPositions, seedBase, "flower");
     }
 
     /**
@@ -383,7 +463,7 @@ public class EcosistemaApp {
      * ALGORITMO:
      * 1. Intentar generar 'count' entidades del tipo especificado
      * 2. Para cada intento:
-     *    a. Generar posición aleatoria en el mapa (-320 a 320 en X y Z)
+     *    a. Generar posición aleatoria en el mapa (±Mundo.WORLD_BOUND en X y Z, ±320 por defecto)
      *    b. Verificar que esté a distancia mínima de TODAS las posiciones usadas
      *    c. Si es válida, crear la entidad y agregar posición a la lista
      * 3. Limitar intentos para evitar bucle infinito (count * 15 intentos máximo)
@@ -398,10 +478,12 @@ public class EcosistemaApp {
      * @param count Cantidad de entidades a generar
      * @param minDistance Distancia mínima entre entidades (unidades de mundo)
      * @param usedPositions Lista de posiciones ya usadas (modificada in-place)
+     * @param seedBase Base de las seeds de cada entidad
      * @param type Tipo de entidad ("tree", "rock", "grass", "bush", "flower")
      */
     private static void spawnWithMinDistance(simulation.Mundo mundo, Random r, int count, 
-                                            double minDistance, java.util.List<Vector3> usedPositions, String type) {
+                                            double minDistance, java.util.List<Vector3> usedPositions,
+                                            long seedBase, String type) {
         int spawned = 0;   // Contador de entidades generadas exitosamente
         int attempts = 0;  // Contador de intentos totales
         int maxAttempts = count * 15; // Límite para evitar búsqueda infinita
@@ -421,10 +503,10 @@ public class EcosistemaApp {
         // Bucle principal de spawn
         while (spawned < count && attempts < maxAttempts) {
             // Generar posición aleatoria en el mapa
-            // Área: 640x640 unidades centrada en el origen
-            double x = -320 + r.nextDouble() * 640;
-            double z = -320 + r.nextDouble() * 640;
-            Vector3 pos = new Vector3(x, 0, z); // Y=0 temporal (se ajusta al terreno después)
+            // Área: 2·WORLD_BOUND × 2·WORLD_BOUND unidades centrada en el origen (640x640 por defecto)
+            double x = -simulation.Mundo.WORLD_BOUND + r.nextDouble() * (2 * simulation.Mundo.WORLD_BOUND);
+            double z = -simulation.Mundo.WORLD_BOUND + r.nextDouble() * (2 * simulation.Mundo.WORLD_BOUND);
+            Vector3 pos = new Vector3(x, mundo.getGroundHeight(x, z), z); // apoyada en el terreno
 
             // VALIDACIÓN DE DISTANCIA MÍNIMA
             // Verificar que la nueva posición no esté muy cerca de ninguna posición usada
@@ -442,7 +524,7 @@ public class EcosistemaApp {
             // Si la posición es válida, crear la entidad correspondiente
             if (!tooClose) {
                 usedPositions.add(pos); // Marcar posición como usada
-                long seed = System.currentTimeMillis() + spawned * 100 + r.nextLong();
+                long seed = seedBase + spawned * 100 + r.nextLong();
                 
                 // Switch para crear el tipo de entidad correcto
                 switch (type) {
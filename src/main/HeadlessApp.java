@@ -0,0 +1,170 @@
+package main;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import math.Vector3;
+import simulation.FixedStepScheduler;
+import simulation.Mundo;
+import simulation.SimClock;
+import simulation.Simulador;
+
+/**
+ * ============================================================================================
+ * HeadlessApp - Ecosistema sin ventana, tan rápido como permita la CPU
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Corre la simulación completa en nodos sin display (batch) para estudiar la dinámica de
+ * poblaciones a largo plazo. No crea JFrame, DisplayPanel, Controles (java.awt.Robot) ni
+ * RenderThread: solo Mundo, el entorno, los animales, FixedStepScheduler y Simulador.
+ *
+ * FLUJO:
+ * 1. Mundo con el entorno por defecto derivado de --seed
+ * 2. --animals herbívoros (especies 0-9) y --predators depredadores en posiciones al azar
+ * 3. Bucle sin sleeps: scheduler.step() (un tick de TICK_SECONDS simulados) hasta cubrir
+ *    --duration segundos simulados
+ * 4. Cada segundo simulado: Simulador.evolveStep(), limpieza de animales muertos
+ *    (Mundo.updateEnvironment) y una fila de estadísticas
+ *
+ * USO:
+ *   java -cp bin main.HeadlessApp --seed 42 --animals 200 --duration 600 --stats stats.csv
+ *   opciones: --seed N, --animals N, --predators N, --duration SEGUNDOS, --stats ARCHIVO,
+ *             --threads N (hilos del update, por defecto -Decosistema.simThreads o núcleos)
+ *
+ * ESTADÍSTICAS (CSV, una fila por segundo simulado):
+ *   sim_seconds, entities, animals, predators, dying, mating, phase1..3, species0..9
+ *
+ * ============================================================================================
+ */
+public class HeadlessApp {
+    // Hora simulada de inicio (arbitraria pero fija, ver SimClock)
+    static final long SIM_EPOCH_MILLIS = 1_000_000_000_000L;
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        long seed = 12345L;
+        int animals = 50;
+        int predators = 2;
+        double duration = 60.0;
+        String statsPath = null;
+        int threads = Integer.getInteger("ecosistema.simThreads", Runtime.getRuntime().availableProcessors());
+
+        for (int i = 0; i < args.length; i++) {
+            String opt = args[i];
+            if (i + 1 >= args.length) usage("falta el valor de " + opt);
+            String value = args[++i];
+            switch (opt) {
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--animals": animals = Integer.parseInt(value); break;
+                case "--predators": predators = Integer.parseInt(value); break;
+                case "--duration": duration = Double.parseDouble(value); break;
+                case "--stats": statsPath = value; break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                default: usage("opción desconocida: " + opt);
+            }
+        }
+
+        // Reloj de simulación con época fija: la misma seed da la misma corrida
+        SimClock.setShared(new SimClock(SIM_EPOCH_MILLIS));
+        Mundo mundo = buildWorld(seed, animals, predators);
+        FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, Math.max(1, threads));
+        Simulador simulador = new Simulador(mundo, seed);
+
+        long totalTicks = (long) Math.ceil(duration / FixedStepScheduler.TICK_SECONDS);
+        PrintWriter stats = statsPath != null ? new PrintWriter(statsPath, "UTF-8") : null;
+        try {
+            if (stats != null) stats.println(statsHeader());
+            long wallStart = System.nanoTime();
+            double nextSecond = 1.0;
+            if (stats != null) stats.println(statsRow(0.0, mundo));
+            for (long t = 1; t <= totalTicks; t++) {
+                scheduler.step();
+                double simSeconds = t * FixedStepScheduler.TICK_SECONDS;
+                if (simSeconds >= nextSecond || t == totalTicks) {
+                    simulador.evolveStep();
+                    mundo.updateEnvironment();
+                    if (stats != null) stats.println(statsRow(simSeconds, mundo));
+                    nextSecond += 1.0;
+                }
+            }
+            double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+            System.out.printf("simulados %.1f s (%d ticks) en %.1f s reales (%.1fx), %d entidades al final%n",
+                    totalTicks * FixedStepScheduler.TICK_SECONDS, totalTicks, wallSeconds,
+                    totalTicks * FixedStepScheduler.TICK_SECONDS / Math.max(1e-9, wallSeconds),
+                    mundo.getSnapshot().size());
+        } finally {
+            if (stats != null) stats.close();
+        }
+    }
+
+    private static void usage(String error){
+        System.err.println(error);
+        System.err.println("uso: java main.HeadlessApp [--seed N] [--animals N] [--predators N] [--duration SEGUNDOS] [--stats ARCHIVO] [--threads N]");
+        System.exit(2);
+    }
+
+    // Mundo por defecto + animales repartidos por todo el terreno (todo derivado de seed)
+    static Mundo buildWorld(long seed, int animals, int predators){
+        Mundo mundo = new Mundo();
+        mundo.setEnvironmentSeed(seed);
+        mundo.initializeEnvironment();
+        // Sin ventana EcosistemaApp no fija la referencia: los animales la necesitan para
+        // terreno, colisiones y crías
+        entities.BaseAnimal.setWorld(mundo);
+        entities.Depredador.setWorldReference(mundo);
+
+        Random r = new Random(seed);
+        for (int i = 0; i < animals + predators; i++) {
+            int type = i < animals ? r.nextInt(10) : 10;
+            double x = -(Mundo.WORLD_BOUND - 20) + r.nextDouble() * (2 * (Mundo.WORLD_BOUND - 20));
+            double z = -(Mundo.WORLD_BOUND - 20) + r.nextDouble() * (2 * (Mundo.WORLD_BOUND - 20));
+            double terrainHeight = mundo.getHeightAt(x, z);
+            if (terrainHeight == Double.NEGATIVE_INFINITY) terrainHeight = 0.0;
+            long animalSeed = seed + i * 1000L + r.nextLong();
+            Renderable animal = EcosistemaApp.createAnimalOfType(type, new Vector3(x, terrainHeight + 5.0, z), animalSeed);
+            if (animal instanceof entities.BaseAnimal) {
+                mundo.addAnimal((entities.BaseAnimal) animal);
+            } else if (animal != null) {
+                mundo.addEntity(animal);
+            }
+        }
+        return mundo;
+    }
+
+    static String statsHeader(){
+        StringBuilder sb = new StringBuilder("sim_seconds,entities,animals,predators,dying,mating,phase1,phase2,phase3");
+        for (int s = 0; s < 10; s++) sb.append(",species").append(s);
+        return sb.toString();
+    }
+
+    static String statsRow(double simSeconds, Mundo mundo){
+        int animals = 0, predators = 0, dying = 0, mating = 0;
+        int[] phases = new int[4];
+        int[] species = new int[10];
+        Mundo.Snapshot snap = mundo.getSnapshot();
+        for (int i = 0; i < snap.size(); i++) {
+            Renderable e = snap.get(i);
+            if (e instanceof entities.BaseAnimal) {
+                entities.BaseAnimal a = (entities.BaseAnimal) e;
+                if (a.isDying()) { dying++; continue; }
+                animals++;
+                if (a.isMating()) mating++;
+                phases[Math.max(1, Math.min(3, a.getGrowthPhase()))]++;
+                int sp = a.getSpeciesType();
+                if (sp >= 0 && sp < species.length) species[sp]++;
+            } else if (e instanceof entities.Depredador) {
+                if (((entities.Depredador) e).isDying()) dying++;
+                else predators++;
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(java.util.Locale.ROOT, "%.3f", simSeconds));
+        sb.append(',').append(snap.size()).append(',').append(animals).append(',').append(predators);
+        sb.append(',').append(dying).append(',').append(mating);
+        sb.append(',').append(phases[1]).append(',').append(phases[2]).append(',').append(phases[3]);
+        for (int count : species) sb.append(',').append(count);
+        return sb.toString();
+    }
+}
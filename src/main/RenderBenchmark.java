@@ -0,0 +1,369 @@
+package main;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import math.Camera;
+import math.Vector3;
+import render.SoftwareRenderer;
+
+/**
+ * ============================================================================================
+ * RenderBenchmark - Mide el tiempo por frame del SoftwareRenderer sobre la escena por defecto
+ * ============================================================================================
+ *
+ * Construye la misma escena que EcosistemaApp (terreno, vegetación y 5-7 animales) pero con
+ * seeds fijas y sin ventana, y renderiza N frames con la cámara inicial (0, 80, -150)
+ * barriendo el yaw de forma determinista. Solo mide render (clear + entidades + swap);
+ * no actualiza entidades, así todas las corridas dibujan exactamente lo mismo.
+ *
+ * USO:
+ *   java -cp bin main.RenderBenchmark [frames] [warmup]
+ *   java -Decosistema.rasterThreads=16 -Decosistema.tileSize=64 -cp bin main.RenderBenchmark
+ *   java -cp bin main.RenderBenchmark --verify-tiles [frames]
+ *   java -cp bin main.RenderBenchmark --count-alloc
+ *   java -cp bin main.RenderBenchmark --animals [animales] [frames]
+ *   java -cp bin main.RenderBenchmark --static [frames]
+ *   java -Decosistema.frustumCulling=false -cp bin main.RenderBenchmark
+ *
+ * Como RenderPanel, descarta con frustum culling las entidades fuera de cámara e imprime
+ * el promedio de entidades dibujadas/descartadas por frame.
+ *
+ * --verify-tiles renderiza cada frame con el camino serial y con el rasterizado por tiles
+ * (4 hilos, tiles de 32px) y compara los píxeles: deben ser idénticos. Incluye a los
+ * animales: su animación avanza en update() (FixedStepScheduler), no al dibujarlos.
+ *
+ * --count-alloc rasteriza una escena fija de triángulos en pantalla (grandes, diminutos,
+ * delgados y parcialmente fuera de pantalla) por el camino serial y cuenta los bytes
+ * asignados por el hilo con com.sun.management.ThreadMXBean: el loop de rasterizado
+ * no debe asignar nada (resultado esperado: 0 bytes).
+ *
+ * --animals dibuja una manada adulta (fase 3, las 10 especies) delante de la cámara, sin
+ * el resto de la escena, e imprime ms por frame y bytes asignados por frame en el hilo de
+ * render (el cuerpo y los adornos fijos salen de la malla horneada, VoxelMeshCache).
+ *
+ * --static usa la escena por defecto con la vegetación ya crecida e imprime los triángulos
+ * de la geometría estática (cubos, sin caras ocultas, greedy) y ms por frame dibujándola
+ * cubo por cubo contra la malla horneada de Mundo (-Decosistema.greedyMesh=false para
+ * medir solo la eliminación de caras ocultas). También compara la malla unida por pieces
+ * (StaticMesh.merge, una por entidad) con la horneada de una vez, píxel a píxel, y mide el
+ * horneado completo contra el incremental tras agregar una piedra.
+ *
+ * Para comparar antes/después de un cambio en el renderer, correr el mismo comando en
+ * ambas versiones y comparar avg/p50/p95.
+ *
+ * ============================================================================================
+ */
+public class RenderBenchmark {
+    static final int ANCHO = 1000, ALTO = 700;
+    static final long SCENE_SEED = 12345L;
+    private static final double[] BOUNDS = new double[4];
+
+    public static void main(String[] args){
+        if(args.length > 0 && args[0].equals("--verify-tiles")){
+            verifyTiles(args.length > 1 ? Integer.parseInt(args[1]) : 60);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--count-alloc")){
+            countRasterAllocations();
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--static")){
+            measureStatic(args.length > 1 ? Integer.parseInt(args[1]) : 200);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--animals")){
+            measureAnimals(args.length > 1 ? Integer.parseInt(args[1]) : 200,
+                           args.length > 2 ? Integer.parseInt(args[2]) : 200);
+            return;
+        }
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+        simulation.Mundo mundo = buildDefaultScene(SCENE_SEED);
+        List<Renderable> scene = mundo.snapshotEntities();
+        simulation.Mundo.StaticBake bake = mundo.getStaticBake();
+        SoftwareRenderer renderer = new SoftwareRenderer(ANCHO, ALTO);
+        Camera cam = new Camera(new Vector3(0, 80, -150), 500);
+
+        for(int i = 0; i < warmup; i++) renderFrame(renderer, scene, bake, cam, i, warmup);
+
+        long[] times = new long[frames];
+        long culledTotal = 0;
+        for(int i = 0; i < frames; i++){
+            long t0 = System.nanoTime();
+            culledTotal += renderFrame(renderer, scene, bake, cam, i, frames);
+            times[i] = System.nanoTime() - t0;
+        }
+
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        double total = 0;
+        for(long t : times) total += t;
+        double avgMs = total / frames / 1e6;
+        double culledAvg = (double) culledTotal / frames;
+        System.out.println("entities:  " + scene.size());
+        System.out.printf("culling:   %s, avg %.1f drawn / %.1f culled%n",
+                RenderPanel.FRUSTUM_CULLING ? "on" : "off", scene.size() - culledAvg, culledAvg);
+        System.out.println("raster:    " + renderer.getRasterThreads() + " thread(s), tile " + renderer.getTileSize() + "px");
+        System.out.println("frames:    " + frames + " (warmup " + warmup + ")");
+        System.out.printf("avg ms:    %.3f (%.1f fps)%n", avgMs, 1000.0 / avgMs);
+        System.out.printf("p50 ms:    %.3f%n", sorted[frames / 2] / 1e6);
+        System.out.printf("p95 ms:    %.3f%n", sorted[Math.min(frames - 1, (int)(frames * 0.95))] / 1e6);
+    }
+
+    // Compara píxel a píxel el camino serial contra el rasterizado por tiles
+    static void verifyTiles(int frames){
+        simulation.Mundo mundo = buildDefaultScene(SCENE_SEED);
+        List<Renderable> scene = mundo.snapshotEntities();
+        simulation.Mundo.StaticBake bake = mundo.getStaticBake();
+        SoftwareRenderer serial = new SoftwareRenderer(ANCHO, ALTO);
+        serial.setRasterThreads(1);
+        SoftwareRenderer tiled = new SoftwareRenderer(ANCHO, ALTO);
+        tiled.setTileSize(32);
+        tiled.setRasterThreads(4);
+        Camera cam = new Camera(new Vector3(0, 80, -150), 500);
+
+        int badFrames = 0;
+        for(int i = 0; i < frames; i++){
+            renderFrame(serial, scene, bake, cam, i, frames);
+            renderFrame(tiled, scene, bake, cam, i, frames);
+            int[] a = serial.getBuffer().getRGB(0, 0, ANCHO, ALTO, null, 0, ANCHO);
+            int[] b = tiled.getBuffer().getRGB(0, 0, ANCHO, ALTO, null, 0, ANCHO);
+            int diff = 0;
+            for(int k = 0; k < a.length; k++) if(a[k] != b[k]) diff++;
+            if(diff > 0){
+                badFrames++;
+                System.out.println("frame " + i + ": " + diff + " pixel(s) differ");
+            }
+        }
+        System.out.println(badFrames == 0 ? "OK: " + frames + " frames identical" : "FAIL: " + badFrames + " frame(s) differ");
+        if(badFrames > 0) System.exit(1);
+    }
+
+    // Manada en fase 3 en una grilla frente a la cámara: solo animales
+    static void measureAnimals(int animals, int frames){
+        simulation.Mundo mundo = new simulation.Mundo();
+        mundo.setEnvironmentSeed(SCENE_SEED);
+        entities.BaseAnimal.setWorld(mundo);
+        List<Renderable> herd = new java.util.ArrayList<>();
+        int side = (int) Math.ceil(Math.sqrt(animals));
+        for(int i = 0; i < animals; i++){
+            double x = -120 + 240.0 * (i % side) / Math.max(1, side - 1);
+            double z = 40 + 200.0 * (i / side) / Math.max(1, side - 1);
+            Renderable a = EcosistemaApp.createAnimalOfType(i % 10, new Vector3(x, 0, z), SCENE_SEED + i);
+            if(a instanceof entities.BaseAnimal){
+                entities.BaseAnimal animal = (entities.BaseAnimal) a;
+                animal.setGrowthPhase(3);
+                for(int t = 0; t < 60; t++) animal.update(); // fin del spawn
+            }
+            herd.add(a);
+        }
+        SoftwareRenderer renderer = new SoftwareRenderer(ANCHO, ALTO);
+        Camera cam = new Camera(new Vector3(0, 80, -150), 500);
+        for(int i = 0; i < 30; i++) renderFrame(renderer, herd, cam, i, frames);
+
+        java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean alloc = mx instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) mx : null;
+        long tid = Thread.currentThread().getId();
+        long bytesBefore = alloc != null ? alloc.getThreadAllocatedBytes(tid) : 0L;
+        long[] times = new long[frames];
+        for(int i = 0; i < frames; i++){
+            long t0 = System.nanoTime();
+            renderFrame(renderer, herd, cam, i, frames);
+            times[i] = System.nanoTime() - t0;
+        }
+        long bytes = alloc != null ? alloc.getThreadAllocatedBytes(tid) - bytesBefore : -1L;
+
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        double total = 0;
+        for(long t : times) total += t;
+        System.out.println("animals:   " + animals + " (fase 3), frames: " + frames);
+        System.out.printf("avg ms:    %.3f, p50 %.3f, p95 %.3f%n", total / frames / 1e6,
+                sorted[frames / 2] / 1e6, sorted[Math.min(frames - 1, (int)(frames * 0.95))] / 1e6);
+        System.out.printf("alloc:     %.1f KB/frame%n", bytes / 1024.0 / frames);
+        System.out.println("meshes:    " + entities.VoxelMeshCache.size() + " cached, "
+                + entities.VoxelMeshCache.getHits() + " hits, " + entities.VoxelMeshCache.getMisses() + " misses");
+    }
+
+    // Cuenta los bytes asignados al rasterizar una escena fija de triángulos en pantalla
+    static void countRasterAllocations(){
+        java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+        if(!(mx instanceof com.sun.management.ThreadMXBean)){
+            System.out.println("ThreadMXBean sin soporte de conteo de asignaciones en esta JVM");
+            return;
+        }
+        com.sun.management.ThreadMXBean alloc = (com.sun.management.ThreadMXBean) mx;
+        long tid = Thread.currentThread().getId();
+
+        SoftwareRenderer renderer = new SoftwareRenderer(ANCHO, ALTO);
+        renderer.setRasterThreads(1);
+        Random r = new Random(42);
+        int n = 4000;
+        double[][] verts = new double[n * 3][];
+        java.awt.Color[] colors = new java.awt.Color[n];
+        for(int i = 0; i < n; i++){
+            double size = i % 50 == 0 ? 700 : (i % 3 == 0 ? 3 : 60);
+            double cx = -100 + r.nextDouble() * (ANCHO + 200);
+            double cy = -100 + r.nextDouble() * (ALTO + 200);
+            for(int k = 0; k < 3; k++){
+                verts[i * 3 + k] = new double[]{cx + (r.nextDouble() - 0.5) * size,
+                                                cy + (r.nextDouble() - 0.5) * size,
+                                                10 + r.nextDouble() * 100};
+            }
+            colors[i] = new java.awt.Color(r.nextInt(256), r.nextInt(256), r.nextInt(256));
+        }
+        java.awt.Color sky = new java.awt.Color(120, 170, 255);
+
+        // Calentamiento (JIT)
+        for(int pass = 0; pass < 3; pass++) drawFixedTriangles(renderer, verts, colors, sky);
+        // Costo propio de la medición: dos lecturas seguidas sin nada entre ellas; lo que
+        // aloje getThreadAllocatedBytes se descuenta del resultado
+        long overheadStart = alloc.getThreadAllocatedBytes(tid);
+        long overheadEnd = alloc.getThreadAllocatedBytes(tid);
+        long overhead = overheadEnd - overheadStart;
+
+        long before = alloc.getThreadAllocatedBytes(tid);
+        for(int pass = 0; pass < 5; pass++) drawFixedTriangles(renderer, verts, colors, sky);
+        long bytes = alloc.getThreadAllocatedBytes(tid) - before - overhead;
+
+        System.out.println("triangles: " + (5 * n));
+        System.out.println("allocated: " + bytes + " bytes");
+        System.out.println(bytes <= 0 ? "OK: raster loop is allocation-free" : "FAIL: raster loop allocates");
+        if(bytes > 0) System.exit(1);
+    }
+
+    static void drawFixedTriangles(SoftwareRenderer renderer, double[][] verts, java.awt.Color[] colors, java.awt.Color sky){
+        renderer.clear(sky);
+        for(int i = 0; i < colors.length; i++){
+            renderer.drawTriangleScreen(verts[i * 3], verts[i * 3 + 1], verts[i * 3 + 2], colors[i]);
+        }
+    }
+
+    // Vegetación adulta: geometría estática horneada contra cubo por cubo
+    static void measureStatic(int frames){
+        simulation.Mundo mundo = new simulation.Mundo();
+        mundo.setEnvironmentSeed(SCENE_SEED);
+        // Creada hace 10 minutos: árboles (3 min) y flores (2 min) ya terminaron de crecer
+        mundo.setEnvironmentCreatedAt(simulation.SimClock.now() - 600000L);
+        mundo.initializeEnvironment();
+        synchronousTerrain(mundo);
+        List<Renderable> scene = mundo.snapshotEntities();
+        for(Renderable r : scene) r.update();
+        long t0 = System.nanoTime();
+        simulation.Mundo.StaticBake bake = mundo.getStaticBake();
+        double fullBakeMs = (System.nanoTime() - t0) / 1e6;
+        render.StaticMesh mesh = bake.mesh;
+
+        // La misma geometría horneada de una vez, en un solo Builder
+        render.StaticMesh.Builder oneShot = new render.StaticMesh.Builder();
+        for(Renderable r : scene) if(bake.contains(r)) ((entities.StaticVoxels) r).bakeVoxels(oneShot);
+        SoftwareRenderer meshOnly = new SoftwareRenderer(ANCHO, ALTO);
+        int[] mergedPixels = drawMeshOnly(meshOnly, mesh);
+        int[] oneShotPixels = drawMeshOnly(meshOnly, oneShot.build());
+        int mergeDiff = 0;
+        for(int k = 0; k < mergedPixels.length; k++) if(mergedPixels[k] != oneShotPixels[k]) mergeDiff++;
+
+        SoftwareRenderer renderer = new SoftwareRenderer(ANCHO, ALTO);
+        Camera cam = new Camera(new Vector3(0, 80, -150), 500);
+        double[] cubesMs = timeStatic(renderer, scene, null, cam, frames);
+        int[] cubesPixels = renderer.getBuffer().getRGB(0, 0, ANCHO, ALTO, null, 0, ANCHO);
+        double[] bakedMs = timeStatic(renderer, scene, bake, cam, frames);
+        int[] bakedPixels = renderer.getBuffer().getRGB(0, 0, ANCHO, ALTO, null, 0, ANCHO);
+        int diff = 0;
+        for(int k = 0; k < cubesPixels.length; k++) if(cubesPixels[k] != bakedPixels[k]) diff++;
+
+        System.out.println("static:    " + bake.getEntityCount() + " entidades, " + mesh.getCubeCount() + " voxels, "
+                           + mesh.getChunkCount() + " chunks");
+        System.out.println("triangles: " + mesh.getNaiveTriangleCount() + " cubos -> "
+                           + mesh.getVisibleFaceTriangleCount() + " sin caras ocultas -> "
+                           + mesh.getTriangleCount() + " horneados");
+        System.out.printf("cubes ms:  avg %.3f, p50 %.3f, p95 %.3f%n", cubesMs[0], cubesMs[1], cubesMs[2]);
+        System.out.printf("baked ms:  avg %.3f, p50 %.3f, p95 %.3f%n", bakedMs[0], bakedMs[1], bakedMs[2]);
+        System.out.println("pixels:    " + diff + " distintos en el último frame (sombreado por triángulo)");
+
+        // Una entidad estática más: solo se hornea la nueva
+        mundo.addEntity(new entities.Piedra(new Vector3(40, mundo.getGroundHeight(40, -60), -60), 777L));
+        t0 = System.nanoTime();
+        mundo.getStaticBake();
+        double incrementalMs = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("rebake:    completo %.2f ms, +1 entidad %.2f ms; unida vs de una vez: %d píxeles distintos%n",
+                          fullBakeMs, incrementalMs, mergeDiff);
+    }
+
+    private static int[] drawMeshOnly(SoftwareRenderer renderer, render.StaticMesh mesh){
+        Camera cam = new Camera(new Vector3(0, 80, -150), 500);
+        cam.setOrientation(0.0, -0.15);
+        renderer.clear(new java.awt.Color(120, 170, 255));
+        renderer.beginFrame(cam);
+        renderer.drawStaticMesh(mesh, cam);
+        renderer.swapBuffers();
+        return renderer.getBuffer().getRGB(0, 0, ANCHO, ALTO, null, 0, ANCHO);
+    }
+
+    // avg, p50, p95 en ms; con bake == null todo se dibuja con render() de cada entidad
+    private static double[] timeStatic(SoftwareRenderer renderer, List<Renderable> scene,
+                                       simulation.Mundo.StaticBake bake, Camera cam, int frames){
+        for(int i = 0; i < 30; i++) renderFrame(renderer, scene, bake, cam, i, frames);
+        long[] times = new long[frames];
+        double total = 0;
+        for(int i = 0; i < frames; i++){
+            long t0 = System.nanoTime();
+            renderFrame(renderer, scene, bake, cam, i, frames);
+            times[i] = System.nanoTime() - t0;
+            total += times[i];
+        }
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return new double[]{ total / frames / 1e6, sorted[frames / 2] / 1e6,
+                             sorted[Math.min(frames - 1, (int)(frames * 0.95))] / 1e6 };
+    }
+
+    // Escena por defecto con seeds fijas (misma composición que EcosistemaApp.main)
+    static simulation.Mundo buildDefaultScene(long seed){
+        simulation.Mundo mundo = new simulation.Mundo();
+        mundo.setEnvironmentSeed(seed);
+        mundo.setEnvironmentCreatedAt(simulation.SimClock.now());
+        mundo.initializeEnvironment();
+        synchronousTerrain(mundo);
+        EcosistemaApp.spawnRandomAnimals(mundo, new Random(seed), seed);
+
+        // Terminar la animación de spawn para medir los animales en su forma normal
+        for(entities.BaseAnimal a : mundo.getAnimals()){
+            for(int i = 0; i < 60; i++) a.update();
+        }
+        return mundo;
+    }
+
+    // Chunks de terreno generados en el hilo de render: todas las corridas dibujan lo mismo
+    static void synchronousTerrain(simulation.Mundo mundo){
+        for(Renderable r : mundo.snapshotEntities()){
+            if(r instanceof entities.Terreno) ((entities.Terreno) r).setAsyncGeneration(false);
+        }
+    }
+
+    // Un frame con la cámara inicial barriendo ±0.6 rad de yaw a lo largo de la corrida.
+    // Devuelve cuántas entidades descartó el frustum culling.
+    static int renderFrame(SoftwareRenderer renderer, List<Renderable> scene, Camera cam, int frame, int frames){
+        return renderFrame(renderer, scene, null, cam, frame, frames);
+    }
+
+    // Igual que RenderPanel: la malla estática primero y luego el resto de las entidades
+    static int renderFrame(SoftwareRenderer renderer, List<Renderable> scene, simulation.Mundo.StaticBake bake,
+                           Camera cam, int frame, int frames){
+        cam.setOrientation(0.6 * Math.sin(2 * Math.PI * frame / Math.max(1, frames)), -0.15);
+        renderer.clear(new java.awt.Color(120, 170, 255));
+        math.CameraFrame f = renderer.beginFrame(cam);
+        if(bake != null) renderer.drawStaticMesh(bake.mesh, cam);
+        int culled = 0;
+        for(Renderable r : scene){
+            if(bake != null && bake.contains(r)) continue;
+            if(!RenderPanel.FRUSTUM_CULLING || RenderPanel.isVisible(r, f, BOUNDS)) r.render(renderer, cam);
+            else culled++;
+        }
+        renderer.swapBuffers();
+        return culled;
+    }
+}
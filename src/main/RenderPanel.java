@@ -35,11 +35,18 @@ public class RenderPanel {
     private List<MenuItemBounds> lastMenuBounds = Collections.emptyList();
     private SpawnTarget latestSpawnTarget = null;
 
-    private String transientMessage = "";
-    private Color transientMessageColor = Color.WHITE;
-    private long transientMessageUntil = 0L;
+    // Escritos también por el hilo de guardado al terminar (saveAsync)
+    private volatile String transientMessage = "";
+    private volatile Color transientMessageColor = Color.WHITE;
+    private volatile long transientMessageUntil = 0L;
+    // Un guardado en segundo plano a la vez
+    private volatile boolean saveInProgress = false;
+    // Carga por streaming en curso (null si no hay): el HUD muestra su progreso
+    private volatile simulation.StreamingLoader streamingLoad = null;
 
     private static final Color SKY_COLOR = new Color(120, 170, 255);
+    // -Decosistema.frustumCulling=false dibuja todas las entidades (para comparar)
+    static final boolean FRUSTUM_CULLING = !"false".equalsIgnoreCase(System.getProperty("ecosistema.frustumCulling"));
 
     private static class MenuItemBounds {
         final int index;
@@ -100,9 +107,21 @@ public class RenderPanel {
     private ButtonBounds deleteAnimalButton = null;
     private boolean animalPanelActive = false; // Si el panel está activo
     
+    // Frustum culling: entidades dibujadas/descartadas en el último frame
+    private int lastDrawnCount = 0;
+    private int lastCulledCount = 0;
+    private final double[] cullSphere = new double[4];
+    
     // Referencias para guardar/cargar
     private Camera camera = null;
     private simulation.Simulador simulador = null;
+    // Scheduler de la simulación (time-warp con la tecla T)
+    private simulation.FixedStepScheduler scheduler = null;
+    // Grabación de la sesión (-Decosistema.record); null = no se graba
+    private volatile simulation.Replay.Recorder recorder = null;
+    // Autosave de la sesión (null si está desactivado): una carga lo reinicia con un checkpoint
+    private volatile simulation.Autosave autosave = null;
+    private static final double[] TIME_SCALES = { 1.0, 10.0, 100.0, simulation.FixedStepScheduler.UNBOUNDED };
 
     public RenderPanel(int ancho, int alto) {
         this.ancho = ancho;
@@ -121,9 +140,38 @@ public class RenderPanel {
     public void setSimulador(simulation.Simulador sim) {
         this.simulador = sim;
     }
+    
+    public void setScheduler(simulation.FixedStepScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+    
+    public void setRecorder(simulation.Replay.Recorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    public void setAutosave(simulation.Autosave autosave) {
+        this.autosave = autosave;
+    }
+    
+    private static String timeScaleLabel(double scale) {
+        if (Double.isInfinite(scale)) return "MAX";
+        return (scale == Math.rint(scale) ? String.valueOf((long) scale) : String.valueOf(scale)) + "x";
+    }
 
     public void render(List<Renderable> entidades, Camera cam, Controles controles) {
+        render(entidades, cam, controles, 1.0);
+    }
+
+    /**
+     * Dibuja un frame. Las entidades NO se actualizan aquí (eso es trabajo de
+     * FixedStepScheduler); alpha es la fracción del tick en curso que se usa para
+     * interpolar posiciones entre el tick anterior y el actual.
+     */
+    public void render(List<Renderable> entidades, Camera cam, Controles controles, double alpha) {
         renderer.clear(SKY_COLOR);
+        renderer.setInterpolationAlpha(alpha);
+        // Snapshot de la cámara para todo el frame (base y FOV se calculan una sola vez)
+        math.CameraFrame frame = cam != null ? renderer.beginFrame(cam) : null;
         
         // Detect hovered animal under cursor
         updateHoveredAnimal(entidades, cam, controles);
@@ -136,16 +184,29 @@ public class RenderPanel {
             animalPanelSlideProgress = Math.max(0.0, animalPanelSlideProgress - 0.08);
         }
 
+        // Geometría estática horneada (rocas, arbustos, plantas crecidas): una sola malla
+        Mundo.StaticBake bake = mundo != null && cam != null ? mundo.getStaticBake() : null;
+        if (bake != null) renderer.drawStaticMesh(bake.mesh, cam);
+
+        int drawn = 0, culled = 0;
         if (entidades != null) {
             for (Renderable r : entidades) {
+                if (bake != null && bake.contains(r)) continue;
                 try {
-                    r.update();
-                    r.render(renderer, cam);
+                    // Solo se dibuja lo que intersecta el frustum
+                    if (frame == null || !FRUSTUM_CULLING || isVisible(r, frame, cullSphere)) {
+                        r.render(renderer, cam);
+                        drawn++;
+                    } else {
+                        culled++;
+                    }
                 } catch (Exception ex) {
                     // Skip problematic entity to avoid breaking render loop
                 }
             }
         }
+        lastDrawnCount = drawn;
+        lastCulledCount = culled;
 
         AnimalSpawnerMenu menu = controles != null ? controles.getSpawnerMenu() : null;
 
@@ -181,6 +242,35 @@ public class RenderPanel {
         return renderer.getBuffer();
     }
 
+    public int getLastDrawnCount() {
+        return lastDrawnCount;
+    }
+
+    public int getLastCulledCount() {
+        return lastCulledCount;
+    }
+
+    /**
+     * Frustum culling de una entidad: usa su esfera envolvente si la expone (Bounded), si no
+     * el AABB de Collidable con un margen para animaciones. Lo demás se dibuja siempre.
+     * sphere es un buffer de 4 doubles provisto por quien llama.
+     */
+    static boolean isVisible(Renderable r, math.CameraFrame frame, double[] sphere) {
+        if (r instanceof entities.Bounded) {
+            if (!((entities.Bounded) r).getBoundingSphere(sphere)) return true;
+            return frame.isSphereVisible(sphere[0], sphere[1], sphere[2], sphere[3]);
+        }
+        if (r instanceof Collidable) {
+            Collidable c = (Collidable) r;
+            Vector3 min = c.getAABBMin();
+            Vector3 max = c.getAABBMax();
+            // Margen: balanceo de plantas y cubos que sobresalen medio voxel del AABB
+            double pad = 4.0 + 0.25 * Math.max(max.x - min.x, Math.max(max.y - min.y, max.z - min.z));
+            return frame.isAabbVisible(min.x - pad, min.y - pad, min.z - pad, max.x + pad, max.y + pad, max.z + pad);
+        }
+        return true;
+    }
+
     private void drawHUD(Controles controles, AnimalSpawnerMenu menu, Camera cam) {
         PixelFont.drawText(renderer, 10, 10, "Y: Agregar animal", 2, Color.WHITE);
 
@@ -188,6 +278,14 @@ public class RenderPanel {
             Vector3 p = cam.getPosicion();
             String dbg = "Pos: " + (int) p.x + "," + (int) p.y + "," + (int) p.z;
             PixelFont.drawText(renderer, 10, 30, dbg, 2, Color.WHITE);
+            String cull = "Cull: " + lastDrawnCount + " drawn, " + lastCulledCount + " culled";
+            PixelFont.drawText(renderer, 10, 50, cull, 2, Color.WHITE);
+        }
+        
+        // Indicador de time-warp (solo si no es tiempo real)
+        if (scheduler != null && scheduler.getTimeScale() != 1.0) {
+            String warp = "T: Tiempo " + timeScaleLabel(scheduler.getTimeScale());
+            PixelFont.drawText(renderer, ancho - 10 - PixelFont.measureTextWidth(warp, 2), 10, warp, 2, new Color(255, 220, 80));
         }
 
         boolean showCrosshair = controles == null || controles.isCrosshairVisible();
@@ -198,6 +296,12 @@ public class RenderPanel {
             drawCrosshair();
         }
 
+        simulation.StreamingLoader loading = streamingLoad;
+        if (loading != null) {
+            String progress = String.format("Cargando partida... %d%% (%d/%d)", (int) (loading.getProgress() * 100),
+                                            loading.getLoaded(), loading.getTotal());
+            drawCenteredText(progress, new Color(200, 200, 200), alto - 40, 2);
+        }
         if (System.currentTimeMillis() < transientMessageUntil && !transientMessage.isEmpty()) {
             drawCenteredText(transientMessage, transientMessageColor, alto - 20, 2);
         }
@@ -369,7 +473,7 @@ public class RenderPanel {
         }
     }
 
-    private void setTransientMessage(String text, Color color, long durationMs) {
+    void setTransientMessage(String text, Color color, long durationMs) {
         this.transientMessage = text;
         this.transientMessageColor = color;
         this.transientMessageUntil = System.currentTimeMillis() + durationMs;
@@ -501,6 +605,17 @@ public class RenderPanel {
             controles.setAnimalPanelOpen(false);
             e.consume();
         }
+        
+        // T: ciclar la velocidad de la simulación (1x → 10x → 100x → MAX → 1x)
+        if (e.getKeyCode() == KeyEvent.VK_T && scheduler != null && !controles.isPaused()) {
+            double current = scheduler.getTimeScale();
+            int next = 0;
+            for (int i = 0; i < TIME_SCALES.length; i++) {
+                if (TIME_SCALES[i] == current) next = (i + 1) % TIME_SCALES.length;
+            }
+            scheduler.setTimeScale(TIME_SCALES[next]);
+            setTransientMessage("Velocidad de simulacion: " + timeScaleLabel(TIME_SCALES[next]), new Color(255, 220, 80), 1500);
+        }
     }
 
     public void handleMousePressed(MouseEvent e, Controles controles) {
@@ -521,7 +636,7 @@ public class RenderPanel {
                 // Check for delete button
                 if (deleteAnimalButton != null && deleteAnimalButton.contains(mx, my)) {
                     if (mundo != null) {
-                        mundo.removeEntity(selectedAnimal);
+                        removeAnimal(selectedAnimal);
                     }
                     setAnimalSelected(selectedAnimal, false);
                     selectedAnimal = null;
@@ -567,22 +682,22 @@ public class RenderPanel {
                 
                 // Check Anterior button (phase > 1)
                 if (phase > 1 && mx >= btn1X && mx < btn1X + buttonWidth && my >= btn1Y && my < btn1Y + buttonHeight) {
-                    ba.revertToPreviousPhase();
-                    setTransientMessage("Retrocedido a etapa " + ba.getGrowthPhase(), new Color(150, 200, 255), 2000);
+                    changePhase(ba, -1);
+                    setTransientMessage("Retrocedido a etapa " + (phase - 1), new Color(150, 200, 255), 2000);
                     return;
                 }
                 
                 // Check Siguiente button (phase < 3)
                 if (phase < 3 && mx >= btn2X && mx < btn2X + buttonWidth && my >= btn2Y && my < btn2Y + buttonHeight) {
-                    ba.advanceToNextPhase();
-                    setTransientMessage("Avanzado a etapa " + ba.getGrowthPhase(), new Color(100, 255, 150), 2000);
+                    changePhase(ba, +1);
+                    setTransientMessage("Avanzado a etapa " + (phase + 1), new Color(100, 255, 150), 2000);
                     return;
                 }
                 
                 // Check Eliminar button
                 if (mx >= btn3X && mx < btn3X + buttonWidth && my >= btn3Y && my < btn3Y + buttonHeight) {
                     // Start death animation
-                    ba.markForDeath();
+                    killAnimal(ba);
                     setAnimalSelected(selectedAnimal, false);
                     selectedAnimal = null;
                     animalPanelActive = false;
@@ -627,7 +742,7 @@ public class RenderPanel {
                 
                 if (buttonHit) {
                     // Marcar para muerte (permitir animación)
-                    dep.markForDeath();
+                    killAnimal(dep);
                     
                     // Desseleccionar y limpiar estado
                     setAnimalSelected(selectedAnimal, false);
@@ -727,8 +842,90 @@ public class RenderPanel {
         }
     }
     
-    // Helper methods for animal selection
-    private void setAnimalSelected(Renderable animal, boolean selected) {
+    // ========================================================================================
+    // Acciones del usuario sobre el mundo
+    // ========================================================================================
+    // No se aplican en el hilo de la UI: corren entre dos ticks en el hilo del scheduler
+    // (runBetweenTicks, a lo sumo un frame después del click). Así ningún update() las ve a
+    // medias, los ids de lo que se crea no compiten con las crías del tick, y la grabación
+    // (Replay) registra el tick exacto en que entraron. main.ReplayPlayer las repite con
+    // los mismos apply*.
+    
+    private void betweenTicks(Runnable action) {
+        if (scheduler != null) scheduler.runBetweenTicks(action);
+        else action.run();
+    }
+    
+    void spawnAnimal(int type, Vector3 pos, long seed) {
+        betweenTicks(() -> {
+            simulation.Replay.Recorder rec = recorder;
+            if (rec != null) rec.spawn(type, seed, pos);
+            applySpawn(mundo, type, pos, seed);
+        });
+    }
+    
+    void removeAnimal(Renderable animal) {
+        betweenTicks(() -> {
+            simulation.Replay.Recorder rec = recorder;
+            if (rec != null) rec.remove(animal);
+            mundo.removeEntity(animal);
+        });
+    }
+    
+    void killAnimal(Renderable animal) {
+        betweenTicks(() -> {
+            simulation.Replay.Recorder rec = recorder;
+            if (rec != null) rec.kill(animal);
+            applyKill(animal);
+        });
+    }
+    
+    void changePhase(entities.BaseAnimal animal, int delta) {
+        betweenTicks(() -> {
+            simulation.Replay.Recorder rec = recorder;
+            if (rec != null) rec.phase(animal, delta);
+            applyPhase(animal, delta);
+        });
+    }
+    
+    // Un animal seleccionado no se mueve (y un depredador queda en pausa): también es una
+    // entrada de la simulación
+    void setAnimalSelected(Renderable animal, boolean selected) {
+        betweenTicks(() -> {
+            simulation.Replay.Recorder rec = recorder;
+            if (rec != null) rec.select(animal, selected);
+            applySelected(animal, selected);
+        });
+    }
+    
+    /** Crea un animal (0-9) o depredador (10) y lo agrega al mundo. */
+    static void applySpawn(Mundo mundo, int type, Vector3 pos, long seed) {
+        Renderable r = EcosistemaApp.createAnimalOfType(type, pos, seed);
+        if (r != null) {
+            if (r instanceof entities.BaseAnimal) {
+                mundo.addAnimal((entities.BaseAnimal) r);
+            } else {
+                mundo.addEntity(r);
+            }
+        }
+    }
+    
+    /** Inicia la animación de muerte de un animal o depredador. */
+    static void applyKill(Renderable animal) {
+        if (animal instanceof entities.BaseAnimal) {
+            ((entities.BaseAnimal) animal).markForDeath();
+        } else if (animal instanceof entities.Depredador) {
+            ((entities.Depredador) animal).markForDeath();
+        }
+    }
+    
+    /** Botones de etapa: +1 siguiente, -1 anterior. */
+    static void applyPhase(entities.BaseAnimal animal, int delta) {
+        if (delta > 0) animal.advanceToNextPhase();
+        else animal.revertToPreviousPhase();
+    }
+    
+    static void applySelected(Renderable animal, boolean selected) {
         if (animal instanceof entities.BaseAnimal) {
             ((entities.BaseAnimal) animal).setSelected(selected);
         } else if (animal instanceof entities.Depredador) {
@@ -766,11 +963,20 @@ public class RenderPanel {
                 handleLoadGame(controles);
                 break;
             case "exit":
-                System.exit(0);
+                exitApplication();
                 break;
         }
     }
     
+    /**
+     * Salida explícita (menú o cerrar la ventana): el autosave termina de escribir y se
+     * borra, porque no hay nada que recuperar. Los demás cierres lo conservan.
+     */
+    public void exitApplication() {
+        if (autosave != null) autosave.discard();
+        System.exit(0);
+    }
+    
     private void handleSaveGame(Controles controles) {
         if (mundo == null || camera == null) {
             setTransientMessage("Error: Falta informacion", new Color(255, 100, 50), 2000);
@@ -783,21 +989,50 @@ public class RenderPanel {
             return; // Usuario canceló
         }
         
-        // Crear estado del juego
-        simulation.Persistencia.GameState state = new simulation.Persistencia.GameState();
-        state.animals = mundo.getAnimals();
-        state.cameraPos = camera.getPosicion();
-        state.cameraYaw = camera.getYaw();
-        state.cameraPitch = camera.getPitch();
-        state.simulatorSeed = simulador != null ? simulador.getSeed() : 5555L;
-        state.environmentSeed = mundo.getEnvironmentSeed();
-        state.environmentCreatedAt = mundo.getEnvironmentCreatedAt();
-        
-        // Guardar
-        if (simulation.Persistencia.saveGameState(saveFile, state)) {
-            setTransientMessage("Partida guardada: " + saveFile.getName(), new Color(100, 200, 150), 3000);
+        if (saveInProgress) {
+            setTransientMessage("Guardado en curso, espera un momento", new Color(255, 200, 80), 2000);
+            return;
+        }
+        if (streamingLoad != null) {
+            setTransientMessage("Carga en curso, espera un momento", new Color(255, 200, 80), 2000);
+            return;
+        }
+        saveInProgress = true;
+        setTransientMessage("Guardando partida...", new Color(200, 200, 200), 60000);
+        
+        // La copia del estado se hace en el hilo de render entre dos ticks (ni update() ni
+        // comandos diferidos a mitad); la escritura y el fsync, en segundo plano
+        Runnable capture = () -> {
+            java.nio.ByteBuffer encoded;
+            try {
+                synchronized (mundo) { // el Simulador evoluciona animales con este lock
+                    // Animales, depredadores y plantas del snapshot actual, cámara y seed
+                    simulation.Persistencia.GameState state = simulation.Persistencia.captureWorld(mundo);
+                    state.cameraPos = camera.getPosicion();
+                    state.cameraYaw = camera.getYaw();
+                    state.cameraPitch = camera.getPitch();
+                    state.simulatorSeed = simulador != null ? simulador.getSeed() : 5555L;
+                    encoded = simulation.Persistencia.encode(state);
+                }
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+                saveInProgress = false;
+                setTransientMessage("Error al guardar partida", new Color(255, 100, 50), 2000);
+                return;
+            }
+            simulation.Persistencia.saveAsync(saveFile, encoded).whenComplete((ok, error) -> {
+                saveInProgress = false;
+                if (error == null && ok) {
+                    setTransientMessage("Partida guardada: " + saveFile.getName(), new Color(100, 200, 150), 3000);
+                } else {
+                    setTransientMessage("Error al guardar partida", new Color(255, 100, 50), 2000);
+                }
+            });
+        };
+        if (scheduler != null) {
+            scheduler.runBetweenTicks(capture);
         } else {
-            setTransientMessage("Error al guardar partida", new Color(255, 100, 50), 2000);
+            capture.run();
         }
     }
     
@@ -813,37 +1048,62 @@ public class RenderPanel {
             return; // Usuario canceló
         }
         
-        // Cargar estado
+        if (streamingLoad != null) {
+            setTransientMessage("Carga en curso, espera un momento", new Color(255, 200, 80), 2000);
+            return;
+        }
+        
+        // Partidas binarias: por streaming desde el archivo mapeado, lo cercano a la cámara primero
+        simulation.StreamingLoader stream = simulation.StreamingLoader.open(loadFile);
+        if (stream != null) {
+            stopRecording();
+            startStreamingLoad(stream, controles);
+            return;
+        }
+        
+        // Cargar estado (formato de texto anterior, o un archivo que no se pudo abrir)
         simulation.Persistencia.GameState state = simulation.Persistencia.loadGameState(loadFile);
+        if (state == null) {
+            setTransientMessage("Error al cargar partida", new Color(255, 100, 50), 2000);
+            return;
+        }
+        stopRecording();
         
         // Limpiar mundo actual
         mundo.clearWorld();
         
         // Restaurar seed y tiempo de creación del entorno para generación determinística y progreso de crecimiento
         mundo.setEnvironmentSeed(state.environmentSeed);
-        // Ajustar el tiempo de creación para mantener el mismo progreso: restar el tiempo transcurrido desde la última sesión
-        long timeSinceCreation = state.environmentCreatedAt - System.currentTimeMillis();
-        long adjustedCreationTime = System.currentTimeMillis() + timeSinceCreation;
-        mundo.setEnvironmentCreatedAt(adjustedCreationTime);
-        
-        // Recrear terreno y entidades ambientales con tiempos ajustados
-        mundo.initializeEnvironment();
+        // El tiempo de creación ya viene referido al reloj actual (se guarda como edad), así
+        // el crecimiento sigue con el mismo progreso
+        mundo.setEnvironmentCreatedAt(state.environmentCreatedAt);
+        
+        // Recrear terreno y entidades ambientales: las plantas guardadas si las hay, si no
+        // (partidas de texto) generadas desde la seed con tiempos ajustados
+        if (state.plants != null) {
+            mundo.restoreEnvironment(state.plants);
+        } else {
+            mundo.initializeEnvironment();
+        }
         
         // Restaurar posición de cámara
         camera.setPosicion(state.cameraPos);
         camera.setOrientation(state.cameraYaw, state.cameraPitch);
         
-        // Restaurar animales con ajuste de altura
-        for (entities.BaseAnimal a : state.animals) {
-            // Ajustar posición Y según el terreno actual
-            Vector3 pos = a.getPosicion();
-            double terrainH = mundo.getHeightAt(pos.x, pos.z);
-            if (terrainH != Double.NEGATIVE_INFINITY) {
-                // Colocar animal sobre el terreno
-                a.setPosicion(new Vector3(pos.x, terrainH + 5.0, pos.z));
+        // Restaurar animales y depredadores en su orden (un solo snapshot). El formato de
+        // texto no guarda el estado: ahí se ajusta la altura al terreno actual
+        if (state.legacyFormat) {
+            for (entities.BaseAnimal a : state.animals) {
+                Vector3 pos = a.getPosicion();
+                double terrainH = mundo.getHeightAt(pos.x, pos.z);
+                if (terrainH != Double.NEGATIVE_INFINITY) {
+                    // Colocar animal sobre el terreno
+                    a.setPosicion(new Vector3(pos.x, terrainH + 5.0, pos.z));
+                }
             }
-            mundo.addAnimal(a);
         }
+        mundo.addAll(state.creatures);
+        if (autosave != null) autosave.worldReplaced();
         
         // Reanudar simulación
         controles.setPaused(false);
@@ -851,6 +1111,53 @@ public class RenderPanel {
         setTransientMessage("Partida cargada: " + loadFile.getName(), new Color(100, 200, 150), 3000);
     }
 
+    // Una partida cargada no sale de la seed de la grabación: la sesión grabada termina acá
+    private void stopRecording() {
+        simulation.Replay.Recorder rec = recorder;
+        if (rec == null) return;
+        recorder = null;
+        if (simulador != null) simulador.setRecorder(null);
+        rec.close();
+    }
+
+    /**
+     * Carga por streaming: el mundo se vacía y recibe el terreno y las entidades por lotes en
+     * el hilo "save-loader", de las más cercanas a la cámara a las más lejanas. Se puede mirar
+     * y moverse enseguida; la simulación queda suspendida hasta el último lote (población y
+     * orden completos), y con ella las acciones entre ticks (guardar, spawn, panel, autosave).
+     */
+    private void startStreamingLoad(simulation.StreamingLoader stream, Controles controles) {
+        simulation.Persistencia.GameState meta = stream.getMeta();
+        if (scheduler != null) scheduler.suspend();
+        
+        mundo.clearWorld();
+        mundo.setEnvironmentSeed(meta.environmentSeed);
+        mundo.setEnvironmentCreatedAt(meta.environmentCreatedAt);
+        camera.setPosicion(meta.cameraPos);
+        camera.setOrientation(meta.cameraYaw, meta.cameraPitch);
+        
+        streamingLoad = stream;
+        controles.setPaused(false);
+        Thread loader = new Thread(() -> {
+            boolean ok = false;
+            try {
+                ok = stream.loadInto(mundo);
+            } finally {
+                // Antes del resume(): la primera captura que corra ya es un checkpoint
+                if (autosave != null) autosave.worldReplaced();
+                streamingLoad = null;
+                if (scheduler != null) scheduler.resume();
+            }
+            if (ok) {
+                setTransientMessage("Partida cargada: " + stream.getFile().getName(), new Color(100, 200, 150), 3000);
+            } else {
+                setTransientMessage("Error al cargar partida (carga incompleta)", new Color(255, 100, 50), 3000);
+            }
+        }, "save-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
     private void attemptSpawn(Controles controles) {
         if (mundo == null) return;
         if (controles == null) return;
@@ -858,6 +1165,10 @@ public class RenderPanel {
         
         // Prevenir spawns duplicados
         if (!mundo.isWaitingForSpawn()) return;
+        if (streamingLoad != null) {
+            setTransientMessage("Carga en curso, espera un momento", new Color(255, 200, 80), 2000);
+            return;
+        }
 
         if (latestSpawnTarget == null) {
             latestSpawnTarget = computeSpawnTarget(controles.getCamera());
@@ -876,16 +1187,7 @@ public class RenderPanel {
         if (type < 0) {
             type = rng.nextInt(10);
         }
-        Vector3 pos = latestSpawnTarget.position;
-        long seed = System.currentTimeMillis();
-        Renderable r = EcosistemaApp.createAnimalOfType(type, pos, seed);
-        if (r != null) {
-            if (r instanceof entities.BaseAnimal) {
-                mundo.addAnimal((entities.BaseAnimal) r);
-            } else {
-                mundo.addEntity(r);
-            }
-        }
+        spawnAnimal(type, latestSpawnTarget.position, System.currentTimeMillis());
         mundo.setWaitingForSpawn(false);
         if (menu != null) {
             menu.confirmSpawn();
@@ -1363,7 +1665,7 @@ public class RenderPanel {
         lineY += 18;
         
         // Tiempo en mapa (Time in map)
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.SimClock.now();
         long elapsed = currentTime - dep.getSpawnTime();
         double timeInMap = elapsed / 1000.0;
         String timeText = String.format("T. en mapa: %.1fs", timeInMap);
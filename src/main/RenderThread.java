@@ -4,6 +4,7 @@ import math.Camera;
 import java.util.Collections;
 import java.util.List;
 import java.awt.image.BufferedImage;
+import simulation.FixedStepScheduler;
 import simulation.Mundo;
 import ui.Controles;
 
@@ -13,6 +14,12 @@ public class RenderThread extends Thread {
     private Camera cam;
     private Controles controles;
     private DisplayPanel displayPanel;
+    // Dueño de los update() de entidades: paso fijo independiente del framerate
+    private final FixedStepScheduler scheduler;
+    // Grabación de la sesión: cámara y hash del estado después de cada advance() (null = no)
+    private volatile simulation.Replay.Recorder recorder;
+    // -Decosistema.maxFps=N limita el render (0 = tan rápido como permita la CPU)
+    private static final int MAX_FPS = Integer.getInteger("ecosistema.maxFps", 144);
 
     public RenderThread(RenderPanel panel, Mundo mundo, Camera cam, Controles controles, DisplayPanel displayPanel){
         this.panel = panel;
@@ -20,11 +27,22 @@ public class RenderThread extends Thread {
         this.cam = cam;
         this.controles = controles;
         this.displayPanel = displayPanel;
+        this.scheduler = mundo != null ? FixedStepScheduler.fromSystemProperties(mundo) : null;
+    }
+
+    public FixedStepScheduler getScheduler(){
+        return scheduler;
+    }
+
+    public void setRecorder(simulation.Replay.Recorder recorder){
+        this.recorder = recorder;
     }
 
     @Override
     public void run(){
         while(true){
+            long frameStart = System.nanoTime();
+
             // VERIFICAR ESTADO DE PAUSA
             // shouldFreeze = true cuando:
             // - Usuario presionó ESC (menú de pausa)
@@ -36,23 +54,30 @@ public class RenderThread extends Thread {
             // Implementa movimiento tipo FPS: WASD, espacio, ctrl, mouse look
             if(controles != null && !shouldFreeze) controles.actualizar();
 
-            // OBTENER SNAPSHOT DE ENTIDADES
-            // snapshotEntities() crea una copia de la lista (thread-safe)
-            // Evita ConcurrentModificationException si el Simulador agrega/quita animales
-            List<Renderable> snapshot = mundo != null ? mundo.snapshotEntities() : Collections.emptyList();
-            
             // ACTUALIZAR ENTIDADES (solo si NO está pausado)
-            // Cada entidad.update() puede:
+            // El scheduler ejecuta los ticks fijos que correspondan al tiempo real transcurrido
+            // (0, 1 o varios según lo que tardó el frame). Cada entidad.update() puede:
             // - Animar spawn (fade in desde transparente)
             // - Mover el animal (caminar, saltar)
             // - Actualizar fase de crecimiento
             // - Consumir energía/hambre
-            if (!shouldFreeze) {
-                for (Renderable r : snapshot) {
-                    r.update();
-                }
+            if (scheduler != null) {
+                if (shouldFreeze) scheduler.hold();
+                else scheduler.advance(System.nanoTime());
             }
+
+            // GRABAR LA SESIÓN (-Decosistema.record): en este hilo y entre ticks, como las
+            // acciones que el scheduler acaba de aplicar
+            simulation.Replay.Recorder rec = recorder;
+            if (rec != null) rec.frame(cam);
+
+            // OBTENER SNAPSHOT DE ENTIDADES
+            // snapshotEntities() devuelve el snapshot inmutable publicado por Mundo
+            // (lectura volatile, sin copia): el Simulador puede agregar/quitar animales
+            // mientras tanto sin ConcurrentModificationException
+            List<Renderable> snapshot = mundo != null ? mundo.snapshotEntities() : Collections.emptyList();
             
+
             // RENDERIZAR ESCENA
             // panel.render() ejecuta todo el pipeline 3D:
             // 1. Limpiar buffers (color + z-buffer)
@@ -63,7 +88,9 @@ public class RenderThread extends Thread {
             //    d. Rasterizar triángulos con z-test
             // 3. Dibujar HUD (estadísticas, crosshair, menús)
             // 4. Swap buffers (mostrar backBuffer en pantalla)
-            panel.render(snapshot, cam, controles);
+            // alpha interpola las posiciones entre el tick anterior y el actual
+            double alpha = scheduler != null ? scheduler.getAlpha() : 1.0;
+            panel.render(snapshot, cam, controles, alpha);
             
             // MOSTRAR IMAGEN EN PANTALLA
             // Actualizar el DisplayPanel con la imagen renderizada
@@ -74,9 +101,16 @@ public class RenderThread extends Thread {
             }
 
             // LIMITAR FRAMERATE
-            // Sleep de 7ms = ~143 FPS máximo
-            // Reduce uso de CPU y batería sin sacrificar fluidez
-            try { Thread.sleep(7); } catch(Exception e){}
+            // Dormir lo que falte para MAX_FPS (144 por defecto); la simulación no depende
+            // de esto, solo reduce uso de CPU y batería
+            if (MAX_FPS > 0) {
+                long remainingNanos = 1_000_000_000L / MAX_FPS - (System.nanoTime() - frameStart);
+                if (remainingNanos > 0) {
+                    try { Thread.sleep(remainingNanos / 1_000_000L, (int) (remainingNanos % 1_000_000L)); } catch(Exception e){}
+                }
+            } else {
+                Thread.yield();
+            }
         }
     }
 }
@@ -0,0 +1,313 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import math.Camera;
+import math.Vector3;
+import simulation.FixedStepScheduler;
+import simulation.Mundo;
+import simulation.Replay;
+import simulation.SimClock;
+import simulation.Simulador;
+
+/**
+ * ============================================================================================
+ * ReplayPlayer - Repite una sesión grabada (Replay) sobre un Mundo nuevo, tan rápido como se pueda
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Reproducir exactamente una sesión (la grabada con -Decosistema.record en EcosistemaApp)
+ * para investigar regresiones de rendimiento con la misma carga, sin depender de la mano
+ * del usuario ni del reloj de pared. Las repeticiones son la entrada estándar de las pruebas
+ * de carga.
+ *
+ * FLUJO:
+ * 1. SimClock con la época de la grabación y el mundo regenerado desde su seed
+ *    (EcosistemaApp.populateDefaultWorld), cámara inicial de la cabecera
+ * 2. Bucle sin sleeps: los eventos de cada tick en el orden grabado (acciones del usuario
+ *    con los mismos RenderPanel.apply*, Simulador.evolveStep, cámara) y después
+ *    scheduler.step() hasta el tick del próximo evento
+ * 3. Cada HASH grabado se compara con el hash del mundo: si difieren, la repetición se
+ *    separó de la sesión y se informa el primer tick
+ * 4. Con --render, un frame por tick desde la cámara grabada (RenderPanel completo, sin
+ *    ventana); con --show además se muestra en una ventana
+ *
+ * USO:
+ *   java -cp bin main.ReplayPlayer sesion.replay [--render] [--show] [--threads N]
+ *   java -cp bin main.ReplayPlayer --record-sample sample.replay [segundos] [seed]
+ *
+ * --record-sample graba una sesión de ejemplo sin ventana: un guion con la cámara en
+ * movimiento, animales colocados, seleccionados, con cambios de etapa, eliminados y
+ * marcados para morir, por los mismos caminos de RenderPanel, Simulador y RenderThread
+ * que una sesión real. Sirve de entrada de carga y para comprobar que la repetición da
+ * los mismos hashes.
+ *
+ * SALIDA: ticks y eventos, ms por tick (avg/p50/p95/max) y por frame con --render, y el
+ * resultado de los hashes. Código de salida 1 si la repetición divergió.
+ *
+ * ============================================================================================
+ */
+public class ReplayPlayer {
+    static final int ANCHO = 1000, ALTO = 700;
+    // Seed del Simulador de las sesiones de ejemplo (la misma que EcosistemaApp)
+    private static final long SAMPLE_SIMULATOR_SEED = 5555L;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--record-sample")) {
+            System.setProperty("java.awt.headless", "true");
+            if (args.length < 2) usage("falta el archivo de la grabación");
+            double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 120.0;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 12345L;
+            recordSample(new File(args[1]), seconds, seed);
+            return;
+        }
+
+        File file = null;
+        boolean render = false, show = false;
+        int threads = Integer.getInteger("ecosistema.simThreads", Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--render": render = true; break;
+                case "--show": render = show = true; break;
+                case "--threads":
+                    if (i + 1 >= args.length) usage("falta el valor de --threads");
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    if (args[i].startsWith("--") || file != null) usage("opción desconocida: " + args[i]);
+                    file = new File(args[i]);
+            }
+        }
+        if (file == null) usage("falta el archivo de la grabación");
+        if (!show) System.setProperty("java.awt.headless", "true");
+        System.exit(play(file, render, show, Math.max(1, threads)) ? 0 : 1);
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("uso: java main.ReplayPlayer ARCHIVO [--render] [--show] [--threads N]");
+        System.err.println("     java main.ReplayPlayer --record-sample ARCHIVO [segundos] [seed]");
+        System.exit(2);
+    }
+
+    // Mundo nuevo como el de EcosistemaApp: SimClock ya instalado, todo derivado de seed
+    static Mundo newWorld(long seed, boolean animalStore) {
+        Mundo mundo = new Mundo();
+        if (animalStore) mundo.enableAnimalStore();
+        entities.BaseAnimal.setWorld(mundo);
+        entities.Depredador.setWorldReference(mundo);
+        mundo.setEnvironmentSeed(seed);
+        mundo.setEnvironmentCreatedAt(SimClock.now());
+        EcosistemaApp.populateDefaultWorld(mundo, seed);
+        return mundo;
+    }
+
+    /** Repite la grabación; devuelve false si se separó de la sesión. */
+    static boolean play(File file, boolean render, boolean show, int threads) throws IOException {
+        Replay.Reader reader = Replay.Reader.open(file);
+        SimClock.setShared(new SimClock(reader.clockEpochMillis));
+        if (!reader.animalStore && Boolean.getBoolean("ecosistema.animalStore")) {
+            System.err.println("[Replay] La sesión no usaba AnimalStore: correr sin -Decosistema.animalStore");
+        }
+        Mundo mundo = newWorld(reader.environmentSeed, reader.animalStore);
+        FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, threads);
+        Simulador simulador = new Simulador(mundo, reader.simulatorSeed);
+        Camera cam = new Camera(reader.cameraPos, 500);
+        cam.setOrientation(reader.cameraYaw, reader.cameraPitch);
+
+        RenderPanel panel = null;
+        DisplayPanel display = null;
+        if (render) {
+            panel = new RenderPanel(ANCHO, ALTO);
+            panel.setMundo(mundo);
+            panel.setCamera(cam);
+            if (show) {
+                display = new DisplayPanel(ANCHO, ALTO);
+                javax.swing.JFrame frame = new javax.swing.JFrame("Replay - " + file.getName());
+                frame.setDefaultCloseOperation(javax.swing.JFrame.EXIT_ON_CLOSE);
+                frame.add(display);
+                frame.pack();
+                frame.setLocationRelativeTo(null);
+                frame.setVisible(true);
+            }
+        }
+
+        long[] tickNanos = new long[1 << 12];
+        long[] frameNanos = new long[render ? 1 << 12 : 0];
+        long tick = 0L;
+        int events = 0, actions = 0, evolves = 0, cameras = 0, hashes = 0, badHashes = 0, missing = 0;
+        long firstBadTick = -1L;
+        long wallStart = System.nanoTime();
+
+        Replay.Event e;
+        while ((e = reader.next()) != null) {
+            events++;
+            while (tick < e.tick) {
+                long t0 = System.nanoTime();
+                scheduler.step();
+                long t1 = System.nanoTime();
+                if (tick >= tickNanos.length) tickNanos = Arrays.copyOf(tickNanos, tickNanos.length * 2);
+                tickNanos[(int) tick] = t1 - t0;
+                if (panel != null) {
+                    panel.render(mundo.snapshotEntities(), cam, null, 1.0);
+                    if (tick >= frameNanos.length) frameNanos = Arrays.copyOf(frameNanos, frameNanos.length * 2);
+                    frameNanos[(int) tick] = System.nanoTime() - t1;
+                    if (display != null) {
+                        display.setImage(panel.getRenderedImage());
+                        display.repaint();
+                    }
+                }
+                tick++;
+            }
+            switch (e.type) {
+                case Replay.EVOLVE:
+                    simulador.evolveStep();
+                    evolves++;
+                    break;
+                case Replay.SPAWN:
+                    RenderPanel.applySpawn(mundo, e.species, new Vector3(e.x, e.y, e.z), e.seed);
+                    actions++;
+                    break;
+                case Replay.REMOVE:
+                case Replay.KILL:
+                case Replay.SELECT:
+                case Replay.PHASE: {
+                    int kind = e.type == Replay.PHASE ? Replay.KIND_ANIMAL : e.kind;
+                    Renderable target = Replay.find(mundo, kind, e.id);
+                    actions++;
+                    if (target == null) {
+                        missing++;
+                        if (firstBadTick < 0) firstBadTick = e.tick;
+                        break;
+                    }
+                    if (e.type == Replay.REMOVE) mundo.removeEntity(target);
+                    else if (e.type == Replay.KILL) RenderPanel.applyKill(target);
+                    else if (e.type == Replay.SELECT) RenderPanel.applySelected(target, e.selected);
+                    else RenderPanel.applyPhase((entities.BaseAnimal) target, e.delta);
+                    break;
+                }
+                case Replay.CAMERA:
+                    cam.setPosicion(new Vector3(e.x, e.y, e.z));
+                    cam.setOrientation(e.yaw, e.pitch);
+                    cameras++;
+                    break;
+                case Replay.HASH:
+                    hashes++;
+                    if (mundo.stateHash() != e.hash) {
+                        badHashes++;
+                        if (firstBadTick < 0) firstBadTick = e.tick;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+
+        double simSeconds = tick * FixedStepScheduler.TICK_SECONDS;
+        System.out.printf("replay:  %s%s, %d ticks (%.1f s simulados), %d entidades al final%n", file.getName(),
+                reader.isTruncated() ? " (sin END: sesión cortada)" : "", tick, simSeconds, mundo.getSnapshot().size());
+        System.out.printf("eventos: %d (%d acciones, %d evoluciones, %d de cámara, %d hashes)%n",
+                events, actions, evolves, cameras, hashes);
+        System.out.println("sim:     " + summary(tickNanos, (int) tick) + " ms/tick, " + threads + " hilo(s)");
+        if (render) System.out.println("render:  " + summary(frameNanos, (int) tick) + " ms/frame");
+        System.out.printf("total:   %.2f s reales (%.1fx tiempo real)%n", wallSeconds, simSeconds / Math.max(1e-9, wallSeconds));
+        boolean ok = badHashes == 0 && missing == 0;
+        if (ok) {
+            System.out.println("OK: " + hashes + " hashes iguales a los de la sesión");
+        } else {
+            System.out.println("DIVERGE: desde el tick " + firstBadTick + " (" + badHashes + " de " + hashes
+                    + " hashes distintos, " + missing + " acciones sin su entidad)");
+        }
+        return ok;
+    }
+
+    private static String summary(long[] nanos, int count) {
+        if (count == 0) return "avg 0.000, p50 0.000, p95 0.000, max 0.000";
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        double total = 0;
+        for (long t : sorted) total += t;
+        return String.format(java.util.Locale.ROOT, "avg %.3f, p50 %.3f, p95 %.3f, max %.3f", total / count / 1e6,
+                sorted[count / 2] / 1e6, sorted[Math.min(count - 1, (int) (count * 0.95))] / 1e6, sorted[count - 1] / 1e6);
+    }
+
+    /**
+     * Graba una sesión de ejemplo como lo haría EcosistemaApp: acciones por RenderPanel,
+     * evoluciones por Simulador.requestEvolveStep y la cámara/hash después de cada tick,
+     * todo aplicado entre ticks por el scheduler.
+     */
+    static void recordSample(File file, double seconds, long seed) throws IOException {
+        SimClock.setShared(new SimClock(HeadlessApp.SIM_EPOCH_MILLIS));
+        Mundo mundo = newWorld(seed, Boolean.getBoolean("ecosistema.animalStore"));
+        int threads = Integer.getInteger("ecosistema.simThreads", Runtime.getRuntime().availableProcessors());
+        FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, Math.max(1, threads));
+        Simulador simulador = new Simulador(mundo, SAMPLE_SIMULATOR_SEED);
+        simulador.setScheduler(scheduler);
+        Camera cam = new Camera(new Vector3(0, 80, -150), 500);
+
+        Replay.Recorder recorder = new Replay.Recorder(file, mundo, scheduler, simulador.getSeed(), cam);
+        simulador.setRecorder(recorder);
+        RenderPanel panel = new RenderPanel(ANCHO, ALTO);
+        panel.setMundo(mundo);
+        panel.setCamera(cam);
+        panel.setScheduler(scheduler);
+        panel.setRecorder(recorder);
+
+        Random script = new Random(seed * 31 + 7);
+        Renderable selected = null;
+        long selectedUntil = 0L;
+        long nextEvolveAt = SimClock.now() + 1000L;
+        long totalTicks = (long) Math.ceil(seconds / FixedStepScheduler.TICK_SECONDS);
+        for (long t = 0; t < totalTicks; t++) {
+            // Cámara: vuelta lenta alrededor del centro mirando hacia adentro
+            double angle = t * 0.002;
+            cam.setPosicion(new Vector3(Math.sin(angle) * 180, 80 + 20 * Math.sin(t * 0.01), -Math.cos(angle) * 180));
+            cam.setOrientation(-angle, -0.2);
+
+            // Acciones del guion (la UI las encola; corren en el próximo advance)
+            if (t % 190 == 50) {
+                Vector3 p = new Vector3(cam.getPosicion().x * 0.3 + script.nextGaussian() * 30, 0,
+                                        cam.getPosicion().z * 0.3 + script.nextGaussian() * 30);
+                double h = mundo.getHeightAt(p.x, p.z);
+                int type = script.nextInt(25) == 0 ? 10 : script.nextInt(10);
+                panel.spawnAnimal(type, new Vector3(p.x, (h == Double.NEGATIVE_INFINITY ? 0.0 : h) + 5.0, p.z), script.nextLong());
+            }
+            List<entities.BaseAnimal> animals = mundo.getAnimals();
+            if (selected == null && t % 310 == 100 && !animals.isEmpty()) {
+                entities.BaseAnimal a = animals.get(script.nextInt(animals.size()));
+                selected = a;
+                selectedUntil = t + 40 + script.nextInt(80);
+                panel.setAnimalSelected(a, true);
+                if (a.getGrowthPhase() < 3 && script.nextBoolean()) panel.changePhase(a, +1);
+                else if (a.getGrowthPhase() > 1) panel.changePhase(a, -1);
+            } else if (selected != null && t >= selectedUntil) {
+                panel.setAnimalSelected(selected, false);
+                selected = null;
+            }
+            if (t % 700 == 400 && !animals.isEmpty()) {
+                entities.BaseAnimal a = animals.get(script.nextInt(animals.size()));
+                if (a != selected) {
+                    if (script.nextBoolean()) panel.killAnimal(a);
+                    else panel.removeAnimal(a);
+                }
+            }
+            while (SimClock.now() >= nextEvolveAt) {
+                simulador.requestEvolveStep();
+                nextEvolveAt += 1000L;
+            }
+
+            // Un frame de RenderThread: tareas entre ticks, el tick y la grabación
+            scheduler.hold();
+            scheduler.step();
+            recorder.frame(cam);
+        }
+        scheduler.hold();
+        recorder.close();
+        System.out.printf("grabados %.1f s simulados (%d ticks), %d entidades al final, %d bytes%n",
+                totalTicks * FixedStepScheduler.TICK_SECONDS, totalTicks, mundo.getSnapshot().size(), file.length());
+    }
+}
@@ -0,0 +1,213 @@
+package math;
+
+/**
+ * ============================================================================================
+ * CameraFrame - Snapshot inmutable de la cámara para un frame
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Guarda, como primitivos, todo lo que la proyección necesita de la cámara: posición, base
+ * ortonormal (right, up, forward), escala FOV y centro de pantalla. Se construye UNA vez
+ * por frame y luego cada proyección es solo 3 productos punto + una división, sin normalizar
+ * forward ni recalcular productos cruz, y sin crear Vector3/double[] nuevos.
+ *
+ * BASE ORTONORMAL (misma construcción que Transform.project):
+ * - forward = cam.getForward() normalizado
+ * - right   = worldUp × forward
+ * - up      = forward × right
+ *
+ * FRUSTUM:
+ * Los planos near + 4 laterales se derivan de la misma proyección (un punto es visible si
+ * |cx·fov/cz| <= centerX y |cy·fov/cz| <= centerY) y se guardan en world space, de modo que
+ * isSphereVisible / isAabbVisible cuestan unos pocos productos punto por entidad.
+ *
+ * CONSISTENCIA:
+ * Al ser inmutable, todos los objetos de un frame se proyectan con la misma cámara aunque
+ * otro hilo (p.ej. el mouse en el EDT) la rote a mitad del frame.
+ *
+ * ============================================================================================
+ */
+public final class CameraFrame {
+    // Near plane usado por SoftwareRenderer (puntos con cz <= NEAR no se proyectan)
+    public static final double NEAR = 0.01;
+
+    public final Camera camera;
+    public final int ancho, alto;
+
+    // Posición de la cámara
+    public final double px, py, pz;
+    // Base ortonormal de la cámara
+    public final double rx, ry, rz;   // right
+    public final double ux, uy, uz;   // up
+    public final double fx, fy, fz;   // forward
+
+    public final double fov;
+    public final boolean orthographic;
+    public final double centerX, centerY;
+    // Límite para descartar proyecciones patológicas (100x el tamaño de pantalla)
+    public final double maxAllowed;
+    // Forward de la cámara tal como se leyó (sin normalizar), para matches()
+    private final double srcFx, srcFy, srcFz;
+
+    // Planos del frustum en world space: un punto p está fuera si n·(p - cam) > d
+    private final double[] planeNx, planeNy, planeNz, planeD;
+    private int planeCount;
+    private static final double[] NO_PLANES = new double[0];
+
+    public CameraFrame(Camera cam, int ancho, int alto){
+        this(cam, ancho, alto, true);
+    }
+
+    /**
+     * Solo la proyección, sin planos del frustum (isSphereVisible/isAabbVisible dan siempre
+     * true): para Transform.project(Vector3, Camera, ...), que proyecta de a un punto.
+     */
+    static CameraFrame projectionOnly(Camera cam, int ancho, int alto){
+        return new CameraFrame(cam, ancho, alto, false);
+    }
+
+    private CameraFrame(Camera cam, int ancho, int alto, boolean frustum){
+        this.camera = cam;
+        this.ancho = ancho;
+        this.alto = alto;
+
+        Vector3 p = cam.getPosicion();
+        px = p.x; py = p.y; pz = p.z;
+
+        Vector3 src = cam.getForward();
+        srcFx = src.x; srcFy = src.y; srcFz = src.z;
+        Vector3 forward = src.normalize();
+        Vector3 right = new Vector3(0, 1, 0).cross(forward).normalize();
+        Vector3 up = forward.cross(right).normalize();
+        rx = right.x;   ry = right.y;   rz = right.z;
+        ux = up.x;      uy = up.y;      uz = up.z;
+        fx = forward.x; fy = forward.y; fz = forward.z;
+
+        fov = cam.getFov();
+        orthographic = cam.isOrthographic();
+        centerX = ancho / 2.0;
+        centerY = alto / 2.0;
+        maxAllowed = Math.max(ancho, alto) * 100.0;
+
+        if (!frustum) {
+            planeNx = planeNy = planeNz = planeD = NO_PLANES;
+            return;
+        }
+        planeNx = new double[5]; planeNy = new double[5]; planeNz = new double[5];
+        planeD = new double[5];
+        // Near: fuera si cz < NEAR
+        addPlane(0, 0, -1, -NEAR);
+        if (fov > 0) {
+            if (orthographic) {
+                // Ortográfica: fuera si |cx| > centerX/fov o |cy| > centerY/fov
+                double hx = centerX / fov, hy = centerY / fov;
+                addPlane( 1, 0, 0, hx);
+                addPlane(-1, 0, 0, hx);
+                addPlane(0,  1, 0, hy);
+                addPlane(0, -1, 0, hy);
+            } else {
+                // Perspectiva: fuera si ±cx·fov > centerX·cz (idem en Y), planos por la cámara
+                addPlane( fov, 0, -centerX, 0);
+                addPlane(-fov, 0, -centerX, 0);
+                addPlane(0,  fov, -centerY, 0);
+                addPlane(0, -fov, -centerY, 0);
+            }
+        }
+    }
+
+    /** true si cam está hoy exactamente como al armar este frame (y la pantalla es la misma). */
+    boolean matches(Camera cam, int ancho, int alto){
+        Vector3 p = cam.getPosicion(), f = cam.getForward();
+        return cam == camera && ancho == this.ancho && alto == this.alto
+            && p.x == px && p.y == py && p.z == pz
+            && f.x == srcFx && f.y == srcFy && f.z == srcFz
+            && cam.getFov() == fov && cam.isOrthographic() == orthographic;
+    }
+
+    // Agrega un plano dado en camera space (a, b, c)·(cx, cy, cz) > d, normalizado y pasado a world space
+    private void addPlane(double a, double b, double c, double d){
+        double len = Math.sqrt(a * a + b * b + c * c);
+        a /= len; b /= len; c /= len;
+        planeNx[planeCount] = a * rx + b * ux + c * fx;
+        planeNy[planeCount] = a * ry + b * uy + c * fy;
+        planeNz[planeCount] = a * rz + b * uz + c * fz;
+        planeD[planeCount] = d / len;
+        planeCount++;
+    }
+
+    /**
+     * Test conservador de una esfera contra el frustum: false solo si queda completamente
+     * fuera de algún plano (puede devolver true para esferas fuera cerca de las esquinas).
+     */
+    public boolean isSphereVisible(double cx, double cy, double cz, double radius){
+        double relX = cx - px, relY = cy - py, relZ = cz - pz;
+        for (int i = 0; i < planeCount; i++) {
+            double dist = planeNx[i] * relX + planeNy[i] * relY + planeNz[i] * relZ - planeD[i];
+            if (dist > radius) return false;
+        }
+        return true;
+    }
+
+    /** Igual que isSphereVisible pero para un AABB en world space (test centro/extensión). */
+    public boolean isAabbVisible(double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+        double relX = (minX + maxX) * 0.5 - px, relY = (minY + maxY) * 0.5 - py, relZ = (minZ + maxZ) * 0.5 - pz;
+        double ex = (maxX - minX) * 0.5, ey = (maxY - minY) * 0.5, ez = (maxZ - minZ) * 0.5;
+        for (int i = 0; i < planeCount; i++) {
+            double nx = planeNx[i], ny = planeNy[i], nz = planeNz[i];
+            double dist = nx * relX + ny * relY + nz * relZ - planeD[i];
+            double reach = Math.abs(nx) * ex + Math.abs(ny) * ey + Math.abs(nz) * ez;
+            if (dist > reach) return false;
+        }
+        return true;
+    }
+
+    /**
+     * true si o proyecta exactamente igual que este frame (misma posición, base, FOV y
+     * pantalla): lo proyectado con uno sirve para el otro sin recalcular.
+     */
+    public boolean sameView(CameraFrame o){
+        return o != null && o.ancho == ancho && o.alto == alto && o.orthographic == orthographic
+            && o.px == px && o.py == py && o.pz == pz
+            && o.rx == rx && o.ry == ry && o.rz == rz
+            && o.ux == ux && o.uy == uy && o.uz == uz
+            && o.fx == fx && o.fy == fy && o.fz == fz
+            && o.fov == fov;
+    }
+
+    /** World space → camera space. Escribe {cx, cy, cz} en out. */
+    public void toCamera(double x, double y, double z, double[] out){
+        double relX = x - px, relY = y - py, relZ = z - pz;
+        out[0] = relX * rx + relY * ry + relZ * rz;
+        out[1] = relX * ux + relY * uy + relZ * uz;
+        out[2] = relX * fx + relY * fy + relZ * fz;
+    }
+
+    /** Profundidad (cz) de un punto en camera space. */
+    public double depthOf(double x, double y, double z){
+        return (x - px) * fx + (y - py) * fy + (z - pz) * fz;
+    }
+
+    /**
+     * Proyecta un punto a pantalla escribiendo {x_pantalla, y_pantalla, cz} en out.
+     * Devuelve false (y out queda indefinido) si el punto está detrás del near plane,
+     * produce NaN o cae absurdamente lejos de la pantalla.
+     */
+    public boolean project(double x, double y, double z, double[] out){
+        double relX = x - px, relY = y - py, relZ = z - pz;
+        double cx = relX * rx + relY * ry + relZ * rz;
+        double cy = relX * ux + relY * uy + relZ * uz;
+        double cz = relX * fx + relY * fy + relZ * fz;
+
+        if (cz <= NEAR) return false;
+        if (Double.isNaN(cx) || Double.isNaN(cy) || Double.isNaN(cz)) return false;
+
+        double scale = orthographic ? fov : fov / cz;
+        double x2d = cx * scale + centerX;
+        double y2d = centerY - cy * scale; // invert Y to map world-up to screen-up
+        if (Double.isInfinite(scale) || Math.abs(x2d) > maxAllowed || Math.abs(y2d) > maxAllowed) return false;
+        out[0] = x2d;
+        out[1] = y2d;
+        out[2] = cz;
+        return true;
+    }
+}
@@ -32,6 +32,8 @@ package math;
  * ============================================================================================
  */
 public class Transform {
+    // Frame de la variante project(Vector3, Camera, ...), por hilo (sin planos del frustum)
+    private static final ThreadLocal<CameraFrame> LAST_FRAME = new ThreadLocal<>();
 
     /**
      * ========================================================================================
@@ -120,37 +122,31 @@ public class Transform {
      * @return Vector3 con (x_pantalla, y_pantalla, profundidad)
      */
     public static Vector3 project(Vector3 punto, Camera cam, int ancho, int alto){
-        // ================================================================================
-        // PASO 1: CALCULAR VECTOR RELATIVO A LA CÁMARA
-        // ================================================================================
-        Vector3 camPos = cam.getPosicion();
-        Vector3 rel = new Vector3(punto.x - camPos.x, punto.y - camPos.y, punto.z - camPos.z);
-
-        // ================================================================================
-        // PASO 2: CONSTRUIR BASE ORTONORMAL DE LA CÁMARA
-        // ================================================================================
-        // Forward: Dirección de vista (hacia donde mira la cámara)
-        Vector3 forward = cam.getForward().normalize();
-        
-        // World Up: Asumimos que "arriba" en el mundo es +Y (0, 1, 0)
-        Vector3 worldUp = new Vector3(0, 1, 0);
-        
-        // Right: Perpendicular a forward y worldUp (producto cruz)
-        // worldUp × forward da un vector apuntando a la derecha de la cámara
-        Vector3 right = worldUp.cross(forward).normalize();
-        
-        // Up: Perpendicular a forward y right (completa base ortonormal)
-        // forward × right da un vector apuntando "arriba" para la cámara
-        Vector3 up = forward.cross(right).normalize();
+        // PASO 2 (base ortonormal) se resuelve al construir el snapshot de la cámara: uno por
+        // hilo, que se rearma solo si la cámara o la pantalla cambiaron desde el punto anterior
+        CameraFrame f = LAST_FRAME.get();
+        if (f == null || !f.matches(cam, ancho, alto)) {
+            f = CameraFrame.projectionOnly(cam, ancho, alto);
+            LAST_FRAME.set(f);
+        }
+        double[] out = new double[3];
+        project(f, punto.x, punto.y, punto.z, out);
+        return new Vector3(out[0], out[1], out[2]);
+    }
 
+    /**
+     * Variante sin asignaciones: usa la base precalculada del CameraFrame del frame actual
+     * y escribe {x_pantalla, y_pantalla, profundidad} en out (provisto por quien llama).
+     */
+    public static void project(CameraFrame f, double x, double y, double z, double[] out){
         // ================================================================================
-        // PASO 3: TRANSFORMAR A CAMERA SPACE (producto punto con base ortonormal)
+        // PASO 1 + 3: VECTOR RELATIVO Y CAMERA SPACE (producto punto con base ortonormal)
         // ================================================================================
-        // Proyectar el vector relativo sobre cada eje de la base de la cámara
-        // Esto transforma de world space a camera space
-        double cx = rel.x * right.x + rel.y * right.y + rel.z * right.z;     // Componente derecha
-        double cy = rel.x * up.x    + rel.y * up.y    + rel.z * up.z;        // Componente arriba
-        double cz = rel.x * forward.x + rel.y * forward.y + rel.z * forward.z; // Componente profundidad
+        // La base (right, up, forward) ya viene normalizada en el CameraFrame
+        f.toCamera(x, y, z, out);
+        double cx = out[0];     // Componente derecha
+        double cy = out[1];     // Componente arriba
+        double cz = out[2];     // Componente profundidad
 
         // ================================================================================
         // PASO 4: EVITAR DIVISIÓN POR CERO
@@ -162,20 +158,19 @@ public class Transform {
         // ================================================================================
         // PASO 5: PROYECCIÓN (PERSPECTIVA U ORTOGRÁFICA)
         // ================================================================================
-        double fov = cam.getFov(); // Distancia focal (controla "zoom")
+        double fov = f.fov; // Distancia focal (controla "zoom")
         
-        if (cam.isOrthographic()) {
+        if (f.orthographic) {
             // PROYECCIÓN ORTOGRÁFICA (paralela)
             // Sin división por profundidad → objetos mantienen tamaño
-            double x2d = cx * fov + ancho / 2.0;
-            double y2d = alto / 2.0 - cy * fov;  // Flip Y (pantalla crece hacia abajo)
-            return new Vector3(x2d, y2d, cz);
+            out[0] = cx * fov + f.centerX;
+            out[1] = f.centerY - cy * fov;  // Flip Y (pantalla crece hacia abajo)
         } else {
             // PROYECCIÓN PERSPECTIVA (realista)
             // División por profundidad → objetos lejanos son más pequeños
-            double x2d = (cx * fov) / cz + ancho / 2.0;
-            double y2d = alto / 2.0 - (cy * fov) / cz;  // Flip Y
-            return new Vector3(x2d, y2d, cz);
+            out[0] = (cx * fov) / cz + f.centerX;
+            out[1] = f.centerY - (cy * fov) / cz;  // Flip Y
         }
+        out[2] = cz;
     }
 }
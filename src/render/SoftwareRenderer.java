@@ -2,12 +2,18 @@ package render;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import math.Vector3;
 import math.Camera;
+import math.CameraFrame;
 
 public class SoftwareRenderer {
     private BufferedImage frontBuffer;
     private BufferedImage backBuffer;
+    // Arreglos de píxeles (DataBufferInt) detrás de cada buffer: se escriben
+    // enteros RGB empaquetados directamente, sin pasar por setRGB().
+    private int[] frontPixels;
+    private int[] backPixels;
     private int ancho, alto;
     private double[] zBuffer;
     private int[] ownerBuffer; // deterministically tracks triangle owner per pixel to break ties
@@ -16,19 +22,73 @@ public class SoftwareRenderer {
     // Reduced to avoid suppressing valid near-coplanar triangle pixels during rotation.
     private double depthEps = 1e-5; // slightly looser to prevent cracks on coplanar quads (terrain)
 
+    // ---------------- Rasterizado por tiles (multi-hilo) ----------------
+    // Con rasterThreads > 1 los triángulos no se rasterizan al enviarse: se guardan en un
+    // arreglo plano y su índice se agrega al bin de cada tile que toca su bounding box.
+    // flushTiles() rasteriza luego cada tile en un ForkJoinPool; cada tile escribe solo su
+    // propio rectángulo de zBuffer/ownerBuffer/backPixels y recorre su bin en orden de envío,
+    // así cada píxel ve la misma secuencia de triángulos que en el camino serial y el
+    // resultado es idéntico bit a bit (incluido el desempate por triId en ownerBuffer).
+    private int rasterThreads = 1;
+    private int tileSize = 64;
+    private java.util.concurrent.ForkJoinPool rasterPool = null;
+    private int tilesX, tilesY;
+    private int[][] tileBins;
+    private int[] tileCounts;
+    private double[] binCoords = new double[9 * 1024]; // x,y,z de los 3 vértices (ya snapped)
+    private int[] binRgb = new int[1024];
+    private int[] binTriIds = new int[1024];
+    private int binCount = 0;
+
+    // Snapshot de la cámara para el frame actual (base, FOV y centro como primitivos).
+    // Se construye una vez por frame (beginFrame o primer uso tras clear) y se publica con
+    // una escritura volatile para que otros hilos que llamen project() lo vean completo.
+    private volatile CameraFrame frame = null;
+
+    // Arreglos de salida reutilizados por los caminos internos de proyección (hilo de render)
+    private final double[] camA = new double[3], camB = new double[3], camC = new double[3];
+    private final double[] triA = new double[3], triB = new double[3], triC = new double[3];
+    private final double[] lineA = new double[3], lineB = new double[3];
+    private final double[] quadA = new double[3], quadB = new double[3], quadC = new double[3], quadD = new double[3];
+
     // ---------------- Helpers faltantes (proyección/recorte) ----------------
-    // Transform a world-space point to camera-space coordinates (cx,cy,cz)
-    private double[] worldToCamera(Vector3 point, Camera cam){
-        Vector3 camPos = cam.getPosicion();
-        Vector3 rel = new Vector3(point.x - camPos.x, point.y - camPos.y, point.z - camPos.z);
-        Vector3 forward = cam.getForward().normalize();
-        Vector3 worldUp = new Vector3(0, 1, 0);
-        Vector3 right = worldUp.cross(forward).normalize();
-        Vector3 up = forward.cross(right).normalize();
-        double cx = rel.x * right.x + rel.y * right.y + rel.z * right.z;
-        double cy = rel.x * up.x    + rel.y * up.y    + rel.z * up.z;
-        double cz = rel.x * forward.x + rel.y * forward.y + rel.z * forward.z;
-        return new double[]{cx, cy, cz};
+    // Transform a world-space point to camera-space coordinates (cx,cy,cz) into out
+    private double[] worldToCamera(Vector3 point, Camera cam, double[] out){
+        frameFor(cam).toCamera(point.x, point.y, point.z, out);
+        return out;
+    }
+
+    /**
+     * Construye el snapshot de cámara del frame (CameraFrame) que usarán todas las
+     * proyecciones hasta el próximo clear(). RenderPanel lo llama al inicio de cada frame.
+     */
+    public CameraFrame beginFrame(Camera cam){
+        CameraFrame f = new CameraFrame(cam, ancho, alto);
+        frame = f;
+        return f;
+    }
+
+    /** Snapshot de cámara vigente para cam (lo construye si no hay uno para esta cámara). */
+    public CameraFrame getCameraFrame(Camera cam){
+        return frameFor(cam);
+    }
+
+    private CameraFrame frameFor(Camera cam){
+        CameraFrame f = frame;
+        if(f == null || f.camera != cam) f = beginFrame(cam);
+        return f;
+    }
+
+    // Fracción del tick de simulación en curso (0..1) con la que las entidades interpolan su
+    // posición entre el tick anterior y el actual. 1.0 = dibujar el estado más reciente.
+    private double interpolationAlpha = 1.0;
+
+    public void setInterpolationAlpha(double alpha){
+        interpolationAlpha = Math.max(0.0, Math.min(1.0, alpha));
+    }
+
+    public double getInterpolationAlpha(){
+        return interpolationAlpha;
     }
 
     private Vector3 lerpVec(Vector3 a, Vector3 b, double t){
@@ -187,7 +247,7 @@ public class SoftwareRenderer {
      * 
      * CICLO DE RENDERIZADO:
      * 1. Limpiar backBuffer (clear)
-     * 2. Renderizar todos los objetos en backBuffer (setRGB píxel por píxel)
+     * 2. Renderizar todos los objetos en backBuffer (escritura directa al int[] de píxeles)
      * 3. swapBuffers(): Intercambiar referencias (backBuffer ↔ frontBuffer)
      * 4. paintComponent() dibuja frontBuffer en pantalla
      * 
@@ -207,10 +267,54 @@ public class SoftwareRenderer {
         // backBuffer = invisible, donde se dibuja (escritura por RenderThread)
         frontBuffer = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
         backBuffer = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        frontPixels = pixelsOf(frontBuffer);
+        backPixels = pixelsOf(backBuffer);
         
         // Z-buffer para depth testing (oclusión 3D)
         zBuffer = new double[ancho * alto];
         ownerBuffer = new int[ancho * alto]; // Tracking de triángulos por píxel
+
+        // Configuración del rasterizado por tiles: -Decosistema.rasterThreads=N -Decosistema.tileSize=T
+        // Sin la propiedad, camino serial (1 hilo); el paralelo se pide explícitamente
+        setTileSize(Integer.getInteger("ecosistema.tileSize", 64));
+        setRasterThreads(Integer.getInteger("ecosistema.rasterThreads", 1));
+    }
+
+    /**
+     * Número de hilos del rasterizador. 1 = rasterizado inmediato en el hilo que dibuja
+     * (camino serial); >1 = triángulos agrupados por tile y rasterizados en paralelo.
+     */
+    public synchronized void setRasterThreads(int threads){
+        threads = Math.max(1, threads);
+        if(threads == rasterThreads && (threads == 1 || rasterPool != null)) return;
+        flushTiles();
+        if(rasterPool != null){
+            rasterPool.shutdown();
+            rasterPool = null;
+        }
+        rasterThreads = threads;
+        if(threads > 1) rasterPool = new java.util.concurrent.ForkJoinPool(threads);
+    }
+
+    public int getRasterThreads(){ return rasterThreads; }
+
+    /** Lado (en píxeles) de los tiles cuadrados usados por el rasterizado multi-hilo. */
+    public synchronized void setTileSize(int size){
+        flushTiles();
+        tileSize = Math.max(8, size);
+        tilesX = (ancho + tileSize - 1) / tileSize;
+        tilesY = (alto + tileSize - 1) / tileSize;
+        tileBins = new int[tilesX * tilesY][];
+        tileCounts = new int[tilesX * tilesY];
+        for(int t = 0; t < tileBins.length; t++) tileBins[t] = new int[64];
+    }
+
+    public int getTileSize(){ return tileSize; }
+
+    // Arreglo int[] que respalda una imagen TYPE_INT_RGB (un píxel por entero 0xRRGGBB,
+    // fila por fila). Se obtiene una sola vez; el índice es y*ancho + x.
+    private static int[] pixelsOf(BufferedImage img){
+        return ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
     }
 
     /**
@@ -240,8 +344,10 @@ public class SoftwareRenderer {
      * - Lo que estaba en frontBuffer → pase a backBuffer (será sobreescrito)
      * 
      * SINCRONIZACIÓN:
-     * - synchronized para atomicidad (operación indivisible)
+     * - Solo el intercambio de referencias va con el lock (operación indivisible)
      * - Evita que paintComponent() lea un buffer a medio intercambiar
+     * - flushTiles() (el rasterizado por tiles pendiente) corre antes, sin el lock: solo
+     *   toca el back buffer, y getBuffer() en el EDT no espera al rasterizado
      * 
      * LLAMADO POR:
      * - RenderThread al finalizar cada frame (~143 veces/segundo)
@@ -252,22 +358,29 @@ public class SoftwareRenderer {
      * - Present() en DirectX
      * - Este proyecto usa software rendering (sin GPU)
      */
-    public synchronized void swapBuffers(){
+    public void swapBuffers(){
         // No diagnostic overlay / hole-filling in production renderer to keep pipeline tight.
+        flushTiles();
+
+        synchronized(this){
+            // Intercambio de referencias (operación O(1), instantánea)
+            BufferedImage tmp = frontBuffer;
+            frontBuffer = backBuffer; // backBuffer (nuevo) → pantalla
+            backBuffer = tmp;         // frontBuffer (viejo) → reutilizar
 
-        // Intercambio de referencias (operación O(1), instantánea)
-        BufferedImage tmp = frontBuffer;
-        frontBuffer = backBuffer; // backBuffer (nuevo) → pantalla
-        backBuffer = tmp;         // frontBuffer (viejo) → reutilizar
+            int[] tmpPixels = frontPixels;
+            frontPixels = backPixels;
+            backPixels = tmpPixels;
+        }
     }
 
     public void clear(Color c){
-        int rgb = c.getRGB();
-        for(int y=0; y<alto; y++){
-            for(int x=0; x<ancho; x++){
-                backBuffer.setRGB(x, y, rgb);
-            }
-        }
+        // Lo pendiente en los bins quedaría tapado por el fondo: se descarta
+        discardTiles();
+        // Nuevo frame: el snapshot de cámara se reconstruye en el primer uso (o en beginFrame)
+        frame = null;
+        // Bulk fill del color de fondo (TYPE_INT_RGB ignora el canal alpha)
+        java.util.Arrays.fill(backPixels, c.getRGB() & 0xFFFFFF);
         // reset z-buffer to far (positive infinity) - optimized
         java.util.Arrays.fill(zBuffer, Double.POSITIVE_INFINITY);
         java.util.Arrays.fill(ownerBuffer, -1);
@@ -275,16 +388,18 @@ public class SoftwareRenderer {
 
     // ---------------- Pixel / rect / text helpers (HUD) ----------------
     public void drawPixel(int x, int y, Color color){
+        flushTiles();
         if(x>=0 && x<ancho && y>=0 && y<alto){
             int idx = y*ancho + x;
-            backBuffer.setRGB(x, y, color.getRGB());
+            backPixels[idx] = color.getRGB() & 0xFFFFFF;
             // HUD pixels: set special owner id so tie-break behavior remains consistent
             ownerBuffer[idx] = -2;
         }
     }
 
     public void fillRect(int x, int y, int w, int h, Color color){
-        int rgb = color.getRGB();
+        flushTiles();
+        int rgb = color.getRGB() & 0xFFFFFF;
         int x0 = Math.max(0, x);
         int y0 = Math.max(0, y);
         int x1 = Math.min(ancho, x + w);
@@ -292,7 +407,7 @@ public class SoftwareRenderer {
         for(int yy = y0; yy < y1; yy++){
             for(int xx = x0; xx < x1; xx++){
                 int idx = yy * ancho + xx;
-                backBuffer.setRGB(xx, yy, rgb);
+                backPixels[idx] = rgb;
                 ownerBuffer[idx] = -2;
             }
         }
@@ -302,7 +417,8 @@ public class SoftwareRenderer {
     // ---------------- Línea 2D en pantalla (Bresenham) ----------------
     // Dibuja una línea directamente en el buffer en coordenadas de píxel.
     public void drawLine2D(int x1, int y1, int x2, int y2, Color color){
-        int rgb = color.getRGB();
+        flushTiles();
+        int rgb = color.getRGB() & 0xFFFFFF;
         int dx = Math.abs(x2 - x1);
         int dy = Math.abs(y2 - y1);
         int sx = x1 < x2 ? 1 : -1;
@@ -313,7 +429,7 @@ public class SoftwareRenderer {
         while(true){
             if(x >= 0 && x < ancho && y >= 0 && y < alto){
                 int idx = y*ancho + x;
-                backBuffer.setRGB(x, y, rgb);
+                backPixels[idx] = rgb;
                 // mark as HUD drawing so hole-filler won't overwrite the crosshair/menu
                 ownerBuffer[idx] = -2;
             }
@@ -325,66 +441,35 @@ public class SoftwareRenderer {
     }
 
     // ---------------- Proyección ----------------
+    // Proyecta con el CameraFrame del frame actual (base ortonormal precalculada). Devuelve
+    // {x2d, y2d, cz} o null si el punto no es proyectable. Near-plane: points too close or
+    // behind the camera (cz <= 0.01) are ignored, as are NaN results and coordinates beyond
+    // 100x the screen size, which would otherwise produce huge triangles/lines that cross
+    // the screen when moving the camera.
     public double[] project(Vector3 point, Camera cam) {
-        // Transform point into camera (view) space using camera basis vectors
-        Vector3 camPos = cam.getPosicion();
-        Vector3 rel = new Vector3(point.x - camPos.x, point.y - camPos.y, point.z - camPos.z);
-
-    // Build orthonormal camera basis from forward and world-up to avoid skew
-    Vector3 forward = cam.getForward().normalize();
-    Vector3 worldUp = new Vector3(0, 1, 0);
-    Vector3 right = worldUp.cross(forward).normalize();
-    Vector3 up = forward.cross(right).normalize();
-
-    // Camera-space coordinates (dot with orthonormal basis)
-    double cx = rel.x * right.x + rel.y * right.y + rel.z * right.z;
-    double cy = rel.x * up.x    + rel.y * up.y    + rel.z * up.z;
-    double cz = rel.x * forward.x + rel.y * forward.y + rel.z * forward.z;
-
-        // Near-plane: ignore points too close or behind the camera. A slightly
-        // larger near value avoids extremely large projected coordinates when
-        // the camera is almost on top of the geometry which produces visual
-        // artefacts (lines flashing across the screen). If you need smoother
-        // clipping, implement triangle-plane clipping later.
-        double near = 0.01; // Muy permisivo para evitar clips cerca del suelo
-        if (cz <= near) return null;
-
-        // Prevent pathological projections: if coordinates are extremely large
-        // or NaN due to very small cz, treat as non-projectable.
-        // This avoids huge triangles/lines that cross the screen when moving the camera.
-        if(Double.isNaN(cx) || Double.isNaN(cy) || Double.isNaN(cz)) return null;
-
-        // If projected screen coords would be absurdly large, skip projection.
-        // Use screen size as heuristic (100x the screen size is already extreme).
-        double maxAllowed = Math.max(ancho, alto) * 100.0;
-
-        if (cam.isOrthographic()){
-            double scale = cam.getFov();
-            double x2d = cx * scale + ancho/2.0;
-            double y2d = alto/2.0 - cy * scale; // invert Y to map world-up to screen-up
-            if (Math.abs(x2d) > maxAllowed || Math.abs(y2d) > maxAllowed) return null;
-            return new double[]{x2d, y2d, cz};
-        } else {
-            double scale = cam.getFov() / cz;
-            double x2d = cx * scale + ancho/2.0;
-            double y2d = alto/2.0 - cy * scale; // use same scale; cy already multiplied by scale
-            if (Double.isInfinite(scale) || Math.abs(x2d) > maxAllowed || Math.abs(y2d) > maxAllowed) return null;
-            return new double[]{x2d, y2d, cz};
-        }
+        double[] out = new double[3];
+        return project(point, cam, out) ? out : null;
+    }
+
+    // Variante sin asignaciones: escribe {x2d, y2d, cz} en out y devuelve si es proyectable.
+    public boolean project(Vector3 point, Camera cam, double[] out) {
+        return frameFor(cam).project(point.x, point.y, point.z, out);
     }
 
     // ---------------- Línea 3D ----------------
     public void drawLine3D(Vector3 p1, Vector3 p2, Camera cam, Color color){
-        double[] proj1 = project(p1, cam);
-        double[] proj2 = project(p2, cam);
+        double[] proj1 = lineA;
+        double[] proj2 = lineB;
 
         // If either endpoint is behind the near plane or cannot be projected, skip the line.
-    if (proj1 == null || proj2 == null) return;
+    if (!project(p1, cam, proj1) || !project(p2, cam, proj2)) return;
+        // Las líneas escriben directo al z-buffer: rasterizar antes lo pendiente para respetar el orden
+        flushTiles();
 
         int x1 = (int)proj1[0], y1 = (int)proj1[1];
         int x2 = (int)proj2[0], y2 = (int)proj2[1];
         double z1 = proj1[2], z2 = proj2[2];
-    int rgb = color.getRGB();
+    int rgb = color.getRGB() & 0xFFFFFF;
     int lineId = stableTriId(p1, p2, p2); // deterministic id for this line (use p2 twice)
 
         // Use DDA so we can interpolate depth linearly and use z-buffer per pixel.
@@ -395,7 +480,7 @@ public class SoftwareRenderer {
                 if(z1 < zBuffer[idx]){
                     zBuffer[idx] = z1;
                     ownerBuffer[idx] = lineId;
-                    backBuffer.setRGB(x1, y1, rgb);
+                    backPixels[idx] = rgb;
                 }
             }
             return;
@@ -416,13 +501,13 @@ public class SoftwareRenderer {
                 if(fz < zBuffer[idx] - depthEps){
                     zBuffer[idx] = fz;
                     ownerBuffer[idx] = lineId;
-                    backBuffer.setRGB(xi, yi, rgb);
+                    backPixels[idx] = rgb;
                 } else if(Math.abs(fz - zBuffer[idx]) <= depthEps){
                     int cur = ownerBuffer[idx];
                     if(cur == -1 || lineId < cur){
                         ownerBuffer[idx] = lineId;
                         zBuffer[idx] = fz;
-                        backBuffer.setRGB(xi, yi, rgb);
+                        backPixels[idx] = rgb;
                     }
                 }
             }
@@ -431,27 +516,66 @@ public class SoftwareRenderer {
     }
 
     // ---------------- Cubo ----------------
+    // Caras del cubo en términos de los 8 vértices de getCubeVertices (mismo orden de siempre)
+    private static final int[][] CUBE_FACES = {
+        {0,1,2,3}, {4,5,6,7}, {0,4,5,1},
+        {1,5,6,2}, {2,6,7,3}, {3,7,4,0}
+    };
+
+    // Fast path compartido por drawCube/drawCubeShaded: los 8 vértices se proyectan una sola
+    // vez (no 4 por cara) y las caras traseras se descartan antes de rasterizar.
+    private final double[][] cubeProj = new double[8][3];
+    private final boolean[] cubeProjOk = new boolean[8];
+    private final boolean[] cubeFaceVisible = new boolean[6];
+
     public void drawCube(Vector3[] vertices, Camera cam, Color color){
-        int[][] faces = {
-            {0,1,2,3}, {4,5,6,7}, {0,4,5,1},
-            {1,5,6,2}, {2,6,7,3}, {3,7,4,0}
-        };
-        for(int[] f : faces){
-            Vector3 a = vertices[f[0]];
-            Vector3 b = vertices[f[1]];
-            Vector3 c = vertices[f[2]];
-            Vector3 d = vertices[f[3]];
-            double[] pa = project(a, cam);
-            double[] pb = project(b, cam);
-            double[] pc = project(c, cam);
-            double[] pd = project(d, cam);
-            if(pa != null && pb != null && pc != null && pd != null){
-                drawQuadScreen(pa, pb, pc, pd, color);
-            } else {
-                // fallback to world-space triangles if projection not available
-                drawTriangle(a, b, c, cam, color);
-                drawTriangle(a, c, d, cam, color);
-            }
+        prepareCube(vertices, cam);
+        int r = color.getRed(), g = color.getGreen(), b = color.getBlue();
+        for(int f = 0; f < 6; f++){
+            if(cubeFaceVisible[f]) drawCubeFace(vertices, f, cam, r, g, b, color);
+        }
+    }
+
+    // Proyecta los 8 vértices y marca qué caras miran a la cámara.
+    // BACKFACE CULLING en world space: la normal exterior de cada cara es (centroCara - centroCubo),
+    // válida para cubos alineados a ejes o rotados en Y; la cara es visible si la cámara está
+    // del lado positivo de su plano (en ortográfica: si la normal se opone a forward).
+    private void prepareCube(Vector3[] v, Camera cam){
+        CameraFrame fr = frameFor(cam);
+        for(int i = 0; i < 8; i++){
+            cubeProjOk[i] = fr.project(v[i].x, v[i].y, v[i].z, cubeProj[i]);
+        }
+        // Centro del cubo = punto medio de dos esquinas opuestas (0 y 6)
+        double ccx = (v[0].x + v[6].x) * 0.5, ccy = (v[0].y + v[6].y) * 0.5, ccz = (v[0].z + v[6].z) * 0.5;
+        for(int f = 0; f < 6; f++){
+            int[] face = CUBE_FACES[f];
+            Vector3 a = v[face[0]], b = v[face[1]], c = v[face[2]], d = v[face[3]];
+            double fcx = (a.x + b.x + c.x + d.x) * 0.25;
+            double fcy = (a.y + b.y + c.y + d.y) * 0.25;
+            double fcz = (a.z + b.z + c.z + d.z) * 0.25;
+            double nx = fcx - ccx, ny = fcy - ccy, nz = fcz - ccz;
+            double facing = fr.orthographic
+                ? -(nx * fr.fx + ny * fr.fy + nz * fr.fz)
+                : (fr.px - fcx) * nx + (fr.py - fcy) * ny + (fr.pz - fcz) * nz;
+            cubeFaceVisible[f] = facing > 0;
+        }
+    }
+
+    // Dibuja la cara f usando los vértices ya proyectados; si alguno no es proyectable
+    // (near plane) cae al camino de triángulos en world space con recorte.
+    private void drawCubeFace(Vector3[] v, int f, Camera cam, int r, int g, int b, Color fallbackColor){
+        int[] face = CUBE_FACES[f];
+        int i0 = face[0], i1 = face[1], i2 = face[2], i3 = face[3];
+        if(cubeProjOk[i0] && cubeProjOk[i1] && cubeProjOk[i2] && cubeProjOk[i3]){
+            // drawTriangleScreen hace snap in-place; los vértices compartidos entre caras se
+            // snapean igual sin importar la cara (floor(x)+0.5 es idempotente)
+            drawTriangleScreen(cubeProj[i0], cubeProj[i1], cubeProj[i2], r, g, b);
+            drawTriangleScreen(cubeProj[i0], cubeProj[i2], cubeProj[i3], r, g, b);
+        } else {
+            // fallback to world-space triangles if projection not available
+            if(fallbackColor == null) fallbackColor = new Color(r, g, b);
+            drawTriangle(v[i0], v[i1], v[i2], cam, fallbackColor);
+            drawTriangle(v[i0], v[i2], v[i3], cam, fallbackColor);
         }
     }
 
@@ -545,9 +669,7 @@ public class SoftwareRenderer {
     // left edge according to typical rasterization rules. This is used to
     // consistently break ties when a pixel center lies exactly on an edge so
     // adjacent triangles do not leave cracks.
-    private boolean isTopLeft(double[] a, double[] b){
-        double ay = a[1], by = b[1];
-        double ax = a[0], bx = b[0];
+    private static boolean isTopLeft(double ax, double ay, double bx, double by){
         double eps = 1e-6;
         // Coordinates use screen Y that grows downward. Top-left rule for
         // screen-space: an edge is top-left if it goes downward (a.y < b.y),
@@ -563,11 +685,11 @@ public class SoftwareRenderer {
     // usando la normal de la cara.
     public void drawTriangle(Vector3 v0, Vector3 v1, Vector3 v2, Camera cam, Color color){
         // Convert world-space vertices to camera-space (no projection)
-        double[] c0 = worldToCamera(v0, cam);
-        double[] c1 = worldToCamera(v1, cam);
-        double[] c2 = worldToCamera(v2, cam);
+        double[] c0 = worldToCamera(v0, cam, camA);
+        double[] c1 = worldToCamera(v1, cam, camB);
+        double[] c2 = worldToCamera(v2, cam, camC);
 
-        double near = 0.01; // Coincidir con project()
+        double near = CameraFrame.NEAR; // Coincidir con project()
 
         // If all vertices are behind the near plane, nothing to draw
         if(c0[2] <= near && c1[2] <= near && c2[2] <= near) return;
@@ -586,12 +708,13 @@ public class SoftwareRenderer {
 
         double amb = 0.2;
 
+        double lit = amb + (1.0 - amb) * intensity;
+        int rgb = packRGB((int)(color.getRed() * lit), (int)(color.getGreen() * lit), (int)(color.getBlue() * lit));
+
         for(Vector3[] tri : tris){
             int triId = stableTriId(tri[0], tri[1], tri[2]);
-            double[] p0 = project(tri[0], cam);
-            double[] p1 = project(tri[1], cam);
-            double[] p2 = project(tri[2], cam);
-            if(p0 == null || p1 == null || p2 == null) continue;
+            double[] p0 = triA, p1 = triB, p2 = triC;
+            if(!project(tri[0], cam, p0) || !project(tri[1], cam, p1) || !project(tri[2], cam, p2)) continue;
 
             // Pixel-snapping: quantize XY to pixel centers so adjacent triangles
             // that share world vertices map to identical screen coordinates.
@@ -603,95 +726,7 @@ public class SoftwareRenderer {
             // Skip only degenerate triangles (very small projected area).
             // Do NOT cull by sign here — render both sides so external faces don't desaparecer
             // when winding flips due to clipping/projection.
-            float area = edgeFunction(p0, p1, p2);
-            if (Math.abs(area) <= 1e-9f) continue;
-            float absArea = area >= 0 ? area : -area;
-            float orient = area >= 0 ? 1f : -1f;
-            // Precompute top-left flags that match the oriented edges
-            boolean tl01 = orient >= 0 ? isTopLeft(p0, p1) : isTopLeft(p1, p0);
-            boolean tl12 = orient >= 0 ? isTopLeft(p1, p2) : isTopLeft(p2, p1);
-            boolean tl20 = orient >= 0 ? isTopLeft(p2, p0) : isTopLeft(p0, p2);
- 
-            // Bounding box in pixel coords
-            // Compute bounding box and expand by 1 pixel to avoid cracks at triangle edges
-            int rawMinX = (int)Math.floor(Math.min(p0[0], Math.min(p1[0], p2[0])));
-            int rawMaxX = (int)Math.ceil (Math.max(p0[0], Math.max(p1[0], p2[0])));
-            int rawMinY = (int)Math.floor(Math.min(p0[1], Math.min(p1[1], p2[1])));
-            int rawMaxY = (int)Math.ceil (Math.max(p0[1], Math.max(p1[1], p2[1])));
-            int minX = Math.max(0, rawMinX - 1);
-            int maxX = Math.min(ancho - 1, rawMaxX + 1);
-            int minY = Math.max(0, rawMinY - 1);
-            int maxY = Math.min(alto - 1, rawMaxY + 1);
- 
-             for(int y = minY; y <= maxY; y++){
-                for(int x = minX; x <= maxX; x++){
-                     // Conservative + deterministic edge rule:
-                     // use top-left tie-break when an edge function is (near) zero so adjacent triangles
-                     // do not both exclude the pixel; this prevents permanent seams on flat faces.
-                     float epsf = 1e-6f;
-                     double[] pc = {x + 0.5, y + 0.5};
-                     float w0 = edgeFunction(p1, p2, pc) * orient;
-                     float w1 = edgeFunction(p2, p0, pc) * orient;
-                     float w2 = edgeFunction(p0, p1, pc) * orient;
-                     // Determine inclusion per-edge using oriented top-left rule
-                     boolean in0 = (w0 > epsf) || (Math.abs(w0) <= epsf && tl12);
-                     boolean in1 = (w1 > epsf) || (Math.abs(w1) <= epsf && tl20);
-                     boolean in2 = (w2 > epsf) || (Math.abs(w2) <= epsf && tl01);
-                     boolean covered = in0 && in1 && in2;
-                     // If center test fails, fallback to corner conservative test (keeps prior behavior)
-                     if(!covered){
-                        double[][] corners = {
-                            {x + 0.0, y + 0.0},
-                            {x + 1.0, y + 0.0},
-                            {x + 1.0, y + 1.0},
-                            {x + 0.0, y + 1.0}
-                        };
-                        for(int ci=0; ci<4 && !covered; ci++){
-                            double[] cc = corners[ci];
-                            float cc0 = edgeFunction(p1, p2, cc) * orient;
-                            float cc1 = edgeFunction(p2, p0, cc) * orient;
-                            float cc2 = edgeFunction(p0, p1, cc) * orient;
-                            boolean cin0 = (cc0 > epsf) || (Math.abs(cc0) <= epsf && tl12);
-                            boolean cin1 = (cc1 > epsf) || (Math.abs(cc1) <= epsf && tl20);
-                            boolean cin2 = (cc2 > epsf) || (Math.abs(cc2) <= epsf && tl01);
-                            if(cin0 && cin1 && cin2) covered = true;
-                        }
-                     }
-                     if(covered){
-                         double alpha = w0 / absArea;
-                         double beta = w1 / absArea;
-                         double gamma = w2 / absArea;
- 
-                         double z = alpha * p0[2] + beta * p1[2] + gamma * p2[2];
-                         int idx = y * ancho + x;
-                         // Small depth epsilon: require z to be sufficiently closer
-                         // than the stored value before overwriting. This prevents
-                         // alternating writes when two triangles are extremely
-                         // close in depth due to numerical noise.
-                         if(z < zBuffer[idx] - depthEps){
-                             zBuffer[idx] = z;
-                             ownerBuffer[idx] = triId;
-                             // Simple Lambert shading + ambient
-                             double lit = amb + (1.0 - amb) * intensity;
-                             int rr = (int)(color.getRed() * lit);
-                             int gg = (int)(color.getGreen() * lit);
-                             int bb = (int)(color.getBlue() * lit);
-                             backBuffer.setRGB(x, y, packRGB(rr, gg, bb));
-                         } else if(Math.abs(z - zBuffer[idx]) <= depthEps){
-                             int cur = ownerBuffer[idx];
-                             if(cur == -1 || triId < cur){
-                                 ownerBuffer[idx] = triId;
-                                 zBuffer[idx] = z;
-                                 double lit = amb + (1.0 - amb) * intensity;
-                                 int rr = (int)(color.getRed() * lit);
-                                 int gg = (int)(color.getGreen() * lit);
-                                 int bb = (int)(color.getBlue() * lit);
-                                 backBuffer.setRGB(x, y, packRGB(rr, gg, bb));
-                             }
-                         }
-                     }
-                 }
-             }
+            submitTriangle(p0, p1, p2, rgb, triId);
         }
     }
 
@@ -699,6 +734,11 @@ public class SoftwareRenderer {
     // p arrays are {x_screen, y_screen, cam_z}. This bypasses world->camera projection
     // and ensures adjacent triangles that share projected vertices produce identical edges.
     public void drawTriangleScreen(double[] p0, double[] p1, double[] p2, Color color){
+        drawTriangleScreen(p0, p1, p2, color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    // Misma rasterización con el color base como componentes (evita crear Color por cara)
+    private void drawTriangleScreen(double[] p0, double[] p1, double[] p2, int red, int green, int blue){
         // Pixel-snap at the START of triangle rasterization
         p0[0] = Math.floor(p0[0]) + 0.5; p0[1] = Math.floor(p0[1]) + 0.5;
         p1[0] = Math.floor(p1[0]) + 0.5; p1[1] = Math.floor(p1[1]) + 0.5;
@@ -706,12 +746,6 @@ public class SoftwareRenderer {
         
         float area = edgeFunction(p0, p1, p2);
         if(Math.abs(area) <= 1e-9f) return;
-        float absArea = area >= 0 ? area : -area;
-        float orient = area >= 0 ? 1f : -1f;
-        // Precompute top-left flags that match the oriented edges
-        boolean tl01 = orient >= 0 ? isTopLeft(p0, p1) : isTopLeft(p1, p0);
-        boolean tl12 = orient >= 0 ? isTopLeft(p1, p2) : isTopLeft(p2, p1);
-        boolean tl20 = orient >= 0 ? isTopLeft(p2, p0) : isTopLeft(p0, p2);
 
         // deterministic id from projected positions (stable-ish)
         long ax = Math.round(p0[0]*1000.0), ay = Math.round(p0[1]*1000.0), az = Math.round(p0[2]*1000.0);
@@ -720,16 +754,6 @@ public class SoftwareRenderer {
         long h = ax * 73856093L ^ ay * 19349663L ^ az * 83492791L ^ bx * 2654435761L ^ by * 1361234567L ^ bz * 97531L ^ cx * 7129L ^ cy * 1741L ^ cz * 97L;
         int triId = (int)(h & 0x7FFFFFFF);
 
-        // Bounding box (expand 1px as before)
-        int rawMinX = (int)Math.floor(Math.min(p0[0], Math.min(p1[0], p2[0])));
-        int rawMaxX = (int)Math.ceil (Math.max(p0[0], Math.max(p1[0], p2[0])));
-        int rawMinY = (int)Math.floor(Math.min(p0[1], Math.min(p1[1], p2[1])));
-        int rawMaxY = (int)Math.ceil (Math.max(p0[1], Math.max(p1[1], p2[1])));
-        int minX = Math.max(0, rawMinX - 1);
-        int maxX = Math.min(ancho - 1, rawMaxX + 1);
-        int minY = Math.max(0, rawMinY - 1);
-        int maxY = Math.min(alto - 1, rawMaxY + 1);
-
         // Precompute face lighting using geometric normal approximation in camera-space:
         // approximate normal from projected triangle edges (gives consistent simple shading)
         double nx = (p1[1]-p0[1])*(p2[2]-p0[2]) - (p1[2]-p0[2])*(p2[1]-p0[1]);
@@ -748,66 +772,212 @@ public class SoftwareRenderer {
         }
         double amb = 0.2;
         double lit = amb + (1.0 - amb) * intensity;
+        int rgb = packRGB((int)(red * lit), (int)(green * lit), (int)(blue * lit));
+
+        submitTriangle(p0, p1, p2, rgb, triId);
+    }
+
+    // Entrada común de drawTriangle/drawTriangleScreen (vértices ya snapped, color ya iluminado).
+    // En modo serial rasteriza de inmediato sobre toda la pantalla; en modo por tiles copia el
+    // triángulo al arreglo de bins y agrega su índice a cada tile que cubre su bounding box.
+    private void submitTriangle(double[] p0, double[] p1, double[] p2, int rgb, int triId){
+        if(rasterPool == null){
+            rasterizeTriangle(p0, p1, p2, rgb, triId, 0, 0, ancho - 1, alto - 1);
+            return;
+        }
+        // Mismo bounding box (expandido 1px) que usa rasterizeTriangle
+        int minX = Math.max(0, (int)Math.floor(Math.min(p0[0], Math.min(p1[0], p2[0]))) - 1);
+        int maxX = Math.min(ancho - 1, (int)Math.ceil(Math.max(p0[0], Math.max(p1[0], p2[0]))) + 1);
+        int minY = Math.max(0, (int)Math.floor(Math.min(p0[1], Math.min(p1[1], p2[1]))) - 1);
+        int maxY = Math.min(alto - 1, (int)Math.ceil(Math.max(p0[1], Math.max(p1[1], p2[1]))) + 1);
+        if(minX > maxX || minY > maxY) return; // fuera de pantalla
+
+        if(binCount == binRgb.length){
+            int cap = binRgb.length * 2;
+            binCoords = java.util.Arrays.copyOf(binCoords, cap * 9);
+            binRgb = java.util.Arrays.copyOf(binRgb, cap);
+            binTriIds = java.util.Arrays.copyOf(binTriIds, cap);
+        }
+        int tri = binCount++;
+        int o = tri * 9;
+        binCoords[o]     = p0[0]; binCoords[o + 1] = p0[1]; binCoords[o + 2] = p0[2];
+        binCoords[o + 3] = p1[0]; binCoords[o + 4] = p1[1]; binCoords[o + 5] = p1[2];
+        binCoords[o + 6] = p2[0]; binCoords[o + 7] = p2[1]; binCoords[o + 8] = p2[2];
+        binRgb[tri] = rgb;
+        binTriIds[tri] = triId;
+
+        int tx0 = minX / tileSize, tx1 = maxX / tileSize;
+        int ty0 = minY / tileSize, ty1 = maxY / tileSize;
+        for(int ty = ty0; ty <= ty1; ty++){
+            for(int tx = tx0; tx <= tx1; tx++){
+                int t = ty * tilesX + tx;
+                int n = tileCounts[t];
+                if(n == tileBins[t].length) tileBins[t] = java.util.Arrays.copyOf(tileBins[t], n * 2);
+                tileBins[t][n] = tri;
+                tileCounts[t] = n + 1;
+            }
+        }
+    }
+
+    // Rasteriza en paralelo todo lo acumulado en los bins y los vacía. No hace nada en modo serial.
+    private void flushTiles(){
+        if(binCount == 0) return;
+        rasterPool.invoke(new TileTask(0, tileCounts.length));
+        discardTiles();
+    }
+
+    private void discardTiles(){
+        if(binCount == 0) return;
+        java.util.Arrays.fill(tileCounts, 0);
+        binCount = 0;
+    }
+
+    // Divide el rango de tiles en mitades hasta llegar a tiles individuales (fork-join).
+    private class TileTask extends java.util.concurrent.RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        TileTask(int from, int to){ this.from = from; this.to = to; }
+
+        @Override
+        protected void compute(){
+            if(to - from <= 1){
+                if(from < to) rasterizeTile(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(from, mid), new TileTask(mid, to));
+        }
+    }
+
+    // Rasteriza, en orden de envío, los triángulos del bin del tile t recortados a su rectángulo.
+    private void rasterizeTile(int t){
+        int n = tileCounts[t];
+        if(n == 0) return;
+        int x0 = (t % tilesX) * tileSize;
+        int y0 = (t / tilesX) * tileSize;
+        int x1 = Math.min(ancho, x0 + tileSize) - 1;
+        int y1 = Math.min(alto, y0 + tileSize) - 1;
+        int[] bin = tileBins[t];
+        double[] c = binCoords;
+        for(int i = 0; i < n; i++){
+            int tri = bin[i];
+            int o = tri * 9;
+            rasterizeTriangle(c[o], c[o + 1], c[o + 2], c[o + 3], c[o + 4], c[o + 5], c[o + 6], c[o + 7], c[o + 8],
+                              binRgb[tri], binTriIds[tri], x0, y0, x1, y1);
+        }
+    }
+
+    private void rasterizeTriangle(double[] p0, double[] p1, double[] p2, int rgb, int triId,
+                                   int clipX0, int clipY0, int clipX1, int clipY1){
+        rasterizeTriangle(p0[0], p0[1], p0[2], p1[0], p1[1], p1[2], p2[0], p2[1], p2[2],
+                          rgb, triId, clipX0, clipY0, clipX1, clipY1);
+    }
+
+    // Núcleo de rasterizado: cobertura por edge functions (regla top-left + fallback conservador
+    // por esquinas), interpolación de profundidad y z-test con desempate por triId. Solo toca
+    // píxeles dentro del rectángulo [clipX0..clipX1] x [clipY0..clipY1]; el resultado por píxel
+    // no depende del rectángulo, por eso serial y por tiles producen la misma imagen.
+    //
+    // EDGE FUNCTIONS INCREMENTALES (sin asignaciones en el loop):
+    // E(px,py) = (px-ax)*(by-ay) - (py-ay)*(bx-ax) es lineal, así que avanzar un píxel en X suma
+    // (by-ay) y avanzar una fila suma -(bx-ax). Como los vértices están snapped a centros de
+    // píxel (k+0.5), todos los términos son múltiplos exactos de 0.5 en double: los valores
+    // incrementales (y los de las 4 esquinas, a ±0.5 del centro) son idénticos bit a bit a
+    // evaluar la función desde cero en cada píxel.
+    private void rasterizeTriangle(double x0, double y0, double z0,
+                                   double x1, double y1, double z1,
+                                   double x2, double y2, double z2,
+                                   int rgb, int triId,
+                                   int clipX0, int clipY0, int clipX1, int clipY1){
+        float area = (float)((x2-x0)*(y1-y0) - (y2-y0)*(x1-x0));
+        if(Math.abs(area) <= 1e-9f) return;
+        float absArea = area >= 0 ? area : -area;
+        float orient = area >= 0 ? 1f : -1f;
+        // Precompute top-left flags that match the oriented edges
+        boolean tl01 = orient >= 0 ? isTopLeft(x0, y0, x1, y1) : isTopLeft(x1, y1, x0, y0);
+        boolean tl12 = orient >= 0 ? isTopLeft(x1, y1, x2, y2) : isTopLeft(x2, y2, x1, y1);
+        boolean tl20 = orient >= 0 ? isTopLeft(x2, y2, x0, y0) : isTopLeft(x0, y0, x2, y2);
+
+        // Bounding box (expand 1px to avoid cracks at triangle edges)
+        int rawMinX = (int)Math.floor(Math.min(x0, Math.min(x1, x2)));
+        int rawMaxX = (int)Math.ceil (Math.max(x0, Math.max(x1, x2)));
+        int rawMinY = (int)Math.floor(Math.min(y0, Math.min(y1, y2)));
+        int rawMaxY = (int)Math.ceil (Math.max(y0, Math.max(y1, y2)));
+        int minX = Math.max(clipX0, rawMinX - 1);
+        int maxX = Math.min(clipX1, rawMaxX + 1);
+        int minY = Math.max(clipY0, rawMinY - 1);
+        int maxY = Math.min(clipY1, rawMaxY + 1);
+        if(minX > maxX || minY > maxY) return;
+
+        // Incrementos por columna (dx*) y por fila (dy*) de cada edge function
+        // w0: arista p1->p2, w1: arista p2->p0, w2: arista p0->p1
+        double dx0 = y2 - y1, dy0 = -(x2 - x1);
+        double dx1 = y0 - y2, dy1 = -(x0 - x2);
+        double dx2 = y1 - y0, dy2 = -(x1 - x0);
+        float epsf = 1e-6f;
+
+        // Valores en el centro del primer píxel de la primera fila
+        double px = minX + 0.5, py = minY + 0.5;
+        double row0 = (px - x1) * dx0 + (py - y1) * dy0;
+        double row1 = (px - x2) * dx1 + (py - y2) * dy1;
+        double row2 = (px - x0) * dx2 + (py - y0) * dy2;
 
-        // Raster loop (conservative coverage same as drawTriangle)
         for(int y = minY; y <= maxY; y++){
-            for(int x = minX; x <= maxX; x++){
-                double[] pc = {x + 0.5, y + 0.5};
-                float w0 = edgeFunction(p1, p2, pc) * orient;
-                float w1 = edgeFunction(p2, p0, pc) * orient;
-                float w2 = edgeFunction(p0, p1, pc) * orient;
-                float epsf = 1e-6f;
-                boolean in0 = (w0 > epsf) || (Math.abs(w0) <= epsf && tl12);
-                boolean in1 = (w1 > epsf) || (Math.abs(w1) <= epsf && tl20);
-                boolean in2 = (w2 > epsf) || (Math.abs(w2) <= epsf && tl01);
-                boolean covered = in0 && in1 && in2;
+            double e0 = row0, e1 = row1, e2 = row2;
+            int idx = y * ancho + minX;
+            for(int x = minX; x <= maxX; x++, idx++, e0 += dx0, e1 += dx1, e2 += dx2){
+                // Conservative + deterministic edge rule:
+                // use top-left tie-break when an edge function is (near) zero so adjacent triangles
+                // do not both exclude the pixel; this prevents permanent seams on flat faces.
+                float w0 = (float)e0 * orient;
+                float w1 = (float)e1 * orient;
+                float w2 = (float)e2 * orient;
+                boolean covered = inside(w0, tl12, epsf) && inside(w1, tl20, epsf) && inside(w2, tl01, epsf);
+                // If center test fails, fallback to corner conservative test (keeps prior behavior):
+                // esquinas (x,y), (x+1,y), (x+1,y+1), (x,y+1) = centro desplazado ±0.5 en cada eje
                 if(!covered){
-                    double[][] corners = {
-                        {x + 0.0, y + 0.0},
-                        {x + 1.0, y + 0.0},
-                        {x + 1.0, y + 1.0},
-                        {x + 0.0, y + 1.0}
-                    };
-                    for(int ci=0; ci<4 && !covered; ci++){
-                        double[] cc = corners[ci];
-                        float cc0 = edgeFunction(p1, p2, cc) * orient;
-                        float cc1 = edgeFunction(p2, p0, cc) * orient;
-                        float cc2 = edgeFunction(p0, p1, cc) * orient;
-                        boolean cin0 = (cc0 > epsf) || (Math.abs(cc0) <= epsf && tl12);
-                        boolean cin1 = (cc1 > epsf) || (Math.abs(cc1) <= epsf && tl20);
-                        boolean cin2 = (cc2 > epsf) || (Math.abs(cc2) <= epsf && tl01);
-                        if(cin0 && cin1 && cin2) covered = true;
+                    for(int ci = 0; ci < 4 && !covered; ci++){
+                        double ox = (ci == 0 || ci == 3) ? -0.5 : 0.5;
+                        double oy = (ci < 2) ? -0.5 : 0.5;
+                        float cc0 = (float)(e0 + ox * dx0 + oy * dy0) * orient;
+                        float cc1 = (float)(e1 + ox * dx1 + oy * dy1) * orient;
+                        float cc2 = (float)(e2 + ox * dx2 + oy * dy2) * orient;
+                        covered = inside(cc0, tl12, epsf) && inside(cc1, tl20, epsf) && inside(cc2, tl01, epsf);
                     }
                 }
                 if(covered){
                     double alpha = w0 / absArea;
                     double beta  = w1 / absArea;
                     double gamma = w2 / absArea;
-                    double z = alpha * p0[2] + beta * p1[2] + gamma * p2[2];
-                    int idx = y * ancho + x;
+                    double z = alpha * z0 + beta * z1 + gamma * z2;
+                    // Small depth epsilon: require z to be sufficiently closer
+                    // than the stored value before overwriting. This prevents
+                    // alternating writes when two triangles are extremely
+                    // close in depth due to numerical noise.
                     if(z < zBuffer[idx] - depthEps){
                         zBuffer[idx] = z;
                         ownerBuffer[idx] = triId;
-                        int rr = (int)(color.getRed() * lit);
-                        int gg = (int)(color.getGreen() * lit);
-                        int bb = (int)(color.getBlue() * lit);
-                        backBuffer.setRGB(x, y, packRGB(rr, gg, bb));
+                        backPixels[idx] = rgb;
                     } else if(Math.abs(z - zBuffer[idx]) <= depthEps){
                         int cur = ownerBuffer[idx];
                         if(cur == -1 || triId < cur){
                             ownerBuffer[idx] = triId;
                             zBuffer[idx] = z;
-                            int rr = (int)(color.getRed() * lit);
-                            int gg = (int)(color.getGreen() * lit);
-                            int bb = (int)(color.getBlue() * lit);
-                            backBuffer.setRGB(x, y, packRGB(rr, gg, bb));
+                            backPixels[idx] = rgb;
                         }
                     }
                 }
             }
+            row0 += dy0; row1 += dy1; row2 += dy2;
         }
     }
 
+    // Inclusión por arista: dentro si w > eps, o sobre la arista (|w| <= eps) y es top-left
+    private static boolean inside(float w, boolean topLeft, float epsf){
+        return (w > epsf) || (Math.abs(w) <= epsf && topLeft);
+    }
     // Rasterize a convex quad given in projected screen-space coordinates (p = {x_screen, y_screen, cam_z})
     // Split into two triangles and render using drawTriangleScreen to ensure consistent edge-testing
     public void drawQuadScreen(double[] p0, double[] p1, double[] p2, double[] p3, Color color){
@@ -898,48 +1068,173 @@ public class SoftwareRenderer {
         return new Vector3(normal.x / len, normal.y / len, normal.z / len);
     }
 
+    // Luz fija de applyLambertShading (top-right-back), normalizada igual que allí
+    private static final Vector3 LAMBERT_LIGHT = new Vector3(0.5, 1, 0.3).normalize();
+
+    // Vértices usados para la normal de cada cara en drawCubeShaded (ver CUBE_FACES)
+    private static final int[][] CUBE_NORMAL_VERTS = {
+        {0,1,2}, {4,6,5}, {0,5,4}, {1,6,5}, {2,7,6}, {3,4,7}
+    };
+
+    // Intensidad Lambert por cara para un cubo sin rotar (no depende de posición ni tamaño)
+    private static final double[] AXIS_FACE_INTENSITY = new double[6];
+    static {
+        // Mismos vértices que getCubeVertices(origen, 2, 0)
+        Vector3[] unit = {
+            new Vector3(-1,-1,-1), new Vector3(1,-1,-1), new Vector3(1,1,-1), new Vector3(-1,1,-1),
+            new Vector3(-1,-1,1),  new Vector3(1,-1,1),  new Vector3(1,1,1),  new Vector3(-1,1,1)
+        };
+        for(int f = 0; f < 6; f++){
+            int[] n = CUBE_NORMAL_VERTS[f];
+            AXIS_FACE_INTENSITY[f] = lambertIntensity(unit[n[0]], unit[n[1]], unit[n[2]]);
+        }
+    }
+
+    // Cache directa (hash → slot) de colores sombreados por cara para cubos sin rotar:
+    // clave = color base RGB, valor = 6 colores empaquetados (uno por cara).
+    private static final int SHADE_CACHE_SIZE = 1024;
+    private final int[] shadeCacheKeys = new int[SHADE_CACHE_SIZE];
+    private final int[] shadeCacheRgb = new int[SHADE_CACHE_SIZE * 6];
+    {
+        java.util.Arrays.fill(shadeCacheKeys, -1);
+    }
+
+    // calculateFaceNormal + applyLambertShading sobre primitivos (mismas operaciones, sin Vector3)
+    private static double lambertIntensity(Vector3 v0, Vector3 v1, Vector3 v2){
+        double e1x = v1.x - v0.x, e1y = v1.y - v0.y, e1z = v1.z - v0.z;
+        double e2x = v2.x - v0.x, e2y = v2.y - v0.y, e2z = v2.z - v0.z;
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if(len == 0){ nx = 0; ny = 0; nz = 1; } else { nx /= len; ny /= len; nz /= len; }
+        // applyLambertShading vuelve a normalizar la normal recibida
+        double len2 = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if(len2 == 0){ nx = 0; ny = 0; nz = 0; } else { nx /= len2; ny /= len2; nz /= len2; }
+        Vector3 l = LAMBERT_LIGHT;
+        return Math.max(0.3, Math.min(1.0, Math.abs(nx * l.x + ny * l.y + nz * l.z)));
+    }
+
+    private static int shade(int rgb, double intensity){
+        int r = Math.min(255, (int)(((rgb >> 16) & 0xFF) * intensity));
+        int g = Math.min(255, (int)(((rgb >> 8) & 0xFF) * intensity));
+        int b = Math.min(255, (int)((rgb & 0xFF) * intensity));
+        return (r << 16) | (g << 8) | b;
+    }
+
+    // Colores sombreados por cara para un cubo sin rotar; se calculan una vez por color base
+    private int shadeCacheSlot(int rgb){
+        int slot = ((rgb * 0x9E3779B1) >>> 22) & (SHADE_CACHE_SIZE - 1);
+        if(shadeCacheKeys[slot] != rgb){
+            for(int f = 0; f < 6; f++) shadeCacheRgb[slot * 6 + f] = shade(rgb, AXIS_FACE_INTENSITY[f]);
+            shadeCacheKeys[slot] = rgb;
+        }
+        return slot * 6;
+    }
+
     /**
      * Draw a cube with Lambert shading for realistic lighting.
+     * Proyecta los 8 vértices una vez, descarta caras traseras y usa colores por cara
+     * precalculados (cache por color base si el cubo no está rotado).
      */
     public void drawCubeShaded(Vector3[] vertices, Camera cam, Color color) {
-        // Define faces with vertex indices (cube has 6 faces)
-        int[][] faces = {
-            {0, 1, 2, 3}, // front
-            {4, 5, 6, 7}, // back
-            {0, 4, 5, 1}, // right
-            {1, 5, 6, 2}, // top
-            {2, 6, 7, 3}, // left
-            {3, 7, 4, 0}  // bottom
-        };
-        
-        Vector3[] faceNormals = {
-            calculateFaceNormal(vertices[0], vertices[1], vertices[2]),
-            calculateFaceNormal(vertices[4], vertices[6], vertices[5]),
-            calculateFaceNormal(vertices[0], vertices[5], vertices[4]),
-            calculateFaceNormal(vertices[1], vertices[6], vertices[5]),
-            calculateFaceNormal(vertices[2], vertices[7], vertices[6]),
-            calculateFaceNormal(vertices[3], vertices[4], vertices[7])
-        };
-        
-        for (int f = 0; f < faces.length; f++) {
-            int[] face = faces[f];
-            Vector3 a = vertices[face[0]];
-            Vector3 b = vertices[face[1]];
-            Vector3 c = vertices[face[2]];
-            Vector3 d = vertices[face[3]];
-            
-            Color shadedColor = applyLambertShading(color, faceNormals[f]);
-            
-            double[] pa = project(a, cam);
-            double[] pb = project(b, cam);
-            double[] pc = project(c, cam);
-            double[] pd = project(d, cam);
-            
-            if (pa != null && pb != null && pc != null && pd != null) {
-                drawQuadScreen(pa, pb, pc, pd, shadedColor);
+        drawCubeShaded(vertices, cam, color.getRGB());
+    }
+
+    // Vértices reutilizables de drawCubeShadedAt (el envío de geometría es de un solo hilo)
+    private final Vector3[] cubeScratch = {
+        new Vector3(0, 0, 0), new Vector3(0, 0, 0), new Vector3(0, 0, 0), new Vector3(0, 0, 0),
+        new Vector3(0, 0, 0), new Vector3(0, 0, 0), new Vector3(0, 0, 0), new Vector3(0, 0, 0)
+    };
+
+    /**
+     * drawCubeShaded de un cubo alineado a ejes con centro (x, y, z), sin asignar memoria:
+     * mismos vértices que getCubeVertices(pos, tam, 0). Lo usan las mallas horneadas de los
+     * animales (entities.VoxelMesh), que guardan el color como RGB empaquetado.
+     */
+    public void drawCubeShadedAt(double x, double y, double z, int tam, Camera cam, int rgb){
+        double half = tam / 2.0;
+        double x0 = x - half, x1 = x + half, y0 = y - half, y1 = y + half, z0 = z - half, z1 = z + half;
+        Vector3[] v = cubeScratch;
+        v[0].x = x0; v[0].y = y0; v[0].z = z0;
+        v[1].x = x1; v[1].y = y0; v[1].z = z0;
+        v[2].x = x1; v[2].y = y1; v[2].z = z0;
+        v[3].x = x0; v[3].y = y1; v[3].z = z0;
+        v[4].x = x0; v[4].y = y0; v[4].z = z1;
+        v[5].x = x1; v[5].y = y0; v[5].z = z1;
+        v[6].x = x1; v[6].y = y1; v[6].z = z1;
+        v[7].x = x0; v[7].y = y1; v[7].z = z1;
+        drawCubeShaded(v, cam, rgb);
+    }
+
+    private void drawCubeShaded(Vector3[] vertices, Camera cam, int argb) {
+        prepareCube(vertices, cam);
+        int rgb = argb & 0xFFFFFF;
+
+        // Cubo alineado a ejes (rotY = 0): aristas 0→1, 0→3, 0→4 paralelas a X, Y, Z
+        Vector3 v0 = vertices[0], v1 = vertices[1], v3 = vertices[3], v4 = vertices[4];
+        boolean axisAligned = v1.x != v0.x && v1.y == v0.y && v1.z == v0.z
+                           && v3.x == v0.x && v3.z == v0.z && v4.x == v0.x && v4.y == v0.y;
+        int cacheBase = axisAligned ? shadeCacheSlot(rgb) : -1;
+
+        for (int f = 0; f < 6; f++) {
+            if (!cubeFaceVisible[f]) continue;
+            int shaded;
+            if (axisAligned) {
+                shaded = shadeCacheRgb[cacheBase + f];
             } else {
-                drawTriangle(a, b, c, cam, shadedColor);
-                drawTriangle(a, c, d, cam, shadedColor);
+                int[] n = CUBE_NORMAL_VERTS[f];
+                shaded = shade(rgb, lambertIntensity(vertices[n[0]], vertices[n[1]], vertices[n[2]]));
+            }
+            drawCubeFace(vertices, f, cam, (shaded >> 16) & 0xFF, (shaded >> 8) & 0xFF, shaded & 0xFF, null);
+        }
+    }
+
+    // Esquinas proyectadas de la cara en curso de drawStaticMesh
+    private final double[][] quadProj = new double[4][3];
+
+    /**
+     * Dibuja la geometría estática horneada (StaticMesh): descarta con el frustum chunks
+     * enteros y, por cara, las que miran hacia atrás (mismo criterio que prepareCube); cada
+     * cara visible son 2 triángulos con el color por cara de drawCubeShaded.
+     */
+    public void drawStaticMesh(StaticMesh mesh, Camera cam){
+        CameraFrame fr = frameFor(cam);
+        double[] c = mesh.coords;
+        for(int ch = 0; ch < mesh.chunkCount; ch++){
+            int b = ch * 6;
+            double[] cb = mesh.chunkBounds;
+            if(!fr.isAabbVisible(cb[b], cb[b + 1], cb[b + 2], cb[b + 3], cb[b + 4], cb[b + 5])) continue;
+            for(int q = mesh.chunkStart[ch]; q < mesh.chunkStart[ch + 1]; q++){
+                int f = mesh.faces[q];
+                int o = q * 12;
+                // Centro de la cara: punto medio de las esquinas opuestas 0 y 2
+                double fcx = (c[o] + c[o + 6]) * 0.5, fcy = (c[o + 1] + c[o + 7]) * 0.5, fcz = (c[o + 2] + c[o + 8]) * 0.5;
+                int[] n = StaticMesh.FACE_NORMALS[f];
+                double facing = fr.orthographic
+                    ? -(n[0] * fr.fx + n[1] * fr.fy + n[2] * fr.fz)
+                    : (fr.px - fcx) * n[0] + (fr.py - fcy) * n[1] + (fr.pz - fcz) * n[2];
+                if(facing <= 0) continue;
+
+                int shaded = shadeCacheRgb[shadeCacheSlot(mesh.rgb[q] & 0xFFFFFF) + f];
+                int r = (shaded >> 16) & 0xFF, g = (shaded >> 8) & 0xFF, bl = shaded & 0xFF;
+                boolean ok = true;
+                for(int k = 0; k < 4; k++){
+                    ok &= fr.project(c[o + k * 3], c[o + k * 3 + 1], c[o + k * 3 + 2], quadProj[k]);
+                }
+                if(ok){
+                    drawTriangleScreen(quadProj[0], quadProj[1], quadProj[2], r, g, bl);
+                    drawTriangleScreen(quadProj[0], quadProj[2], quadProj[3], r, g, bl);
+                } else {
+                    // Cerca del near plane: triángulos en world space con recorte (como drawCubeFace)
+                    Color color = new Color(r, g, bl);
+                    Vector3 v0 = new Vector3(c[o], c[o + 1], c[o + 2]);
+                    Vector3 v1 = new Vector3(c[o + 3], c[o + 4], c[o + 5]);
+                    Vector3 v2 = new Vector3(c[o + 6], c[o + 7], c[o + 8]);
+                    Vector3 v3 = new Vector3(c[o + 9], c[o + 10], c[o + 11]);
+                    drawTriangle(v0, v1, v2, cam, color);
+                    drawTriangle(v0, v2, v3, cam, color);
+                }
             }
         }
     }
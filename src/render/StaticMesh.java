@@ -0,0 +1,343 @@
+package render;
+
+/**
+ * ============================================================================================
+ * StaticMesh - Geometría estática del mundo horneada en caras (quads) alineadas a ejes
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Piedras, arbustos y árboles/flores ya crecidos no se mueven, pero dibujarlos cubo por cubo
+ * envía 12 triángulos por voxel, incluidas las caras entre voxels vecinos que nunca se ven.
+ * El Builder junta los voxels de cada entidad en su grilla y:
+ * 1. HIDDEN-FACE REMOVAL: la cara de un voxel solo se emite si el vecino de ese lado está vacío
+ * 2. GREEDY MESHING: une caras coplanares contiguas del mismo color en un solo rectángulo
+ *    (-Decosistema.greedyMesh=false lo desactiva para comparar)
+ * Los cubos sueltos, fuera de una grilla (p.ej. pétalos), entran con sus 6 caras.
+ *
+ * CHUNKS:
+ * Las caras se agrupan por celda XZ de CHUNK_SIZE con su AABB, así drawStaticMesh descarta
+ * chunks enteros con el frustum antes de mirar sus caras.
+ *
+ * Los índices de cara son los de CUBE_FACES en SoftwareRenderer (0 -Z, 1 +Z, 2 -Y, 3 +X,
+ * 4 +Y, 5 -X): el sombreado por cara sale idéntico al de drawCubeShaded.
+ *
+ * INCREMENTAL:
+ * Cada grilla se mallea sola (las caras ocultas y el greedy no cruzan entidades), así que
+ * una malla por entidad más merge() da exactamente las mismas caras, en el mismo orden por
+ * chunk, que hornear todo junto. Mundo guarda la de cada entidad y al cambiar el mundo solo
+ * hornea las nuevas; merge() copia los bloques de cada chunk sin volver a mallear.
+ *
+ * Las instancias son inmutables; Mundo las reemplaza enteras al cambiar la geometría.
+ *
+ * ============================================================================================
+ */
+public final class StaticMesh {
+    static final double CHUNK_SIZE = 128.0;
+    static final boolean GREEDY = !"false".equalsIgnoreCase(System.getProperty("ecosistema.greedyMesh"));
+
+    // Normal exterior de cada índice de cara (CUBE_FACES)
+    static final int[][] FACE_NORMALS = {
+        {0, 0, -1}, {0, 0, 1}, {0, -1, 0}, {1, 0, 0}, {0, 1, 0}, {-1, 0, 0}
+    };
+
+    final double[] coords;      // 4 esquinas × (x, y, z) por cara, en orden de contorno
+    final byte[] faces;         // índice de cara (normal y sombreado)
+    final int[] rgb;            // color base
+    final int chunkCount;
+    final int[] chunkStart;     // caras del chunk c: [chunkStart[c], chunkStart[c + 1])
+    final double[] chunkBounds; // minX, minY, minZ, maxX, maxY, maxZ por chunk
+    private final long[] chunkKeys; // celda XZ de cada chunk (orden de la TreeMap)
+    private final int quadCount;
+    private final int cubeCount;
+    private final int visibleFaces;
+
+    private StaticMesh(Builder b){
+        quadCount = b.count;
+        cubeCount = b.cubes;
+        visibleFaces = b.visibleFaces;
+
+        // Agrupar por chunk (TreeMap: orden de dibujo determinista)
+        java.util.TreeMap<Long, java.util.List<Integer>> byChunk = new java.util.TreeMap<>();
+        for (int q = 0; q < quadCount; q++) {
+            int o = q * 12;
+            double cx = (b.coords[o] + b.coords[o + 6]) * 0.5;
+            double cz = (b.coords[o + 2] + b.coords[o + 8]) * 0.5;
+            long key = ((long) (int) Math.floor(cx / CHUNK_SIZE) << 32) ^ ((int) Math.floor(cz / CHUNK_SIZE) & 0xFFFFFFFFL);
+            byChunk.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(q);
+        }
+
+        chunkCount = byChunk.size();
+        chunkStart = new int[chunkCount + 1];
+        chunkBounds = new double[chunkCount * 6];
+        chunkKeys = new long[chunkCount];
+        coords = new double[quadCount * 12];
+        faces = new byte[quadCount];
+        rgb = new int[quadCount];
+        int ch = 0, n = 0;
+        for (java.util.Map.Entry<Long, java.util.List<Integer>> chunk : byChunk.entrySet()) {
+            java.util.List<Integer> quads = chunk.getValue();
+            chunkKeys[ch] = chunk.getKey();
+            chunkStart[ch] = n;
+            double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                               Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (int q : quads) {
+                System.arraycopy(b.coords, q * 12, coords, n * 12, 12);
+                faces[n] = b.faces[q];
+                rgb[n] = b.rgb[q];
+                for (int k = 0; k < 12; k += 3) {
+                    for (int a = 0; a < 3; a++) {
+                        double v = coords[n * 12 + k + a];
+                        if (v < bounds[a]) bounds[a] = v;
+                        if (v > bounds[3 + a]) bounds[3 + a] = v;
+                    }
+                }
+                n++;
+            }
+            System.arraycopy(bounds, 0, chunkBounds, ch * 6, 6);
+            ch++;
+        }
+        chunkStart[chunkCount] = n;
+    }
+
+    private StaticMesh(int quads, int cubes, int visible, int chunks){
+        quadCount = quads;
+        cubeCount = cubes;
+        visibleFaces = visible;
+        chunkCount = chunks;
+        chunkStart = new int[chunks + 1];
+        chunkBounds = new double[chunks * 6];
+        chunkKeys = new long[chunks];
+        coords = new double[quads * 12];
+        faces = new byte[quads];
+        rgb = new int[quads];
+    }
+
+    /**
+     * Une mallas ya horneadas en una sola, chunk por chunk y en el orden de 'parts' dentro
+     * de cada chunk, sin volver a mallear: lineal en la cantidad de caras.
+     */
+    public static StaticMesh merge(java.util.List<StaticMesh> parts){
+        java.util.TreeMap<Long, java.util.List<int[]>> byChunk = new java.util.TreeMap<>();
+        int quads = 0, cubes = 0, visible = 0;
+        for (int p = 0; p < parts.size(); p++) {
+            StaticMesh m = parts.get(p);
+            quads += m.quadCount;
+            cubes += m.cubeCount;
+            visible += m.visibleFaces;
+            for (int c = 0; c < m.chunkCount; c++) {
+                byChunk.computeIfAbsent(m.chunkKeys[c], k -> new java.util.ArrayList<>()).add(new int[] {p, c});
+            }
+        }
+
+        StaticMesh out = new StaticMesh(quads, cubes, visible, byChunk.size());
+        int ch = 0, n = 0;
+        for (java.util.Map.Entry<Long, java.util.List<int[]>> chunk : byChunk.entrySet()) {
+            out.chunkKeys[ch] = chunk.getKey();
+            out.chunkStart[ch] = n;
+            double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                               Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (int[] pc : chunk.getValue()) {
+                StaticMesh m = parts.get(pc[0]);
+                int from = m.chunkStart[pc[1]], len = m.chunkStart[pc[1] + 1] - from;
+                System.arraycopy(m.coords, from * 12, out.coords, n * 12, len * 12);
+                System.arraycopy(m.faces, from, out.faces, n, len);
+                System.arraycopy(m.rgb, from, out.rgb, n, len);
+                for (int a = 0; a < 3; a++) {
+                    bounds[a] = Math.min(bounds[a], m.chunkBounds[pc[1] * 6 + a]);
+                    bounds[3 + a] = Math.max(bounds[3 + a], m.chunkBounds[pc[1] * 6 + 3 + a]);
+                }
+                n += len;
+            }
+            System.arraycopy(bounds, 0, out.chunkBounds, ch * 6, 6);
+            ch++;
+        }
+        out.chunkStart[out.chunkCount] = n;
+        return out;
+    }
+
+    public int getQuadCount(){ return quadCount; }
+    public int getChunkCount(){ return chunkCount; }
+    public int getCubeCount(){ return cubeCount; }
+    /** Triángulos si cada voxel se dibujara como cubo (12 por voxel). */
+    public int getNaiveTriangleCount(){ return cubeCount * 12; }
+    /** Triángulos tras quitar las caras ocultas, antes del greedy meshing. */
+    public int getVisibleFaceTriangleCount(){ return visibleFaces * 2; }
+    /** Triángulos horneados (2 por cara). */
+    public int getTriangleCount(){ return quadCount * 2; }
+
+    /**
+     * Acumula voxels y cubos en world space. Una grilla (beginGroup ... endGroup) tiene
+     * origen y tamaño de voxel propios; dentro de ella los voxels son enteros (i, j, k)
+     * con centro en origen + (i, j, k) × tamaño, como los List<Vector3> de las entidades.
+     */
+    public static final class Builder {
+        private double[] coords = new double[12 * 256];
+        private byte[] faces = new byte[256];
+        private int[] rgb = new int[256];
+        private int count = 0;
+        private int cubes = 0;
+        private int visibleFaces = 0;
+
+        // Grilla en curso
+        private static final int KEY_OFFSET = 1 << 20;
+        private final java.util.HashMap<Long, Integer> group = new java.util.HashMap<>();
+        private boolean inGroup = false;
+        private double originX, originY, originZ, voxelSize;
+        private final int[] groupMin = new int[3], groupMax = new int[3];
+
+        public Builder beginGroup(double ox, double oy, double oz, double size){
+            if (inGroup) endGroup();
+            inGroup = true;
+            originX = ox;
+            originY = oy;
+            originZ = oz;
+            voxelSize = size;
+            group.clear();
+            java.util.Arrays.fill(groupMin, Integer.MAX_VALUE);
+            java.util.Arrays.fill(groupMax, Integer.MIN_VALUE);
+            return this;
+        }
+
+        /** Voxel (i, j, k) de la grilla en curso; si se repite una celda queda el último color. */
+        public Builder voxel(int i, int j, int k, int color){
+            if (!inGroup) throw new IllegalStateException("voxel() fuera de beginGroup/endGroup");
+            long key = ((long) (i + KEY_OFFSET) << 42) | ((long) (j + KEY_OFFSET) << 21) | (k + KEY_OFFSET);
+            if (group.put(key, (color & 0xFFFFFF) | 0xFF000000) == null) cubes++;
+            int[] p = {i, j, k};
+            for (int a = 0; a < 3; a++) {
+                groupMin[a] = Math.min(groupMin[a], p[a]);
+                groupMax[a] = Math.max(groupMax[a], p[a]);
+            }
+            return this;
+        }
+
+        /** Cierra la grilla en curso: quita caras ocultas y une las coplanares (greedy). */
+        public Builder endGroup(){
+            if (!inGroup) return this;
+            inGroup = false;
+            if (group.isEmpty()) return this;
+
+            int[] n = {groupMax[0] - groupMin[0] + 1, groupMax[1] - groupMin[1] + 1, groupMax[2] - groupMin[2] + 1};
+            int[] grid = new int[n[0] * n[1] * n[2]]; // 0 = vacío, si no color | alpha
+            for (java.util.Map.Entry<Long, Integer> e : group.entrySet()) {
+                long key = e.getKey();
+                int x = (int) (key >>> 42) - KEY_OFFSET - groupMin[0];
+                int y = (int) ((key >>> 21) & 0x1FFFFF) - KEY_OFFSET - groupMin[1];
+                int z = (int) (key & 0x1FFFFF) - KEY_OFFSET - groupMin[2];
+                grid[(x * n[1] + y) * n[2] + z] = e.getValue();
+            }
+
+            int[] pos = new int[3];
+            for (int d = 0; d < 3; d++) {
+                int u = (d + 1) % 3, v = (d + 2) % 3;
+                int nu = n[u], nv = n[v];
+                int[] mask = new int[nu * nv];
+                for (int s = -1; s <= 1; s += 2) {
+                    for (int a = 0; a < n[d]; a++) {
+                        // Caras de la capa 'a' que miran hacia s con el vecino vacío
+                        for (int j = 0; j < nv; j++) {
+                            for (int i = 0; i < nu; i++) {
+                                pos[d] = a; pos[u] = i; pos[v] = j;
+                                int col = grid[(pos[0] * n[1] + pos[1]) * n[2] + pos[2]];
+                                int neighbor = 0;
+                                int na = a + s;
+                                if (col != 0 && na >= 0 && na < n[d]) {
+                                    pos[d] = na;
+                                    neighbor = grid[(pos[0] * n[1] + pos[1]) * n[2] + pos[2]];
+                                }
+                                mask[j * nu + i] = neighbor == 0 ? col : 0;
+                                if (col != 0 && neighbor == 0) visibleFaces++;
+                            }
+                        }
+                        emitMask(mask, nu, nv, d, u, v, s, a);
+                    }
+                }
+            }
+            group.clear();
+            return this;
+        }
+
+        // Recorre la máscara de una capa uniendo rectángulos del mismo color
+        private void emitMask(int[] mask, int nu, int nv, int d, int u, int v, int s, int a){
+            for (int j = 0; j < nv; j++) {
+                for (int i = 0; i < nu; ) {
+                    int col = mask[j * nu + i];
+                    if (col == 0) { i++; continue; }
+                    int w = 1, h = 1;
+                    if (GREEDY) {
+                        while (i + w < nu && mask[j * nu + i + w] == col) w++;
+                        grow:
+                        while (j + h < nv) {
+                            for (int k = 0; k < w; k++) {
+                                if (mask[(j + h) * nu + i + k] != col) break grow;
+                            }
+                            h++;
+                        }
+                    }
+                    for (int jj = 0; jj < h; jj++) {
+                        for (int ii = 0; ii < w; ii++) mask[(j + jj) * nu + i + ii] = 0;
+                    }
+                    // Coordenadas de grilla: los voxels ocupan (índice ± 0.5)
+                    double plane = groupMin[d] + a + s * 0.5;
+                    double u0 = groupMin[u] + i - 0.5, u1 = u0 + w;
+                    double v0 = groupMin[v] + j - 0.5, v1 = v0 + h;
+                    double[] origin = {originX, originY, originZ};
+                    double p = origin[d] + plane * voxelSize;
+                    double au = origin[u] + u0 * voxelSize, bu = origin[u] + u1 * voxelSize;
+                    double av = origin[v] + v0 * voxelSize, bv = origin[v] + v1 * voxelSize;
+                    addQuad(d, u, v, p, au, bu, av, bv, faceIndex(d, s), col);
+                    i += w;
+                }
+            }
+        }
+
+        /** Cubo suelto alineado a ejes con centro (x, y, z): sus 6 caras, sin unir. */
+        public Builder cube(double x, double y, double z, double size, int color){
+            double half = size / 2.0;
+            double[] c = {x, y, z};
+            cubes++;
+            visibleFaces += 6;
+            for (int d = 0; d < 3; d++) {
+                int u = (d + 1) % 3, v = (d + 2) % 3;
+                for (int s = -1; s <= 1; s += 2) {
+                    addQuad(d, u, v, c[d] + s * half, c[u] - half, c[u] + half, c[v] - half, c[v] + half,
+                            faceIndex(d, s), (color & 0xFFFFFF) | 0xFF000000);
+                }
+            }
+            return this;
+        }
+
+        private static int faceIndex(int axis, int sign){
+            switch (axis) {
+                case 0: return sign > 0 ? 3 : 5;
+                case 1: return sign > 0 ? 4 : 2;
+                default: return sign > 0 ? 1 : 0;
+            }
+        }
+
+        private void addQuad(int d, int u, int v, double p, double u0, double u1, double v0, double v1,
+                             int face, int color){
+            if (count == faces.length) {
+                int cap = count * 2;
+                coords = java.util.Arrays.copyOf(coords, cap * 12);
+                faces = java.util.Arrays.copyOf(faces, cap);
+                rgb = java.util.Arrays.copyOf(rgb, cap);
+            }
+            int o = count * 12;
+            double[] us = {u0, u1, u1, u0}, vs = {v0, v0, v1, v1};
+            for (int k = 0; k < 4; k++) {
+                coords[o + k * 3 + d] = p;
+                coords[o + k * 3 + u] = us[k];
+                coords[o + k * 3 + v] = vs[k];
+            }
+            faces[count] = (byte) face;
+            rgb[count] = color;
+            count++;
+        }
+
+        public StaticMesh build(){
+            endGroup();
+            return new StaticMesh(this);
+        }
+    }
+}
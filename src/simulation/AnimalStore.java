@@ -0,0 +1,515 @@
+package simulation;
+
+import entities.BaseAnimal;
+
+/**
+ * ============================================================================================
+ * AnimalStore - Animales en arreglos primitivos (struct-of-arrays), backend opcional
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Con miles de animales el update de objetos está limitado por memoria: cada BaseAnimal es
+ * un grafo grande (voxels, partículas, listas) y posición/velocidad se reemplazan por
+ * Vector3 nuevos en cada tick. Aquí el estado que cambia en cada tick vive en arreglos
+ * paralelos indexados por fila (posición, velocidad, yaw, timers de fase, cooldowns,
+ * especie) y el movimiento y las fases se recorren de forma lineal, sin asignar memoria.
+ *
+ * FILAS:
+ * - Con vista: un BaseAnimal del mundo (Mundo.enableAnimalStore) queda ligado a una fila;
+ *   el animal deja de moverse por su cuenta y en su update() solo copia la fila
+ *   (BaseAnimal.pullFromStore) para el render y la UI. Animaciones, apareamiento, crías y
+ *   muerte siguen en el objeto
+ * - Sin vista (addRaw): animales que solo existen como datos, p.ej. poblaciones enormes en
+ *   corridas batch o benchmarks. Se aparean y tienen crías dentro del store
+ *
+ * TICK (step, lo llama FixedStepScheduler en serie antes del update de las entidades):
+ * 1. Aplica altas y bajas pendientes (así el índice de fila de una vista no cambia mientras
+ *    los hilos del update la leen)
+ * 2. Ordena las filas por celda de una grilla uniforme (counting sort) con los AABB del
+ *    inicio del tick: las colisiones entre animales del store no pasan por el spatial hash
+ * 3. Por fila: timer de fase, cooldown, rumbo (wander), integración, altura del terreno,
+ *    límites del mundo y colisiones (otras filas + obstáculos del spatial hash del mundo)
+ * 4. Contactos de la misma especie: entre vistas, BaseAnimal.requestMating (mismas reglas
+ *    que el camino de objetos); entre filas sin vista, apareamiento y cría en el store
+ *
+ * Mismas constantes y reglas que BaseAnimal.updateMovement/updateGrowthPhase; el rumbo sale
+ * de un stream SplitMix64 por fila derivado de la seed del mundo y la del animal.
+ *
+ * THREAD-SAFETY:
+ * step() y los setters corren bajo el monitor del store; las vistas leen los arreglos sin
+ * lock durante la fase paralela del tick, cuando step() ya terminó.
+ *
+ * ============================================================================================
+ */
+public class AnimalStore {
+    // Mismas tablas que BaseAnimal.getPhaseScaleMultiplier / getPhaseSpeedMultiplier
+    private static final double[] PHASE_SCALE = { 1.0, 1.0, 3.0, 6.0 };
+    private static final double[] PHASE_SPEED = { 1.0, 1.0, 1.25, 1.5 };
+    private static final double TICK = FixedStepScheduler.TICK_SECONDS;
+    private static final double WANDER_CHANGE_INTERVAL = 3.5;
+    private static final double WORLD_BOUND = Mundo.WORLD_BOUND;
+    private static final double REPRODUCTION_COOLDOWN = 10.0;
+    // Grilla de colisiones entre filas: cubre los límites del mundo con margen
+    private static final double CELL_SIZE = 32.0;
+    private static final double GRID_ORIGIN = -WORLD_BOUND - 2 * CELL_SIZE;
+    private static final int GRID_DIM = (int) Math.ceil(2 * (WORLD_BOUND + 2 * CELL_SIZE) / CELL_SIZE);
+
+    private static final byte F_INITIALIZED = 1;  // ya eligió su primer rumbo
+    private static final byte F_SELECTED = 2;     // seleccionado en la UI: no se mueve
+    private static final byte F_FROZEN = 4;       // spawn o muerte en curso: no simula
+
+    private final Mundo mundo;
+    private int count = 0;
+
+    // --- Estado por fila ---
+    private int[] species = new int[0];
+    private double[] posX = new double[0], posY = new double[0], posZ = new double[0];
+    private double[] velX = new double[0], velZ = new double[0];
+    private double[] yaw = new double[0];
+    private double[] baseSpeed = new double[0];
+    private double[] groundOffset = new double[0];  // voxelSize * 1.5 (fase 1)
+    private double[] wanderTimer = new double[0];
+    private int[] phase = new int[0];
+    private double[] phaseElapsed = new double[0];
+    private double[] phaseDuration = new double[0]; // 3 por fila (fases 1..3)
+    private double[] cooldown = new double[0];
+    private double[] extent = new double[0];        // 6 por fila: AABB relativo a la posición
+    private double[] voxelSize = new double[0];
+    private long[] rngState = new long[0];
+    private long[] seeds = new long[0];
+    private byte[] flags = new byte[0];
+    private BaseAnimal[] views = new BaseAnimal[0];
+
+    // --- Scratch del tick (se reutiliza) ---
+    private double[] tickMin = new double[0], tickMax = new double[0]; // AABB inicio del tick
+    private int[] cellStart = new int[GRID_DIM * GRID_DIM + 1];
+    private int[] cellRows = new int[0];
+    private int[] rowCell = new int[0];
+    private double maxHalfExtent = 0.0;
+    private int[] rawContacts = new int[16];
+    private int rawContactCount = 0;
+    private final java.util.List<Runnable> viewContacts = new java.util.ArrayList<>();
+    private final java.util.List<entities.Collidable> nearbyScratch = new java.util.ArrayList<>();
+
+    // Altas y bajas de vistas, aplicadas al inicio del próximo step()
+    private final java.util.Set<BaseAnimal> pendingBind = new java.util.LinkedHashSet<>();
+    private final java.util.Set<BaseAnimal> pendingUnbind = new java.util.LinkedHashSet<>();
+
+    private long births = 0L;
+
+    public AnimalStore(Mundo mundo){
+        this.mundo = mundo;
+    }
+
+    // ========================================================================================
+    // Altas y bajas
+    // ========================================================================================
+
+    /** Liga el animal a una fila a partir del próximo tick (lo llama Mundo al agregarlo). */
+    public synchronized void bind(BaseAnimal a){
+        if (a.getAnimalStore() == this && !pendingUnbind.contains(a)) return;
+        if (pendingUnbind.remove(a)) return; // sigue ligado a su fila
+        pendingBind.add(a);
+    }
+
+    /** Libera la fila del animal en el próximo tick (lo llama Mundo al quitarlo). */
+    public synchronized void unbind(BaseAnimal a){
+        if (pendingBind.remove(a)) return;
+        if (a.getAnimalStore() == this) pendingUnbind.add(a);
+    }
+
+    /** Vacía el store (Mundo.clearWorld): las vistas vuelven al camino de objetos. */
+    public synchronized void clear(){
+        for (int i = 0; i < count; i++) {
+            if (views[i] != null) views[i].bindToStore(null, -1);
+            views[i] = null;
+        }
+        count = 0;
+        pendingBind.clear();
+        pendingUnbind.clear();
+    }
+
+    /**
+     * Fila sin vista: un animal que solo existe como datos. Las medidas (AABB, velocidad,
+     * duración de fases) se copian de un animal plantilla de la misma especie.
+     */
+    public synchronized int addRaw(BaseAnimal template, double x, double z, long seed, int startPhase){
+        int row = appendRow(template.getSpeciesType(), seed, template.getBaseSpeed(), template.getVoxelSize());
+        for (int p = 1; p <= 3; p++) phaseDuration[row * 3 + p - 1] = template.getPhaseDurationSeconds(p);
+        math.Vector3 min = template.getAABBMin(), max = template.getAABBMax(), pos = template.getPosicion();
+        setExtent(row, min.x - pos.x, min.y - pos.y, min.z - pos.z, max.x - pos.x, max.y - pos.y, max.z - pos.z);
+        phase[row] = Math.max(1, Math.min(3, startPhase));
+        posX[row] = x;
+        posZ[row] = z;
+        double h = mundo.getHeightAt(x, z);
+        posY[row] = (h != Double.NEGATIVE_INFINITY ? h : 0.0) + groundOffset[row] * PHASE_SCALE[phase[row]];
+        return row;
+    }
+
+    private void applyPending(){
+        for (BaseAnimal a : pendingUnbind) {
+            int row = a.getStoreRow();
+            if (row < 0 || row >= count || views[row] != a) continue;
+            a.bindToStore(null, -1);
+            removeRow(row);
+        }
+        pendingUnbind.clear();
+        for (BaseAnimal a : pendingBind) {
+            int row = appendRow(a.getSpeciesType(), a.getSeed(), a.getBaseSpeed(), a.getVoxelSize());
+            for (int p = 1; p <= 3; p++) phaseDuration[row * 3 + p - 1] = a.getPhaseDurationSeconds(p);
+            math.Vector3 pos = a.getPosicion();
+            math.Vector3 min = a.getAABBMin(), max = a.getAABBMax();
+            setExtent(row, min.x - pos.x, min.y - pos.y, min.z - pos.z, max.x - pos.x, max.y - pos.y, max.z - pos.z);
+            posX[row] = pos.x;
+            posY[row] = pos.y;
+            posZ[row] = pos.z;
+            phase[row] = Math.max(1, Math.min(3, a.getGrowthPhase()));
+            phaseElapsed[row] = a.getPhaseTimer();
+            cooldown[row] = a.getReproductionCooldown();
+            byte f = 0;
+            if (a.isSelected()) f |= F_SELECTED;
+            if (a.isSpawning() || a.isDying()) f |= F_FROZEN;
+            flags[row] = f;
+            views[row] = a;
+            a.bindToStore(this, row);
+        }
+        pendingBind.clear();
+    }
+
+    private int appendRow(int sp, long seed, double speed, double voxel){
+        if (count == species.length) grow(Math.max(64, count * 2));
+        int row = count++;
+        species[row] = sp;
+        seeds[row] = seed;
+        rngState[row] = Mundo.entityRandom(mundo, seed).getState();
+        baseSpeed[row] = speed;
+        voxelSize[row] = voxel;
+        groundOffset[row] = voxel * 1.5;
+        posX[row] = posY[row] = posZ[row] = 0.0;
+        velX[row] = velZ[row] = yaw[row] = 0.0;
+        wanderTimer[row] = 0.0;
+        phase[row] = 1;
+        phaseElapsed[row] = 0.0;
+        cooldown[row] = 0.0;
+        flags[row] = 0;
+        views[row] = null;
+        return row;
+    }
+
+    // Quita la fila moviendo la última a su lugar
+    private void removeRow(int row){
+        int last = --count;
+        if (row != last) {
+            species[row] = species[last];
+            seeds[row] = seeds[last];
+            rngState[row] = rngState[last];
+            posX[row] = posX[last]; posY[row] = posY[last]; posZ[row] = posZ[last];
+            velX[row] = velX[last]; velZ[row] = velZ[last];
+            yaw[row] = yaw[last];
+            baseSpeed[row] = baseSpeed[last];
+            voxelSize[row] = voxelSize[last];
+            groundOffset[row] = groundOffset[last];
+            wanderTimer[row] = wanderTimer[last];
+            phase[row] = phase[last];
+            phaseElapsed[row] = phaseElapsed[last];
+            System.arraycopy(phaseDuration, last * 3, phaseDuration, row * 3, 3);
+            cooldown[row] = cooldown[last];
+            System.arraycopy(extent, last * 6, extent, row * 6, 6);
+            flags[row] = flags[last];
+            views[row] = views[last];
+            if (views[row] != null) views[row].bindToStore(this, row);
+        }
+        views[last] = null;
+    }
+
+    private void grow(int capacity){
+        species = java.util.Arrays.copyOf(species, capacity);
+        seeds = java.util.Arrays.copyOf(seeds, capacity);
+        rngState = java.util.Arrays.copyOf(rngState, capacity);
+        posX = java.util.Arrays.copyOf(posX, capacity);
+        posY = java.util.Arrays.copyOf(posY, capacity);
+        posZ = java.util.Arrays.copyOf(posZ, capacity);
+        velX = java.util.Arrays.copyOf(velX, capacity);
+        velZ = java.util.Arrays.copyOf(velZ, capacity);
+        yaw = java.util.Arrays.copyOf(yaw, capacity);
+        baseSpeed = java.util.Arrays.copyOf(baseSpeed, capacity);
+        voxelSize = java.util.Arrays.copyOf(voxelSize, capacity);
+        groundOffset = java.util.Arrays.copyOf(groundOffset, capacity);
+        wanderTimer = java.util.Arrays.copyOf(wanderTimer, capacity);
+        phase = java.util.Arrays.copyOf(phase, capacity);
+        phaseElapsed = java.util.Arrays.copyOf(phaseElapsed, capacity);
+        phaseDuration = java.util.Arrays.copyOf(phaseDuration, capacity * 3);
+        cooldown = java.util.Arrays.copyOf(cooldown, capacity);
+        extent = java.util.Arrays.copyOf(extent, capacity * 6);
+        flags = java.util.Arrays.copyOf(flags, capacity);
+        views = java.util.Arrays.copyOf(views, capacity);
+        tickMin = new double[capacity * 3];
+        tickMax = new double[capacity * 3];
+        cellRows = new int[capacity];
+        rowCell = new int[capacity];
+    }
+
+    private void setExtent(int row, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+        int e = row * 6;
+        extent[e] = minX; extent[e + 1] = minY; extent[e + 2] = minZ;
+        extent[e + 3] = maxX; extent[e + 4] = maxY; extent[e + 5] = maxZ;
+    }
+
+    // ========================================================================================
+    // Tick
+    // ========================================================================================
+
+    /** Un tick de movimiento y fases para todas las filas (ver cabecera). */
+    public synchronized void step(){
+        applyPending();
+        buildGrid();
+        rawContactCount = 0;
+        viewContacts.clear();
+        for (int i = 0; i < count; i++) {
+            stepRow(i);
+        }
+        for (Runnable r : viewContacts) {
+            try {
+                r.run();
+            } catch(Exception ex){
+                // Un contacto con error no debe detener el resto del tick
+            }
+        }
+        viewContacts.clear();
+        for (int c = 0; c < rawContactCount; c += 2) {
+            mateRaw(rawContacts[c], rawContacts[c + 1]);
+        }
+    }
+
+    private void stepRow(int i){
+        if ((flags[i] & F_FROZEN) != 0) return;
+
+        int p = phase[i];
+        if (p < 3) {
+            phaseElapsed[i] += TICK;
+            if (phaseElapsed[i] >= phaseDuration[i * 3 + p - 1]) {
+                phase[i] = ++p;
+                phaseElapsed[i] = 0.0;
+            }
+        }
+        if (cooldown[i] > 0) cooldown[i] -= TICK;
+
+        if ((flags[i] & F_SELECTED) != 0) return;
+        if ((flags[i] & F_INITIALIZED) == 0) {
+            newHeading(i);
+            flags[i] |= F_INITIALIZED;
+        }
+        wanderTimer[i] += TICK;
+        if (wanderTimer[i] > WANDER_CHANGE_INTERVAL) {
+            wanderTimer[i] = 0.0;
+            newHeading(i);
+        }
+
+        double newX = posX[i] + velX[i] * 0.5;
+        double newZ = posZ[i] + velZ[i] * 0.5;
+        if (Math.abs(newX) > WORLD_BOUND || Math.abs(newZ) > WORLD_BOUND) {
+            velX[i] = -velX[i];
+            velZ[i] = -velZ[i];
+            yaw[i] = Math.atan2(velZ[i], velX[i]);
+            return;
+        }
+        double terrainHeight = mundo.getHeightAt(newX, newZ);
+        double newY = terrainHeight != Double.NEGATIVE_INFINITY
+                ? terrainHeight + groundOffset[i] * PHASE_SCALE[p] : posY[i];
+
+        if (collides(i, newX, newY, newZ)) {
+            // Girar 90 grados sin moverse
+            double angle = Math.atan2(velZ[i], velX[i]) - Math.PI / 2;
+            double speed = Math.sqrt(velX[i] * velX[i] + velZ[i] * velZ[i]);
+            velX[i] = Math.cos(angle) * speed;
+            velZ[i] = Math.sin(angle) * speed;
+            yaw[i] = Math.atan2(velZ[i], velX[i]);
+            return;
+        }
+        posX[i] = newX;
+        posY[i] = newY;
+        posZ[i] = newZ;
+    }
+
+    private void newHeading(int i){
+        double angle = nextDouble(i) * Math.PI * 2;
+        double speed = baseSpeed[i] * PHASE_SPEED[phase[i]];
+        velX[i] = Math.cos(angle) * speed;
+        velZ[i] = Math.sin(angle) * speed;
+        yaw[i] = Math.atan2(velZ[i], velX[i]);
+    }
+
+    // Primer obstáculo del AABB de la fila i en (x, y, z): otra fila o algo del mundo
+    private boolean collides(int i, double x, double y, double z){
+        int e = i * 6;
+        double minX = x + extent[e], minY = y + extent[e + 1], minZ = z + extent[e + 2];
+        double maxX = x + extent[e + 3], maxY = y + extent[e + 4], maxZ = z + extent[e + 5];
+
+        int c0x = cellOf(minX - maxHalfExtent), c1x = cellOf(maxX + maxHalfExtent);
+        int c0z = cellOf(minZ - maxHalfExtent), c1z = cellOf(maxZ + maxHalfExtent);
+        for (int cz = c0z; cz <= c1z; cz++) {
+            for (int cx = c0x; cx <= c1x; cx++) {
+                int cell = cz * GRID_DIM + cx;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int j = cellRows[k];
+                    if (j == i) continue;
+                    int b = j * 3;
+                    if (minX <= tickMax[b] && maxX >= tickMin[b]
+                            && minY <= tickMax[b + 1] && maxY >= tickMin[b + 1]
+                            && minZ <= tickMax[b + 2] && maxZ >= tickMin[b + 2]) {
+                        if (species[i] == species[j] && cooldown[i] <= 0) contact(i, j);
+                        return true;
+                    }
+                }
+            }
+        }
+
+        // Plantas, rocas, depredadores y animales que todavía no tienen fila
+        nearbyScratch.clear();
+        mundo.queryAABB(minX, minY, minZ, maxX, maxY, maxZ, nearbyScratch);
+        for (entities.Collidable c : nearbyScratch) {
+            if (c instanceof entities.Pasto) continue;
+            if (c instanceof BaseAnimal) {
+                BaseAnimal other = (BaseAnimal) c;
+                if (other.getAnimalStore() == this) continue; // ya se comparó por la grilla
+                BaseAnimal self = views[i];
+                if (self != null && other.getSpeciesType() == species[i] && cooldown[i] <= 0) {
+                    viewContacts.add(() -> self.requestMating(other));
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void contact(int i, int j){
+        BaseAnimal a = views[i], b = views[j];
+        if (a != null && b != null) {
+            viewContacts.add(() -> a.requestMating(b));
+        } else if (a == null && b == null) {
+            if (rawContactCount + 2 > rawContacts.length) rawContacts = java.util.Arrays.copyOf(rawContacts, rawContacts.length * 2);
+            rawContacts[rawContactCount++] = i;
+            rawContacts[rawContactCount++] = j;
+        }
+    }
+
+    // Apareamiento entre filas sin vista: cooldown para ambos y una cría en fase 1 en el medio
+    private void mateRaw(int i, int j){
+        if (cooldown[i] > 0 || cooldown[j] > 0) return;
+        cooldown[i] = REPRODUCTION_COOLDOWN;
+        cooldown[j] = REPRODUCTION_COOLDOWN;
+        long childSeed = nextLong(i) + seeds[i] + seeds[j];
+        double x = (posX[i] + posX[j]) / 2.0;
+        double z = (posZ[i] + posZ[j]) / 2.0;
+        int row = appendRow(species[i], childSeed, baseSpeed[i], voxelSize[i]);
+        // appendRow pudo agrandar los arreglos: i sigue siendo válido
+        System.arraycopy(phaseDuration, i * 3, phaseDuration, row * 3, 3);
+        System.arraycopy(extent, i * 6, extent, row * 6, 6);
+        posX[row] = x;
+        posZ[row] = z;
+        double h = mundo.getHeightAt(x, z);
+        posY[row] = (h != Double.NEGATIVE_INFINITY ? h : 0.0) + groundOffset[row];
+        cooldown[row] = REPRODUCTION_COOLDOWN * 2;
+        births++;
+    }
+
+    // Counting sort de las filas por celda (centro del AABB al inicio del tick)
+    private void buildGrid(){
+        java.util.Arrays.fill(cellStart, 0);
+        double maxHalf = 0.0;
+        for (int i = 0; i < count; i++) {
+            int e = i * 6, b = i * 3;
+            tickMin[b] = posX[i] + extent[e];
+            tickMin[b + 1] = posY[i] + extent[e + 1];
+            tickMin[b + 2] = posZ[i] + extent[e + 2];
+            tickMax[b] = posX[i] + extent[e + 3];
+            tickMax[b + 1] = posY[i] + extent[e + 4];
+            tickMax[b + 2] = posZ[i] + extent[e + 5];
+            double halfX = (tickMax[b] - tickMin[b]) / 2.0;
+            double halfZ = (tickMax[b + 2] - tickMin[b + 2]) / 2.0;
+            maxHalf = Math.max(maxHalf, Math.max(halfX, halfZ));
+            int cell = cellOf((tickMin[b + 2] + tickMax[b + 2]) / 2.0) * GRID_DIM
+                     + cellOf((tickMin[b] + tickMax[b]) / 2.0);
+            rowCell[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        maxHalfExtent = maxHalf;
+        for (int c = 0; c < GRID_DIM * GRID_DIM; c++) cellStart[c + 1] += cellStart[c];
+        // Llenar cada celda en orden de fila (determinista)
+        int[] cursor = java.util.Arrays.copyOf(cellStart, cellStart.length);
+        for (int i = 0; i < count; i++) cellRows[cursor[rowCell[i]]++] = i;
+    }
+
+    private static int cellOf(double v){
+        int c = (int) Math.floor((v - GRID_ORIGIN) / CELL_SIZE);
+        return c < 0 ? 0 : (c >= GRID_DIM ? GRID_DIM - 1 : c);
+    }
+
+    // SplitMix64 por fila: mismo paso que EntityRandom.nextLong, con el estado en el arreglo
+    private long nextLong(int i){
+        return EntityRandom.mix64(rngState[i] += EntityRandom.GOLDEN_GAMMA);
+    }
+
+    private double nextDouble(int i){
+        return (nextLong(i) >>> 11) * 0x1.0p-53;
+    }
+
+    // ========================================================================================
+    // Escrituras desde las vistas (UI, apareamiento, spawn/muerte)
+    // ========================================================================================
+
+    private boolean owns(BaseAnimal a){
+        int row = a.getStoreRow();
+        return row >= 0 && row < count && views[row] == a;
+    }
+
+    public synchronized void setPosition(BaseAnimal a, double x, double y, double z){
+        if (!owns(a)) return;
+        int row = a.getStoreRow();
+        posX[row] = x;
+        posY[row] = y;
+        posZ[row] = z;
+    }
+
+    /** Fase fijada desde afuera (UI, carga): el timer de la fase vuelve a cero. */
+    public synchronized void setPhase(BaseAnimal a, int newPhase){
+        if (!owns(a)) return;
+        int row = a.getStoreRow();
+        phase[row] = Math.max(1, Math.min(3, newPhase));
+        phaseElapsed[row] = 0.0;
+    }
+
+    public synchronized void setCooldown(BaseAnimal a, double seconds){
+        if (owns(a)) cooldown[a.getStoreRow()] = seconds;
+    }
+
+    public synchronized void setSelected(BaseAnimal a, boolean selected){
+        if (owns(a)) setFlag(a.getStoreRow(), F_SELECTED, selected);
+    }
+
+    public synchronized void setFrozen(BaseAnimal a, boolean frozen){
+        if (owns(a)) setFlag(a.getStoreRow(), F_FROZEN, frozen);
+    }
+
+    private void setFlag(int row, byte flag, boolean on){
+        flags[row] = (byte) (on ? flags[row] | flag : flags[row] & ~flag);
+    }
+
+    // ========================================================================================
+    // Lecturas (las vistas, en la fase paralela del tick)
+    // ========================================================================================
+
+    public int size(){ return count; }
+    public long getBirths(){ return births; }
+    public int getSpecies(int row){ return species[row]; }
+    public double getX(int row){ return posX[row]; }
+    public double getY(int row){ return posY[row]; }
+    public double getZ(int row){ return posZ[row]; }
+    public double getVelX(int row){ return velX[row]; }
+    public double getVelZ(int row){ return velZ[row]; }
+    public double getYaw(int row){ return yaw[row]; }
+    public double getWanderTimer(int row){ return wanderTimer[row]; }
+    public int getPhase(int row){ return phase[row]; }
+    public double getPhaseElapsed(int row){ return phaseElapsed[row]; }
+    public double getCooldown(int row){ return cooldown[row]; }
+}
@@ -0,0 +1,46 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================================================================
+ * CommandBuffer - Efectos entre entidades diferidos al final del tick
+ * ============================================================================================
+ *
+ * Durante la fase paralela de un tick cada entidad solo modifica SU propio estado; lo que
+ * toca a otra entidad o al mundo (iniciar apareamiento con un compañero, marcar una presa
+ * para morir, agregar una cría, mover la entrada del spatial hash) se registra aquí con
+ * Mundo.defer(...) y se aplica en serie al terminar el tick.
+ *
+ * ORDEN:
+ * FixedStepScheduler asigna un buffer por bloque fijo de entidades del snapshot y los aplica
+ * en orden de bloque; dentro de un bloque los comandos quedan en el orden en que se
+ * actualizaron sus entidades. El resultado es el orden del snapshot, sin importar cuántos
+ * hilos participaron ni cuál terminó primero.
+ *
+ * ============================================================================================
+ */
+final class CommandBuffer {
+    private final List<Runnable> commands = new ArrayList<>();
+
+    void add(Runnable command){
+        commands.add(command);
+    }
+
+    /** Ejecuta los comandos en orden de registro y vacía el buffer. */
+    void applyAndClear(){
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                commands.get(i).run();
+            } catch(Exception ex){
+                // Un comando con error no debe impedir aplicar el resto del tick
+            }
+        }
+        commands.clear();
+    }
+
+    int size(){
+        return commands.size();
+    }
+}
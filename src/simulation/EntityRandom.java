@@ -0,0 +1,67 @@
+package simulation;
+
+/**
+ * ============================================================================================
+ * EntityRandom - Stream aleatorio de una entidad con estado visible (SplitMix64)
+ * ============================================================================================
+ *
+ * Produce exactamente la misma secuencia que java.util.SplittableRandom creado con la misma
+ * seed (mismo gamma, mismas funciones de mezcla, mismo algoritmo de nextInt acotado), pero
+ * el estado es un long que se puede leer y restaurar: Persistencia lo guarda para que una
+ * partida cargada siga tomando los mismos números que la original.
+ *
+ * No es thread-safe: cada entidad usa el suyo desde el hilo que la actualiza.
+ *
+ * ============================================================================================
+ */
+public final class EntityRandom {
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    public EntityRandom(long seed){
+        this.state = seed;
+    }
+
+    /** Estado actual: new EntityRandom(getState()) continúa la secuencia desde aquí. */
+    public long getState(){ return state; }
+    public void setState(long state){ this.state = state; }
+
+    public long nextLong(){
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    public int nextInt(){
+        return mix32(state += GOLDEN_GAMMA);
+    }
+
+    public double nextDouble(){
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /** Entero en [0, bound), sin sesgo (rechazo como SplittableRandom). */
+    public int nextInt(int bound){
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            r &= m;
+        } else {
+            for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) { }
+        }
+        return r;
+    }
+
+    /** Finalizador SplitMix64; AnimalStore lo usa para sus streams por fila. */
+    static long mix64(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z){
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+}
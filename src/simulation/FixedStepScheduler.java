@@ -0,0 +1,307 @@
+package simulation;
+
+/**
+ * ============================================================================================
+ * FixedStepScheduler - Paso fijo de simulación desacoplado del framerate
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Es el ÚNICO que llama a update() de las entidades del mundo. Cada tick avanza el
+ * ecosistema exactamente TICK_SECONDS (el 0.016 que las entidades usan por update), así la
+ * dinámica no depende de cuántos frames dibuje el renderer.
+ *
+ * ALGORITMO (acumulador, "fix your timestep"):
+ * 1. advance(now) suma al acumulador el tiempo real transcurrido desde la última llamada
+ * 2. Mientras el acumulador tenga al menos un paso (1/hz), ejecuta un tick y lo descuenta
+ * 3. Lo que sobra (fracción de paso) queda como alpha = acumulador / paso, en [0, 1)
+ * 4. El renderer dibuja interpolando entre el estado del tick anterior y el actual con alpha
+ *
+ * FRECUENCIA:
+ * - -Decosistema.simHz=N (por defecto 62.5 = 1 / 0.016, tiempo real)
+ * - Los ticks son la unidad del modelo: con otra frecuencia el ecosistema evoluciona igual
+ *   tick a tick, solo que más rápido o más lento respecto al reloj de pared
+ *
+ * UPDATE PARALELO (fork-join):
+ * - El snapshot se parte en bloques fijos de CHUNK_SIZE entidades; un ForkJoinPool de
+ *   -Decosistema.simThreads=N hilos (por defecto, los núcleos disponibles) los actualiza
+ * - Durante esa fase cada entidad solo escribe su propio estado; lo que afecta a otras
+ *   (apareamiento, presas, crías, spatial hash) va a un CommandBuffer por bloque vía
+ *   Mundo.defer y se aplica en serie, en orden de bloque, al terminar el tick
+ * - Las lecturas sobre otras entidades pasan por el spatial hash, que no cambia durante
+ *   la fase paralela: con la misma seed el resultado es idéntico con 1 o N hilos
+ *
+ * ANIMALES EN ARREGLOS (Mundo.enableAnimalStore / -Decosistema.animalStore=true):
+ * Antes del update paralelo, AnimalStore.step() mueve a todos los animales sobre arreglos
+ * primitivos; los update() de los BaseAnimal solo copian su fila y animan.
+ *
+ * RELOJ DE SIMULACIÓN:
+ * Cada tick avanza SimClock.shared() TICK_SECONDS: el crecimiento de plantas y las fases de
+ * los animales miden tiempo simulado, no de pared.
+ *
+ * TIME-WARP (setTimeScale / -Decosistema.timeScale):
+ * - El tiempo real transcurrido se multiplica por la escala antes de acumularse
+ *   (1 = tiempo real, 10x, 100x, UNBOUNDED = tan rápido como dé la CPU)
+ * - Con escala > 1 un advance() puede ejecutar muchos ticks, hasta WARP_FRAME_BUDGET_NANOS
+ *   de tiempo de pared; después devuelve el control para dibujar un frame. El render se
+ *   salta frames (unos 10 por segundo) y el resto de la CPU va a la simulación
+ * - Si la CPU no alcanza la escala pedida, el atraso se descarta (la simulación corre lo
+ *   más rápido que puede en vez de acumular deuda)
+ *
+ * ENTRE TICKS (runBetweenTicks):
+ * Otro hilo (la UI, al guardar) puede encolar una tarea que necesita el mundo quieto. El
+ * hilo del scheduler la ejecuta al comienzo del próximo advance() o hold(), antes de
+ * cualquier tick: ningún update() ni comando diferido corre mientras tanto.
+ *
+ * ESPIRAL DE LA MUERTE:
+ * Si un frame tarda tanto que harían falta más de MAX_STEPS_PER_ADVANCE ticks, se ejecutan
+ * esos y se descarta el resto del atraso (la simulación se ralentiza en vez de congelar).
+ * En time-warp el límite es el presupuesto de tiempo de pared por frame.
+ *
+ * ============================================================================================
+ */
+public class FixedStepScheduler {
+    // Duración en segundos de simulación de un tick (lo que avanza cada update())
+    public static final double TICK_SECONDS = 0.016;
+    public static final double DEFAULT_HZ = 1.0 / TICK_SECONDS;
+    private static final int MAX_STEPS_PER_ADVANCE = 8;
+    private static final long TICK_NANOS = Math.round(TICK_SECONDS * 1e9);
+    // Escala de tiempo sin límite: simular sin parar entre frames
+    public static final double UNBOUNDED = Double.POSITIVE_INFINITY;
+    // Tiempo de pared máximo que un advance() en time-warp dedica a simular antes de dibujar
+    private static final long WARP_FRAME_BUDGET_NANOS = 100_000_000L;
+    // Entidades por bloque del update paralelo: fijo para que el orden de aplicación de
+    // los CommandBuffer no dependa de la cantidad de hilos
+    static final int CHUNK_SIZE = 64;
+    // Cada cuántos ticks se recalculan los AABB de todo el spatial hash (plantas que crecen)
+    private static final int SPATIAL_REFRESH_TICKS = 64;
+
+    private final Mundo mundo;
+    private final double hz;
+    private final long stepNanos;
+
+    private long lastNanos = -1L;   // -1 = sin referencia (inicio o tras una pausa)
+    private long accumulator = 0L;  // tiempo real pendiente de simular (ns)
+    private long tickCount = 0L;
+    private volatile double alpha = 1.0;
+    private volatile double timeScale = 1.0;
+    private volatile boolean suspended = false; // suspend(): sin ticks aunque no haya pausa
+
+    private final int threads;
+    private final java.util.concurrent.ForkJoinPool pool; // null = update en el hilo que llama
+    private CommandBuffer[] buffers = new CommandBuffer[0];
+    // Tareas de otros hilos que deben correr con la simulación quieta (runBetweenTicks)
+    private final java.util.concurrent.ConcurrentLinkedQueue<Runnable> betweenTicks =
+        new java.util.concurrent.ConcurrentLinkedQueue<>();
+
+    public FixedStepScheduler(Mundo mundo, double hz){
+        this(mundo, hz, 1);
+    }
+
+    public FixedStepScheduler(Mundo mundo, double hz, int threads){
+        if(hz <= 0) throw new IllegalArgumentException("hz debe ser > 0: " + hz);
+        if(threads < 1) throw new IllegalArgumentException("threads debe ser >= 1: " + threads);
+        this.mundo = mundo;
+        this.hz = hz;
+        this.stepNanos = Math.max(1L, Math.round(1e9 / hz));
+        this.threads = threads;
+        this.pool = threads > 1 ? new java.util.concurrent.ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Scheduler con -Decosistema.simHz (o DEFAULT_HZ), -Decosistema.simThreads (o los núcleos)
+     * y -Decosistema.timeScale (número o "unbounded", por defecto 1).
+     */
+    public static FixedStepScheduler fromSystemProperties(Mundo mundo){
+        double hz = Double.parseDouble(System.getProperty("ecosistema.simHz", String.valueOf(DEFAULT_HZ)));
+        int threads = Integer.getInteger("ecosistema.simThreads", Runtime.getRuntime().availableProcessors());
+        FixedStepScheduler scheduler = new FixedStepScheduler(mundo, hz, Math.max(1, threads));
+        scheduler.setTimeScale(parseTimeScale(System.getProperty("ecosistema.timeScale", "1")));
+        return scheduler;
+    }
+
+    /** "1", "10", "100x", "unbounded"... → escala (UNBOUNDED para "unbounded"/"max"/"0"). */
+    public static double parseTimeScale(String text){
+        String t = text.trim().toLowerCase();
+        if(t.endsWith("x")) t = t.substring(0, t.length() - 1);
+        if(t.equals("unbounded") || t.equals("max") || t.equals("inf")) return UNBOUNDED;
+        double scale = Double.parseDouble(t);
+        return scale == 0 ? UNBOUNDED : scale;
+    }
+
+    /**
+     * Ejecuta todos los ticks que corresponden al tiempo real transcurrido hasta nowNanos
+     * (System.nanoTime) y actualiza alpha. Devuelve cuántos ticks ejecutó.
+     */
+    public int advance(long nowNanos){
+        if(suspended){
+            lastNanos = -1L;
+            return 0;
+        }
+        runPendingBetweenTicks();
+        if(lastNanos < 0){
+            lastNanos = nowNanos;
+            return 0;
+        }
+        long elapsed = nowNanos - lastNanos;
+        lastNanos = nowNanos;
+        double scale = timeScale;
+
+        if(scale > 1.0){
+            return advanceWarp(elapsed, scale);
+        }
+
+        accumulator += scale == 1.0 ? elapsed : (long) (elapsed * scale);
+        int steps = 0;
+        while(accumulator >= stepNanos && steps < MAX_STEPS_PER_ADVANCE){
+            step();
+            accumulator -= stepNanos;
+            steps++;
+        }
+        if(accumulator >= stepNanos) accumulator %= stepNanos; // descartar atraso irrecuperable
+        alpha = (double) accumulator / stepNanos;
+        return steps;
+    }
+
+    // Time-warp: ticks hasta agotar lo acumulado o el presupuesto de pared del frame
+    private int advanceWarp(long elapsed, double scale){
+        boolean unbounded = Double.isInfinite(scale);
+        if(!unbounded) accumulator += (long) Math.min(elapsed * scale, (double) Long.MAX_VALUE / 2);
+        long deadline = System.nanoTime() + WARP_FRAME_BUDGET_NANOS;
+        int steps = 0;
+        while(unbounded || accumulator >= stepNanos){
+            step();
+            if(!unbounded) accumulator -= stepNanos;
+            steps++;
+            if(System.nanoTime() - deadline >= 0) break;
+        }
+        // Lo que no alcanzó a simularse en el presupuesto se descarta
+        accumulator = unbounded ? 0L : accumulator % stepNanos;
+        alpha = unbounded ? 1.0 : (double) accumulator / stepNanos;
+        return steps;
+    }
+
+    /** Multiplicador de tiempo: 1 = tiempo real, 10, 100, ... o UNBOUNDED. */
+    public void setTimeScale(double scale){
+        if(!(scale > 0)) throw new IllegalArgumentException("timeScale debe ser > 0: " + scale);
+        this.timeScale = scale;
+    }
+
+    public double getTimeScale(){ return timeScale; }
+
+    /**
+     * Congela la simulación (pausa): el tiempo que pase hasta el próximo advance() no se
+     * acumula. El alpha se conserva para que la imagen pausada no salte.
+     */
+    public void hold(){
+        if(!suspended) runPendingBetweenTicks();
+        lastNanos = -1L;
+    }
+
+    /**
+     * Suspende los ticks hasta resume(), como hold() pero sin depender de la pausa del
+     * juego: la cámara y el render siguen (por ejemplo, mientras StreamingLoader agrega
+     * entidades al mundo). Las tareas de runBetweenTicks también esperan al resume(): un
+     * guardado, un spawn o una captura del autosave no ven nunca un mundo a medio cargar.
+     */
+    public void suspend(){ suspended = true; }
+    public void resume(){ suspended = false; }
+    public boolean isSuspended(){ return suspended; }
+
+    /**
+     * Encola una tarea que corre en el hilo del scheduler entre dos ticks (al comienzo del
+     * próximo advance() o hold(), o del primero tras resume()). Sirve para leer el estado de todas las entidades sin
+     * que la simulación lo cambie a mitad (por ejemplo, la copia de un guardado).
+     */
+    public void runBetweenTicks(Runnable task){
+        betweenTicks.add(task);
+    }
+
+    private void runPendingBetweenTicks(){
+        Runnable task;
+        while((task = betweenTicks.poll()) != null){
+            try {
+                task.run();
+            } catch(Exception ex){
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Un tick: update() de cada entidad del snapshot actual (en paralelo por bloques),
+     * después los efectos diferidos en serie y el mantenimiento del mundo.
+     */
+    public void step(){
+        // Con el backend struct-of-arrays el movimiento y las fases van primero, en serie;
+        // los animales del update paralelo solo copian su fila
+        AnimalStore store = mundo.getAnimalStore();
+        if(store != null) store.step();
+
+        Mundo.Snapshot snap = mundo.getSnapshot();
+        int chunks = (snap.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if(buffers.length < chunks){
+            CommandBuffer[] grown = java.util.Arrays.copyOf(buffers, chunks);
+            for(int i = buffers.length; i < chunks; i++) grown[i] = new CommandBuffer();
+            buffers = grown;
+        }
+
+        if(pool == null || chunks <= 1){
+            for(int c = 0; c < chunks; c++) updateChunk(snap, c);
+        } else {
+            pool.invoke(new ChunkTask(snap, 0, chunks));
+        }
+
+        // Fase serial: mismo orden (el del snapshot) con cualquier cantidad de hilos
+        mundo.applyCommandBuffers(buffers, chunks);
+        SimClock.shared().advanceNanos(TICK_NANOS);
+        tickCount++;
+        if(tickCount % SPATIAL_REFRESH_TICKS == 0) mundo.refreshSpatialIndex();
+    }
+
+    private void updateChunk(Mundo.Snapshot snap, int chunk){
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(snap.size(), from + CHUNK_SIZE);
+        Mundo.bindCommandBuffer(buffers[chunk]);
+        try {
+            for(int i = from; i < to; i++){
+                try {
+                    snap.get(i).update();
+                } catch(Exception ex){
+                    // Una entidad con error no debe detener la simulación del resto
+                }
+            }
+        } finally {
+            Mundo.bindCommandBuffer(null);
+        }
+    }
+
+    // Divide el rango de bloques a la mitad hasta quedar con uno solo
+    private final class ChunkTask extends java.util.concurrent.RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Mundo.Snapshot snap;
+        private final int from, to;
+
+        ChunkTask(Mundo.Snapshot snap, int from, int to){
+            this.snap = snap;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if(to - from <= 1){
+                if(to > from) updateChunk(snap, from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(snap, from, mid), new ChunkTask(snap, mid, to));
+        }
+    }
+
+    /** Fracción del siguiente tick ya transcurrida, en [0, 1]: peso de interpolación para render. */
+    public double getAlpha(){ return alpha; }
+    public long getTickCount(){ return tickCount; }
+    public double getHz(){ return hz; }
+    public int getThreads(){ return threads; }
+}
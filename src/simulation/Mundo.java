@@ -23,9 +23,11 @@ import entities.BaseAnimal;
  * 
  * CONCEPTOS IMPLEMENTADOS:
  * 1. THREAD-SAFETY:
- *    - Métodos synchronized para evitar race conditions
- *    - Copias defensivas (snapshots) para iteración segura
- *    - Evita ConcurrentModificationException
+ *    - Las mutaciones (add/remove/clear) son synchronized entre sí
+ *    - Cada mutación publica un Snapshot INMUTABLE (arreglos + vistas de solo lectura)
+ *      en un campo volatile con un epoch creciente; las lecturas (snapshotEntities,
+ *      getAnimals, getCollidables) son una lectura volatile, sin lock ni asignaciones
+ *    - Evita ConcurrentModificationException: nadie itera la lista que se modifica
  * 
  * 2. SEPARACIÓN DE CONCERNS:
  *    - Lista general de Renderable (todo lo que se dibuja)
@@ -33,23 +35,73 @@ import entities.BaseAnimal;
  *    - Permite tratar animales de forma especial sin casting constante
  * 
  * 3. SPATIAL QUERIES:
- *    - getHeightAt(x,z): Obtiene altura del terreno (heightmap query)
+ *    - getHeightAt(x,z): Obtiene altura del terreno (heightmap query, sin locks)
  *    - getCollidables(): Obtiene entidades con AABB (collision detection)
+ *    - queryRadius / queryAABB: Collidables cercanos vía spatial hash (sin copiar el mundo)
  * 
- * 4. DETERMINISMO:
+ * 4. SPATIAL HASH (loose grid en XZ):
+ *    - Cada Collidable vive en UNA celda de SPATIAL_CELL_SIZE según el centro de su AABB
+ *    - Las queries expanden su rango por la mayor media-extensión registrada, así una
+ *      entidad grande (árbol) se encuentra aunque su centro esté en una celda vecina
+ *    - El AABB de cada entrada se cachea; las entidades que se mueven llaman a
+ *      updateSpatial(this) y las plantas que crecen se refrescan con refreshSpatialIndex()
+ *    - Tiene su propio lock de lectura/escritura para no competir con el resto de métodos
+ *      synchronized; las queries concurrentes del update paralelo solo toman lectura
+ *    - Durante un tick las entradas no cambian (updateSpatial se difiere al final), así
+ *      que lo que una entidad ve de las demás no depende del orden entre hilos
+ * 
+ * 5. REGISTRO DE ALTURAS (lock-free):
+ *    - Los HeightProvider se publican en un arreglo volatile copy-on-write, así
+ *      getHeightAt no toma el lock del mundo ni recorre todas las entidades
+ *    - Con un único Terreno se llama directo a Terreno.getHeightAt
+ *    - Con varios providers se puede hornear una grilla de alturas máximas
+ *      (bakeHeightGrid o -Decosistema.heightBakeCell=N) y muestrearla en O(1)
+ * 
+ * 6. TAMAÑO DEL MUNDO:
+ *    - WORLD_BOUND (-Decosistema.worldBound, por defecto 320) limita X y Z de los animales
+ *      y el área donde aparece la vegetación; el Terreno se extiende hasta cubrirlo
+ *    - getGroundHeight(x,z) es la superficie del terreno donde se apoyan las plantas
+ * 
+ * 7. DETERMINISMO:
  *    - environmentSeed: Seed para generación reproducible de vegetación
  *    - environmentCreatedAt: Timestamp para calcular edad de plantas
  *    - Permite guardar/cargar mundos idénticos
  * 
+ * 8. ANIMALES EN ARREGLOS (opcional, enableAnimalStore o -Decosistema.animalStore=true):
+ *    - Los BaseAnimal que se agregan quedan ligados a una fila de AnimalStore; movimiento,
+ *      fases y cooldowns se simulan en arreglos primitivos y el objeto es solo la vista
+ *    - Al quitarlos (o en clearWorld) se libera la fila
+ * 
+ * 9. GEOMETRÍA ESTÁTICA HORNEADA (-Decosistema.staticBake=false la desactiva):
+ *    - Piedras, arbustos y árboles/flores ya crecidos (entities.StaticVoxels) se hornean en
+ *      una sola render.StaticMesh: sin caras ocultas entre voxels y con greedy meshing
+ *    - getStaticBake() la rehace solo si se agregó/quitó una entidad estática o si una planta
+ *      que crecía terminó de crecer; si no, es una lectura volatile
+ *    - Cada entidad se hornea una vez y su malla se guarda: rehacer solo mallea las nuevas y
+ *      une las piezas (StaticMesh.merge), así una carga por lotes no hornea todo cada vez
+ *    - -Decosistema.debugStaticBake=true imprime caras y chunks de cada horneado
+ *    - El render dibuja la malla y se salta las entidades horneadas (StaticBake.contains)
+ * 
  * ============================================================================================
  */
 public class Mundo {
+    /** Media-extensión en X y Z del área habitable (animales y vegetación). */
+    public static final double WORLD_BOUND = Double.parseDouble(System.getProperty("ecosistema.worldBound", "320"));
+
+    /** Seed del terreno: fija, no depende de la seed del entorno (todas las sesiones comparten relieve). */
+    public static final long TERRAIN_SEED = 12345L;
+    
     // LISTA PRINCIPAL DE ENTIDADES (todo lo que se renderiza)
     private final List<Renderable> entidades = new ArrayList<>();
     
     // LISTA ESPECÍFICA DE ANIMALES (para lógica de simulación)
     private final List<BaseAnimal> animales = new ArrayList<>();
     
+    // SNAPSHOT PUBLICADO (copy-on-write): lo que ven los lectores sin tomar el lock
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private int publishDeferred = 0;      // >0 mientras una operación en lote agrega/quita
+    private boolean snapshotDirty = false; // hubo cambios durante el lote
+    
     // ANIMAL SELECCIONADO (para mostrar panel de info)
     private BaseAnimal selectedAnimal = null;
     
@@ -68,47 +120,650 @@ public class Mundo {
     
     // TIMESTAMP DE CREACIÓN (para calcular edad de plantas)
     private long environmentCreatedAt = 0L;
+    
+    // SPATIAL HASH: celda (x,z) → entradas cuyo centro cae en ella
+    private static final double SPATIAL_CELL_SIZE = 64.0;
+    // Lectura compartida: los hilos del update paralelo consultan a la vez
+    private final java.util.concurrent.locks.ReentrantReadWriteLock spatialLock = new java.util.concurrent.locks.ReentrantReadWriteLock();
+    private final java.util.HashMap<Long, List<SpatialEntry>> spatialCells = new java.util.HashMap<>();
+    private final java.util.IdentityHashMap<entities.Collidable, SpatialEntry> spatialEntries = new java.util.IdentityHashMap<>();
+    private double spatialMaxHalfExtent = 0.0; // mayor media-extensión XZ registrada
+    
+    // Backend struct-of-arrays de los animales (null = cada animal se simula solo)
+    private volatile AnimalStore animalStore = null;
+    
+    // GEOMETRÍA ESTÁTICA: versión de las entidades StaticVoxels y último horneado
+    private static final boolean STATIC_BAKE = !"false".equalsIgnoreCase(System.getProperty("ecosistema.staticBake"));
+    private volatile int staticVersion = 0;
+    private volatile StaticBake staticBake = null;
+    private static final boolean DEBUG_STATIC_BAKE = Boolean.getBoolean("ecosistema.debugStaticBake");
+    // Malla horneada de cada entidad estática del último horneado (con el lock del mundo)
+    private java.util.Map<Renderable, render.StaticMesh> bakedPieces = new java.util.IdentityHashMap<>();
+    
+    // Buffer de efectos diferidos del bloque que actualiza el hilo actual (null fuera de un tick)
+    private static final ThreadLocal<CommandBuffer> TICK_BUFFER = new ThreadLocal<>();
+    
+    // REGISTRO DE ALTURAS: copy-on-write, se reemplaza entero al agregar/quitar providers
+    private volatile entities.HeightProvider[] heightProviders = new entities.HeightProvider[0];
+    private volatile entities.Terreno singleTerreno = null;   // fast path: único provider
+    private volatile HeightGrid heightGrid = null;             // grilla horneada (opcional)
+    // Tamaño de celda para hornear automáticamente con varios providers (0 = desactivado)
+    private static final double HEIGHT_BAKE_CELL = Double.parseDouble(System.getProperty("ecosistema.heightBakeCell", "0"));
+    // Media-extensión horneada: el doble del área habitable (con WORLD_BOUND = 320 cubre el
+    // Terreno por defecto, 160 × 8 / 2 = 640) y sigue a ecosistema.worldBound
+    private static final double HEIGHT_BAKE_EXTENT = 2 * WORLD_BOUND;
+    
+    // AABB y posición cacheados de un Collidable y la celda donde está registrado
+    private static final class SpatialEntry {
+        final entities.Collidable c;
+        double minX, minY, minZ, maxX, maxY, maxZ;
+        double ax, ay, az; // posición (animales) o centro del AABB
+        long cell = Long.MIN_VALUE; // MIN_VALUE = aún sin celda
+        
+        SpatialEntry(entities.Collidable c) { this.c = c; }
+    }
+
+    /**
+     * Vista inmutable de las entidades del mundo en un momento dado. Se crea solo cuando
+     * algo cambia; los lectores la comparten y pueden iterarla desde cualquier hilo.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0L, new Renderable[0], new BaseAnimal[0]);
+        
+        public final long epoch;
+        private final Renderable[] entities;
+        private final BaseAnimal[] animals;
+        private final entities.Collidable[] collidables;
+        final List<Renderable> entityList;
+        final List<BaseAnimal> animalList;
+        final List<entities.Collidable> collidableList;
+        
+        Snapshot(long epoch, Renderable[] entities, BaseAnimal[] animals){
+            this.epoch = epoch;
+            this.entities = entities;
+            this.animals = animals;
+            int n = 0;
+            for(Renderable r : entities) if(r instanceof entities.Collidable) n++;
+            this.collidables = new entities.Collidable[n];
+            n = 0;
+            for(Renderable r : entities) if(r instanceof entities.Collidable) collidables[n++] = (entities.Collidable) r;
+            this.entityList = java.util.Collections.unmodifiableList(java.util.Arrays.asList(entities));
+            this.animalList = java.util.Collections.unmodifiableList(java.util.Arrays.asList(animals));
+            this.collidableList = java.util.Collections.unmodifiableList(java.util.Arrays.asList(collidables));
+        }
+        
+        public int size(){ return entities.length; }
+        public Renderable get(int i){ return entities[i]; }
+    }
 
-    public Mundo(){ }
+    /**
+     * Horneado de la geometría estática: la malla, qué entidades contiene y cuáles todavía
+     * crecen (se vuelve a hornear cuando alguna termina). Inmutable.
+     */
+    public static final class StaticBake {
+        public final render.StaticMesh mesh;
+        final int version;
+        private final java.util.Set<Renderable> baked;
+        private final entities.StaticVoxels[] growing;
+        
+        StaticBake(render.StaticMesh mesh, int version, java.util.Set<Renderable> baked, entities.StaticVoxels[] growing){
+            this.mesh = mesh;
+            this.version = version;
+            this.baked = baked;
+            this.growing = growing;
+        }
+        
+        /** true si r ya se dibuja dentro de la malla (el render debe saltarlo). */
+        public boolean contains(Renderable r){ return baked.contains(r); }
+        
+        public int getEntityCount(){ return baked.size(); }
+        
+        boolean isCurrent(int currentVersion){
+            if (version != currentVersion) return false;
+            for (entities.StaticVoxels g : growing) if (g.isStaticGeometry()) return false;
+            return true;
+        }
+    }
+
+    public Mundo(){
+        if (Boolean.getBoolean("ecosistema.animalStore")) enableAnimalStore();
+    }
     
     public long getEnvironmentSeed() { return environmentSeed; }
+    
+    /**
+     * Stream aleatorio de una entidad: EntityRandom sembrado con la seed del mundo y la
+     * de la entidad, mezcladas (SplitMix64). Misma seed de mundo + misma entidad = misma
+     * secuencia, sin importar el reloj ni el hilo. Sin mundo usa solo la de la entidad.
+     */
+    public static EntityRandom entityRandom(Mundo world, long entitySeed){
+        long worldSeed = world != null ? world.environmentSeed : 0L;
+        return new EntityRandom(EntityRandom.mix64(worldSeed * EntityRandom.GOLDEN_GAMMA + entitySeed));
+    }
     public void setEnvironmentSeed(long seed) { this.environmentSeed = seed; }
     public long getEnvironmentCreatedAt() { return environmentCreatedAt; }
     public void setEnvironmentCreatedAt(long createdAt) { this.environmentCreatedAt = createdAt; }
 
-    public synchronized void addEntity(Renderable e){ entidades.add(e); }
-    public synchronized void removeEntity(Renderable e){ entidades.remove(e); }
-    // Return a defensive copy to avoid concurrent modification during iteration
-    public synchronized List<Renderable> getEntities(){ return new ArrayList<>(entidades); }
+    public synchronized void addEntity(Renderable e){ entidades.add(e); addSpatial(e); addHeightProvider(e); storeBind(e); staticChanged(e); entitiesChanged(); }
+    public synchronized void removeEntity(Renderable e){ entidades.remove(e); removeSpatial(e); removeHeightProvider(e); storeUnbind(e); staticChanged(e); entitiesChanged(); }
+    // Snapshot inmutable actual (lectura volatile, sin lock ni copia)
+    public List<Renderable> getEntities(){ return snapshot.entityList; }
     // Explicit snapshot helper used by the renderer to iterate safely across threads
-    public synchronized List<Renderable> snapshotEntities(){ return new ArrayList<>(entidades); }
+    public List<Renderable> snapshotEntities(){ return snapshot.entityList; }
+    // Snapshot completo (epoch + entidades); el epoch solo cambia cuando cambia el contenido
+    public Snapshot getSnapshot(){ return snapshot; }
+
+    /**
+     * Hash del estado simulado, en orden del snapshot: posiciones, especie y estado de
+     * animales y depredadores. Lo graban y comparan las repeticiones, los checks de
+     * determinismo y los de guardado. Los ids absolutos no entran: el contador es estático
+     * y sigue corriendo entre mundos.
+     */
+    public long stateHash(){
+        long h = 1125899906842597L;
+        Snapshot snap = snapshot;
+        h = mixHash(h, snap.size());
+        for(int i = 0; i < snap.size(); i++){
+            Renderable e = snap.get(i);
+            if(e instanceof BaseAnimal){
+                BaseAnimal a = (BaseAnimal) e;
+                math.Vector3 p = a.getPosicion();
+                h = mixHash(h, Double.doubleToLongBits(p.x));
+                h = mixHash(h, Double.doubleToLongBits(p.y));
+                h = mixHash(h, Double.doubleToLongBits(p.z));
+                h = mixHash(h, a.getSpeciesType());
+                h = mixHash(h, (a.isMating() ? 1 : 0) | (a.isDying() ? 2 : 0) | (a.isMarkedForDeath() ? 4 : 0));
+            } else if(e instanceof entities.Depredador){
+                math.Vector3 p = ((entities.Depredador) e).getPosition();
+                h = mixHash(h, Double.doubleToLongBits(p.x));
+                h = mixHash(h, Double.doubleToLongBits(p.y));
+                h = mixHash(h, Double.doubleToLongBits(p.z));
+            }
+        }
+        return h;
+    }
+
+    private static long mixHash(long h, long v){
+        h ^= v;
+        h *= 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
+    }
+
+    public synchronized void addAnimal(BaseAnimal a){ animales.add(a); entidades.add(a); addSpatial(a); storeBind(a); entitiesChanged(); }
+    public synchronized void removeAnimal(BaseAnimal a){ animales.remove(a); entidades.remove(a); removeSpatial(a); storeUnbind(a); entitiesChanged(); }
+    public List<BaseAnimal> getAnimals(){ return snapshot.animalList; }
+
+    /**
+     * Activa el backend struct-of-arrays: los animales presentes y los que se agreguen
+     * después se simulan en AnimalStore a partir del próximo tick. Idempotente.
+     */
+    public synchronized AnimalStore enableAnimalStore(){
+        if (animalStore == null) {
+            animalStore = new AnimalStore(this);
+            for (Renderable e : entidades) storeBind(e);
+        }
+        return animalStore;
+    }
+
+    /** El backend activo o null (FixedStepScheduler le delega el movimiento en cada tick). */
+    public AnimalStore getAnimalStore(){ return animalStore; }
+
+    private void storeBind(Renderable e){
+        AnimalStore store = animalStore;
+        if (store != null && e instanceof BaseAnimal) store.bind((BaseAnimal) e);
+    }
+
+    private void storeUnbind(Renderable e){
+        AnimalStore store = animalStore;
+        if (store != null && e instanceof BaseAnimal) store.unbind((BaseAnimal) e);
+    }
+
+    private void staticChanged(Renderable e){
+        if (e instanceof entities.StaticVoxels) staticVersion++;
+    }
+
+    /**
+     * Geometría estática horneada vigente (null si está desactivada). La consulta el render
+     * en cada frame: solo hornea de nuevo si cambió el conjunto de entidades estáticas.
+     */
+    public StaticBake getStaticBake(){
+        if (!STATIC_BAKE) return null;
+        StaticBake bake = staticBake;
+        if (bake != null && bake.isCurrent(staticVersion)) return bake;
+        return rebakeStaticGeometry();
+    }
+
+    private synchronized StaticBake rebakeStaticGeometry(){
+        StaticBake bake = staticBake;
+        if (bake != null && bake.isCurrent(staticVersion)) return bake; // otro hilo ya horneó
+        
+        // Solo se mallean las entidades sin pieza; las quitadas quedan fuera del mapa nuevo
+        java.util.Map<Renderable, render.StaticMesh> pieces = new java.util.IdentityHashMap<>();
+        List<render.StaticMesh> parts = new ArrayList<>();
+        List<entities.StaticVoxels> growing = new ArrayList<>();
+        int rebaked = 0;
+        for (Renderable r : entidades) {
+            if (!(r instanceof entities.StaticVoxels)) continue;
+            entities.StaticVoxels sv = (entities.StaticVoxels) r;
+            if (sv.isStaticGeometry()) {
+                render.StaticMesh piece = bakedPieces.get(r);
+                if (piece == null) {
+                    render.StaticMesh.Builder builder = new render.StaticMesh.Builder();
+                    sv.bakeVoxels(builder);
+                    piece = builder.build();
+                    rebaked++;
+                }
+                pieces.put(r, piece);
+                parts.add(piece);
+            } else {
+                growing.add(sv);
+            }
+        }
+        bakedPieces = pieces;
+        render.StaticMesh mesh = render.StaticMesh.merge(parts);
+        bake = new StaticBake(mesh, staticVersion, pieces.keySet(), growing.toArray(new entities.StaticVoxels[0]));
+        staticBake = bake;
+        if (DEBUG_STATIC_BAKE && !pieces.isEmpty()) {
+            System.out.println("[Mundo] Geometría estática: " + pieces.size() + " entidades (" + rebaked + " horneadas), "
+                + mesh.getCubeCount() + " voxels, triángulos "
+                + mesh.getNaiveTriangleCount() + " (cubos) -> " + mesh.getVisibleFaceTriangleCount() + " (sin caras ocultas) -> "
+                + mesh.getTriangleCount() + " (greedy), " + mesh.getChunkCount() + " chunks");
+        }
+        return bake;
+    }
+
+    // Publica un nuevo snapshot (o lo pospone hasta el fin del lote en curso)
+    private void entitiesChanged(){
+        if(publishDeferred > 0){
+            snapshotDirty = true;
+            return;
+        }
+        snapshot = new Snapshot(snapshot.epoch + 1,
+                                entidades.toArray(new Renderable[0]),
+                                animales.toArray(new BaseAnimal[0]));
+        snapshotDirty = false;
+    }
 
-    public synchronized void addAnimal(BaseAnimal a){ animales.add(a); entidades.add(a); }
-    public synchronized void removeAnimal(BaseAnimal a){ animales.remove(a); entidades.remove(a); }
-    public synchronized List<BaseAnimal> getAnimals(){ return new ArrayList<>(animales); }
+    // Agrupa varias mutaciones en una sola publicación (endBatch publica si hubo cambios)
+    private void beginBatch(){ publishDeferred++; }
+    private void endBatch(){
+        if(--publishDeferred == 0 && snapshotDirty) entitiesChanged();
+    }
+
+    /** Superficie del terreno en (x, z) sin el offset de colisión (0 si no hay Terreno único). */
+    public double getGroundHeight(double x, double z){
+        entities.Terreno terreno = singleTerreno;
+        return terreno != null ? terreno.getSurfaceHeight(x, z) : 0.0;
+    }
 
     // Query the terrain height at world coordinates. If multiple height-providers
     // exist, return the maximum height among them (so objects rest on top).
-    public synchronized double getHeightAt(double x, double z){
+    // Sin locks: lee el registro volatile de providers (ver addHeightProvider).
+    public double getHeightAt(double x, double z){
+        entities.Terreno terreno = singleTerreno;
+        if(terreno != null) return terreno.getHeightAt(x, z);
+
+        entities.HeightProvider[] providers = heightProviders;
+        if(providers.length == 0) return Double.NEGATIVE_INFINITY;
+        if(providers.length == 1) return providers[0].getHeightAt(x, z);
+
+        HeightGrid grid = heightGrid;
+        if(grid == null && HEIGHT_BAKE_CELL > 0){
+            grid = bakeHeightGrid(-HEIGHT_BAKE_EXTENT, -HEIGHT_BAKE_EXTENT, HEIGHT_BAKE_EXTENT, HEIGHT_BAKE_EXTENT, HEIGHT_BAKE_CELL);
+        }
+        if(grid != null && grid.providers == providers && grid.covers(x, z)) return grid.sample(x, z);
+        return maxHeightAt(providers, x, z);
+    }
+
+    private static double maxHeightAt(entities.HeightProvider[] providers, double x, double z){
         double maxH = Double.NEGATIVE_INFINITY;
-        for(Renderable r : entidades){
-            if(r instanceof entities.HeightProvider){
-                entities.HeightProvider s = (entities.HeightProvider)r;
-                double h = s.getHeightAt(x, z);
-                if(h > maxH) maxH = h;
-            }
+        for(entities.HeightProvider p : providers){
+            double h = p.getHeightAt(x, z);
+            if(h > maxH) maxH = h;
         }
-        if(maxH == Double.NEGATIVE_INFINITY) return Double.NEGATIVE_INFINITY;
         return maxH;
     }
 
-    // Return list of entities that expose AABB (Collidable)
-    public synchronized java.util.List<entities.Collidable> getCollidables(){
-        java.util.List<entities.Collidable> out = new java.util.ArrayList<>();
-        for(Renderable r : entidades){
-            if(r instanceof entities.Collidable) out.add((entities.Collidable)r);
+    // Registro copy-on-write de providers; se llama con el lock del mundo tomado
+    private void addHeightProvider(Renderable e){
+        if(!(e instanceof entities.HeightProvider)) return;
+        entities.HeightProvider[] old = heightProviders;
+        entities.HeightProvider[] next = java.util.Arrays.copyOf(old, old.length + 1);
+        next[old.length] = (entities.HeightProvider) e;
+        publishHeightProviders(next);
+    }
+
+    private void removeHeightProvider(Renderable e){
+        if(!(e instanceof entities.HeightProvider)) return;
+        entities.HeightProvider[] old = heightProviders;
+        for(int i = 0; i < old.length; i++){
+            if(old[i] == e){
+                entities.HeightProvider[] next = new entities.HeightProvider[old.length - 1];
+                System.arraycopy(old, 0, next, 0, i);
+                System.arraycopy(old, i + 1, next, i, old.length - i - 1);
+                publishHeightProviders(next);
+                return;
+            }
+        }
+    }
+
+    private void publishHeightProviders(entities.HeightProvider[] next){
+        heightGrid = null; // la grilla horneada ya no corresponde a este conjunto
+        heightProviders = next;
+        singleTerreno = next.length == 1 && next[0] instanceof entities.Terreno ? (entities.Terreno) next[0] : null;
+    }
+
+    /**
+     * Hornea la altura máxima de los providers actuales en una grilla regular que cubre
+     * [minX, maxX] × [minZ, maxZ] y la publica para getHeightAt. Entre nodos se interpola
+     * bilinealmente, así que es exacta para terrenos muestreados en la misma grilla y una
+     * aproximación para el resto. Se descarta sola cuando cambia el conjunto de providers.
+     */
+    public HeightGrid bakeHeightGrid(double minX, double minZ, double maxX, double maxZ, double cellSize){
+        entities.HeightProvider[] providers = heightProviders;
+        HeightGrid grid = new HeightGrid(providers, minX, minZ, maxX, maxZ, cellSize);
+        // Publicar solo si nadie cambió los providers mientras se horneaba
+        if(heightProviders == providers) heightGrid = grid;
+        return grid;
+    }
+
+    /** Grilla inmutable de alturas máximas horneada por bakeHeightGrid. */
+    public static final class HeightGrid {
+        final entities.HeightProvider[] providers;
+        private final double minX, minZ, cellSize;
+        private final int nx, nz;
+        private final double[] heights; // (nx + 1) × (nz + 1) nodos, fila por x
+
+        HeightGrid(entities.HeightProvider[] providers, double minX, double minZ, double maxX, double maxZ, double cellSize){
+            this.providers = providers;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.cellSize = cellSize;
+            this.nx = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+            this.nz = Math.max(1, (int) Math.ceil((maxZ - minZ) / cellSize));
+            this.heights = new double[(nx + 1) * (nz + 1)];
+            for(int ix = 0; ix <= nx; ix++){
+                for(int iz = 0; iz <= nz; iz++){
+                    heights[ix * (nz + 1) + iz] = maxHeightAt(providers, minX + ix * cellSize, minZ + iz * cellSize);
+                }
+            }
+        }
+
+        boolean covers(double x, double z){
+            return x >= minX && z >= minZ && x <= minX + nx * cellSize && z <= minZ + nz * cellSize;
+        }
+
+        double sample(double x, double z){
+            double fx = (x - minX) / cellSize, fz = (z - minZ) / cellSize;
+            int x0 = Math.min(nx - 1, (int) fx), z0 = Math.min(nz - 1, (int) fz);
+            double sx = fx - x0, sz = fz - z0;
+            int row = nz + 1;
+            double h00 = heights[x0 * row + z0], h10 = heights[(x0 + 1) * row + z0];
+            double h01 = heights[x0 * row + z0 + 1], h11 = heights[(x0 + 1) * row + z0 + 1];
+            double hx0 = h00 * (1 - sx) + h10 * sx;
+            double hx1 = h01 * (1 - sx) + h11 * sx;
+            return hx0 * (1 - sz) + hx1 * sz;
+        }
+    }
+
+    // Return list of entities that expose AABB (Collidable), precalculada en el snapshot
+    public java.util.List<entities.Collidable> getCollidables(){
+        return snapshot.collidableList;
+    }
+
+    // ========================================================================================
+    // SPATIAL HASH
+    // ========================================================================================
+    
+    private static long cellKey(int cx, int cz){
+        return ((long) cx << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+    
+    private static int cellCoord(double v){
+        return (int) Math.floor(v / SPATIAL_CELL_SIZE);
+    }
+    
+    // Punto de referencia de la entrada: la posición de los animales (lo que usan las
+    // distancias de caza/colisión), o el centro del AABB para el resto
+    private static void anchorOf(entities.Collidable c, math.Vector3 min, math.Vector3 max, double[] out){
+        math.Vector3 p = null;
+        if (c instanceof BaseAnimal) p = ((BaseAnimal) c).getPosicion();
+        else if (c instanceof entities.Depredador) p = ((entities.Depredador) c).getPosition();
+        if (p != null) {
+            out[0] = p.x; out[1] = p.y; out[2] = p.z;
+        } else {
+            out[0] = (min.x + max.x) * 0.5; out[1] = (min.y + max.y) * 0.5; out[2] = (min.z + max.z) * 0.5;
+        }
+    }
+    
+    private void addSpatial(Renderable e){
+        if (!(e instanceof entities.Collidable)) return;
+        entities.Collidable c = (entities.Collidable) e;
+        math.Vector3 min = c.getAABBMin();
+        math.Vector3 max = c.getAABBMax();
+        double[] anchor = new double[3];
+        anchorOf(c, min, max, anchor);
+        spatialLock.writeLock().lock();
+        try {
+            SpatialEntry entry = spatialEntries.get(c);
+            if (entry == null) {
+                entry = new SpatialEntry(c);
+                spatialEntries.put(c, entry);
+            }
+            storeBounds(entry, min, max, anchor);
+        } finally {
+            spatialLock.writeLock().unlock();
+        }
+    }
+    
+    private void removeSpatial(Renderable e){
+        if (!(e instanceof entities.Collidable)) return;
+        spatialLock.writeLock().lock();
+        try {
+            SpatialEntry entry = spatialEntries.remove(e);
+            if (entry != null) unlinkCell(entry);
+        } finally {
+            spatialLock.writeLock().unlock();
+        }
+    }
+    
+    private void unlinkCell(SpatialEntry entry){
+        List<SpatialEntry> bucket = spatialCells.get(entry.cell);
+        if (bucket == null) return;
+        bucket.remove(entry);
+        if (bucket.isEmpty()) spatialCells.remove(entry.cell);
+    }
+    
+    /**
+     * Recalcula el AABB cacheado de c y lo mueve de celda si su centro cambió de celda.
+     * Lo llaman las entidades móviles después de moverse; si c no está en el mundo
+     * (p.ej. ya fue removido) no hace nada.
+     *
+     * Dentro de un tick de FixedStepScheduler se difiere al final del tick: así todas las
+     * queries del tick ven las posiciones del inicio del tick, las haga el hilo que las haga.
+     */
+    public void updateSpatial(entities.Collidable c){
+        if (TICK_BUFFER.get() != null) {
+            defer(() -> updateSpatial(c));
+            return;
+        }
+        math.Vector3 min = c.getAABBMin();
+        math.Vector3 max = c.getAABBMax();
+        double[] anchor = new double[3];
+        anchorOf(c, min, max, anchor);
+        spatialLock.writeLock().lock();
+        try {
+            SpatialEntry entry = spatialEntries.get(c);
+            if (entry != null) storeBounds(entry, min, max, anchor);
+        } finally {
+            spatialLock.writeLock().unlock();
+        }
+    }
+    
+    private void storeBounds(SpatialEntry entry, math.Vector3 min, math.Vector3 max, double[] anchor){
+        entry.minX = min.x; entry.minY = min.y; entry.minZ = min.z;
+        entry.maxX = max.x; entry.maxY = max.y; entry.maxZ = max.z;
+        entry.ax = anchor[0]; entry.ay = anchor[1]; entry.az = anchor[2];
+        double half = Math.max(max.x - min.x, max.z - min.z) * 0.5;
+        if (half > spatialMaxHalfExtent) spatialMaxHalfExtent = half;
+        long key = cellKey(cellCoord((min.x + max.x) * 0.5), cellCoord((min.z + max.z) * 0.5));
+        if (key != entry.cell) {
+            if (entry.cell != Long.MIN_VALUE) unlinkCell(entry);
+            entry.cell = key;
+            spatialCells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+    }
+    
+    /**
+     * Recalcula el AABB de TODAS las entradas (plantas que crecen, posiciones cambiadas por
+     * carga de partida) y reajusta la media-extensión máxima. FixedStepScheduler lo invoca
+     * cada SPATIAL_REFRESH_TICKS ticks, entre ticks (nunca durante la fase paralela).
+     */
+    public void refreshSpatialIndex(){
+        java.util.List<entities.Collidable> all;
+        spatialLock.readLock().lock();
+        try {
+            all = new ArrayList<>(spatialEntries.keySet());
+        } finally {
+            spatialLock.readLock().unlock();
+        }
+        double[] bounds = new double[all.size() * 9];
+        double[] anchor = new double[3];
+        for (int i = 0; i < all.size(); i++) {
+            math.Vector3 min = all.get(i).getAABBMin();
+            math.Vector3 max = all.get(i).getAABBMax();
+            anchorOf(all.get(i), min, max, anchor);
+            int o = i * 9;
+            bounds[o] = min.x; bounds[o + 1] = min.y; bounds[o + 2] = min.z;
+            bounds[o + 3] = max.x; bounds[o + 4] = max.y; bounds[o + 5] = max.z;
+            bounds[o + 6] = anchor[0]; bounds[o + 7] = anchor[1]; bounds[o + 8] = anchor[2];
+        }
+        spatialLock.writeLock().lock();
+        try {
+            spatialMaxHalfExtent = 0.0;
+            for (int i = 0; i < all.size(); i++) {
+                SpatialEntry entry = spatialEntries.get(all.get(i));
+                if (entry == null) continue; // removido mientras se calculaban los AABB
+                int o = i * 9;
+                anchor[0] = bounds[o + 6]; anchor[1] = bounds[o + 7]; anchor[2] = bounds[o + 8];
+                storeBounds(entry, new math.Vector3(bounds[o], bounds[o + 1], bounds[o + 2]),
+                                   new math.Vector3(bounds[o + 3], bounds[o + 4], bounds[o + 5]), anchor);
+            }
+            // Las entradas actualizadas durante el cálculo también cuentan para la extensión
+            for (SpatialEntry entry : spatialEntries.values()) {
+                double half = Math.max(entry.maxX - entry.minX, entry.maxZ - entry.minZ) * 0.5;
+                if (half > spatialMaxHalfExtent) spatialMaxHalfExtent = half;
+            }
+        } finally {
+            spatialLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Agrega a out los Collidables cuyo AABB (cacheado) se solapa con el AABB dado.
+     * No limpia out ni copia el mundo: recorre solo las celdas vecinas.
+     */
+    public void queryAABB(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                          java.util.List<entities.Collidable> out){
+        spatialLock.readLock().lock();
+        try {
+            double pad = spatialMaxHalfExtent;
+            int cx0 = cellCoord(minX - pad), cx1 = cellCoord(maxX + pad);
+            int cz0 = cellCoord(minZ - pad), cz1 = cellCoord(maxZ + pad);
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int cz = cz0; cz <= cz1; cz++) {
+                    List<SpatialEntry> bucket = spatialCells.get(cellKey(cx, cz));
+                    if (bucket == null) continue;
+                    for (SpatialEntry e : bucket) {
+                        if (e.minX <= maxX && e.maxX >= minX &&
+                            e.minY <= maxY && e.maxY >= minY &&
+                            e.minZ <= maxZ && e.maxZ >= minZ) {
+                            out.add(e.c);
+                        }
+                    }
+                }
+            }
+        } finally {
+            spatialLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Agrega a out los Collidables cuyo AABB (cacheado) queda a distancia <= radius del
+     * punto (x, z) en el plano XZ (la altura no se considera).
+     */
+    public void queryRadius(double x, double z, double radius, java.util.List<entities.Collidable> out){
+        double r2 = radius * radius;
+        spatialLock.readLock().lock();
+        try {
+            double pad = spatialMaxHalfExtent;
+            int cx0 = cellCoord(x - radius - pad), cx1 = cellCoord(x + radius + pad);
+            int cz0 = cellCoord(z - radius - pad), cz1 = cellCoord(z + radius + pad);
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int cz = cz0; cz <= cz1; cz++) {
+                    List<SpatialEntry> bucket = spatialCells.get(cellKey(cx, cz));
+                    if (bucket == null) continue;
+                    for (SpatialEntry e : bucket) {
+                        double dx = x < e.minX ? e.minX - x : (x > e.maxX ? x - e.maxX : 0.0);
+                        double dz = z < e.minZ ? e.minZ - z : (z > e.maxZ ? z - e.maxZ : 0.0);
+                        if (dx * dx + dz * dz <= r2) out.add(e.c);
+                    }
+                }
+            }
+        } finally {
+            spatialLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Copia en out el estado cacheado de c: {minX, minY, minZ, maxX, maxY, maxZ, x, y, z}
+     * donde (x, y, z) es su posición (o el centro del AABB si no es un animal). Devuelve
+     * false si c no está registrado. Es lo que deben leer las entidades sobre OTRAS
+     * entidades durante un tick: no cambia hasta que el tick termina.
+     */
+    public boolean getSpatialState(entities.Collidable c, double[] out){
+        spatialLock.readLock().lock();
+        try {
+            SpatialEntry e = spatialEntries.get(c);
+            if (e == null) return false;
+            out[0] = e.minX; out[1] = e.minY; out[2] = e.minZ;
+            out[3] = e.maxX; out[4] = e.maxY; out[5] = e.maxZ;
+            out[6] = e.ax;   out[7] = e.ay;   out[8] = e.az;
+            return true;
+        } finally {
+            spatialLock.readLock().unlock();
+        }
+    }
+    
+    // ========================================================================================
+    // EFECTOS DIFERIDOS (ver CommandBuffer)
+    // ========================================================================================
+    
+    /**
+     * Ejecuta un efecto sobre otra entidad o sobre el mundo. Dentro de un tick de
+     * FixedStepScheduler se encola y se aplica en serie (en orden del snapshot) al final
+     * del tick; fuera de un tick (UI, carga, benchmarks) se ejecuta en el momento.
+     */
+    public void defer(Runnable command){
+        CommandBuffer buffer = TICK_BUFFER.get();
+        if (buffer != null) buffer.add(command);
+        else command.run();
+    }
+    
+    // El scheduler asocia el buffer del bloque que está actualizando el hilo actual
+    static void bindCommandBuffer(CommandBuffer buffer){
+        if (buffer != null) TICK_BUFFER.set(buffer);
+        else TICK_BUFFER.remove();
+    }
+    
+    /** Aplica los buffers del tick en orden, publicando un único snapshot con las altas/bajas. */
+    synchronized void applyCommandBuffers(CommandBuffer[] buffers, int count){
+        beginBatch();
+        try {
+            for (int i = 0; i < count; i++) buffers[i].applyAndClear();
+        } finally {
+            endBatch();
         }
-        return out;
     }
 
     // Animal selection
@@ -125,15 +780,14 @@ public class Mundo {
     // Update environmental entities (trees growing, new plants spawning)
     public synchronized void updateEnvironment() {
         long currentTime = System.currentTimeMillis();
+        List<Renderable> current = snapshot.entityList;
         
-        // Update all entities
-        for (Renderable r : entidades) {
-            r.update();
-        }
+        // Los update() de las entidades los ejecuta FixedStepScheduler (un tick fijo);
+        // aquí solo se hace el mantenimiento del mundo
         
         // Remove dead animals and depredadores
         List<Renderable> toRemove = new ArrayList<>();
-        for (Renderable r : entidades) {
+        for (Renderable r : current) {
             if (r instanceof entities.BaseAnimal) {
                 entities.BaseAnimal animal = (entities.BaseAnimal) r;
                 if (animal.isMarkedForDeath()) {
@@ -150,19 +804,38 @@ public class Mundo {
             }
         }
         
-        // Remove marked entities
-        for (Renderable r : toRemove) {
-            removeEntity(r);
-            if (r instanceof BaseAnimal) {
-                animales.remove(r);
+        // Remove marked entities (una sola publicación del snapshot para todo el lote)
+        beginBatch();
+        try {
+            for (Renderable r : toRemove) {
+                removeEntity(r);
+                if (r instanceof BaseAnimal) {
+                    animales.remove(r);
+                }
             }
+        } finally {
+            endBatch();
         }
+        
+        refreshSpatialIndex();
     }
     
     // Limpiar completamente el mundo (para cargar nueva partida)
     public synchronized void clearWorld() {
         entidades.clear();
         animales.clear();
+        if (animalStore != null) animalStore.clear();
+        staticVersion++;
+        entitiesChanged();
+        publishHeightProviders(new entities.HeightProvider[0]);
+        spatialLock.writeLock().lock();
+        try {
+            spatialCells.clear();
+            spatialEntries.clear();
+            spatialMaxHalfExtent = 0.0;
+        } finally {
+            spatialLock.writeLock().unlock();
+        }
         selectedAnimal = null;
         waitingForSpawnPosition = false;
         selectedAnimalType = -1;
@@ -171,12 +844,76 @@ public class Mundo {
     
     // Inicializar entorno con terreno y entidades ambientales usando la seed guardada
     public synchronized void initializeEnvironment() {
+        beginBatch();
+        try {
+            createEnvironment();
+        } finally {
+            endBatch();
+        }
+    }
+    
+    /**
+     * Como initializeEnvironment, pero con las plantas de una partida guardada en lugar de
+     * generarlas desde la seed (Persistencia: conservan posición, parámetros y edad).
+     */
+    public synchronized void restoreEnvironment(List<? extends Renderable> plants) {
+        beginBatch();
+        try {
+            createTerrain();
+            for (Renderable r : plants) addEntity(r);
+        } finally {
+            endBatch();
+        }
+    }
+
+    /** Agrega un lote (animales con addAnimal) publicando un único snapshot al final. */
+    public synchronized void addAll(List<? extends Renderable> batch) {
+        beginBatch();
+        try {
+            for (Renderable r : batch) {
+                if (r instanceof BaseAnimal) addAnimal((BaseAnimal) r);
+                else addEntity(r);
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Reordena las entidades: las de order quedan en ese orden, después de las que no están
+     * en la lista (que conservan el suyo). El orden del snapshot es el de update; lo usa
+     * StreamingLoader para volver al orden guardado tras agregar por cercanía a la cámara.
+     */
+    public synchronized void reorder(List<? extends Renderable> order) {
+        // Lineal (sin ordenar): sets de identidad de la lista, las entidades y los animales
+        java.util.Set<Renderable> listed = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>(order.size() * 2));
+        listed.addAll(order);
+        java.util.Set<Renderable> present = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>(entidades.size() * 2));
+        present.addAll(entidades);
+        java.util.Set<Renderable> animals = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>(animales.size() * 2));
+        animals.addAll(animales);
+
+        List<Renderable> next = new ArrayList<>(entidades.size());
+        for (Renderable e : entidades) if (!listed.contains(e)) next.add(e);
+        for (Renderable e : order) if (present.remove(e)) next.add(e); // remove: sin duplicados
+        entidades.clear();
+        entidades.addAll(next);
+        animales.clear();
+        for (Renderable e : next) if (animals.contains(e)) animales.add((BaseAnimal) e);
+        entitiesChanged();
+    }
+
+    private void createTerrain() {
         // Crear terreno con seed fija
-        entities.Terreno terreno = new entities.Terreno(160, 160, 8.0, 12345L, new java.awt.Color(60, 140, 60));
+        entities.Terreno terreno = new entities.Terreno(160, 160, 8.0, TERRAIN_SEED, new java.awt.Color(60, 140, 60));
         addEntity(terreno);
+    }
+
+    private void createEnvironment() {
+        createTerrain();
         
         if (environmentCreatedAt == 0L) {
-            environmentCreatedAt = System.currentTimeMillis();
+            environmentCreatedAt = SimClock.now();
         }
 
         // Recrear entidades ambientales usando la seed del mundo (determinista)
@@ -236,9 +973,9 @@ public class Mundo {
         };
         
         while (spawned < count && attempts < maxAttempts) {
-            double x = -320 + r.nextDouble() * 640;
-            double z = -320 + r.nextDouble() * 640;
-            math.Vector3 pos = new math.Vector3(x, 0, z);
+            double x = -WORLD_BOUND + r.nextDouble() * (2 * WORLD_BOUND);
+            double z = -WORLD_BOUND + r.nextDouble() * (2 * WORLD_BOUND);
+            math.Vector3 pos = new math.Vector3(x, getGroundHeight(x, z), z);
             
             boolean tooClose = false;
             for (math.Vector3 used : usedPositions) {
@@ -252,7 +989,7 @@ public class Mundo {
             
             if (!tooClose) {
                 usedPositions.add(pos);
-                long seed = System.currentTimeMillis() + spawned * 100 + r.nextLong();
+                long seed = spawned * 100 + r.nextLong();
                 
                 switch (type) {
                     case "tree":
@@ -1,27 +1,100 @@
 package simulation;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.ArrayList;
 import entities.BaseAnimal;
+import entities.Depredador;
+import main.Renderable;
 import math.Vector3;
 
 /**
- * Persistencia: guardado/recuperado en archivo de texto con estado completo
- * incluyendo animales, posición de cámara, orientación y seed del simulador.
+ * ============================================================================================
+ * Persistencia - Guardado y carga de partidas (formato binario versionado + texto legado)
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Guarda el estado completo de una partida: cámara, seeds, todos los animales, depredadores
+ * y plantas con su estado simulado (timers, cooldowns, rumbo, ids, stream aleatorio), para
+ * que al cargar la simulación continúe exactamente donde quedó.
+ *
+ * FORMATO BINARIO (versión 2, little-endian):
+ *   Cabecera (8 bytes): int MAGIC "ECOS", short versión, short cantidad de secciones
+ *   Tabla de secciones (20 bytes c/u): int tag, int bytes por registro, int registros,
+ *                                      long offset desde el inicio del archivo
+ *   Secciones: registros de ancho fijo, solo primitivos
+ *     META - cámara (x, y, z, yaw, pitch), seeds (simulador, entorno), edad del entorno
+ *            y los contadores de ids de animales y depredadores
+ *     ANIM - BaseAnimal.writeState (BaseAnimal.STATE_BYTES)
+ *     PRED - Depredador.writeState (Depredador.STATE_BYTES)
+ *     PLNT - plantas: tipo, seed, posición, parámetros y edad (PLANT_BYTES)
+ *   Las marcas de tiempo (también la creación del entorno) se guardan como edad relativa a
+ *   SimClock.now(), así el progreso se conserva aunque el reloj de la sesión que carga sea
+ *   otro. La versión 1 guardaba la creación del entorno como instante absoluto: se sigue
+ *   leyendo así. Cada registro de animal y
+ *   depredador lleva su orden en el mundo (slot): al cargar se respeta, porque el orden de
+ *   update decide, por ejemplo, quién gana un apareamiento.
+ *
+ * COMPATIBILIDAD:
+ * - Un lector ignora las secciones con tags que no conoce y los bytes finales de registros
+ *   más largos que los suyos: una versión futura puede agregar campos o secciones
+ * - Registros más cortos de lo esperado o una versión mayor no se cargan (null)
+ * - Los archivos sin MAGIC se leen con el formato de texto anterior (CAMERA:/ANIMALS_START,
+ *   BaseAnimal.serializeState) para migrar partidas viejas: ahí no hay plantas ni
+ *   depredadores y el entorno se regenera desde la seed
+ *
+ * I/O:
+ * encode() copia el estado de la partida a un buffer de heap del tamaño exacto del archivo
+ * (se llama entre ticks: es lo único que necesita la simulación quieta). writeSave() lo
+ * escribe con un FileChannel en bloques de BUFFER_BYTES a un archivo temporal, lo fuerza a
+ * disco y reemplaza al destino; saveAsync() hace eso en un hilo de fondo. La carga lee el
+ * archivo mapeado en memoria (map) y decodifica los registros con get* posicionales;
+ * StreamingLoader hace lo mismo registro a registro, agregando al Mundo por lotes.
+ *
+ * ============================================================================================
  */
 public class Persistencia {
-    
+
+    public static final int MAGIC = 0x534F4345; // "ECOS" en little-endian
+    public static final short VERSION = 2; // 2: META guarda la edad del entorno, no el instante
+
+    static final int TAG_META = 0x4154454D; // "META"
+    static final int TAG_ANIMALS = 0x4D494E41; // "ANIM"
+    static final int TAG_PREDATORS = 0x44455250; // "PRED"
+    static final int TAG_PLANTS = 0x544E4C50; // "PLNT"
+
+    static final int HEADER_BYTES = 8;
+    private static final int SECTION_ENTRY_BYTES = 20;
+    static final int META_BYTES = 72;
+    static final int PLANT_BYTES = 56;
+    static final int PLANT_POS_OFFSET = 16; // x, y, z (double) dentro del registro de planta
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    // Tipos del registro de planta
+    private static final int PLANT_TREE = 1, PLANT_FLOWER = 2, PLANT_GRASS = 3, PLANT_ROCK = 4, PLANT_BUSH = 5;
+
     // Estructura para guardar estado completo de una partida
     public static class GameState {
         public List<BaseAnimal> animals;
+        // Animales y depredadores en el orden del mundo (null: se usa animals)
+        public List<Renderable> creatures;
+        // Plantas guardadas; null en partidas de texto: el entorno se regenera desde la seed
+        public List<Renderable> plants;
         public Vector3 cameraPos;
         public double cameraYaw;
         public double cameraPitch;
         public long simulatorSeed;
         public long environmentSeed; // Seed para recrear entorno exacto
         public long environmentCreatedAt; // Momento en que se creó el entorno (para crecimiento)
-        
+        public boolean legacyFormat; // Cargado del formato de texto (posiciones sin estado)
+
         public GameState() {
             this.animals = new ArrayList<>();
             this.cameraPos = new Vector3(0, 80, -150);
@@ -29,13 +102,397 @@ public class Persistencia {
             this.cameraPitch = 0.0;
             this.simulatorSeed = 5555L;
             this.environmentSeed = 12345L;
-            this.environmentCreatedAt = System.currentTimeMillis();
+            this.environmentCreatedAt = SimClock.now();
         }
     }
-    
-    // Guardar estado completo de la partida
+
+    /**
+     * Estado del mundo listo para saveGameState: animales, depredadores y plantas en el
+     * orden del snapshot actual, y las seeds del entorno. La cámara la completa quien llama.
+     */
+    public static GameState captureWorld(Mundo mundo) {
+        GameState state = new GameState();
+        state.creatures = new ArrayList<>();
+        state.plants = new ArrayList<>();
+        for (Renderable r : mundo.snapshotEntities()) {
+            if (r instanceof BaseAnimal) {
+                state.animals.add((BaseAnimal) r);
+                state.creatures.add(r);
+            } else if (r instanceof Depredador) {
+                state.creatures.add(r);
+            } else if (plantKind(r) != 0) {
+                state.plants.add(r);
+            }
+        }
+        state.environmentSeed = mundo.getEnvironmentSeed();
+        state.environmentCreatedAt = mundo.getEnvironmentCreatedAt();
+        return state;
+    }
+
+    // Guardar estado completo de la partida (formato binario), en el hilo que llama
     public static boolean saveGameState(File file, GameState state) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
+        return writeSave(file, encode(state));
+    }
+
+    /**
+     * Guardado en segundo plano: la partida ya codificada con encode() se escribe, fuerza
+     * a disco y mueve a su lugar en el hilo "save-writer". Las escrituras se hacen de a una
+     * y en el orden pedido. El future completa con el resultado de writeSave.
+     */
+    public static java.util.concurrent.CompletableFuture<Boolean> saveAsync(File file, ByteBuffer encoded) {
+        return java.util.concurrent.CompletableFuture.supplyAsync(() -> writeSave(file, encoded), Writer.POOL);
+    }
+
+    // Hilo de escritura compartido (se crea con el primer guardado en segundo plano)
+    private static final class Writer {
+        static final java.util.concurrent.ExecutorService POOL =
+            java.util.concurrent.Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "save-writer");
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    /**
+     * Codifica la partida completa (el archivo entero) en un buffer de heap de solo lectura.
+     * Es la copia del estado: debe llamarse con la simulación quieta (entre ticks); después
+     * el buffer no depende de las entidades y se puede escribir desde cualquier hilo.
+     */
+    public static ByteBuffer encode(GameState state) {
+        List<? extends Renderable> creatures = state.creatures != null ? state.creatures : state.animals;
+        List<Renderable> plants = state.plants != null ? state.plants : new ArrayList<>();
+        int animalCount = 0, predatorCount = 0, plantCount = 0;
+        for (Renderable r : creatures) {
+            if (r instanceof BaseAnimal) animalCount++;
+            else if (r instanceof Depredador) predatorCount++;
+        }
+        for (Renderable r : plants) {
+            if (plantKind(r) != 0) plantCount++;
+        }
+
+        int[] tags = { TAG_META, TAG_ANIMALS, TAG_PREDATORS, TAG_PLANTS };
+        int[] sizes = { META_BYTES, BaseAnimal.STATE_BYTES, Depredador.STATE_BYTES, PLANT_BYTES };
+        int[] counts = { 1, animalCount, predatorCount, plantCount };
+        long now = SimClock.now();
+
+        long total = HEADER_BYTES + (long) SECTION_ENTRY_BYTES * tags.length;
+        for (int s = 0; s < tags.length; s++) total += (long) sizes[s] * counts[s];
+        if (total > Integer.MAX_VALUE) throw new IllegalStateException("Partida demasiado grande: " + total + " bytes");
+        ByteBuffer buf = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+
+        buf.putInt(MAGIC);
+        buf.putShort(VERSION);
+        buf.putShort((short) tags.length);
+        long offset = HEADER_BYTES + (long) SECTION_ENTRY_BYTES * tags.length;
+        for (int s = 0; s < tags.length; s++) {
+            buf.putInt(tags[s]).putInt(sizes[s]).putInt(counts[s]).putLong(offset);
+            offset += (long) sizes[s] * counts[s];
+        }
+
+        buf.putDouble(state.cameraPos.x).putDouble(state.cameraPos.y).putDouble(state.cameraPos.z);
+        buf.putDouble(state.cameraYaw).putDouble(state.cameraPitch);
+        buf.putLong(state.simulatorSeed).putLong(state.environmentSeed).putLong(now - state.environmentCreatedAt);
+        buf.putInt(BaseAnimal.getNextAnimalId()).putInt(Depredador.getNextDepredadorId());
+
+        // El slot es el índice en creatures: intercala animales y depredadores al cargar
+        for (int i = 0; i < creatures.size(); i++) {
+            Renderable r = creatures.get(i);
+            if (r instanceof BaseAnimal) ((BaseAnimal) r).writeState(buf, i, now);
+        }
+        for (int i = 0; i < creatures.size(); i++) {
+            Renderable r = creatures.get(i);
+            if (r instanceof Depredador) ((Depredador) r).writeState(buf, i, now);
+        }
+        for (Renderable r : plants) {
+            if (plantKind(r) != 0) writePlant(buf, r, now);
+        }
+        buf.flip();
+        return buf.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Escribe una partida codificada a un archivo temporal, lo fuerza a disco y lo mueve
+     * sobre el destino (un fallo a mitad no pisa la partida anterior). No modifica la
+     * posición de encoded: el mismo buffer puede escribirse más de una vez.
+     */
+    public static boolean writeSave(File file, ByteBuffer encoded) {
+        Path target = file.toPath();
+        Path tmp = target.resolveSibling(file.getName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            // De a BUFFER_BYTES: un buffer de heap grande haría que el canal copie todo a
+            // un buffer directo temporal del mismo tamaño
+            ByteBuffer src = encoded.duplicate();
+            while (src.hasRemaining()) {
+                ByteBuffer slice = src.slice();
+                slice.limit(Math.min(slice.remaining(), BUFFER_BYTES));
+                while (slice.hasRemaining()) ch.write(slice);
+                src.position(src.position() + slice.limit());
+            }
+            ch.force(false);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return false;
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException atomicUnsupported) {
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cargar estado completo de la partida. Detecta el formato: binario (MAGIC) o el texto
+     * anterior. Sin archivo devuelve un estado por defecto; si el archivo binario está
+     * truncado o es de una versión más nueva, null.
+     */
+    public static GameState loadGameState(File file) {
+        return loadGameState(file, SimClock.now());
+    }
+
+    // now: instante al que se refieren las edades guardadas (Autosave lo corre para sumar
+    // el tiempo que pasó entre el checkpoint y el último registro del journal)
+    static GameState loadGameState(File file, long now) {
+        if (!file.exists()) return new GameState();
+
+        ByteBuffer buf;
+        try {
+            buf = map(file);
+            if (buf == null) return loadLegacyText(file);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+        try {
+            return decode(buf, now);
+        } catch (RuntimeException ex) {
+            // BufferUnderflow / IndexOutOfBounds: archivo truncado o tabla inconsistente
+            System.err.println("[Persistencia] Partida dañada: " + file.getName() + " (" + ex + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Mapea el archivo en memoria (solo lectura, little-endian): el contenido no se copia al
+     * heap, el sistema operativo lo pagina a medida que se lee. null si es demasiado chico
+     * para una cabecera o no empieza con MAGIC (formato de texto), o si supera 2 GB.
+     */
+    static ByteBuffer map(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) return null;
+            // El mapeo sigue válido después de cerrar el canal
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            return buf.getInt(0) == MAGIC ? buf : null;
+        }
+    }
+
+    private static GameState decode(ByteBuffer buf, long now) {
+        long[][] table = sectionTable(buf);
+        if (table == null) return null;
+        GameState state = new GameState();
+        state.plants = new ArrayList<>();
+        // Animales y depredadores con su slot, para reconstruir el orden del mundo
+        List<long[]> order = new ArrayList<>();
+        List<Renderable> loaded = new ArrayList<>();
+        java.util.Map<Integer, BaseAnimal> byId = new java.util.HashMap<>();
+        int[] nextIds = { -1, -1 };
+
+        for (long[] section : table) {
+            int tag = (int) section[0];
+            int recordBytes = (int) section[1];
+            int count = (int) section[2];
+            for (int i = 0; i < count; i++) {
+                int at = (int) (section[3] + (long) i * recordBytes);
+                buf.position(at);
+                if (tag == TAG_META) {
+                    nextIds = readMeta(buf, state, now);
+                } else if (tag == TAG_ANIMALS) {
+                    int slot = buf.getInt(at);
+                    BaseAnimal a = BaseAnimal.readState(buf, now, byId);
+                    if (a != null) {
+                        order.add(new long[]{ slot, loaded.size() });
+                        loaded.add(a);
+                        state.animals.add(a);
+                    }
+                } else if (tag == TAG_PREDATORS) {
+                    int slot = buf.getInt(at);
+                    order.add(new long[]{ slot, loaded.size() });
+                    loaded.add(Depredador.readState(buf, now));
+                } else {
+                    Renderable p = readPlant(buf, now);
+                    if (p != null) state.plants.add(p);
+                }
+            }
+        }
+        restoreIdCounters(nextIds);
+        order.sort((x, y) -> Long.compare(x[0], y[0]));
+        state.creatures = new ArrayList<>(loaded.size());
+        for (long[] o : order) state.creatures.add(loaded.get((int) o[1]));
+        return state;
+    }
+
+    /**
+     * Tabla de secciones conocidas, validada contra el tamaño del buffer: por sección
+     * { tag, bytes por registro, registros, offset }. null si la versión es más nueva que
+     * VERSION; IllegalStateException si una sección no entra o sus registros son cortos.
+     */
+    static long[][] sectionTable(ByteBuffer buf) {
+        int version = buf.getShort(4);
+        int sections = buf.getShort(6) & 0xFFFF;
+        if (version > VERSION) {
+            System.err.println("[Persistencia] Versión de partida " + version + " no soportada (máx " + VERSION + ")");
+            return null;
+        }
+        List<long[]> table = new ArrayList<>();
+        for (int s = 0; s < sections; s++) {
+            int entry = HEADER_BYTES + s * SECTION_ENTRY_BYTES;
+            int tag = buf.getInt(entry);
+            int recordBytes = buf.getInt(entry + 4);
+            int count = buf.getInt(entry + 8);
+            long offset = buf.getLong(entry + 12);
+            int expected = recordBytesFor(tag);
+            if (expected == 0) continue; // sección desconocida (versión futura)
+            if (recordBytes < expected || count < 0 || offset < 0 || offset + (long) recordBytes * count > buf.limit()) {
+                throw new IllegalStateException("sección " + Integer.toHexString(tag) + " inválida");
+            }
+            table.add(new long[]{ tag, recordBytes, count, offset });
+        }
+        return table.toArray(new long[0][]);
+    }
+
+    // Registro META en la posición actual: cámara y seeds en state (la creación del entorno
+    // referida a now); devuelve los próximos ids
+    static int[] readMeta(ByteBuffer buf, GameState state, long now) {
+        state.cameraPos = new Vector3(buf.getDouble(), buf.getDouble(), buf.getDouble());
+        state.cameraYaw = buf.getDouble();
+        state.cameraPitch = buf.getDouble();
+        state.simulatorSeed = buf.getLong();
+        state.environmentSeed = buf.getLong();
+        long environmentAge = buf.getLong();
+        state.environmentCreatedAt = buf.getShort(4) >= 2 ? now - environmentAge : environmentAge;
+        return new int[]{ buf.getInt(), buf.getInt() };
+    }
+
+    // Los próximos ids siguen la numeración de la partida (la carga reemplaza al mundo)
+    static void restoreIdCounters(int[] nextIds) {
+        if (nextIds[0] > 0) BaseAnimal.setNextAnimalId(nextIds[0]);
+        if (nextIds[1] > 0) Depredador.setNextDepredadorId(nextIds[1]);
+    }
+
+    private static int recordBytesFor(int tag) {
+        switch (tag) {
+            case TAG_META: return META_BYTES;
+            case TAG_ANIMALS: return BaseAnimal.STATE_BYTES;
+            case TAG_PREDATORS: return Depredador.STATE_BYTES;
+            case TAG_PLANTS: return PLANT_BYTES;
+            default: return 0;
+        }
+    }
+
+    // --- Plantas: int tipo, int a, long seed, double x/y/z, long edad (ms), int b, int c ---
+
+    static int plantKind(Renderable r) {
+        if (r instanceof entities.Arbol) return PLANT_TREE;
+        if (r instanceof entities.Flor) return PLANT_FLOWER;
+        if (r instanceof entities.Pasto) return PLANT_GRASS;
+        if (r instanceof entities.Piedra) return PLANT_ROCK;
+        if (r instanceof entities.Arbusto) return PLANT_BUSH;
+        return 0;
+    }
+
+    static void writePlant(ByteBuffer out, Renderable r, long now) {
+        int kind = plantKind(r);
+        int a = 0, b = 0, c = 0;
+        long seed = 0L, age = 0L;
+        Vector3 pos;
+        switch (kind) {
+            case PLANT_TREE: {
+                entities.Arbol t = (entities.Arbol) r;
+                pos = t.getPosicion();
+                seed = t.getSeed();
+                age = now - t.getCreationTime();
+                a = t.getMaxTrunkRadius();
+                b = t.getMaxTrunkHeight();
+                c = t.getMaxCanopyRadius();
+                break;
+            }
+            case PLANT_FLOWER: {
+                entities.Flor f = (entities.Flor) r;
+                pos = f.getPosicion();
+                seed = f.getSeed();
+                age = now - f.getCreationTime();
+                a = f.getColorPetalo().getRGB();
+                break;
+            }
+            case PLANT_GRASS: {
+                entities.Pasto g = (entities.Pasto) r;
+                pos = g.getPosicion();
+                seed = g.getSeed();
+                age = now - g.getCreationTime();
+                break;
+            }
+            case PLANT_ROCK: {
+                entities.Piedra p = (entities.Piedra) r;
+                pos = p.getPosicion();
+                seed = p.getSeed();
+                break;
+            }
+            default:
+                pos = ((entities.Arbusto) r).getPosicion();
+                break;
+        }
+        out.putInt(kind).putInt(a).putLong(seed);
+        out.putDouble(pos.x).putDouble(pos.y).putDouble(pos.z);
+        out.putLong(age).putInt(b).putInt(c);
+    }
+
+    static Renderable readPlant(ByteBuffer in, long now) {
+        int kind = in.getInt();
+        int a = in.getInt();
+        long seed = in.getLong();
+        Vector3 pos = new Vector3(in.getDouble(), in.getDouble(), in.getDouble());
+        long age = in.getLong();
+        int b = in.getInt();
+        int c = in.getInt();
+        switch (kind) {
+            case PLANT_TREE: {
+                entities.Arbol t = new entities.Arbol(pos, a, b, c, seed);
+                t.setCreationTime(now - age);
+                t.update(); // etapa (y AABB) de su edad antes de entrar al spatial hash
+                return t;
+            }
+            case PLANT_FLOWER: {
+                entities.Flor f = new entities.Flor(pos, new java.awt.Color(a, true), seed);
+                f.setCreationTime(now - age);
+                f.update();
+                return f;
+            }
+            case PLANT_GRASS: {
+                entities.Pasto g = new entities.Pasto(pos, seed);
+                g.setCreationTime(now - age);
+                return g;
+            }
+            case PLANT_ROCK:
+                return new entities.Piedra(pos, seed);
+            case PLANT_BUSH:
+                return new entities.Arbusto(pos);
+            default:
+                return null;
+        }
+    }
+
+    // --- Formato de texto anterior (solo para migrar partidas viejas) ---
+
+    // Escribe el formato de texto anterior (SaveBenchmark lo usa para comparar tiempos)
+    static boolean saveLegacyText(File file, GameState state) {
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
             // Guardar metadatos de cámara
             pw.println("CAMERA:" + state.cameraPos.x + "," + state.cameraPos.y + "," + state.cameraPos.z);
             pw.println("ROTATION:" + state.cameraYaw + "," + state.cameraPitch);
@@ -43,34 +500,32 @@ public class Persistencia {
             pw.println("ENV_SEED:" + state.environmentSeed);
             pw.println("ENV_CREATED_AT:" + state.environmentCreatedAt);
             pw.println("ANIMALS_START");
-            
+
             // Guardar animales
             for (BaseAnimal a : state.animals) {
                 pw.println(a.serializeState());
             }
-            
+
             pw.println("ANIMALS_END");
-            return true;
+            return !pw.checkError();
         } catch (IOException ex) {
             ex.printStackTrace();
             return false;
         }
     }
-    
-    // Cargar estado completo de la partida
-    public static GameState loadGameState(File file) {
+
+    static GameState loadLegacyText(File file) {
         GameState state = new GameState();
-        
-        if (!file.exists()) return state;
-        
+        state.legacyFormat = true;
+
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             boolean readingAnimals = false;
-            
+
             while ((line = br.readLine()) != null) {
                 line = line.trim();
                 if (line.isEmpty()) continue;
-                
+
                 if (line.startsWith("CAMERA:")) {
                     String[] parts = line.substring(7).split(",");
                     if (parts.length == 3) {
@@ -105,8 +560,8 @@ public class Persistencia {
         } catch (IOException ex) {
             ex.printStackTrace();
         }
-        
+
+        state.creatures = new ArrayList<>(state.animals);
         return state;
     }
 }
-
@@ -0,0 +1,460 @@
+package simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import entities.BaseAnimal;
+import entities.Depredador;
+import main.Renderable;
+import math.Camera;
+import math.Vector3;
+
+/**
+ * ============================================================================================
+ * Replay - Grabación de sesiones (seed + acciones + cámara por tick) y su lectura
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * La simulación es determinista tick a tick (misma seed y mismas entradas = mismo mundo),
+ * así que para reproducir una sesión alcanza con guardar de dónde salió el mundo y qué
+ * hizo el usuario en qué tick. main.ReplayPlayer vuelve a correr la grabación sobre un
+ * Mundo nuevo, con o sin render y sin esperar al reloj de pared: es la entrada estándar
+ * de las pruebas de carga.
+ *
+ * QUÉ SE GRABA (todo con el tick del scheduler en que se aplicó):
+ * - Cabecera: seed del entorno, seed del Simulador, época de SimClock, si el mundo usa
+ *   AnimalStore y la cámara inicial. El mundo inicial se regenera desde la seed
+ *   (EcosistemaApp.populateDefaultWorld): solo se graba desde un mundo recién generado
+ * - Acciones del usuario: animales colocados (attemptSpawn), eliminados, marcados para
+ *   morir, cambios de etapa y selección del panel de info (un animal seleccionado no se
+ *   mueve, así que también es una entrada de la simulación)
+ * - Cada evolveStep del Simulador
+ * - La cámara cuando cambia (en float: no afecta la simulación, solo lo que se dibuja)
+ * - Cada HASH_TICKS ticks, el hash del estado (Mundo.stateHash): el player
+ *   compara y avisa en qué tick la reproducción se separó de la sesión
+ *
+ * Para que el tick de una acción sea exacto, todo lo que graba corre en el hilo del
+ * scheduler entre ticks (FixedStepScheduler.runBetweenTicks desde la UI y el Simulador,
+ * Recorder.frame desde RenderThread después de advance()).
+ *
+ * FORMATO (little-endian):
+ *   Cabecera (72 bytes): int MAGIC, short versión, short flags, long seed del entorno,
+ *                        long seed del Simulador, long SimClock.now() en el tick 0,
+ *                        double x, y, z, yaw, pitch de la cámara
+ *   Eventos: byte tipo, varint ticks desde el evento anterior, datos:
+ *     EVOLVE                  -
+ *     SPAWN                   byte especie (0-10), long seed, double x, y, z
+ *     REMOVE / KILL / SELECT  byte tipo de entidad, int id (SELECT: + byte seleccionado)
+ *     PHASE                   int id del animal, byte +1 / -1
+ *     CAMERA                  float x, y, z, yaw, pitch
+ *     HASH                    long hash del estado
+ *     END                     - (cierre normal; sin él se reproduce hasta el último evento
+ *                               completo)
+ *
+ * ESCRITURA:
+ * Los eventos se arman en un buffer en memoria (hilo del scheduler, sin I/O) que pasa al
+ * hilo de fondo "replay-writer" cuando se llena o cada FLUSH_NANOS. Una hora de sesión
+ * con la cámara siempre en movimiento son unos 5 MB.
+ *
+ * CONFIGURACIÓN:
+ * -Decosistema.record=ARCHIVO graba la sesión en ese archivo; con un directorio (o una
+ * ruta terminada en /) crea session-<hora>.replay adentro. Sin la propiedad no se graba.
+ *
+ * ============================================================================================
+ */
+public class Replay {
+    static final int MAGIC = 0x50455245; // "EREP" en little-endian
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 72;
+    static final short FLAG_ANIMAL_STORE = 1;
+
+    // Tipos de evento
+    public static final byte EVOLVE = 1, SPAWN = 2, REMOVE = 3, KILL = 4, PHASE = 5, SELECT = 6,
+                             CAMERA = 7, HASH = 8, END = 9;
+    // Tipos de entidad de REMOVE / KILL / SELECT
+    public static final byte KIND_ANIMAL = 0, KIND_PREDATOR = 1;
+
+    // Ticks entre hashes del estado
+    public static final int HASH_TICKS = 64;
+    private static final int CHUNK_BYTES = 1 << 16;
+    private static final long FLUSH_NANOS = 1_000_000_000L;
+
+    /** Archivo de -Decosistema.record, o null si no se graba. */
+    public static File fileFromSystemProperties() {
+        String value = System.getProperty("ecosistema.record", "").trim();
+        if (value.isEmpty() || value.equalsIgnoreCase("off") || value.equalsIgnoreCase("false")) return null;
+        File file = new File(value);
+        if (file.isDirectory() || value.endsWith("/") || value.endsWith(File.separator)) {
+            file.mkdirs();
+            return new File(file, "session-" + System.currentTimeMillis() + ".replay");
+        }
+        return file;
+    }
+
+    /** Tipo de entidad de una acción (KIND_ANIMAL / KIND_PREDATOR), o -1. */
+    public static int kindOf(Renderable e) {
+        if (e instanceof BaseAnimal) return KIND_ANIMAL;
+        if (e instanceof Depredador) return KIND_PREDATOR;
+        return -1;
+    }
+
+    /** Id de un animal o depredador (el mismo en la sesión y en su repetición). */
+    public static int idOf(Renderable e) {
+        if (e instanceof BaseAnimal) return ((BaseAnimal) e).getAnimalId();
+        if (e instanceof Depredador) return ((Depredador) e).getDepredadorId();
+        return -1;
+    }
+
+    /**
+     * La entidad del mundo con ese tipo e id, o null (la repetición ya se separó). Los
+     * animales se buscan también en getAnimals(): uno quitado con removeEntity sigue ahí
+     * (el Simulador lo puede evolucionar y el usuario, seleccionarlo otra vez).
+     */
+    public static Renderable find(Mundo mundo, int kind, int id) {
+        Mundo.Snapshot snap = mundo.getSnapshot();
+        for (int i = 0; i < snap.size(); i++) {
+            Renderable e = snap.get(i);
+            if (kindOf(e) == kind && idOf(e) == id) return e;
+        }
+        if (kind == KIND_ANIMAL) {
+            for (BaseAnimal a : mundo.getAnimals()) {
+                if (a.getAnimalId() == id) return a;
+            }
+        }
+        return null;
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * ========================================================================================
+     * Recorder - Graba una sesión desde el tick 0
+     * ========================================================================================
+     *
+     * Todos los métodos corren en el hilo del scheduler, entre ticks (los de la UI llegan por
+     * runBetweenTicks). Son synchronized solo por close(), que puede venir del shutdown hook
+     * o de la UI; después de close() no graban nada.
+     */
+    public static final class Recorder {
+        private final File file;
+        private final Mundo mundo;
+        private final FixedStepScheduler scheduler;
+        private final FileChannel out;
+        private final java.util.concurrent.ExecutorService io;
+
+        private ByteBuffer buf = newBuffer(CHUNK_BYTES);
+        private long lastTick = 0L;
+        private long nextHashTick = HASH_TICKS;
+        private boolean cameraWritten = false;
+        private float camX, camY, camZ, camYaw, camPitch;
+        private long lastFlushNanos = System.nanoTime();
+        private long events = 0L;
+        private boolean closed = false;
+        private volatile boolean failed = false;
+
+        /**
+         * Abre el archivo y escribe la cabecera. El mundo tiene que estar recién generado
+         * desde su seed (populateDefaultWorld) y el scheduler sin ticks todavía.
+         */
+        public Recorder(File file, Mundo mundo, FixedStepScheduler scheduler, long simulatorSeed, Camera cam) throws IOException {
+            if (scheduler.getTickCount() != 0) {
+                throw new IllegalStateException("la grabación empieza en el tick 0, el scheduler ya lleva " + scheduler.getTickCount());
+            }
+            this.file = file;
+            this.mundo = mundo;
+            this.scheduler = scheduler;
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) parent.mkdirs();
+            this.out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+            ByteBuffer header = newBuffer(HEADER_BYTES);
+            header.putInt(MAGIC).putShort(VERSION);
+            header.putShort(mundo.getAnimalStore() != null ? FLAG_ANIMAL_STORE : 0);
+            header.putLong(mundo.getEnvironmentSeed()).putLong(simulatorSeed).putLong(SimClock.now());
+            Vector3 pos = cam.getPosicion();
+            header.putDouble(pos.x).putDouble(pos.y).putDouble(pos.z);
+            header.putDouble(cam.getYaw()).putDouble(cam.getPitch());
+            header.flip();
+            try {
+                while (header.hasRemaining()) out.write(header);
+            } catch (IOException ex) {
+                out.close();
+                throw ex;
+            }
+
+            this.io = java.util.concurrent.Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "replay-writer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        /**
+         * Recorder sobre -Decosistema.record, o null si no se graba o no se pudo abrir el
+         * archivo (la sesión sigue sin grabar).
+         */
+        public static Recorder fromSystemProperties(Mundo mundo, FixedStepScheduler scheduler, long simulatorSeed, Camera cam) {
+            File file = fileFromSystemProperties();
+            if (file == null) return null;
+            try {
+                Recorder recorder = new Recorder(file, mundo, scheduler, simulatorSeed, cam);
+                System.out.println("[Replay] Grabando la sesión en " + file.getPath());
+                return recorder;
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("[Replay] No se puede grabar en " + file.getPath() + " (" + ex + ")");
+                return null;
+            }
+        }
+
+        public File getFile() { return file; }
+
+        /** Un evolveStep del Simulador (se graba antes de aplicarlo). */
+        public synchronized void evolve() {
+            begin(EVOLVE, 0);
+        }
+
+        /** Animal colocado por el usuario: especie, seed y posición exactas. */
+        public synchronized void spawn(int type, long seed, Vector3 pos) {
+            if (!begin(SPAWN, 33)) return;
+            buf.put((byte) type).putLong(seed).putDouble(pos.x).putDouble(pos.y).putDouble(pos.z);
+        }
+
+        /** Entidad quitada del mundo (Mundo.removeEntity). */
+        public synchronized void remove(Renderable e) {
+            entity(REMOVE, e);
+        }
+
+        /** Animal o depredador marcado para morir (animación de muerte). */
+        public synchronized void kill(Renderable e) {
+            entity(KILL, e);
+        }
+
+        /** Selección del panel de info (el seleccionado deja de moverse). */
+        public synchronized void select(Renderable e, boolean selected) {
+            if (entity(SELECT, e)) buf.put((byte) (selected ? 1 : 0));
+        }
+
+        /** Botones de etapa del panel: +1 siguiente, -1 anterior. */
+        public synchronized void phase(BaseAnimal a, int delta) {
+            if (!begin(PHASE, 5)) return;
+            buf.putInt(a.getAnimalId()).put((byte) (delta > 0 ? 1 : -1));
+        }
+
+        /**
+         * Después de cada advance()/hold() del scheduler: la cámara si se movió, el hash del
+         * estado cada HASH_TICKS ticks y, cada tanto, el buffer al hilo de escritura.
+         */
+        public synchronized void frame(Camera cam) {
+            if (closed) return;
+            long tick = scheduler.getTickCount();
+            if (tick >= nextHashTick) {
+                if (begin(HASH, 8)) buf.putLong(mundo.stateHash());
+                nextHashTick = (tick / HASH_TICKS + 1) * HASH_TICKS;
+            }
+            Vector3 pos = cam.getPosicion();
+            float x = (float) pos.x, y = (float) pos.y, z = (float) pos.z;
+            float yaw = (float) cam.getYaw(), pitch = (float) cam.getPitch();
+            if (!cameraWritten || x != camX || y != camY || z != camZ || yaw != camYaw || pitch != camPitch) {
+                if (begin(CAMERA, 20)) buf.putFloat(x).putFloat(y).putFloat(z).putFloat(yaw).putFloat(pitch);
+                camX = x; camY = y; camZ = z; camYaw = yaw; camPitch = pitch;
+                cameraWritten = true;
+            }
+            long now = System.nanoTime();
+            if (now - lastFlushNanos >= FLUSH_NANOS) {
+                flush();
+                lastFlushNanos = now;
+            }
+        }
+
+        /** Termina la grabación (END) y espera a que todo esté escrito. */
+        public void close() {
+            synchronized (this) {
+                if (closed) return;
+                begin(END, 0);
+                closed = true;
+                flush();
+                io.execute(() -> {
+                    try {
+                        out.force(false);
+                        out.close();
+                    } catch (IOException ex) {
+                        System.err.println("[Replay] Error al cerrar " + file.getName() + ": " + ex);
+                    }
+                });
+                io.shutdown();
+            }
+            try {
+                io.awaitTermination(5, java.util.concurrent.TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            System.out.println("[Replay] Sesión grabada: " + file.getPath() + " (" + events + " eventos, "
+                    + lastTick + " ticks)");
+        }
+
+        private boolean entity(byte type, Renderable e) {
+            int kind = kindOf(e);
+            if (kind < 0 || !begin(type, type == SELECT ? 6 : 5)) return false;
+            buf.put((byte) kind).putInt(idOf(e));
+            return true;
+        }
+
+        // Tipo + ticks desde el evento anterior; payload bytes de datos a continuación
+        private boolean begin(byte type, int payload) {
+            if (closed || failed) return false;
+            if (buf.remaining() < 1 + 10 + payload) flush();
+            long tick = scheduler.getTickCount();
+            buf.put(type);
+            long delta = tick - lastTick;
+            while ((delta & ~0x7FL) != 0) {
+                buf.put((byte) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            buf.put((byte) delta);
+            lastTick = tick;
+            events++;
+            return true;
+        }
+
+        private void flush() {
+            if (buf.position() == 0) return;
+            ByteBuffer chunk = buf;
+            chunk.flip();
+            buf = newBuffer(CHUNK_BYTES);
+            io.execute(() -> {
+                if (failed) return;
+                try {
+                    while (chunk.hasRemaining()) out.write(chunk);
+                } catch (IOException ex) {
+                    failed = true;
+                    System.err.println("[Replay] Error al escribir " + file.getName() + ", se deja de grabar: " + ex);
+                }
+            });
+        }
+    }
+
+    /** Un evento leído; solo tienen sentido los campos de su tipo. */
+    public static final class Event {
+        public byte type;
+        public long tick;
+        public int kind, id, species, delta;
+        public boolean selected;
+        public long seed, hash;
+        public double x, y, z;
+        public float yaw, pitch;
+    }
+
+    /**
+     * ========================================================================================
+     * Reader - Lee una grabación evento por evento
+     * ========================================================================================
+     */
+    public static final class Reader {
+        public final long environmentSeed;
+        public final long simulatorSeed;
+        public final long clockEpochMillis;
+        public final boolean animalStore;
+        public final Vector3 cameraPos;
+        public final double cameraYaw, cameraPitch;
+
+        private final ByteBuffer buf;
+        private long tick = 0L;
+        private boolean ended = false;
+        private boolean truncated = false;
+
+        private Reader(ByteBuffer buf) throws IOException {
+            this.buf = buf;
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) throw new IOException("no es una grabación");
+            short version = buf.getShort();
+            if (version > VERSION) throw new IOException("grabación de una versión más nueva (" + version + ")");
+            short flags = buf.getShort();
+            this.animalStore = (flags & FLAG_ANIMAL_STORE) != 0;
+            this.environmentSeed = buf.getLong();
+            this.simulatorSeed = buf.getLong();
+            this.clockEpochMillis = buf.getLong();
+            this.cameraPos = new Vector3(buf.getDouble(), buf.getDouble(), buf.getDouble());
+            this.cameraYaw = buf.getDouble();
+            this.cameraPitch = buf.getDouble();
+        }
+
+        public static Reader open(File file) throws IOException {
+            byte[] bytes = java.nio.file.Files.readAllBytes(file.toPath());
+            return new Reader(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN));
+        }
+
+        /** El próximo evento, o null al final (END, fin del archivo o un evento cortado). */
+        public Event next() {
+            if (ended) return null;
+            if (!buf.hasRemaining()) {
+                truncated = true;
+                ended = true;
+                return null;
+            }
+            int start = buf.position();
+            try {
+                Event e = new Event();
+                e.type = buf.get();
+                long delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = buf.get();
+                    delta |= (long) (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) break;
+                    if (shift > 56) throw new IllegalStateException("varint inválido");
+                }
+                e.tick = tick + delta;
+                switch (e.type) {
+                    case EVOLVE: break;
+                    case SPAWN:
+                        e.species = buf.get();
+                        e.seed = buf.getLong();
+                        e.x = buf.getDouble(); e.y = buf.getDouble(); e.z = buf.getDouble();
+                        break;
+                    case REMOVE:
+                    case KILL:
+                        e.kind = buf.get();
+                        e.id = buf.getInt();
+                        break;
+                    case SELECT:
+                        e.kind = buf.get();
+                        e.id = buf.getInt();
+                        e.selected = buf.get() != 0;
+                        break;
+                    case PHASE:
+                        e.id = buf.getInt();
+                        e.delta = buf.get();
+                        break;
+                    case CAMERA:
+                        e.x = buf.getFloat(); e.y = buf.getFloat(); e.z = buf.getFloat();
+                        e.yaw = buf.getFloat(); e.pitch = buf.getFloat();
+                        break;
+                    case HASH:
+                        e.hash = buf.getLong();
+                        break;
+                    case END:
+                        ended = true;
+                        break;
+                    default:
+                        throw new IllegalStateException("evento desconocido " + e.type);
+                }
+                tick = e.tick;
+                return e;
+            } catch (BufferUnderflowException | IllegalStateException ex) {
+                // La sesión terminó sin cerrar la grabación (o un evento quedó a medias)
+                buf.position(start);
+                truncated = true;
+                ended = true;
+                return null;
+            }
+        }
+
+        /** true si la grabación no terminaba en END (la sesión se cortó). */
+        public boolean isTruncated() { return truncated; }
+    }
+}
@@ -0,0 +1,352 @@
+package simulation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import main.Renderable;
+
+/**
+ * ============================================================================================
+ * SaveBenchmark - Tiempos y verificación del guardado/carga de partidas (Persistencia)
+ * ============================================================================================
+ *
+ * USO:
+ *   java -cp bin simulation.SaveBenchmark [entidades...]
+ *   java -cp bin simulation.SaveBenchmark --verify [animales] [ticks]
+ *   java -cp bin simulation.SaveBenchmark --journal [animales] [ticks] [capturas]
+ *
+ * Por cada cantidad de entidades (por defecto 1k, 10k y 100k; 1 de cada 20 es depredador),
+ * después de 60 ticks (ya sin animación de aparición), mide con el formato binario y con
+ * el de texto anterior:
+ *   copiar   - captureWorld + Persistencia.encode: lo que el guardado en segundo plano
+ *              detiene a la simulación (el hilo de render, entre ticks)
+ *   escribir - Persistencia.writeSave (archivo temporal, fsync, mover): en el hilo de fondo
+ *   guardar  - saveLegacyText para el texto (todo en el hilo que llama)
+ *   cargar   - loadGameState / loadLegacyText (decodificar y recrear las entidades)
+ *   mundo    - clearWorld + restoreEnvironment + addAll sobre el mundo
+ *   stream   - StreamingLoader.open + loadInto sobre un Mundo nuevo: hasta el primer lote
+ *              (lo cercano a la cámara, ya visible) y hasta el final
+ * y el tamaño del archivo. El texto solo guarda animales (sin depredadores ni plantas).
+ *
+ * --verify simula T ticks, guarda (encode + saveAsync, la escritura en segundo plano mientras
+ * la simulación sigue), sigue T ticks más y guarda los hashes de estado; luego
+ * carga la partida en un Mundo nuevo, simula los mismos T ticks y exige el mismo hash tick
+ * a tick (código de salida 1 si difiere): la partida cargada continúa idéntica. Lo mismo
+ * cargando con StreamingLoader.
+ *
+ * --journal corre un Autosave sobre un directorio temporal, con una captura cada
+ * ticks/capturas ticks y un checkpoint cada 6 capturas aprox. Informa el tiempo por captura
+ * y los bytes por frame contra los de un checkpoint; al final recupera (recover) y exige
+ * las mismas criaturas, con la misma fase, posición y rumbo (float), las mismas plantas
+ * (antes de la última captura se quita una y se agrega otra), que un frame final cortado se
+ * descarte sin error y que worldReplaced empiece un checkpoint nuevo.
+ *
+ * ============================================================================================
+ */
+public class SaveBenchmark {
+    static final long WORLD_SEED = UpdateBenchmark.WORLD_SEED;
+
+    public static void main(String[] args) throws Exception {
+        if(args.length > 0 && args[0].equals("--verify")){
+            int animals = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+            int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+            System.exit(verifyRoundTrip(animals, ticks) ? 0 : 1);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--journal")){
+            int animals = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+            int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 1200;
+            int captures = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+            System.exit(verifyJournal(animals, ticks, captures) ? 0 : 1);
+            return;
+        }
+        int[] sizes;
+        if(args.length > 0){
+            sizes = new int[args.length];
+            for(int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        } else {
+            sizes = new int[]{ 1_000, 10_000, 100_000 };
+        }
+        File bin = File.createTempFile("ecosistema", ".save");
+        File txt = File.createTempFile("ecosistema", ".txt");
+        try {
+            for(int n : sizes) measure(n, bin, txt);
+        } finally {
+            bin.delete();
+            txt.delete();
+        }
+    }
+
+    static void measure(int entities, File bin, File txt){
+        Mundo mundo = buildWorld(WORLD_SEED, entities);
+        // Una partida en curso: la animación de aparición (0.8 s) ya terminó
+        FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, 1);
+        for(int i = 0; i < 60; i++) scheduler.step();
+        for(int round = 0; round < 3; round++){ // la última ronda es la que se informa
+            long t0 = System.nanoTime();
+            Persistencia.GameState state = Persistencia.captureWorld(mundo);
+            java.nio.ByteBuffer encoded = Persistencia.encode(state);
+            long tc = System.nanoTime();
+            boolean ok = Persistencia.writeSave(bin, encoded);
+            long t1 = System.nanoTime();
+            Persistencia.GameState loaded = Persistencia.loadGameState(bin);
+            long t2 = System.nanoTime();
+            Mundo target = new Mundo();
+            target.setEnvironmentSeed(loaded.environmentSeed);
+            target.restoreEnvironment(loaded.plants);
+            target.addAll(loaded.creatures);
+            long t3 = System.nanoTime();
+
+            long s0 = System.nanoTime();
+            StreamingLoader stream = StreamingLoader.open(bin);
+            Mundo streamed = new Mundo();
+            streamed.setEnvironmentSeed(stream.getMeta().environmentSeed);
+            boolean streamOk = stream.loadInto(streamed);
+            long s1 = System.nanoTime();
+
+            long t4 = System.nanoTime();
+            Persistencia.saveLegacyText(txt, state);
+            long t5 = System.nanoTime();
+            Persistencia.GameState legacy = Persistencia.loadLegacyText(txt);
+            long t6 = System.nanoTime();
+            if(round < 2) continue;
+
+            System.out.printf("%7d animales: binario copiar %.1f ms, escribir %.1f ms, cargar %.1f ms, mundo %.1f ms, %.2f MB%s%n",
+                    entities, (tc - t0) / 1e6, (t1 - tc) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6, bin.length() / 1e6,
+                    ok && loaded.creatures.size() == state.creatures.size() && loaded.plants.size() == state.plants.size()
+                            ? "" : " (ERROR: no coincide)");
+            System.out.printf("%7s           stream  primer lote %.1f ms, todo %.1f ms%s%n",
+                    "", (stream.firstBatchNanos - s0) / 1e6, (s1 - s0) / 1e6,
+                    streamOk && streamed.getSnapshot().size() == target.getSnapshot().size() ? "" : " (ERROR: no coincide)");
+            System.out.printf("%7s           texto   guardar %.1f ms, cargar %.1f ms, %.2f MB (%d animales)%n",
+                    "", (t5 - t4) / 1e6, (t6 - t5) / 1e6, txt.length() / 1e6, legacy.animals.size());
+        }
+    }
+
+    static boolean verifyRoundTrip(int animals, int ticks) throws Exception {
+        File file = File.createTempFile("ecosistema", ".save");
+        try {
+            Mundo original = buildWorld(WORLD_SEED, animals);
+            FixedStepScheduler scheduler = new FixedStepScheduler(original, FixedStepScheduler.DEFAULT_HZ, 1);
+            for(int i = 0; i < ticks; i++) scheduler.step();
+            long savedHash = original.stateHash();
+            long savedAt = SimClock.now();
+            // Como en el juego: copia entre ticks y escritura en segundo plano mientras la
+            // simulación sigue (la copia no debe ver esos ticks)
+            java.util.concurrent.CompletableFuture<Boolean> saved =
+                    Persistencia.saveAsync(file, Persistencia.encode(Persistencia.captureWorld(original)));
+            long[] expected = new long[ticks];
+            for(int i = 0; i < ticks; i++){
+                scheduler.step();
+                expected[i] = original.stateHash();
+            }
+            if(!saved.get()){
+                System.out.println("ERROR: no se pudo guardar");
+                return false;
+            }
+
+            Persistencia.GameState state = Persistencia.loadGameState(file);
+            // La creación del entorno se guarda como edad: al cargar conserva la edad de cuando
+            // se guardó, corrida los ticks que el reloj avanzó desde entonces
+            long drift = state.environmentCreatedAt - original.getEnvironmentCreatedAt();
+            if(drift != SimClock.now() - savedAt){
+                System.out.println("DIFERENCIA en la edad del entorno: corrida " + drift + " ms, esperados "
+                        + (SimClock.now() - savedAt));
+                return false;
+            }
+            Mundo restored = new Mundo();
+            restored.setEnvironmentSeed(state.environmentSeed);
+            restored.setEnvironmentCreatedAt(state.environmentCreatedAt);
+            entities.BaseAnimal.setWorld(restored);
+            entities.Depredador.setWorldReference(restored);
+            restored.restoreEnvironment(state.plants);
+            restored.addAll(state.creatures);
+            if(restored.stateHash() != savedHash){
+                System.out.println("DIFERENCIA al cargar: " + restored.getSnapshot().size() + " entidades vs las guardadas");
+                return false;
+            }
+            if(!continuesIdentically(restored, expected, "cargar")) return false;
+
+            // Lo mismo cargando por streaming (lotes por cercanía, después el orden guardado)
+            StreamingLoader stream = StreamingLoader.open(file);
+            Mundo streamed = new Mundo();
+            streamed.setEnvironmentSeed(stream.getMeta().environmentSeed);
+            streamed.setEnvironmentCreatedAt(stream.getMeta().environmentCreatedAt);
+            entities.BaseAnimal.setWorld(streamed);
+            entities.Depredador.setWorldReference(streamed);
+            if(!stream.loadInto(streamed) || streamed.stateHash() != savedHash){
+                System.out.println("DIFERENCIA al cargar por streaming");
+                return false;
+            }
+            if(!continuesIdentically(streamed, expected, "cargar por streaming")) return false;
+            System.out.printf("OK: la partida cargada (completa y por streaming) sigue idéntica %d ticks (%d entidades, %d bytes, hash final %016x)%n",
+                    ticks, restored.getSnapshot().size(), file.length(), expected[ticks - 1]);
+            return true;
+        } finally {
+            file.delete();
+        }
+    }
+
+    static boolean verifyJournal(int animals, int ticks, int captures) throws Exception {
+        File dir = java.nio.file.Files.createTempDirectory("ecosistema-autosave").toFile();
+        try {
+            Mundo mundo = buildWorld(WORLD_SEED, animals);
+            FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, 1);
+            Autosave autosave = new Autosave(mundo, null, dir, 1000L, Math.max(1, animals * 6), null);
+            int every = Math.max(1, ticks / Math.max(1, captures));
+            long captureNanos = 0L;
+            int done = 0;
+            for(int i = 0; i <= ticks; i++){
+                if(i == ticks){
+                    // Una planta que desaparece y otra que crece: van al último frame
+                    for(Renderable r : mundo.snapshotEntities()){
+                        if(Persistencia.plantKind(r) != 0){ mundo.removeEntity(r); break; }
+                    }
+                    mundo.addEntity(new entities.Pasto(new math.Vector3(12.0, 0.0, -34.0), 4242L));
+                }
+                if(i % every == 0 || i == ticks){
+                    long t0 = System.nanoTime();
+                    autosave.captureNow();
+                    captureNanos += System.nanoTime() - t0;
+                    done++;
+                }
+                if(i < ticks) scheduler.step();
+            }
+            autosave.flush();
+            System.out.printf("%d capturas: %.2f ms promedio; %d frames, %.1f KB por frame; %d checkpoints de %.1f KB%n",
+                    done, captureNanos / 1e6 / done, autosave.framesWritten,
+                    autosave.frameBytes / 1024.0 / Math.max(1, autosave.framesWritten),
+                    autosave.checkpointsWritten, autosave.checkpointBytes / 1024.0 / Math.max(1, autosave.checkpointsWritten));
+            String[] left = dir.list();
+            if(left == null || left.length != 2){
+                System.out.println("ERROR: la compactación dejó " + java.util.Arrays.toString(left));
+                return false;
+            }
+
+            Persistencia.GameState state = Autosave.recover(dir);
+            if(state == null || !sameCreatures(mundo.snapshotEntities(), state.creatures)) return false;
+            if(!samePlants(Persistencia.captureWorld(mundo).plants, state.plants)) return false;
+
+            // Un cierre a mitad de un frame: el final cortado se ignora
+            File journal = null;
+            for(String name : left) if(name.startsWith("journal-")) journal = new File(dir, name);
+            try (java.io.RandomAccessFile raf = new java.io.RandomAccessFile(journal, "rw")) {
+                raf.setLength(raf.length() - 3);
+            }
+            if(Autosave.recover(dir) == null){
+                System.out.println("ERROR: no se recuperó con el último frame cortado");
+                return false;
+            }
+
+            // Otra partida cargada: la captura siguiente es un checkpoint, no un frame
+            long checkpoints = autosave.checkpointsWritten;
+            autosave.worldReplaced();
+            autosave.captureNow();
+            autosave.flush();
+            if(autosave.checkpointsWritten != checkpoints + 1){
+                System.out.println("ERROR: worldReplaced no escribió un checkpoint");
+                return false;
+            }
+            System.out.printf("OK: recuperadas %d criaturas con la misma fase, posición y rumbo, y %d plantas%n",
+                    state.creatures.size(), state.plants.size());
+            return true;
+        } finally {
+            String[] names = dir.list();
+            if(names != null) for(String name : names) new File(dir, name).delete();
+            dir.delete();
+        }
+    }
+
+    // Mismas plantas (tipo y posición), sin importar el orden
+    private static boolean samePlants(List<Renderable> world, List<Renderable> recovered){
+        java.util.Map<String, Integer> counts = new java.util.HashMap<>();
+        for(Renderable r : world) counts.merge(plantKey(r), 1, Integer::sum);
+        for(Renderable r : recovered) counts.merge(plantKey(r), -1, Integer::sum);
+        for(java.util.Map.Entry<String, Integer> e : counts.entrySet()){
+            if(e.getValue() != 0){
+                System.out.println("DIFERENCIA en plantas: " + e.getKey() + " (" + e.getValue() + ")");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String plantKey(Renderable r){
+        java.nio.ByteBuffer rec = java.nio.ByteBuffer.allocate(Persistencia.PLANT_BYTES).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        Persistencia.writePlant(rec, r, 0L);
+        int at = Persistencia.PLANT_POS_OFFSET;
+        return rec.getInt(0) + "@" + rec.getDouble(at) + "," + rec.getDouble(at + 8) + "," + rec.getDouble(at + 16);
+    }
+
+    // Mismos animales y depredadores (por id), con la misma fase, posición y rumbo en float
+    private static boolean sameCreatures(List<Renderable> world, List<Renderable> recovered){
+        java.util.Map<Long, Renderable> byKey = new java.util.HashMap<>();
+        int expected = 0;
+        for(Renderable r : recovered) byKey.put(creatureKey(r), r);
+        java.nio.ByteBuffer a = java.nio.ByteBuffer.allocate(32), b = java.nio.ByteBuffer.allocate(32);
+        for(Renderable r : world){
+            if(!(r instanceof entities.BaseAnimal) && !(r instanceof entities.Depredador)) continue;
+            expected++;
+            Renderable other = byKey.get(creatureKey(r));
+            a.clear();
+            b.clear();
+            if(other != null) motion(r, a);
+            if(other != null) motion(other, b);
+            boolean phaseOk = !(r instanceof entities.BaseAnimal) || other == null
+                    || ((entities.BaseAnimal) r).getGrowthPhase() == ((entities.BaseAnimal) other).getGrowthPhase();
+            if(other == null || !phaseOk || !a.flip().equals(b.flip())){
+                System.out.println("DIFERENCIA al recuperar la criatura " + creatureKey(r)
+                        + (other == null ? " (falta)" : !phaseOk ? " (fase)" : " (posición)"));
+                return false;
+            }
+        }
+        if(expected != byKey.size()){
+            System.out.println("DIFERENCIA al recuperar: " + byKey.size() + " criaturas, se esperaban " + expected);
+            return false;
+        }
+        return true;
+    }
+
+    private static long creatureKey(Renderable r){
+        return r instanceof entities.BaseAnimal ? ((entities.BaseAnimal) r).getAnimalId()
+                                                : (1L << 32) | ((entities.Depredador) r).getDepredadorId();
+    }
+
+    private static void motion(Renderable r, java.nio.ByteBuffer out){
+        if(r instanceof entities.BaseAnimal) ((entities.BaseAnimal) r).writeMotion(out);
+        else ((entities.Depredador) r).writeMotion(out);
+    }
+
+    private static boolean continuesIdentically(Mundo mundo, long[] expected, String how){
+        FixedStepScheduler replay = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, 1);
+        for(int i = 0; i < expected.length; i++){
+            replay.step();
+            if(mundo.stateHash() != expected[i]){
+                System.out.println("DIFERENCIA en tick " + (i + 1) + " después de " + how);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Como UpdateBenchmark.buildWorld, pero agrega los animales en un solo lote (100k+)
+    static Mundo buildWorld(long seed, int animals){
+        Mundo mundo = UpdateBenchmark.buildWorld(seed, 0);
+        Random r = new Random(seed);
+        List<Renderable> batch = new ArrayList<>(animals);
+        for(int i = 0; i < animals; i++){
+            double x = -300 + r.nextDouble() * 600;
+            double z = -300 + r.nextDouble() * 600;
+            int type = r.nextInt(20) == 0 ? 10 : r.nextInt(10);
+            long animalSeed = r.nextLong();
+            double y = mundo.getHeightAt(x, z);
+            if(y == Double.NEGATIVE_INFINITY) y = 0;
+            Renderable a = main.EcosistemaApp.createAnimalOfType(type, new math.Vector3(x, y + 20, z), animalSeed);
+            if(a instanceof entities.BaseAnimal) ((entities.BaseAnimal) a).setGrowthPhase(3);
+            if(a != null) batch.add(a);
+        }
+        mundo.addAll(batch);
+        return mundo;
+    }
+}
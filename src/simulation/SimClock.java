@@ -0,0 +1,75 @@
+package simulation;
+
+/**
+ * ============================================================================================
+ * SimClock - Reloj de simulación compartido (tiempo simulado en milisegundos)
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Todo lo que mide "cuánto tiempo pasó" en el ecosistema (crecimiento de árboles, pasto y
+ * flores, fases de los animales, tiempo en el mapa, edad del entorno) lee SimClock.now()
+ * en vez de System.currentTimeMillis(). Así la edad de las cosas depende de los ticks
+ * simulados y no del reloj de pared: con time-warp (FixedStepScheduler.setTimeScale) una
+ * hora de evolución puede simularse en un minuto, y en pausa el tiempo no corre.
+ *
+ * FUNCIONAMIENTO:
+ * - El reloj compartido (shared) empieza en la hora de pared del arranque, así los
+ *   timestamps guardados en partidas (ENV_CREATED_AT) siguen siendo comparables
+ * - FixedStepScheduler lo avanza TICK_SECONDS por tick (advanceNanos)
+ * - Es intercambiable: setShared(...) instala otro reloj, p.ej. uno con época fija para
+ *   corridas reproducibles (HeadlessApp, benchmarks) o SimClock.wall() para volver al
+ *   reloj de pared
+ *
+ * THREAD-SAFETY:
+ * Lo avanza un solo hilo (el del scheduler); los lectores ven un long volatile.
+ *
+ * ============================================================================================
+ */
+public class SimClock {
+    private static volatile SimClock shared = new SimClock(System.currentTimeMillis());
+
+    private final long epochMillis;   // hora (ms) que corresponde a tiempo simulado 0
+    private volatile long elapsedNanos = 0L;
+
+    public SimClock(long epochMillis){
+        this.epochMillis = epochMillis;
+    }
+
+    /** Tiempo simulado actual en ms, en la misma escala que System.currentTimeMillis(). */
+    public long millis(){
+        return epochMillis + elapsedNanos / 1_000_000L;
+    }
+
+    /** Avanza el reloj (lo llama el dueño de los ticks). */
+    public void advanceNanos(long nanos){
+        elapsedNanos += nanos;
+    }
+
+    /** Tiempo simulado transcurrido desde la creación del reloj, en segundos. */
+    public double elapsedSeconds(){
+        return elapsedNanos / 1e9;
+    }
+
+    /** Reloj de pared: millis() = System.currentTimeMillis() y advanceNanos no hace nada. */
+    public static SimClock wall(){
+        return new SimClock(0L){
+            @Override public long millis(){ return System.currentTimeMillis(); }
+            @Override public void advanceNanos(long nanos){ }
+            @Override public double elapsedSeconds(){ return 0.0; }
+        };
+    }
+
+    public static SimClock shared(){
+        return shared;
+    }
+
+    public static void setShared(SimClock clock){
+        if(clock == null) throw new IllegalArgumentException("clock no puede ser null");
+        shared = clock;
+    }
+
+    /** Atajo para las entidades: tiempo simulado actual del reloj compartido (ms). */
+    public static long now(){
+        return shared.millis();
+    }
+}
@@ -1,6 +1,5 @@
 package simulation;
 
-import java.util.Random;
 import java.util.List;
 import entities.BaseAnimal;
 import ui.Controles;
@@ -23,12 +22,15 @@ import ui.Controles;
  *    - Usa seed fija para generar secuencia reproducible de eventos
  *    - Misma seed = misma secuencia de mutaciones
  *    - Útil para debugging y para animación de 3 minutos sin repetición
- *    - Random(seed) + tick counter = comportamiento predecible
+ *    - Math.floorMod(seed + tick, n) = comportamiento predecible (sin Random ni estado oculto)
  * 
  * 2. MULTI-THREADING:
  *    - Hilo separado del render (no bloquea dibujado)
- *    - Sleep de 1 segundo (frecuencia de simulación más lenta que render)
+ *    - Un tick por segundo de tiempo SIMULADO (SimClock): sigue al time-warp del scheduler
  *    - Permite evolución en "tiempo real" mientras el juego corre
+ *    - Con scheduler (setScheduler) el hilo solo decide CUÁNDO evolucionar: el evolveStep
+ *      corre en el hilo del scheduler entre dos ticks (runBetweenTicks), siempre en un
+ *      tick exacto, y así una sesión grabada (Replay) lo repite en el mismo tick
  * 
  * 3. PAUSA ABSOLUTA:
  *    - Verifica controles.isPaused() y controles.isAnimalPanelOpen()
@@ -36,7 +38,7 @@ import ui.Controles;
  *    - Garantiza congelamiento total (ni evolución, ni mutaciones, ni muerte)
  * 
  * 4. SELECCIÓN DETERMINISTA:
- *    - índice = (seed + tick) % cantidad_animales
+ *    - índice = floorMod(seed + tick, cantidad_animales) (nunca negativo, aun con seed < 0)
  *    - Cada tick evoluciona un animal diferente
  *    - Secuencia predecible y uniforme (todos evolucionan eventualmente)
  * 
@@ -47,6 +49,13 @@ public class Simulador extends Thread {
     private long seed;                // Seed para determinismo
     private boolean running = true;   // Flag para detener el hilo limpiamente
     private Controles controles;      // Referencia para verificar estado de pausa
+    private long tick = 0;            // Contador de ticks (usado para selección determinista)
+    private FixedStepScheduler scheduler;         // Si no es null, evolveStep corre entre ticks
+    private volatile Replay.Recorder recorder;    // Grabación de la sesión (null = no se graba)
+    
+    // Un tick de evolución por segundo de SIMULACIÓN (SimClock), revisado cada POLL_MS reales
+    private static final long EVOLVE_INTERVAL_MS = 1000L;
+    private static final long POLL_MS = 50L;
 
     /**
      * Constructor: Inicializa el simulador con mundo y seed.
@@ -69,6 +78,19 @@ public class Simulador extends Thread {
         this.controles = controles;
     }
 
+    /**
+     * Hace que run() encole cada evolveStep en el scheduler (entre ticks) en vez de
+     * ejecutarlo en este hilo. Debe llamarse ANTES de iniciar el hilo.
+     */
+    public void setScheduler(FixedStepScheduler scheduler){
+        this.scheduler = scheduler;
+    }
+
+    /** Graba cada evolveStep pedido con requestEvolveStep (null deja de grabar). */
+    public void setRecorder(Replay.Recorder recorder){
+        this.recorder = recorder;
+    }
+
     /**
      * Detiene el hilo limpiamente (para cerrar la aplicación).
      */
@@ -91,32 +113,23 @@ public class Simulador extends Thread {
      * ========================================================================================
      * 
      * FLUJO DEL BUCLE:
-     * 1. Dormir 1 segundo (frecuencia de simulación)
+     * 1. Dormir POLL_MS (el reloj de simulación puede ir más rápido que el de pared)
      * 2. Verificar estado de pausa
-     * 3. Si NO está pausado:
-     *    a. Obtener lista de animales vivos
-     *    b. Seleccionar un animal de manera determinista
-     *    c. Aplicar evolución/mutación al animal seleccionado
-     *    d. Incrementar contador de tick
+     * 3. Si NO está pausado, pedir un evolveStep() por cada segundo SIMULADO que pasó
+     *    (SimClock): a 1x es uno por segundo; con time-warp, varios por vuelta
      * 4. Repetir hasta que shutdown() sea llamado
      * 
-     * DETERMINISMO:
-     * - Random(seed) genera siempre la misma secuencia
-     * - índice = (seed + tick) % cantidad asegura distribución uniforme
-     * - Resultado: animación reproducible de 3+ minutos
+     * Sin ventana (HeadlessApp) no se arranca el hilo: se llama a evolveStep() una vez por
+     * segundo simulado, tan rápido como dé la CPU.
      */
     @Override
     public void run(){
-        // Generador aleatorio con seed fija (determinista)
-        Random r = new Random(seed);
-        
-        // Contador de ticks (usado para selección determinista)
-        long tick = 0;
+        // Próximo segundo simulado en el que toca evolucionar
+        long nextEvolveAt = SimClock.now() + EVOLVE_INTERVAL_MS;
         
         // Bucle principal (corre hasta que shutdown() lo detenga)
         while(running){
-            // Dormir 1 segundo (frecuencia de simulación)
-            try{ Thread.sleep(1000); } catch(Exception e){}
+            try{ Thread.sleep(POLL_MS); } catch(Exception e){}
             
             // ==================================================================================
             // PAUSA ABSOLUTA: Verificar estado de pausa
@@ -133,36 +146,77 @@ public class Simulador extends Thread {
                 continue; // Saltar al siguiente sleep SIN modificar nada
             }
             
-            // Obtener lista de animales vivos (copia thread-safe)
-            List<BaseAnimal> animals = mundo.getAnimals();
-            
-            // Si no hay animales, no hacer nada (pero incrementar tick para mantener determinismo)
-            if(animals.isEmpty()) { 
-                tick++; 
-                continue; 
+            long now = SimClock.now();
+            while(now >= nextEvolveAt){
+                requestEvolveStep();
+                nextEvolveAt += EVOLVE_INTERVAL_MS;
             }
+        }
+    }
+    
+    /**
+     * Un evolveStep grabado: entre ticks si hay scheduler (se ejecuta al comienzo de su
+     * próximo advance()/hold()), si no en el hilo que llama.
+     */
+    public void requestEvolveStep(){
+        if(scheduler != null) scheduler.runBetweenTicks(this::recordedEvolveStep);
+        else recordedEvolveStep();
+    }
 
-            // ==================================================================================
-            // SELECCIÓN DETERMINISTA DE ANIMAL A EVOLUCIONAR
-            // ==================================================================================
-            // Algoritmo: índice = (seed + tick) % cantidad_animales
-            // Esto asegura que:
-            // 1. Siempre se selecciona el mismo animal en el mismo tick (reproducible)
-            // 2. Todos los animales son seleccionados eventualmente (distribución uniforme)
-            // 3. El orden es predecible (útil para debugging)
-            int idx = (int)((seed + tick) % animals.size());
-            BaseAnimal a = animals.get(idx);
-            
-            // APLICAR EVOLUCIÓN
-            // setGrowthPhase dispara la lógica de evolución del animal:
-            // - Cambio de color (mutación)
-            // - Cambio de tamaño (crecimiento)
-            // - Cambio de velocidad (mejora)
-            // - Posible muerte si hambre = 0
+    private void recordedEvolveStep(){
+        Replay.Recorder r = recorder;
+        if(r != null) r.evolve();
+        evolveStep();
+    }
+
+    /**
+     * ========================================================================================
+     * evolveStep - Un tick de evolución (lo que run() hace cada segundo)
+     * ========================================================================================
+     * 
+     * DETERMINISMO:
+     * - índice = Math.floorMod(seed + tick, cantidad): misma seed y mismo tick, mismo animal
+     * - Recorre todos los animales en rotación (distribución uniforme), sin Random
+     * - Resultado: animación reproducible de 3+ minutos
+     */
+    public void evolveStep(){
+        // Obtener lista de animales vivos (snapshot inmutable)
+        List<BaseAnimal> animals = mundo.getAnimals();
+        
+        // Si no hay animales, no hacer nada (pero incrementar tick para mantener determinismo)
+        if(animals.isEmpty()) { 
+            tick++; 
+            return; 
+        }
+
+        // ==================================================================================
+        // SELECCIÓN DETERMINISTA DE ANIMAL A EVOLUCIONAR
+        // ==================================================================================
+        // Algoritmo: índice = floorMod(seed + tick, cantidad_animales)
+        // Esto asegura que:
+        // 1. Siempre se selecciona el mismo animal en el mismo tick (reproducible)
+        // 2. Todos los animales son seleccionados eventualmente (distribución uniforme)
+        // 3. El orden es predecible (útil para debugging)
+        int idx = (int) Math.floorMod(seed + tick, (long) animals.size());
+        BaseAnimal a = animals.get(idx);
+        
+        // APLICAR EVOLUCIÓN
+        // setGrowthPhase dispara la lógica de evolución del animal:
+        // - Cambio de color (mutación)
+        // - Cambio de tamaño (crecimiento)
+        // - Cambio de velocidad (mejora)
+        // - Posible muerte si hambre = 0
+        // Con el lock del mundo: un guardado copia el estado entre ticks con ese mismo lock
+        synchronized(mundo){
             a.setGrowthPhase(a.getGrowthPhase());
-            
-            // Incrementar tick para próxima iteración
-            tick++;
         }
+        
+        // Incrementar tick para próxima iteración
+        tick++;
+    }
+    
+    /** Ticks de evolución ejecutados (los segundos simulados que lleva el Simulador). */
+    public long getTick(){
+        return tick;
     }
 }
@@ -0,0 +1,103 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import main.Renderable;
+
+/**
+ * ============================================================================================
+ * SnapshotContentionBenchmark - Contención entre hilos que agregan entidades y que las leen
+ * ============================================================================================
+ *
+ * Llena un Mundo con el entorno por defecto y arranca:
+ * - S hilos "spawner": agregan un Pasto y quitan el más viejo que agregaron (el tamaño del
+ *   mundo se mantiene estable), como el spawn de animales y las crías.
+ * - R hilos "renderer": toman el snapshot de entidades y lo recorren completo, como
+ *   RenderThread en cada frame, y consultan getHeightAt como las entidades al moverse.
+ *
+ * Modos:
+ * - snapshot:    lectura volatile del Snapshot inmutable de Mundo (comportamiento actual)
+ * - locked-copy: copia la lista bajo el monitor del Mundo en cada lectura (como antes de
+ *                los snapshots copy-on-write), para comparar
+ *
+ * USO:
+ *   java -cp bin simulation.SnapshotContentionBenchmark [snapshot|locked-copy] [spawners] [renderers] [segundos]
+ *
+ * Imprime lecturas/s, escrituras/s y cuántos snapshots distintos (epochs) se publicaron.
+ *
+ * ============================================================================================
+ */
+public class SnapshotContentionBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        String mode = args.length > 0 ? args[0] : "snapshot";
+        int spawners = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int renderers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        double seconds = args.length > 3 ? Double.parseDouble(args[3]) : 5.0;
+        boolean lockedCopy = mode.equals("locked-copy");
+        if (!lockedCopy && !mode.equals("snapshot")) {
+            System.err.println("Modo desconocido: " + mode + " (usar snapshot o locked-copy)");
+            System.exit(2);
+        }
+
+        Mundo mundo = new Mundo();
+        mundo.setEnvironmentSeed(12345L);
+        mundo.setEnvironmentCreatedAt(SimClock.now());
+        mundo.initializeEnvironment();
+        long startEpoch = mundo.getSnapshot().epoch;
+
+        java.util.concurrent.atomic.AtomicBoolean running = new java.util.concurrent.atomic.AtomicBoolean(true);
+        java.util.concurrent.atomic.LongAdder reads = new java.util.concurrent.atomic.LongAdder();
+        java.util.concurrent.atomic.LongAdder writes = new java.util.concurrent.atomic.LongAdder();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int s = 0; s < spawners; s++) {
+            final long seed = 1000L * (s + 1);
+            threads.add(new Thread(() -> {
+                java.util.Random r = new java.util.Random(seed);
+                java.util.ArrayDeque<Renderable> mine = new java.util.ArrayDeque<>();
+                while (running.get()) {
+                    entities.Pasto p = new entities.Pasto(new math.Vector3(-300 + r.nextDouble() * 600, 0, -300 + r.nextDouble() * 600), r.nextLong());
+                    mundo.addEntity(p);
+                    mine.addLast(p);
+                    if (mine.size() > 16) mundo.removeEntity(mine.removeFirst());
+                    writes.increment();
+                }
+            }, "spawner-" + s));
+        }
+
+        for (int t = 0; t < renderers; t++) {
+            threads.add(new Thread(() -> {
+                double sink = 0;
+                while (running.get()) {
+                    List<Renderable> frame;
+                    if (lockedCopy) {
+                        synchronized (mundo) { frame = new ArrayList<>(mundo.getEntities()); }
+                    } else {
+                        frame = mundo.snapshotEntities();
+                    }
+                    for (Renderable e : frame) {
+                        sink += e.hashCode() & 1;
+                    }
+                    sink += mundo.getHeightAt(sink % 100, 0);
+                    reads.increment();
+                }
+                if (sink == Double.MIN_VALUE) System.out.println(sink); // evita eliminar el loop
+            }, "renderer-" + t));
+        }
+
+        long t0 = System.nanoTime();
+        for (Thread th : threads) th.start();
+        Thread.sleep((long) (seconds * 1000));
+        running.set(false);
+        for (Thread th : threads) th.join();
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+
+        System.out.println("mode:      " + mode);
+        System.out.println("threads:   " + spawners + " spawner(s), " + renderers + " renderer(s)");
+        System.out.println("entities:  " + mundo.getSnapshot().size());
+        System.out.printf("reads/s:   %.0f%n", reads.sum() / elapsed);
+        System.out.printf("writes/s:  %.0f%n", writes.sum() / elapsed);
+        System.out.println("epochs:    " + (mundo.getSnapshot().epoch - startEpoch));
+    }
+}
@@ -0,0 +1,217 @@
+package simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import entities.BaseAnimal;
+import entities.Depredador;
+import main.Renderable;
+
+/**
+ * ============================================================================================
+ * StreamingLoader - Carga de partidas grandes por lotes desde el archivo mapeado en memoria
+ * ============================================================================================
+ *
+ * PROPÓSITO:
+ * Persistencia.loadGameState arma un GameState con todas las entidades antes de que el
+ * mundo reciba alguna: con partidas de cientos de MB eso tarda segundos con la pantalla
+ * quieta y tiene el archivo y todas las entidades en memoria a la vez. Aquí el archivo se
+ * mapea (Persistencia.map, sin copia al heap), los registros se decodifican de a lotes y
+ * cada lote entra al Mundo con un solo snapshot (Mundo.addAll) mientras el render sigue.
+ *
+ * ORDEN DE CARGA:
+ * 1. open(): cabecera, tabla de secciones y META (cámara, seeds), sin entidades
+ * 2. loadInto(): terreno; después todos los registros (animales, depredadores y plantas)
+ *    ordenados por distancia XZ a la cámara guardada. El primer lote (NEAR_BATCH) es lo que
+ *    se ve al empezar; los siguientes crecen hasta 1/BATCHES del total para que republicar
+ *    el snapshot no domine
+ * 3. Al terminar, Mundo.reorder deja el orden guardado (terreno, plantas, criaturas por
+ *    slot): el mismo que produce loadGameState, así la partida sigue idéntica
+ *
+ * CONCURRENCIA:
+ * loadInto corre en un hilo propio. Quien lo usa suspende los ticks mientras tanto
+ * (FixedStepScheduler.suspend): los apareamientos se enlazan por id entre lotes y la
+ * simulación no debe correr con la población a medias. La cámara y el render siguen.
+ *
+ * ============================================================================================
+ */
+public class StreamingLoader {
+    // Entidades del primer lote (las más cercanas a la cámara)
+    static final int NEAR_BATCH = 2048;
+    // Cantidad aproximada de lotes para el resto
+    private static final int BATCHES = 16;
+
+    private static final int KIND_ANIMAL = 0, KIND_PREDATOR = 1, KIND_PLANT = 2;
+
+    private final File file;
+    private final ByteBuffer buf;
+    private final Persistencia.GameState meta;
+    private final int[] nextIds;
+    // Por tipo: offset de la sección, bytes por registro, registros
+    private final long[] offset = new long[3];
+    private final int[] recordBytes = new int[3];
+    private final int[] count = new int[3];
+    private final int total;
+
+    private volatile int loaded = 0;
+    private volatile boolean done = false;
+    volatile long firstBatchNanos = 0L; // System.nanoTime() al publicar el primer lote (SaveBenchmark)
+
+    private StreamingLoader(File file, ByteBuffer buf, Persistencia.GameState meta, int[] nextIds, long[][] table) {
+        this.file = file;
+        this.buf = buf;
+        this.meta = meta;
+        this.nextIds = nextIds;
+        int sum = 0;
+        for (long[] section : table) {
+            int kind = kindOf((int) section[0]);
+            if (kind < 0) continue;
+            recordBytes[kind] = (int) section[1];
+            count[kind] = (int) section[2];
+            offset[kind] = section[3];
+            sum += count[kind];
+        }
+        this.total = sum;
+    }
+
+    private static int kindOf(int tag) {
+        if (tag == Persistencia.TAG_ANIMALS) return KIND_ANIMAL;
+        if (tag == Persistencia.TAG_PREDATORS) return KIND_PREDATOR;
+        if (tag == Persistencia.TAG_PLANTS) return KIND_PLANT;
+        return -1;
+    }
+
+    /**
+     * Mapea una partida binaria y lee su cabecera y META. Devuelve null si el archivo no es
+     * del formato binario (el texto anterior se carga con loadGameState), es de una versión
+     * más nueva o está dañado.
+     */
+    public static StreamingLoader open(File file) {
+        try {
+            ByteBuffer buf = Persistencia.map(file);
+            if (buf == null) return null;
+            long[][] table = Persistencia.sectionTable(buf);
+            if (table == null) return null;
+            Persistencia.GameState meta = new Persistencia.GameState();
+            int[] nextIds = { -1, -1 };
+            for (long[] section : table) {
+                if ((int) section[0] != Persistencia.TAG_META || section[2] < 1) continue;
+                buf.position((int) section[3]);
+                nextIds = Persistencia.readMeta(buf, meta, SimClock.now());
+            }
+            return new StreamingLoader(file, buf, meta, nextIds, table);
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("[Persistencia] Partida dañada: " + file.getName() + " (" + ex + ")");
+            return null;
+        }
+    }
+
+    /** Cámara, seeds y tiempo de creación del entorno (sin entidades). */
+    public Persistencia.GameState getMeta() { return meta; }
+
+    public File getFile() { return file; }
+    public int getTotal() { return total; }
+    public int getLoaded() { return loaded; }
+    public boolean isDone() { return done; }
+
+    /** Fracción cargada, en [0, 1]. */
+    public double getProgress() {
+        return total == 0 ? (done ? 1.0 : 0.0) : (double) loaded / total;
+    }
+
+    /**
+     * Agrega al mundo (ya vacío y con las seeds de getMeta) el terreno y todas las entidades
+     * de la partida, por lotes y de la más cercana a la cámara guardada a la más lejana.
+     * Bloquea hasta terminar; devuelve false si un registro no se pudo leer (lo cargado
+     * hasta ahí queda en el mundo).
+     */
+    public boolean loadInto(Mundo mundo) {
+        long now = SimClock.now();
+        mundo.restoreEnvironment(java.util.Collections.emptyList());
+
+        // Registros ordenados por distancia: (distancia² como float) << 32 | índice global
+        double cx = meta.cameraPos.x, cz = meta.cameraPos.z;
+        long[] keys = new long[total];
+        int n = 0;
+        for (int kind = 0; kind < 3; kind++) {
+            int pos = kind == KIND_ANIMAL ? BaseAnimal.STATE_POS_OFFSET
+                    : kind == KIND_PREDATOR ? Depredador.STATE_POS_OFFSET : Persistencia.PLANT_POS_OFFSET;
+            for (int i = 0; i < count[kind]; i++) {
+                int at = recordAt(kind, i);
+                double dx = buf.getDouble(at + pos) - cx, dz = buf.getDouble(at + pos + 16) - cz;
+                float d2 = (float) (dx * dx + dz * dz);
+                if (!(d2 >= 0f)) d2 = Float.MAX_VALUE; // NaN: al final
+                keys[n] = ((long) Float.floatToIntBits(d2) << 32) | n;
+                n++;
+            }
+        }
+        java.util.Arrays.sort(keys);
+
+        // Para el orden final: plantas en el orden del archivo, criaturas por slot
+        Renderable[] plants = new Renderable[count[KIND_PLANT]];
+        Renderable[] bySlot = new Renderable[count[KIND_ANIMAL] + count[KIND_PREDATOR]];
+        List<Renderable> unslotted = new ArrayList<>();
+        java.util.Map<Integer, BaseAnimal> byId = new java.util.HashMap<>();
+
+        // Los ids de la partida rigen desde el primer lote: nada creado durante la carga
+        // puede tomar un id que también trae el archivo
+        Persistencia.restoreIdCounters(nextIds);
+
+        boolean ok = true;
+        int batchSize = NEAR_BATCH;
+        int next = 0;
+        try {
+            while (next < total) {
+                int end = Math.min(total, next + batchSize);
+                List<Renderable> batch = new ArrayList<>(end - next);
+                for (; next < end; next++) {
+                    int index = (int) keys[next];
+                    int kind = index < count[KIND_ANIMAL] ? KIND_ANIMAL
+                             : index < count[KIND_ANIMAL] + count[KIND_PREDATOR] ? KIND_PREDATOR : KIND_PLANT;
+                    int i = kind == KIND_ANIMAL ? index
+                          : kind == KIND_PREDATOR ? index - count[KIND_ANIMAL]
+                          : index - count[KIND_ANIMAL] - count[KIND_PREDATOR];
+                    int at = recordAt(kind, i);
+                    buf.position(at);
+                    Renderable r;
+                    if (kind == KIND_ANIMAL) r = BaseAnimal.readState(buf, now, byId);
+                    else if (kind == KIND_PREDATOR) r = Depredador.readState(buf, now);
+                    else r = Persistencia.readPlant(buf, now);
+                    if (r == null) continue;
+                    batch.add(r);
+                    if (kind == KIND_PLANT) {
+                        plants[i] = r;
+                    } else {
+                        int slot = buf.getInt(at);
+                        if (slot >= 0 && slot < bySlot.length && bySlot[slot] == null) bySlot[slot] = r;
+                        else unslotted.add(r);
+                    }
+                }
+                mundo.addAll(batch);
+                if (firstBatchNanos == 0L) firstBatchNanos = System.nanoTime();
+                loaded = next;
+                batchSize = Math.max(NEAR_BATCH, total / BATCHES);
+            }
+        } catch (RuntimeException ex) {
+            System.err.println("[Persistencia] Partida dañada: " + file.getName() + " (" + ex + ")");
+            ok = false;
+        }
+
+        List<Renderable> order = new ArrayList<>(total);
+        for (Renderable p : plants) if (p != null) order.add(p);
+        for (Renderable c : bySlot) if (c != null) order.add(c);
+        order.addAll(unslotted);
+        mundo.reorder(order);
+        // Construir las entidades del archivo avanza los contadores: volver a los guardados
+        Persistencia.restoreIdCounters(nextIds);
+        if (ok) loaded = total;
+        done = true;
+        return ok;
+    }
+
+    private int recordAt(int kind, int i) {
+        return (int) (offset[kind] + (long) i * recordBytes[kind]);
+    }
+}
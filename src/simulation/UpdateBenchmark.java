@@ -0,0 +1,245 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.Random;
+import main.Renderable;
+
+/**
+ * ============================================================================================
+ * UpdateBenchmark - Tiempo por tick del update de entidades con 1..N hilos
+ * ============================================================================================
+ *
+ * Construye un Mundo con el entorno por defecto (seed fija, plantas ya crecidas) y A
+ * animales adultos de especies al azar (1 de cada 20 es depredador), y ejecuta T ticks de
+ * FixedStepScheduler.step() por cada cantidad de hilos pedida, reconstruyendo el mundo
+ * desde la misma seed en cada corrida.
+ *
+ * USO:
+ *   java -cp bin simulation.UpdateBenchmark [animales] [ticks] [hilos...]
+ *   java -cp bin simulation.UpdateBenchmark --verify-determinism [animales] [ticks] [hilos]
+ *   java -cp bin simulation.UpdateBenchmark --verify-replay [animales] [ticks] [hilos]
+ *   java -cp bin simulation.UpdateBenchmark --soa [ticks] [animales...]
+ *
+ * Imprime ms/tick (promedio, p50, p95) y un hash del estado final (posiciones, rumbos,
+ * apareamientos, muertes y cantidad de entidades): con la misma seed debe ser el mismo
+ * para cualquier cantidad de hilos.
+ *
+ * --verify-determinism corre con 1 hilo y con N, compara el hash tick a tick e informa el
+ * primer tick que difiera (código de salida 1 si hay diferencias).
+ *
+ * --verify-replay corre dos veces con la misma seed (y los mismos hilos) y exige posiciones
+ * idénticas tick a tick; como control, una tercera corrida con otra seed de mundo debe
+ * divergir (los streams aleatorios de las entidades dependen de ella).
+ *
+ * --soa compara, con 1 hilo y por cada cantidad de animales (por defecto 1k, 10k y 100k):
+ *   objetos  - cada BaseAnimal se simula solo (camino por defecto)
+ *   vistas   - Mundo.enableAnimalStore: AnimalStore simula, los objetos copian su fila
+ *   arreglos - solo filas de AnimalStore sin objetos (addRaw), sin depredadores
+ * e imprime ms/tick y animales actualizados por segundo. Los dos primeros crean un objeto
+ * por animal: por encima de -Decosistema.benchObjectLimit (por defecto 20000) se omiten.
+ *
+ * Cada corrida instala un SimClock con la misma época: el crecimiento de las crías avanza
+ * con los ticks, así que corridas de cualquier duración son comparables.
+ *
+ * ============================================================================================
+ */
+public class UpdateBenchmark {
+    static final long WORLD_SEED = 12345L;
+
+    public static void main(String[] args){
+        if(args.length > 0 && args[0].equals("--verify-determinism")){
+            int animals = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+            int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+            System.exit(verifyDeterminism(animals, ticks, threads) ? 0 : 1);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--verify-replay")){
+            int animals = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+            int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+            System.exit(verifyReplay(animals, ticks, threads) ? 0 : 1);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--soa")){
+            int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+            int[] sizes;
+            if(args.length > 2){
+                sizes = new int[args.length - 2];
+                for(int i = 2; i < args.length; i++) sizes[i - 2] = Integer.parseInt(args[i]);
+            } else {
+                sizes = new int[]{ 1_000, 10_000, 100_000 };
+            }
+            compareBackends(ticks, sizes);
+            return;
+        }
+        int animals = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int[] threadCounts;
+        if(args.length > 2){
+            threadCounts = new int[args.length - 2];
+            for(int i = 2; i < args.length; i++) threadCounts[i - 2] = Integer.parseInt(args[i]);
+        } else {
+            threadCounts = new int[]{ 1, Runtime.getRuntime().availableProcessors() };
+        }
+
+        System.out.println("animals: " + animals + ", ticks: " + ticks);
+        for(int threads : threadCounts){
+            Mundo mundo = buildWorld(WORLD_SEED, animals);
+            FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, threads);
+            for(int i = 0; i < 30; i++) scheduler.step(); // warmup (incluye el fin del spawn)
+
+            long[] times = new long[ticks];
+            for(int i = 0; i < ticks; i++){
+                long t0 = System.nanoTime();
+                scheduler.step();
+                times[i] = System.nanoTime() - t0;
+            }
+            long[] sorted = times.clone();
+            Arrays.sort(sorted);
+            double total = 0;
+            for(long t : times) total += t;
+            System.out.printf("threads %2d: avg %.3f ms/tick, p50 %.3f, p95 %.3f, entities %d, hash %016x%n",
+                    threads, total / ticks / 1e6, sorted[ticks / 2] / 1e6, sorted[(int) (ticks * 0.95)] / 1e6,
+                    mundo.getSnapshot().size(), mundo.stateHash());
+        }
+    }
+
+    static void compareBackends(int ticks, int[] sizes){
+        int objectLimit = Integer.getInteger("ecosistema.benchObjectLimit", 20_000);
+        System.out.println("ticks: " + ticks + ", 1 hilo");
+        for(int animals : sizes){
+            if(animals <= objectLimit){
+                Mundo mundo = buildWorld(WORLD_SEED, animals);
+                report("objetos", animals, timeTicks(new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, 1)::step, ticks));
+                mundo = null;
+                Mundo views = buildWorld(WORLD_SEED, animals);
+                views.enableAnimalStore();
+                report("vistas", animals, timeTicks(new FixedStepScheduler(views, FixedStepScheduler.DEFAULT_HZ, 1)::step, ticks));
+                views = null;
+            } else {
+                System.out.printf("%9s %7d: omitido (> ecosistema.benchObjectLimit)%n", "objetos", animals);
+                System.out.printf("%9s %7d: omitido (> ecosistema.benchObjectLimit)%n", "vistas", animals);
+            }
+            AnimalStore store = buildRawStore(WORLD_SEED, animals);
+            report("arreglos", animals, timeTicks(store::step, ticks));
+            System.out.println("          filas al final: " + store.size() + " (" + store.getBirths() + " crías)");
+        }
+    }
+
+    // ns por tick de cada uno, después de 60 ticks de calentamiento (incluye el fin del spawn)
+    private static long[] timeTicks(Runnable step, int ticks){
+        for(int i = 0; i < 60; i++) step.run();
+        long[] times = new long[ticks];
+        for(int i = 0; i < ticks; i++){
+            long t0 = System.nanoTime();
+            step.run();
+            times[i] = System.nanoTime() - t0;
+        }
+        return times;
+    }
+
+    private static void report(String label, int animals, long[] times){
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        double total = 0;
+        for(long t : times) total += t;
+        double avgMs = total / times.length / 1e6;
+        System.out.printf("%9s %7d: avg %.3f ms/tick, p50 %.3f, p95 %.3f, %.2f M animales/s%n",
+                label, animals, avgMs, sorted[times.length / 2] / 1e6, sorted[(int) (times.length * 0.95)] / 1e6,
+                animals / avgMs / 1e3);
+    }
+
+    // Mundo por defecto sin animales + filas adultas de AnimalStore (medidas de una plantilla por especie)
+    static AnimalStore buildRawStore(long seed, int animals){
+        Mundo mundo = buildWorld(seed, 0);
+        AnimalStore store = new AnimalStore(mundo);
+        entities.BaseAnimal[] templates = new entities.BaseAnimal[10];
+        for(int type = 0; type < templates.length; type++){
+            templates[type] = (entities.BaseAnimal) main.EcosistemaApp.createAnimalOfType(type, new math.Vector3(0, 0, 0), seed + type);
+        }
+        Random r = new Random(seed);
+        for(int i = 0; i < animals; i++){
+            double x = -300 + r.nextDouble() * 600;
+            double z = -300 + r.nextDouble() * 600;
+            store.addRaw(templates[r.nextInt(templates.length)], x, z, r.nextLong(), 3);
+        }
+        return store;
+    }
+
+    static boolean verifyDeterminism(int animals, int ticks, int threads){
+        long[] serial = runHashes(WORLD_SEED, animals, ticks, 1);
+        long[] parallel = runHashes(WORLD_SEED, animals, ticks, threads);
+        for(int i = 0; i < ticks; i++){
+            if(serial[i] != parallel[i]){
+                System.out.println("DIFERENCIA en tick " + (i + 1) + ": 1 hilo " + Long.toHexString(serial[i])
+                        + " vs " + threads + " hilos " + Long.toHexString(parallel[i]));
+                return false;
+            }
+        }
+        System.out.printf("OK: %d ticks idénticos con 1 y %d hilos (hash final %016x)%n", ticks, threads, serial[ticks - 1]);
+        return true;
+    }
+
+    static boolean verifyReplay(int animals, int ticks, int threads){
+        long[] first = runHashes(WORLD_SEED, animals, ticks, threads);
+        long[] replay = runHashes(WORLD_SEED, animals, ticks, threads);
+        for(int i = 0; i < ticks; i++){
+            if(first[i] != replay[i]){
+                System.out.println("DIFERENCIA en tick " + (i + 1) + " entre dos corridas con seed " + WORLD_SEED);
+                return false;
+            }
+        }
+        // Control: mismo escenario (mismos animales y posiciones) con otra seed de mundo
+        long[] other = runHashes(WORLD_SEED, WORLD_SEED + 1, animals, ticks, threads);
+        if(other[ticks - 1] == first[ticks - 1]){
+            System.out.println("ERROR: otra seed de mundo produjo el mismo estado (los streams no dependen de ella)");
+            return false;
+        }
+        System.out.printf("OK: replay idéntico en %d ticks con %d animales (hash final %016x, otra seed %016x)%n",
+                ticks, animals, first[ticks - 1], other[ticks - 1]);
+        return true;
+    }
+
+    private static long[] runHashes(long seed, int animals, int ticks, int threads){
+        return runHashes(seed, seed, animals, ticks, threads);
+    }
+
+    // sceneSeed: terreno, vegetación y animales; worldSeed: la seed que ven los streams
+    private static long[] runHashes(long sceneSeed, long worldSeed, int animals, int ticks, int threads){
+        Mundo mundo = buildWorld(sceneSeed, animals);
+        mundo.setEnvironmentSeed(worldSeed);
+        FixedStepScheduler scheduler = new FixedStepScheduler(mundo, FixedStepScheduler.DEFAULT_HZ, threads);
+        long[] hashes = new long[ticks];
+        for(int i = 0; i < ticks; i++){
+            scheduler.step();
+            hashes[i] = mundo.stateHash();
+        }
+        return hashes;
+    }
+
+    // Mundo por defecto + animales adultos en posiciones al azar (todo derivado de seed)
+    static Mundo buildWorld(long seed, int animals){
+        SimClock.setShared(new SimClock(1_000_000_000_000L));
+        Mundo mundo = new Mundo();
+        mundo.setEnvironmentSeed(seed);
+        mundo.setEnvironmentCreatedAt(1L); // plantas completamente crecidas: no cambian durante la corrida
+        mundo.initializeEnvironment();
+        entities.BaseAnimal.setWorld(mundo);
+        entities.Depredador.setWorldReference(mundo);
+
+        Random r = new Random(seed);
+        for(int i = 0; i < animals; i++){
+            double x = -300 + r.nextDouble() * 600;
+            double z = -300 + r.nextDouble() * 600;
+            int type = r.nextInt(20) == 0 ? 10 : r.nextInt(10);
+            long animalSeed = r.nextLong();
+            double y = mundo.getHeightAt(x, z);
+            if(y == Double.NEGATIVE_INFINITY) y = 0;
+            Renderable a = main.EcosistemaApp.createAnimalOfType(type, new math.Vector3(x, y + 20, z), animalSeed);
+            if(a instanceof entities.BaseAnimal) ((entities.BaseAnimal) a).setGrowthPhase(3);
+            if(a != null) mundo.addEntity(a);
+        }
+        return mundo;
+    }
+}